@@ -23,15 +23,22 @@ import java.io.IOException;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.HashSet;
+import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * @author Fabian Trautsch
  */
 public class FileNameUtils {
+    // Instances for the current run, keyed by project directory and language
+    private static final Map<String, FileNameUtils> INSTANCES = new ConcurrentHashMap<>();
+
     private GeneralConfiguration configuration;
     private Set<Path> filesWithoutProjectDir = new HashSet<>();
+    private JavaSourceIndex javaSourceIndex;
 
     @SuppressFBWarnings("DM_EXIT")
     public FileNameUtils(GeneralConfiguration configuration) {
@@ -52,17 +59,54 @@ public class FileNameUtils {
             e.printStackTrace();
             System.exit(1);
         }
+
+        // Java classes are resolved via an index that is built once, as this is done for a lot of classes
+        this.javaSourceIndex = new JavaSourceIndex(
+                configuration.getLanguage().equals("python") ? Collections.emptySet() : filesWithoutProjectDir,
+                configuration.getProjectDir());
     }
 
-    private Set<Path> getAllFilesFromProjectForConfiguration() throws FileNotFoundException {
-        String language = configuration.getLanguage();
-        String regex = ".*\\.java";
-        if (language.equals("python")) {
-            regex = ".*\\.py";
-        }
+    /**
+     * Returns the shared instance for the project directory and language of the given configuration. It is created
+     * on the first call, so that the project is only walked once per run, regardless how many loaders, collectors,
+     * and data sets need it.
+     * @param configuration general configuration of the run
+     * @return shared instance for the project
+     */
+    public static FileNameUtils getInstance(GeneralConfiguration configuration) {
+        return INSTANCES.computeIfAbsent(getKey(configuration), key -> new FileNameUtils(configuration));
+    }
+
+    /**
+     * Walks the project again and replaces the shared instance (and the {@link ProjectFileManifest} of the project),
+     * e.g., if files were added or removed during the run.
+     * @param configuration general configuration of the run
+     * @return new shared instance for the project
+     * @throws IOException if the project directory could not be walked
+     */
+    public static FileNameUtils refresh(GeneralConfiguration configuration) throws IOException {
+        ProjectFileManifest.refresh(configuration.getProjectDir());
+        FileNameUtils fileNameUtils = new FileNameUtils(configuration);
+        INSTANCES.put(getKey(configuration), fileNameUtils);
+        return fileNameUtils;
+    }
 
+    /**
+     * Removes all shared instances. This is done at the start of each run, together with clearing the
+     * {@link ProjectFileManifest} instances.
+     */
+    public static void clearInstances() {
+        INSTANCES.clear();
+    }
+
+    private static String getKey(GeneralConfiguration configuration) {
+        return configuration.getProjectDir().toAbsolutePath().normalize() + ":" + configuration.getLanguage();
+    }
+
+    private Set<Path> getAllFilesFromProjectForConfiguration() throws FileNotFoundException {
         try {
-            return Utils.getAllFilesFromProjectForRegex(configuration.getProjectDir(), regex);
+            return ProjectFileManifest.getInstance(configuration.getProjectDir())
+                    .getSourceFiles(configuration.getLanguage());
         } catch (IOException e) {
             throw new FileNotFoundException("Could not load Java Files! " + e);
         }
@@ -74,9 +118,8 @@ public class FileNameUtils {
     }
 
     public Path getPathForJavaClassFQN(String fullyQualifiedName) throws FileNotFoundException {
-        return Utils.getPathForFullyQualifiedClassNameInSetOfPaths(filesWithoutProjectDir,
-                fullyQualifiedName.replace(configuration.getProjectDir().toString(), ""),
-                configuration.getProjectDir());
+        return javaSourceIndex.getPathForFullyQualifiedClassName(
+                fullyQualifiedName.replace(configuration.getProjectDir().toString(), ""));
     }
 
     public Path getPathForPythonModuleFQN(String fullyQualifiedName) throws FileNotFoundException {
@@ -101,9 +144,8 @@ public class FileNameUtils {
                 String testWithoutAttributes = identifier.split("\\[")[0];
                 String[] testParts = testWithoutAttributes.split("\\.");
                 String testFileName = String.join(".", Arrays.copyOfRange(testParts, 0, testParts.length - 1));
-                return Utils.getPathForFullyQualifiedClassNameInSetOfPaths(filesWithoutProjectDir,
-                        testFileName.replace(configuration.getProjectDir().toString(), ""),
-                        configuration.getProjectDir());
+                return javaSourceIndex.getPathForFullyQualifiedClassName(
+                        testFileName.replace(configuration.getProjectDir().toString(), ""));
             } else {
                 return getPathForJavaClassFQN(identifier);
             }
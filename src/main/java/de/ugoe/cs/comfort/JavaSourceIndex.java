@@ -0,0 +1,226 @@
+/*
+ * Copyright (C) 2017 University of Goettingen, Germany
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package de.ugoe.cs.comfort;
+
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+/**
+ * Index from class names to the java source files they are declared in. It is built once and afterwards answers each
+ * lookup with a few hash map accesses, instead of scanning all files (and reading their content) for every class.
+ *
+ * The index has the same semantics as {@link Utils#getPathForFullyQualifiedClassNameInSetOfPaths(Set, String, Path)}:
+ * a class is mapped to the longest path that ends with its name (or the name of one of its outer classes), where the
+ * path is only matched at directory boundaries. If there is no such file, the class is looked up in the top-level
+ * type declarations of the files in a matching directory, which are collected by one token scan of each file.
+ *
+ * Instances are immutable and can be shared across threads.
+ *
+ * @author Fabian Trautsch
+ */
+public class JavaSourceIndex {
+    private static final Logger LOGGER = LogManager.getLogger(JavaSourceIndex.class.getName());
+    private static final String JAVA_EXTENSION = ".java";
+
+    private final Map<String, Path> filesBySuffix;
+    private final Map<String, Path> declaredTypesBySuffix;
+
+    /**
+     * Creates the index for the given java files.
+     * @param javaFiles java files, either absolute or relative to {@code projectRoot}
+     * @param projectRoot root of the project, which is used to read relative files
+     */
+    public JavaSourceIndex(Collection<Path> javaFiles, Path projectRoot) {
+        Map<String, Path> files = new HashMap<>();
+        Map<String, Path> declaredTypes = new HashMap<>();
+        for(Path javaFile : javaFiles) {
+            String fileName = javaFile.toString();
+            for(String suffix : getSuffixes(fileName)) {
+                files.merge(suffix, javaFile, JavaSourceIndex::longerPath);
+            }
+
+            int pos = fileName.lastIndexOf('/');
+            String directory = pos == -1 ? "" : fileName.substring(0, pos);
+            for(String typeName : getTopLevelTypeNames(resolve(javaFile, projectRoot))) {
+                declaredTypes.merge(typeName, javaFile, JavaSourceIndex::longerPath);
+                if(!directory.isEmpty()) {
+                    for(String suffix : getSuffixes(directory)) {
+                        declaredTypes.merge(suffix + "/" + typeName, javaFile, JavaSourceIndex::longerPath);
+                    }
+                }
+            }
+        }
+        this.filesBySuffix = Collections.unmodifiableMap(files);
+        this.declaredTypesBySuffix = Collections.unmodifiableMap(declaredTypes);
+        LOGGER.debug("Indexed {} java files with {} declared types.", javaFiles.size(), declaredTypes.size());
+    }
+
+    /**
+     * Returns the source file in which the class with the given name is declared.
+     * @param fullyQualifiedClassName fully qualified name of the class, inner classes are separated by $
+     * @return path of the source file
+     * @throws FileNotFoundException if there is no source file for the class
+     */
+    public Path getPathForFullyQualifiedClassName(String fullyQualifiedClassName) throws FileNotFoundException {
+        // Same possible names as in Utils, i.e., the name itself and the names of all outer classes
+        Set<String> possibleNames = new LinkedHashSet<>();
+        possibleNames.add(fullyQualifiedClassName.replace(".", "/"));
+        String[] parts = fullyQualifiedClassName.split("\\$");
+        for(int i=0; i<parts.length; i++) {
+            possibleNames.add(String.join("$", Arrays.copyOfRange(parts, 0, parts.length-i)).replace(".", "/"));
+        }
+
+        Path bestFit = null;
+        for(String possibleName : possibleNames) {
+            bestFit = longerPath(bestFit, filesBySuffix.get(possibleName + JAVA_EXTENSION));
+        }
+
+        if(bestFit == null) {
+            // The class can be declared as additional top-level type in another source file of the same package
+            for(String possibleName : possibleNames) {
+                bestFit = longerPath(bestFit, declaredTypesBySuffix.get(possibleName));
+            }
+        }
+
+        if(bestFit == null) {
+            throw new FileNotFoundException("File for class "+fullyQualifiedClassName+" was not found!");
+        }
+        LOGGER.debug("{} is best fit for {}", bestFit, fullyQualifiedClassName);
+        return bestFit;
+    }
+
+    private static List<String> getSuffixes(String name) {
+        List<String> suffixes = new ArrayList<>();
+        suffixes.add(name);
+        for(int i=0; i<name.length(); i++) {
+            if(name.charAt(i) == '/' && i+1 < name.length()) {
+                suffixes.add(name.substring(i+1));
+            }
+        }
+        return suffixes;
+    }
+
+    private static Path longerPath(Path first, Path second) {
+        if(first == null) {
+            return second;
+        }
+        if(second == null) {
+            return first;
+        }
+        return second.toString().length() > first.toString().length() ? second : first;
+    }
+
+    private static Path resolve(Path javaFile, Path projectRoot) {
+        if(projectRoot == null || javaFile.startsWith(projectRoot)) {
+            return javaFile;
+        }
+        return Paths.get(projectRoot.toString(), javaFile.toString());
+    }
+
+    private static List<String> getTopLevelTypeNames(Path javaFile) {
+        try {
+            return getTopLevelTypeNames(new String(Files.readAllBytes(javaFile), StandardCharsets.UTF_8));
+        } catch (IOException e) {
+            LOGGER.warn("Could not read java file {}", javaFile);
+            return Collections.emptyList();
+        }
+    }
+
+    /**
+     * Collects the names of all top-level classes, interfaces, and enums that are declared in the given source code.
+     * Comments, string literals, and character literals are skipped.
+     * @param source java source code
+     * @return names of the declared top-level types
+     */
+    static List<String> getTopLevelTypeNames(String source) {
+        List<String> typeNames = new ArrayList<>();
+        int depth = 0;
+        String previousToken = "";
+        boolean expectTypeName = false;
+        int i = 0;
+        while(i < source.length()) {
+            char c = source.charAt(i);
+            if(c == '/' && i+1 < source.length() && source.charAt(i+1) == '/') {
+                int end = source.indexOf('\n', i);
+                i = end == -1 ? source.length() : end + 1;
+            } else if(c == '/' && i+1 < source.length() && source.charAt(i+1) == '*') {
+                int end = source.indexOf("*/", i+2);
+                i = end == -1 ? source.length() : end + 2;
+            } else if(c == '"' || c == '\'') {
+                i = skipLiteral(source, i, c);
+                previousToken = String.valueOf(c);
+            } else if(Character.isJavaIdentifierStart(c)) {
+                int start = i;
+                while(i < source.length() && Character.isJavaIdentifierPart(source.charAt(i))) {
+                    i++;
+                }
+                String token = source.substring(start, i);
+                if(expectTypeName) {
+                    typeNames.add(token);
+                    expectTypeName = false;
+                } else if(depth == 0 && !previousToken.equals(".")
+                        && (token.equals("class") || token.equals("interface") || token.equals("enum"))) {
+                    expectTypeName = true;
+                }
+                previousToken = token;
+            } else {
+                if(c == '{') {
+                    depth++;
+                } else if(c == '}') {
+                    depth = Math.max(0, depth - 1);
+                }
+                if(!Character.isWhitespace(c)) {
+                    previousToken = String.valueOf(c);
+                    expectTypeName = false;
+                }
+                i++;
+            }
+        }
+        return typeNames;
+    }
+
+    private static int skipLiteral(String source, int start, char quote) {
+        int i = start + 1;
+        while(i < source.length()) {
+            char c = source.charAt(i);
+            if(c == '\\') {
+                i += 2;
+            } else if(c == quote || c == '\n') {
+                return i + 1;
+            } else {
+                i++;
+            }
+        }
+        return i;
+    }
+}
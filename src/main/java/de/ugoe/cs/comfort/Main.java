@@ -61,6 +61,10 @@ public class Main {
             // SetUp Logging
             setupLogging(config);
 
+            // Files of the project may have changed since a former run in this JVM
+            ProjectFileManifest.clearInstances();
+            FileNameUtils.clearInstances();
+
             // Get collections that should be done
             List<CollectionConfiguration> collections = config.getCollections();
 
@@ -84,6 +88,8 @@ public class Main {
                         data = filter.filterData(data);
                         LOGGER.info("Filtering successful...");
                     }
+                    // Filters only create views of the loaded data, which are resolved once at the end of the chain
+                    data.materialize();
 
                     // Then, execute the metric collection
                     List<BaseMetricCollector> collectors = collection.getMetricCollectors(config, filer);
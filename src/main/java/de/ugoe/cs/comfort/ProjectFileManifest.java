@@ -0,0 +1,211 @@
+/*
+ * Copyright (C) 2017 University of Goettingen, Germany
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package de.ugoe.cs.comfort;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.LinkOption;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+/**
+ * Manifest of the java, class, and python files of a project. The project directory is walked only once (in parallel
+ * across its subdirectories) and the files are classified by their extension. Directories of virtual environments,
+ * git metadata, and reports in target directories (e.g., target/pit-reports) are skipped.
+ *
+ * Manifests are cached per project directory for the whole run. If the project is changed during the run, the
+ * manifest needs to be refreshed via {@link #refresh(Path)}.
+ *
+ * @author Fabian Trautsch
+ */
+public class ProjectFileManifest {
+    private static final Logger LOGGER = LogManager.getLogger(ProjectFileManifest.class.getName());
+    private static final Map<Path, ProjectFileManifest> INSTANCES = new ConcurrentHashMap<>();
+
+    private final Set<Path> javaFiles;
+    private final Set<Path> classFiles;
+    private final Set<Path> pythonFiles;
+
+    private ProjectFileManifest(Set<Path> javaFiles, Set<Path> classFiles, Set<Path> pythonFiles) {
+        this.javaFiles = Collections.unmodifiableSet(javaFiles);
+        this.classFiles = Collections.unmodifiableSet(classFiles);
+        this.pythonFiles = Collections.unmodifiableSet(pythonFiles);
+    }
+
+    /**
+     * Returns the cached manifest of the given project directory. It is created on the first call. Manifests are shared
+     * between all spellings of the same directory (e.g., relative and absolute paths).
+     * @param projectDir directory of the project
+     * @return manifest of the project
+     * @throws IOException if the project directory could not be walked
+     */
+    public static ProjectFileManifest getInstance(Path projectDir) throws IOException {
+        try {
+            return INSTANCES.computeIfAbsent(getKey(projectDir), key -> buildUnchecked(projectDir));
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    /**
+     * Walks the given project directory again and replaces the cached manifest.
+     * @param projectDir directory of the project
+     * @return new manifest of the project
+     * @throws IOException if the project directory could not be walked
+     */
+    public static ProjectFileManifest refresh(Path projectDir) throws IOException {
+        ProjectFileManifest manifest = build(projectDir);
+        INSTANCES.put(getKey(projectDir), manifest);
+        return manifest;
+    }
+
+    /**
+     * Removes all cached manifests. This is done at the start of each run, so that a run never uses the files of a
+     * former run in the same JVM.
+     */
+    public static void clearInstances() {
+        INSTANCES.clear();
+    }
+
+    /**
+     * Walks the given project directory and creates a new manifest, without caching it.
+     * @param projectDir directory of the project
+     * @return manifest of the project
+     * @throws IOException if the project directory could not be walked
+     */
+    public static ProjectFileManifest build(Path projectDir) throws IOException {
+        Set<Path> javaFiles = new HashSet<>();
+        Set<Path> classFiles = new HashSet<>();
+        Set<Path> pythonFiles = new HashSet<>();
+        try {
+            for(Path file : ForkJoinPool.commonPool().invoke(new DirectoryWalker(projectDir))) {
+                String fileName = file.getFileName().toString();
+                if(fileName.endsWith(".java")) {
+                    javaFiles.add(file);
+                } else if(fileName.endsWith(".class")) {
+                    classFiles.add(file);
+                } else if(fileName.endsWith(".py")) {
+                    pythonFiles.add(file);
+                }
+            }
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+
+        LOGGER.debug("Found {} java files, {} class files, and {} python files in {}.", javaFiles.size(),
+                classFiles.size(), pythonFiles.size(), projectDir);
+        return new ProjectFileManifest(javaFiles, classFiles, pythonFiles);
+    }
+
+    private static Path getKey(Path projectDir) {
+        return projectDir.toAbsolutePath().normalize();
+    }
+
+    private static ProjectFileManifest buildUnchecked(Path projectDir) {
+        try {
+            return build(projectDir);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static boolean isSkipped(Path directory) {
+        String name = directory.getFileName().toString();
+        if(name.equals("venv") || name.equals(".git")) {
+            return true;
+        }
+        Path parent = directory.getParent();
+        return name.endsWith("-reports") && parent != null && parent.getFileName() != null
+                && parent.getFileName().toString().equals("target");
+    }
+
+    public Set<Path> getJavaFiles() {
+        return javaFiles;
+    }
+
+    public Set<Path> getClassFiles() {
+        return classFiles;
+    }
+
+    public Set<Path> getPythonFiles() {
+        return pythonFiles;
+    }
+
+    /**
+     * Returns the source code files for the given language.
+     * @param language language of the project (java or python)
+     * @return python files for python projects, java files otherwise
+     */
+    public Set<Path> getSourceFiles(String language) {
+        return language.equals("python") ? pythonFiles : javaFiles;
+    }
+
+    /**
+     * Collects all regular files of one directory and forks a new task for each of its subdirectories.
+     */
+    private static class DirectoryWalker extends RecursiveTask<List<Path>> {
+        private static final long serialVersionUID = 1L;
+
+        private final Path directory;
+
+        DirectoryWalker(Path directory) {
+            this.directory = directory;
+        }
+
+        @Override
+        protected List<Path> compute() {
+            List<Path> files = new ArrayList<>();
+            List<DirectoryWalker> subTasks = new ArrayList<>();
+            try (DirectoryStream<Path> stream = Files.newDirectoryStream(directory)) {
+                for(Path entry : stream) {
+                    BasicFileAttributes attributes = Files.readAttributes(entry, BasicFileAttributes.class,
+                            LinkOption.NOFOLLOW_LINKS);
+                    if(attributes.isDirectory()) {
+                        if(!isSkipped(entry)) {
+                            DirectoryWalker subTask = new DirectoryWalker(entry);
+                            subTask.fork();
+                            subTasks.add(subTask);
+                        }
+                    } else if(attributes.isRegularFile()) {
+                        files.add(entry);
+                    }
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+
+            for(DirectoryWalker subTask : subTasks) {
+                files.addAll(subTask.join());
+            }
+            return files;
+        }
+    }
+}
@@ -69,16 +69,6 @@ public class Utils {
         return String.join(".", Arrays.copyOfRange(parts, 0, parts.length-1));
     }
 
-    public static Set<Path> getAllFilesFromProjectForRegex(Path projectDir, String regex) throws IOException {
-        Set<Path> javaFiles = new HashSet<>();
-        Files.find(
-                projectDir,
-                999,
-                (p, bfa) -> bfa.isRegularFile() && p.getFileName().toString().matches(regex)
-        ).forEach(javaFiles::add);
-        return javaFiles;
-    }
-
     public static Set<Path> getAllFilesFromProjectForRegexWithoutProjectDirPath(Path projectDir,
                                                                                 String regex) throws  IOException {
         Set<Path> files = new HashSet<>();
@@ -16,15 +16,11 @@
 
 package de.ugoe.cs.comfort.collection.filter;
 
-import com.google.common.graph.EndpointPair;
 import de.ugoe.cs.comfort.annotations.SupportsJava;
 import de.ugoe.cs.comfort.annotations.SupportsPython;
 import de.ugoe.cs.comfort.configuration.GeneralConfiguration;
-import de.ugoe.cs.comfort.data.graphs.CallEdge;
 import de.ugoe.cs.comfort.data.graphs.CallGraph;
 import de.ugoe.cs.comfort.data.graphs.DependencyGraph;
-import de.ugoe.cs.comfort.data.models.IUnit;
-import java.util.Set;
 
 /**
  * @author Fabian Trautsch
@@ -38,36 +34,14 @@ public class DirectConnectionToTestFilter extends BaseFilter {
     @SupportsJava
     @SupportsPython
     public CallGraph filter(CallGraph callGraph) {
-        CallGraph filteredCallGraph = callGraph.getCopyOfGraph();
-
         // If the source is not a test -> delete the edge, because we only want to have the direct connections to tests
-        Set<CallEdge> edgesToIterateOver = callGraph.edges();
-        edgesToIterateOver.forEach(edge -> {
-            if(!edge.getCaller().isTestBasedOnFQNofUnit()) {
-                filteredCallGraph.removeEdge(edge);
-            }
-        });
-
-        filteredCallGraph.cleanGraphOfNodesThatAreSingle();
-
-        return filteredCallGraph;
+        return callGraph.filter(node -> true, edge -> edge.getCaller().isTestBasedOnFQNofUnit());
     }
 
     @SupportsJava
     @SupportsPython
     public DependencyGraph filter(DependencyGraph dependencyGraph) {
-        DependencyGraph filteredDependencyGraph = dependencyGraph.getCopyOfGraph();
-
         // If the source is not a test -> delete the edge, because we only want to have the direct connections to tests
-        Set<EndpointPair<IUnit>> edgesToIterateOver = dependencyGraph.edges();
-        edgesToIterateOver.forEach(edge -> {
-            if(!edge.source().isTestBasedOnFQNofUnit()) {
-                filteredDependencyGraph.removeEdge(edge.source(), edge.target());
-            }
-        });
-
-        filteredDependencyGraph.cleanGraphOfNodesThatAreSingle();
-
-        return filteredDependencyGraph;
+        return dependencyGraph.filter(node -> true, edge -> edge.source().isTestBasedOnFQNofUnit());
     }
 }
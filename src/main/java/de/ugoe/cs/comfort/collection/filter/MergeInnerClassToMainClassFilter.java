@@ -16,13 +16,13 @@
 
 package de.ugoe.cs.comfort.collection.filter;
 
-import com.google.common.graph.Graph;
 import de.ugoe.cs.comfort.annotations.SupportsJava;
 import de.ugoe.cs.comfort.configuration.GeneralConfiguration;
 import de.ugoe.cs.comfort.data.graphs.DependencyGraph;
 import de.ugoe.cs.comfort.data.models.IUnit;
 import de.ugoe.cs.comfort.data.models.JavaClass;
-import java.util.Optional;
+import java.util.HashMap;
+import java.util.Map;
 
 /**
  * @author Fabian Trautsch
@@ -35,54 +35,25 @@ public class MergeInnerClassToMainClassFilter extends BaseFilter{
 
     @SupportsJava
     public DependencyGraph filter(DependencyGraph dependencyGraph) {
-        DependencyGraph filteredDependencyGraph = dependencyGraph.getCopyOfGraph();
-
-        dependencyGraph.edges().forEach(
-                edge -> {
-                    JavaClass source = (JavaClass) edge.source();
-                    JavaClass target = (JavaClass) edge.target();
-                    if(source.isInnerClass() || target.isInnerClass()) {
-                        if(source.isInnerClass() && !target.isInnerClass()) {
-                            logger.debug("Source {} is an inner class.", source);
-                            Optional<IUnit> baseClass = getBaseClassForInnerClass(dependencyGraph, source);
-                            if(baseClass.isPresent()) {
-                                filteredDependencyGraph.putEdge(baseClass.get(), target);
-                                logger.debug("Putting edge between {} and {}", baseClass.get(), target);
-                            }
-                        } else if(!source.isInnerClass() && target.isInnerClass()) {
-                            logger.debug("Target {} is an inner class.", target);
-                            Optional<IUnit> baseClass = getBaseClassForInnerClass(dependencyGraph, target);
-                            if(baseClass.isPresent()) {
-                                filteredDependencyGraph.putEdge(source, baseClass.get());
-                                logger.debug("Putting edge between {} and {}", source, baseClass.get());
-                            }
-                        } else if(source.isInnerClass() && target.isInnerClass()) {
-                            logger.debug("Source {} and Target {} are inner classes.", source, target);
-                            Optional<IUnit> baseClassSrc = getBaseClassForInnerClass(dependencyGraph, source);
-                            Optional<IUnit> baseClassTarget = getBaseClassForInnerClass(dependencyGraph, target);
-                            if(baseClassSrc.isPresent() && baseClassTarget.isPresent()) {
-                                filteredDependencyGraph.putEdge(baseClassSrc.get(), baseClassTarget.get());
-                                logger.debug("Putting edge between {} and {}", baseClassSrc.get(),
-                                        baseClassTarget.get());
-                            }
-                        }
-                        filteredDependencyGraph.removeEdge(source, target);
-                        logger.debug("Removing edge between {} and {}", source, target);
-                    }
-                }
-        );
-
-        // Go through all nodes and check if they have any connections left. If not -> put them in a list to remove
-        filteredDependencyGraph.cleanGraphOfNodesThatAreSingle();
-
-        return filteredDependencyGraph;
+        // Index all classes by their fully qualified name, so that the base class of an inner class is found directly
+        Map<String, IUnit> classesByFQN = new HashMap<>();
+        dependencyGraph.nodes().forEach(node -> classesByFQN.putIfAbsent(node.getFQNOfUnit(), node));
+
+        // Replace each inner class by its base class. If the base class is not part of the graph, the edges of the
+        // inner class are removed
+        return dependencyGraph.contractNodes(node -> {
+            JavaClass javaClass = (JavaClass) node;
+            if(!javaClass.isInnerClass()) {
+                return javaClass;
+            }
+
+            IUnit baseClass = classesByFQN.get(getBaseClassName(javaClass));
+            logger.debug("Baseclass of {} is {}", javaClass, baseClass);
+            return baseClass;
+        });
     }
 
-    private Optional<IUnit> getBaseClassForInnerClass(Graph<IUnit> graph, JavaClass node) {
-        String baseClass = node.getFQNOfUnit().split("\\$")[0];
-        logger.debug("Baseclass of {} is {}", node, baseClass);
-        return graph.nodes().stream()
-                .filter(graphNode -> graphNode.getFQNOfUnit().equals(baseClass))
-                .findFirst();
+    private String getBaseClassName(JavaClass node) {
+        return node.getFQNOfUnit().split("\\$")[0];
     }
 }
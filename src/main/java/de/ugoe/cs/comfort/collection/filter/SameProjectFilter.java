@@ -34,37 +34,16 @@ public class SameProjectFilter extends BaseFilter {
     @SupportsJava
     @SupportsPython
     public DependencyGraph filterDependencyGraph(DependencyGraph dependencyGraph) {
-        DependencyGraph filteredDepedencyGraph = dependencyGraph.getCopyOfGraph();
-
-        // Go through all nodes and check if the node has a file path, if not it is not project related
-        dependencyGraph.nodes().forEach(node -> {
-            if(node.getFilePath() == null) {
-                logger.debug("Removing the following node: {}", node);
-                filteredDepedencyGraph.removeNode(node);
-            }
-        });
-
-        filteredDepedencyGraph.cleanGraphOfNodesThatAreSingle();
-
-        return filteredDepedencyGraph;
+        // Only keep the nodes that have a file path, if not it is not project related. Nodes without any edges left
+        // are removed by the view
+        return dependencyGraph.filter(node -> node.getFilePath() != null, edge -> true);
     }
 
     @SupportsJava
     @SupportsPython
     public CallGraph filterCallGraph(CallGraph callGraph) {
-        CallGraph filteredCallGraph = callGraph.getCopyOfGraph();
-
-        // Go through all nodes and check if the class can be found in the project folder
-        callGraph.nodes().forEach(node -> {
-            if(node.getFilePath() == null) {
-                logger.debug("Removing the node: {}", node);
-                filteredCallGraph.removeNode(node);
-            }
-        });
-
-        // Remove all nodes that do not have any edges left
-        filteredCallGraph.cleanGraphOfNodesThatAreSingle();
-
-        return filteredCallGraph;
+        // Only keep the nodes whose class can be found in the project folder. Nodes without any edges left are removed
+        // by the view
+        return callGraph.filter(node -> node.getFilePath() != null, edge -> true);
     }
 }
@@ -17,22 +17,28 @@
 package de.ugoe.cs.comfort.collection.loader;
 
 import de.ugoe.cs.comfort.FileNameUtils;
-import de.ugoe.cs.comfort.Utils;
+import de.ugoe.cs.comfort.ProjectFileManifest;
 import de.ugoe.cs.comfort.annotations.SupportsJava;
 import de.ugoe.cs.comfort.annotations.SupportsPython;
 import de.ugoe.cs.comfort.collection.loader.callgraph.ClassVisitor;
+import de.ugoe.cs.comfort.collection.loader.callgraph.SourcePathCache;
 import de.ugoe.cs.comfort.configuration.GeneralConfiguration;
 import de.ugoe.cs.comfort.configuration.LoaderConfiguration;
 import de.ugoe.cs.comfort.data.graphs.CallEdge;
 import de.ugoe.cs.comfort.data.graphs.CallGraph;
 import de.ugoe.cs.comfort.data.graphs.CallType;
 import de.ugoe.cs.comfort.data.models.PythonMethod;
+import de.ugoe.cs.comfort.data.models.UnitInterner;
 import de.ugoe.cs.comfort.exception.LoaderException;
 import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.util.*;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicReference;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 import org.apache.bcel.classfile.ClassParser;
@@ -49,10 +55,9 @@ public class CallGraphLoader extends BaseLoader {
     @SupportsJava
     public CallGraph loadJavaCallGraph() throws LoaderException {
         logger.info("Parsing class files...");
-        ClassParser cp;
-        Set<Path> classFiles;
+        List<Path> classFiles;
         try {
-            classFiles = Utils.getAllFilesFromProjectForRegex(generalConf.getProjectDir(), ".*\\.class");
+            classFiles = new ArrayList<>(ProjectFileManifest.getInstance(generalConf.getProjectDir()).getClassFiles());
         } catch (IOException e) {
             throw new LoaderException("Could not read project directory: "+generalConf.getProjectDir());
         }
@@ -62,20 +67,58 @@ public class CallGraphLoader extends BaseLoader {
                 + "compiled the project already?");
         }
         logger.info("Building call graph network...");
-        CallGraph callGraph = new CallGraph();
+        SourcePathCache sourcePathCache = new SourcePathCache(FileNameUtils.getInstance(generalConf));
+        UnitInterner unitInterner = new UnitInterner();
+
+        // Each class file is parsed by one of the threads, which stores the found edges in its own list
+        List<List<CallEdge>> edgesPerClassFile = new ArrayList<>(Collections.nCopies(classFiles.size(), null));
+        AtomicReference<Exception> parseException = new AtomicReference<>();
+        final ExecutorService executor = Executors.newFixedThreadPool(generalConf.getNThreads());
+        CountDownLatch latch = new CountDownLatch(classFiles.size());
+        for(int i = 0; i < classFiles.size(); i++) {
+            final int classFileNumber = i;
+            executor.submit(() -> {
+                try {
+                    List<CallEdge> edges = new ArrayList<>();
+                    ClassParser cp = new ClassParser(classFiles.get(classFileNumber).toString());
+                    ClassVisitor visitor = new ClassVisitor(cp.parse(), edges, sourcePathCache,
+                            unitInterner);
+                    visitor.start();
+                    edgesPerClassFile.set(classFileNumber, edges);
+                } catch (IOException | RuntimeException e) {
+                    parseException.compareAndSet(null, e);
+                } finally {
+                    latch.countDown();
+                }
+            });
+        }
+
         try {
-            FileNameUtils fileNameUtils = new FileNameUtils(generalConf);
-            for(Path classFilePath: classFiles) {
-                cp = new ClassParser(classFilePath.toString());
-                ClassVisitor visitor = new ClassVisitor(cp.parse(), callGraph, fileNameUtils);
-                visitor.start();
+            latch.await();
+        } catch (InterruptedException e) {
+            logger.catching(e);
+        } finally {
+            executor.shutdown();
+        }
+
+        if(parseException.get() != null) {
+            throw new LoaderException("Error in executing CallGraphLoader: "+parseException.get().getMessage());
+        }
+
+        // Merge the edges in the order of the class files, so that the graph is the same as if it was built by
+        // one thread
+        CallGraph callGraph = new CallGraph();
+        for(List<CallEdge> edges: edgesPerClassFile) {
+            if(edges != null) {
+                edges.forEach(callGraph::addEdge);
             }
-        } catch (IOException e) {
-            throw new LoaderException("Error in executing CallGraphLoader: "+e.getMessage());
         }
 
-        logger.info("Finished extracting call graph.");
-        return callGraph;
+        logger.info("Resolved source paths with {} cache hits and {} cache misses.", sourcePathCache.getHits(),
+                sourcePathCache.getMisses());
+        logger.info("Finished extracting call graph with {} distinct methods.", unitInterner.size());
+        // The call graph is only read afterwards, therefore we switch to the compact representation
+        return callGraph.freeze();
     }
 
     @SupportsPython
@@ -83,7 +126,8 @@ public class CallGraphLoader extends BaseLoader {
         String regexToDeleteAllParanthesis = "\\s*\\([^\\)]*\\)\\s*";
         Pattern pattern = Pattern.compile(regexToDeleteAllParanthesis);
 
-        FileNameUtils fileNameUtils = new FileNameUtils(generalConf);
+        FileNameUtils fileNameUtils = FileNameUtils.getInstance(generalConf);
+        UnitInterner unitInterner = new UnitInterner();
         Map<String, Integer> callsFromMethod = new HashMap<>();
         try {
             List<String> fileLines = Files.readAllLines(loaderConf.getCallGraphLocation());
@@ -105,13 +149,9 @@ public class CallGraphLoader extends BaseLoader {
                 Integer callerCallNumber = callsFromMethod.getOrDefault(caller, 0);
                 callsFromMethod.put(caller, callerCallNumber+1);
 
-                // Get Python method from string
-                PythonMethod pyCaller = getPythonMethodForCallString(caller);
-                // Set correct path
-                pyCaller.setFileName(fileNameUtils.getPathForPythonModuleFQN(pyCaller.getFQNOfUnit()));
-
-                PythonMethod pyCallee = getPythonMethodForCallString(callee);
-                pyCallee.setFileName(fileNameUtils.getPathForPythonModuleFQN(pyCallee.getFQNOfUnit()));
+                // Get Python method with its correct path from string
+                PythonMethod pyCaller = unitInterner.intern(getPythonMethodForCallString(caller, fileNameUtils));
+                PythonMethod pyCallee = unitInterner.intern(getPythonMethodForCallString(callee, fileNameUtils));
 
                 callGraph.addEdge(new CallEdge(CallType.INVOKE_PYTHON, callerCallNumber, pyCaller, pyCallee));
                 logger.debug("{} calls {}...", pyCaller, pyCallee);
@@ -119,13 +159,14 @@ public class CallGraphLoader extends BaseLoader {
 
             }
             logger.info("Finished extracting call graph.");
-            return callGraph;
+            return callGraph.freeze();
         } catch (IOException e) {
             throw new LoaderException(e.getMessage());
         }
     }
 
-    private PythonMethod getPythonMethodForCallString(String callString) {
+    private PythonMethod getPythonMethodForCallString(String callString, FileNameUtils fileNameUtils)
+            throws IOException {
         // input: tests.data.demo:Demo.bar
         // Result: tests.data = package, demo = module, Demo = namespace, bar = method
         String[] parts = callString.split("\\:");
@@ -150,6 +191,7 @@ public class CallGraphLoader extends BaseLoader {
             pPackage = null;
         }
 
-        return new PythonMethod(pPackage, module, namespace, method, null);
+        return new PythonMethod(pPackage, module, namespace, method,
+                fileNameUtils.getPathForPythonModuleFQN(pPackage+"."+module));
     }
 }
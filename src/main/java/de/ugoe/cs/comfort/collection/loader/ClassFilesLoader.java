@@ -16,6 +16,7 @@
 
 package de.ugoe.cs.comfort.collection.loader;
 
+import de.ugoe.cs.comfort.ProjectFileManifest;
 import de.ugoe.cs.comfort.Utils;
 import de.ugoe.cs.comfort.annotations.SupportsJava;
 import de.ugoe.cs.comfort.configuration.GeneralConfiguration;
@@ -40,8 +41,7 @@ public class ClassFilesLoader extends BaseLoader {
     public DataSet loadClassFilesForProject() throws LoaderException {
         // Find all code files by going through the projectDir and detect all files with the given regex
         try {
-            Set<Path> codeFiles = Utils.getAllFilesFromProjectForRegex(
-                    generalConf.getProjectDir(), ".*\\.class");
+            Set<Path> codeFiles = ProjectFileManifest.getInstance(generalConf.getProjectDir()).getClassFiles();
             // Find all java test files by going through detected code files and looking if the file name
             // starts with Test oder test or ends with Test or test
             HashSet<Path> testFiles = new HashSet<>();
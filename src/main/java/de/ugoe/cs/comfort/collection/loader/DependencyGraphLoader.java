@@ -24,6 +24,7 @@ import de.ugoe.cs.comfort.configuration.LoaderConfiguration;
 import de.ugoe.cs.comfort.data.graphs.DependencyGraph;
 import de.ugoe.cs.comfort.data.models.JavaClass;
 import de.ugoe.cs.comfort.data.models.PythonModule;
+import de.ugoe.cs.comfort.data.models.UnitInterner;
 import de.ugoe.cs.comfort.exception.LoaderException;
 import java.io.*;
 import java.nio.charset.Charset;
@@ -125,11 +126,12 @@ public class DependencyGraphLoader extends BaseLoader {
         private InputStream inputStream;
         private GeneralConfiguration configuration;
         private FileNameUtils fileNameUtils;
+        private UnitInterner unitInterner = new UnitInterner();
 
         DependencyExtractOutputParser(InputStream inputStream, GeneralConfiguration configuration) {
             this.inputStream = inputStream;
             this.configuration = configuration;
-            this.fileNameUtils = new FileNameUtils(configuration);
+            this.fileNameUtils = FileNameUtils.getInstance(configuration);
         }
 
         @Override
@@ -150,6 +152,10 @@ public class DependencyGraphLoader extends BaseLoader {
         }
 
         private PythonModule createPythonModuleNode(String fqn) {
+            return unitInterner.intern(createUninternedPythonModuleNode(fqn));
+        }
+
+        private PythonModule createUninternedPythonModuleNode(String fqn) {
             try {
                 if(fileNameUtils.isPythonPackage(fqn)) {
                     return new PythonModule(fqn, "__init__",
@@ -164,6 +170,10 @@ public class DependencyGraphLoader extends BaseLoader {
         }
 
         private JavaClass createJavaClassNode(String fqn) {
+            return unitInterner.intern(createUninternedJavaClassNode(fqn));
+        }
+
+        private JavaClass createUninternedJavaClassNode(String fqn) {
             try {
                 return new JavaClass(fqn, this.fileNameUtils.getPathForJavaClassFQN(fqn));
             } catch (FileNotFoundException e) {
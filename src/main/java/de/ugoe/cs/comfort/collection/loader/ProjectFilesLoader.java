@@ -16,6 +16,7 @@
 
 package de.ugoe.cs.comfort.collection.loader;
 
+import de.ugoe.cs.comfort.ProjectFileManifest;
 import de.ugoe.cs.comfort.Utils;
 import de.ugoe.cs.comfort.annotations.SupportsJava;
 import de.ugoe.cs.comfort.annotations.SupportsPython;
@@ -38,18 +39,19 @@ public class ProjectFilesLoader extends BaseLoader {
 
     @SupportsPython
     public ProjectFiles loadPythonProjectFiles() throws LoaderException {
-        return getProjectFilesBasedOnRegex(".*\\.py");
+        return getProjectFilesForLanguage("python");
     }
 
     @SupportsJava
     public ProjectFiles loadJavaProjectFiles() throws LoaderException{
-        return getProjectFilesBasedOnRegex(".*\\.java");
+        return getProjectFilesForLanguage("java");
     }
 
-    private ProjectFiles getProjectFilesBasedOnRegex(String fileRegex) throws LoaderException{
-        // Find all code files by going through the projectDir and detect all files with the given regex
+    private ProjectFiles getProjectFilesForLanguage(String language) throws LoaderException{
+        // Get all code files of the given language from the manifest of the projectDir
         try {
-            Set<Path> codeFiles = Utils.getAllFilesFromProjectForRegex(generalConf.getProjectDir(), fileRegex);
+            Set<Path> codeFiles = ProjectFileManifest.getInstance(generalConf.getProjectDir())
+                    .getSourceFiles(language);
             // Find all java test files by going through detected code files and looking if the file name
             // starts with Test oder test or ends with Test or test
             HashSet<Path> testFiles = new HashSet<>();
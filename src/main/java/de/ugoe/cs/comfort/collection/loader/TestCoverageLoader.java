@@ -21,11 +21,13 @@ import com.fasterxml.jackson.core.JsonParser;
 import com.fasterxml.jackson.core.JsonToken;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import de.ugoe.cs.comfort.FileNameUtils;
-import de.ugoe.cs.comfort.Utils;
+import de.ugoe.cs.comfort.ProjectFileManifest;
 import de.ugoe.cs.comfort.annotations.SupportsJava;
 import de.ugoe.cs.comfort.annotations.SupportsPython;
-import de.ugoe.cs.comfort.collection.loader.testcoverage.ExecutionDataVisitor;
+import de.ugoe.cs.comfort.collection.loader.testcoverage.ClassProbeMap;
 import de.ugoe.cs.comfort.collection.loader.testcoverage.JacocoReportReader;
+import de.ugoe.cs.comfort.collection.loader.testcoverage.ProbeCoverageIndex;
+import de.ugoe.cs.comfort.collection.loader.testcoverage.StreamingExecutionDataVisitor;
 import de.ugoe.cs.comfort.configuration.GeneralConfiguration;
 import de.ugoe.cs.comfort.configuration.LoaderConfiguration;
 import de.ugoe.cs.comfort.data.CoverageData;
@@ -34,36 +36,46 @@ import de.ugoe.cs.comfort.data.models.JavaMethod;
 import de.ugoe.cs.comfort.data.models.PythonCoverageLoaderTestMethod;
 import de.ugoe.cs.comfort.data.models.PythonCoveragerloaderTestedMethod;
 import de.ugoe.cs.comfort.data.models.PythonMethod;
+import de.ugoe.cs.comfort.data.models.UnitInterner;
 import java.io.FileNotFoundException;
 import java.io.IOException;
+import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import org.apache.bcel.generic.Type;
+import org.apache.commons.lang3.builder.EqualsBuilder;
+import org.apache.commons.lang3.builder.HashCodeBuilder;
 import org.jacoco.core.analysis.CoverageBuilder;
 import org.jacoco.core.analysis.IClassCoverage;
 import org.jacoco.core.analysis.ICounter;
 import org.jacoco.core.analysis.ILine;
 import org.jacoco.core.analysis.IMethodCoverage;
+import org.jacoco.core.data.ExecutionData;
 import org.jacoco.core.data.ExecutionDataStore;
-import org.jacoco.report.JavaNames;
 
 /**
  * @author Fabian Trautsch
  */
 public class TestCoverageLoader extends BaseLoader {
-    private static final JavaNames JN = new JavaNames();
+    private static final int SESSIONS_IN_QUEUE_PER_THREAD = 2;
     private FileNameUtils fileNameUtils;
+    private final UnitInterner unitInterner = new UnitInterner();
 
     public TestCoverageLoader(GeneralConfiguration generalConfiguration, LoaderConfiguration loaderConfiguration) {
         super(generalConfiguration, loaderConfiguration);
-        fileNameUtils = new FileNameUtils(generalConfiguration);
+        fileNameUtils = FileNameUtils.getInstance(generalConfiguration);
     }
 
 
@@ -92,6 +104,7 @@ public class TestCoverageLoader extends BaseLoader {
                 pythonMethod = new PythonMethod(testMethod,
                         fileNameUtils.getPathForPythonModuleFQN(testMethod.getModule()));
             }
+            pythonMethod = unitInterner.intern(pythonMethod);
 
             Set<IUnit> testedMethodsWithoutTestsItself = new HashSet<>();
 
@@ -108,9 +121,7 @@ public class TestCoverageLoader extends BaseLoader {
                     pythonTestedMethod = new PythonMethod(testedMethod,
                             fileNameUtils.getPathForPythonModuleFQN(testedMethod.getModule()));
                 }
-                pythonTestedMethod.setCoveredLines(testedMethod.getCoveredLines());
-
-                testedMethodsWithoutTestsItself.add(pythonTestedMethod);
+                testedMethodsWithoutTestsItself.add(unitInterner.intern(pythonTestedMethod));
             }
             covfefe.add(pythonMethod, testedMethodsWithoutTestsItself);
             logger.debug("Found {} which tests {}", pythonMethod, testedMethodsWithoutTestsItself);
@@ -121,64 +132,66 @@ public class TestCoverageLoader extends BaseLoader {
 
     @SupportsJava
     public CoverageData loadJavaCoverageData() throws IOException {
-        // Get jacoco reader and visitor for the execution data
-        JacocoReportReader reader = new JacocoReportReader(loaderConf.getCoverageLocation().toFile());
-        ExecutionDataVisitor visitor = new ExecutionDataVisitor();
-
-        // Read the jacoco execution report
-        reader.readJacocoReport(visitor, visitor);
-
         // Create coverage data
         CoverageData covData = new CoverageData();
 
-        final ExecutorService executor = Executors.newFixedThreadPool(generalConf.getNThreads());
-        CountDownLatch latch = new CountDownLatch(visitor.getSessions().entrySet().size());
-
-        // Go through each session and parse the data. Only include sessions that have a name
-        for(Map.Entry<String, ExecutionDataStore> entry: visitor.getSessions().entrySet()) {
-            executor.submit(() -> {
-                try {
-                    String sessionId = entry.getKey();
-
-                    // If it does not have a session id, we do not know which test was executed
-                    if(!sessionId.isEmpty() && sessionId.contains("%%")) {
-                        logger.info("Analyzing Session {}...", entry.getKey());
-
-                        // Create test class & method
-                        String fqnOfTest = sessionId.split("%%")[0];
-                        String methodName = sessionId.split("%%")[1];
-                        logger.debug("Created the following TestMethod: {}", fqnOfTest+"."+methodName);
-
-
-                        // Read the execution data
-                        ExecutionDataStore data = entry.getValue();
-
-                        // Analyze the files, where all class files in the project dir are looked at
-
-                        CoverageBuilder covfefe = reader.analyzeFiles(data, Utils.getAllFilesFromProjectForRegex(
-                                generalConf.getProjectDir(), ".*\\.class"));
+        // Analyze each hit class file once, so that the coverage of each session can be computed from its probes
+        ProbeCoverageIndex probeIndex = null;
+        if(loaderConf.isUseProbeIndex()) {
+            probeIndex = ProbeCoverageIndex.build(ProjectFileManifest.getInstance(
+                    generalConf.getProjectDir()).getClassFiles(), generalConf.getNThreads());
+        }
+        final ProbeCoverageIndex finalProbeIndex = probeIndex;
 
-                        // Parse the class coverage data
-                        Set<IUnit> testedMethods = parseClassCoverageDataForJavaTestMethod(fqnOfTest, covfefe);
-                        IUnit testMethod = new JavaMethod(fqnOfTest, methodName, new ArrayList<>(),
-                                fileNameUtils.getPathForJavaClassFQN(fqnOfTest));
+        // Otherwise only remember which class file belongs to which class id, so that only hit classes are analyzed
+        final Map<Long, Path> classIndex = probeIndex != null ? null : JacocoReportReader.indexClassFiles(
+                ProjectFileManifest.getInstance(generalConf.getProjectDir()).getClassFiles());
 
-                        covData.add(testMethod, testedMethods);
-                        if(testedMethods.size() == 0) {
-                            logger.warn("Could not find tested methods!");
-                        }
+        // Get jacoco reader and a visitor, which hands over each completely read session to the queue
+        JacocoReportReader reader = new JacocoReportReader(loaderConf.getCoverageLocation().toFile());
+        BlockingQueue<Map.Entry<String, ExecutionDataStore>> sessionQueue =
+                new ArrayBlockingQueue<>(generalConf.getNThreads() * SESSIONS_IN_QUEUE_PER_THREAD);
+        StreamingExecutionDataVisitor visitor = new StreamingExecutionDataVisitor(sessionQueue);
 
+        // Covered lines of each covered method per test. Sessions of the same test (e.g., if it was rerun) are merged
+        // here, which gives the same lines as merging their probes, as each hit probe adds the lines it covers
+        Map<String, Map<CoveredMethod, BitSet>> coveragePerTest = new ConcurrentHashMap<>();
 
+        // Start the consumers, which analyze the sessions while the jacoco execution report is still read
+        final ExecutorService executor = Executors.newFixedThreadPool(generalConf.getNThreads());
+        CountDownLatch latch = new CountDownLatch(generalConf.getNThreads());
+        for(int i = 0; i < generalConf.getNThreads(); i++) {
+            executor.submit(() -> {
+                try {
+                    Map.Entry<String, ExecutionDataStore> entry = sessionQueue.take();
+                    while(entry != StreamingExecutionDataVisitor.END_OF_SESSIONS) {
+                        analyzeJavaSession(entry.getKey(), entry.getValue(), coveragePerTest, reader,
+                                finalProbeIndex, classIndex);
+                        entry = sessionQueue.take();
                     }
-                } catch (IOException e) {
+                } catch (InterruptedException e) {
                     logger.catching(e);
                 } finally {
                     latch.countDown();
                 }
-
             });
         }
 
+        // Read the jacoco execution report
+        try {
+            reader.readJacocoReport(visitor, visitor);
+            visitor.finish();
+        } finally {
+            // Signal each consumer that there are no more sessions
+            try {
+                for(int i = 0; i < generalConf.getNThreads(); i++) {
+                    sessionQueue.put(StreamingExecutionDataVisitor.END_OF_SESSIONS);
+                }
+            } catch (InterruptedException e) {
+                logger.catching(e);
+                executor.shutdownNow();
+            }
+        }
 
         try {
             latch.await();
@@ -187,74 +200,216 @@ public class TestCoverageLoader extends BaseLoader {
         } finally {
             executor.shutdown();
         }
+
+        for(Map.Entry<String, Map<CoveredMethod, BitSet>> testCoverage: coveragePerTest.entrySet()) {
+            addJavaTestCoverage(testCoverage.getKey(), testCoverage.getValue(), covData);
+        }
+
+        logger.info("Analyzed {} sessions.", visitor.getNumberOfSessions());
+        if(classIndex != null) {
+            logger.info("Skipped {} class analyses without hit probes.", reader.getSkippedAnalyses());
+        } else {
+            logger.info("Analyzed {} of {} classes, as only they have hit probes.", probeIndex.getAnalyzedClasses(),
+                    probeIndex.size());
+        }
         return covData;
     }
 
-    private Set<IUnit> parseClassCoverageDataForJavaTestMethod(String fqnOfTest, CoverageBuilder covfefe) {
+    private void analyzeJavaSession(String sessionId, ExecutionDataStore data,
+                                    Map<String, Map<CoveredMethod, BitSet>> coveragePerTest,
+                                    JacocoReportReader reader, ProbeCoverageIndex probeIndex,
+                                    Map<Long, Path> classIndex) {
+        // If it does not have a session id, we do not know which test was executed
+        if(sessionId.isEmpty() || !sessionId.contains("%%")) {
+            return;
+        }
+
+        try {
+            logger.info("Analyzing Session {}...", sessionId);
+
+            Map<CoveredMethod, BitSet> coveredMethods;
+            if(probeIndex != null) {
+                // Compute the coverage directly from the probes of the session
+                coveredMethods = parseProbeDataForJavaTestMethod(probeIndex, data);
+            } else {
+                // Analyze the files, where only class files with hit probes are looked at
+                CoverageBuilder covfefe = reader.analyzeFiles(data, classIndex);
+
+                // Parse the class coverage data
+                coveredMethods = parseClassCoverageDataForJavaTestMethod(covfefe);
+            }
+
+            Map<CoveredMethod, BitSet> testCoverage = coveragePerTest.computeIfAbsent(sessionId,
+                    k -> new ConcurrentHashMap<>());
+            for(Map.Entry<CoveredMethod, BitSet> coveredMethod: coveredMethods.entrySet()) {
+                testCoverage.merge(coveredMethod.getKey(), coveredMethod.getValue(), (lines, otherLines) -> {
+                    BitSet mergedLines = (BitSet) lines.clone();
+                    mergedLines.or(otherLines);
+                    return mergedLines;
+                });
+            }
+        } catch (RuntimeException e) {
+            logger.catching(e);
+        }
+    }
+
+    private void addJavaTestCoverage(String sessionId, Map<CoveredMethod, BitSet> coveredMethods,
+                                     CoverageData covData) {
+        try {
+            // Create test class & method
+            String fqnOfTest = sessionId.split("%%")[0];
+            String methodName = sessionId.split("%%")[1];
+            logger.debug("Created the following TestMethod: {}", fqnOfTest+"."+methodName);
+
+            Set<IUnit> testedMethods = new HashSet<>();
+            for(Map.Entry<CoveredMethod, BitSet> coveredMethod: coveredMethods.entrySet()) {
+                CoveredMethod method = coveredMethod.getKey();
+                testedMethods.add(createTestedJavaMethod(method.vmPackageName, method.vmClassName, method.methodName,
+                        method.desc, coveredMethod.getValue().cardinality()));
+            }
+            IUnit testMethod = unitInterner.intern(new JavaMethod(fqnOfTest, methodName, new ArrayList<>(),
+                    fileNameUtils.getPathForJavaClassFQN(fqnOfTest)));
+
+            covData.add(testMethod, testedMethods);
+            if(testedMethods.size() == 0) {
+                logger.warn("Could not find tested methods!");
+            }
+        } catch (IOException | RuntimeException e) {
+            logger.catching(e);
+        }
+    }
+
+    private Map<CoveredMethod, BitSet> parseClassCoverageDataForJavaTestMethod(CoverageBuilder covfefe) {
         // Go through all classes that were found and have a look if it is covered
-        Set<IUnit> result = new HashSet<>();
+        Map<CoveredMethod, BitSet> result = new HashMap<>();
         for(IClassCoverage classCoverage: covfefe.getClasses()) {
-            String className = JN.getQualifiedClassName(classCoverage.getName());
             // If it is covered: go through its methods to see which methods are covered
-            // Exclude the test method itself and if the class is a test class
             if(classCoverage.getClassCounter().getCoveredCount() == 1) {
-                result.addAll(parseMethodCoverageDataForJavaTestMethod(classCoverage));
+                result.putAll(parseMethodCoverageDataForJavaTestMethod(classCoverage));
             }
         }
 
         return result;
     }
 
-    private Set<JavaMethod> parseMethodCoverageDataForJavaTestMethod(IClassCoverage classCoverage) {
-        Set<JavaMethod> allTestedMethods = new HashSet<>();
-        for(IMethodCoverage methodCoverage: classCoverage.getMethods()) {
-            if(methodCoverage.getMethodCounter().getCoveredCount() == 1) {
-                String packageName = classCoverage.getPackageName().replace("/", ".");
-                String className = classCoverage.getName().replace(classCoverage.getPackageName()+"/", "");
+    private Map<CoveredMethod, BitSet> parseProbeDataForJavaTestMethod(ProbeCoverageIndex probeIndex,
+                                                                       ExecutionDataStore data) {
+        // Go through all classes that were loaded in this session and look at the methods of the hit probes
+        Map<CoveredMethod, BitSet> result = new HashMap<>();
+        for(ExecutionData executionData: data.getContents()) {
+            // Classes without hit probes are not covered, therefore they do not need to be analyzed
+            if(!executionData.hasHits()) {
+                continue;
+            }
 
-                // Add parameter
-                List<String> parameter = new ArrayList<>();
-                for(Type type : Type.getArgumentTypes(methodCoverage.getDesc())) {
-                    parameter.add(type.toString());
-                }
+            ClassProbeMap classProbeMap = probeIndex.get(executionData.getId());
+            if(classProbeMap == null) {
+                continue;
+            }
 
-                // Create Java Method for tested method
-                JavaMethod testedJavaMethod;
-                try {
-                    testedJavaMethod = new JavaMethod(packageName, className, methodCoverage.getName(), parameter,
-                            fileNameUtils.getPathForJavaClassFQN(packageName+"."+className));
-                } catch (FileNotFoundException e) {
-                    testedJavaMethod = new JavaMethod(packageName, className, methodCoverage.getName(), parameter,
-                            null);
-                    logger.warn("Could not find file for class {}", packageName+"."+className);
-                }
+            Map<Integer, BitSet> coveredMethods = classProbeMap.getCoveredLinesPerMethod(executionData.getProbes());
+            for(Map.Entry<Integer, BitSet> coveredMethod: coveredMethods.entrySet()) {
+                result.put(new CoveredMethod(classProbeMap.getPackageName(), classProbeMap.getName(),
+                        classProbeMap.getMethodName(coveredMethod.getKey()),
+                        classProbeMap.getMethodDesc(coveredMethod.getKey())), coveredMethod.getValue());
+            }
+        }
 
-                // Calculate covered lines
-                Integer coveredLines = coveredLines(methodCoverage);
-                testedJavaMethod.setCoveredLines(coveredLines);
-                logger.debug("Covered unit: {}", testedJavaMethod.getFQN());
+        return result;
+    }
 
-                // Add to result set
-                allTestedMethods.add(testedJavaMethod);
+    private Map<CoveredMethod, BitSet> parseMethodCoverageDataForJavaTestMethod(IClassCoverage classCoverage) {
+        Map<CoveredMethod, BitSet> allTestedMethods = new HashMap<>();
+        for(IMethodCoverage methodCoverage: classCoverage.getMethods()) {
+            if(methodCoverage.getMethodCounter().getCoveredCount() == 1) {
+                allTestedMethods.put(new CoveredMethod(classCoverage.getPackageName(), classCoverage.getName(),
+                        methodCoverage.getName(), methodCoverage.getDesc()), coveredLines(methodCoverage));
             }
         }
 
         return allTestedMethods;
     }
 
+    private JavaMethod createTestedJavaMethod(String vmPackageName, String vmClassName, String methodName,
+                                              String desc, Integer coveredLines) {
+        String packageName = vmPackageName.replace("/", ".");
+        String className = vmClassName.replace(vmPackageName+"/", "");
+
+        // Add parameter
+        List<String> parameter = new ArrayList<>();
+        for(Type type : Type.getArgumentTypes(desc)) {
+            parameter.add(type.toString());
+        }
+
+        // Create Java Method for tested method
+        JavaMethod testedJavaMethod;
+        try {
+            testedJavaMethod = new JavaMethod(packageName, className, methodName, parameter,
+                    fileNameUtils.getPathForJavaClassFQN(packageName+"."+className), coveredLines);
+        } catch (FileNotFoundException e) {
+            testedJavaMethod = new JavaMethod(packageName, className, methodName, parameter, null, coveredLines);
+            logger.warn("Could not find file for class {}", packageName+"."+className);
+        }
+
+        logger.debug("Covered unit: {}", testedJavaMethod.getFQN());
+        return unitInterner.intern(testedJavaMethod);
+    }
+
 
-    private static Integer coveredLines(IMethodCoverage coverage) {
-        Integer allCoveredLines = 0;
+    private static BitSet coveredLines(IMethodCoverage coverage) {
+        BitSet allCoveredLines = new BitSet();
         for (int lineId = coverage.getFirstLine(); lineId <= coverage.getLastLine(); lineId++) {
             ILine line = coverage.getLine(lineId);
             switch (line.getInstructionCounter().getStatus()) {
                 case ICounter.FULLY_COVERED:
                 case ICounter.PARTLY_COVERED:
-                    allCoveredLines++;
+                    allCoveredLines.set(lineId);
                     break;
                 default:
             }
         }
         return allCoveredLines;
     }
+
+    /**
+     * Method (in the notation of the VM) that is covered by a test.
+     */
+    private static final class CoveredMethod {
+        private final String vmPackageName;
+        private final String vmClassName;
+        private final String methodName;
+        private final String desc;
+
+        CoveredMethod(String vmPackageName, String vmClassName, String methodName, String desc) {
+            this.vmPackageName = vmPackageName;
+            this.vmClassName = vmClassName;
+            this.methodName = methodName;
+            this.desc = desc;
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if(!(obj instanceof CoveredMethod)) {
+                return false;
+            }
+
+            CoveredMethod other = (CoveredMethod) obj;
+            return new EqualsBuilder()
+                    .append(vmPackageName, other.vmPackageName)
+                    .append(vmClassName, other.vmClassName)
+                    .append(methodName, other.methodName)
+                    .append(desc, other.desc)
+                    .isEquals();
+        }
+
+        @Override
+        public int hashCode() {
+            return new HashCodeBuilder(17, 31)
+                    .append(vmPackageName)
+                    .append(vmClassName)
+                    .append(methodName)
+                    .append(desc)
+                    .toHashCode();
+        }
+    }
 }
@@ -28,8 +28,9 @@
 
 package de.ugoe.cs.comfort.collection.loader.callgraph;
 
-import de.ugoe.cs.comfort.FileNameUtils;
-import de.ugoe.cs.comfort.data.graphs.CallGraph;
+import de.ugoe.cs.comfort.data.graphs.CallEdge;
+import de.ugoe.cs.comfort.data.models.UnitInterner;
+import java.util.List;
 import org.apache.bcel.classfile.*;
 import org.apache.bcel.generic.ConstantPoolGen;
 import org.apache.bcel.generic.MethodGen;
@@ -38,21 +39,25 @@ import org.apache.logging.log4j.Logger;
 
 /**
  * The simplest of class visitors, invokes the method visitor class for each
- * method found. Based on: http://www.spinellis.gr/sw/ckjm/
+ * method found. The edges of all calls are added to the given list in the order in which they are found.
+ * Based on: http://www.spinellis.gr/sw/ckjm/
  */
 public class ClassVisitor extends EmptyVisitor {
 
     private JavaClass clazz;
     private ConstantPoolGen constants;
-    private CallGraph callGraph;
-    private FileNameUtils fileNameUtils;
+    private List<CallEdge> edges;
+    private SourcePathCache sourcePathCache;
+    private UnitInterner unitInterner;
     private static final Logger LOGGER = LogManager.getLogger(ClassVisitor.class.getName());
 
-    public ClassVisitor(JavaClass jc, CallGraph callGraph, FileNameUtils fileNameUtils) {
+    public ClassVisitor(JavaClass jc, List<CallEdge> edges, SourcePathCache sourcePathCache,
+                        UnitInterner unitInterner) {
         clazz = jc;
         constants = new ConstantPoolGen(clazz.getConstantPool());
-        this.callGraph = callGraph;
-        this.fileNameUtils = fileNameUtils;
+        this.edges = edges;
+        this.sourcePathCache = sourcePathCache;
+        this.unitInterner = unitInterner;
     }
 
     public void visitJavaClass(JavaClass jc) {
@@ -79,7 +84,7 @@ public class ClassVisitor extends EmptyVisitor {
 
     public void visitMethod(Method method) {
         MethodGen mg = new MethodGen(method, clazz.getClassName(), constants);
-        MethodVisitor visitor = new MethodVisitor(mg, clazz, callGraph, fileNameUtils);
+        MethodVisitor visitor = new MethodVisitor(mg, clazz, edges, sourcePathCache, unitInterner);
         visitor.start();
     }
 
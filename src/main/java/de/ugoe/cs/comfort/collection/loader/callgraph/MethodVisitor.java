@@ -28,12 +28,10 @@
 
 package de.ugoe.cs.comfort.collection.loader.callgraph;
 
-import de.ugoe.cs.comfort.FileNameUtils;
 import de.ugoe.cs.comfort.data.graphs.CallEdge;
-import de.ugoe.cs.comfort.data.graphs.CallGraph;
 import de.ugoe.cs.comfort.data.graphs.CallType;
 import de.ugoe.cs.comfort.data.models.JavaMethod;
-import java.io.FileNotFoundException;
+import de.ugoe.cs.comfort.data.models.UnitInterner;
 import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.Arrays;
@@ -54,25 +52,28 @@ public class MethodVisitor extends EmptyVisitor {
     private MethodGen mg;
     private ConstantPoolGen cp;
     private String format;
-    private CallGraph callGraph;
+    private List<CallEdge> edges;
     private static final Logger LOGGER = LogManager.getLogger(MethodVisitor.class.getName());
     private JavaMethod methodNode;
-    private FileNameUtils fileNameUtils;
+    private SourcePathCache sourcePathCache;
+    private UnitInterner unitInterner;
     private int orderNumber = 0;
 
-    MethodVisitor(MethodGen m, JavaClass jc, CallGraph callGraph, FileNameUtils fileNameUtils) {
+    MethodVisitor(MethodGen m, JavaClass jc, List<CallEdge> edges, SourcePathCache sourcePathCache,
+                  UnitInterner unitInterner) {
         mg = m;
-        this.callGraph = callGraph;
+        this.edges = edges;
         cp = mg.getConstantPool();
 
-        this.fileNameUtils = fileNameUtils;
+        this.sourcePathCache = sourcePathCache;
+        this.unitInterner = unitInterner;
         // Create a method node for this method
-        this.methodNode = new JavaMethod(
+        this.methodNode = unitInterner.intern(new JavaMethod(
                 jc.getClassName(),
                 mg.getName(),
                 getArgumentStringForArgumentTypes(mg.getArgumentTypes()),
                 getPathForToClassForClassName(jc.getClassName())
-        );
+        ));
 
     }
 
@@ -84,12 +85,7 @@ public class MethodVisitor extends EmptyVisitor {
 
 
     private Path getPathForToClassForClassName(String className) {
-        try {
-            return fileNameUtils.getPathForJavaClassFQN(className);
-        } catch (FileNotFoundException e) {
-            LOGGER.warn("Could not find path for class {}", className);
-            return null;
-        }
+        return sourcePathCache.getPath(className);
     }
 
     void start() {
@@ -114,14 +110,14 @@ public class MethodVisitor extends EmptyVisitor {
 
     @Override
     public void visitINVOKEVIRTUAL(INVOKEVIRTUAL i) {
-        JavaMethod referenceOn = new JavaMethod(
+        JavaMethod referenceOn = unitInterner.intern(new JavaMethod(
                 i.getReferenceType(cp).toString(),
                 i.getMethodName(cp),
                 getArgumentStringForArgumentTypes(i.getArgumentTypes(cp)),
                 getPathForToClassForClassName(i.getReferenceType(cp).toString())
-        );
+        ));
         CallEdge callEdge = new CallEdge(CallType.INVOKE_VIRTUAL, orderNumber, methodNode, referenceOn);
-        callGraph.addEdge(callEdge);
+        edges.add(callEdge);
         orderNumber++;
 
         LOGGER.debug("Created edge {} ", callEdge);
@@ -129,14 +125,14 @@ public class MethodVisitor extends EmptyVisitor {
 
     @Override
     public void visitINVOKEINTERFACE(INVOKEINTERFACE i) {
-        JavaMethod referenceOn = new JavaMethod(
+        JavaMethod referenceOn = unitInterner.intern(new JavaMethod(
                 i.getReferenceType(cp).toString(),
                 i.getMethodName(cp),
                 getArgumentStringForArgumentTypes(i.getArgumentTypes(cp)),
                 getPathForToClassForClassName(i.getReferenceType(cp).toString())
-        );
+        ));
         CallEdge callEdge = new CallEdge(CallType.INVOKE_INTERFACE, orderNumber, methodNode, referenceOn);
-        callGraph.addEdge(callEdge);
+        edges.add(callEdge);
         orderNumber++;
 
         LOGGER.debug("Created edge {} ", callEdge);
@@ -144,14 +140,14 @@ public class MethodVisitor extends EmptyVisitor {
 
     @Override
     public void visitINVOKESPECIAL(INVOKESPECIAL i) {
-        JavaMethod referenceOn = new JavaMethod(
+        JavaMethod referenceOn = unitInterner.intern(new JavaMethod(
                 i.getReferenceType(cp).toString(),
                 i.getMethodName(cp),
                 getArgumentStringForArgumentTypes(i.getArgumentTypes(cp)),
                 getPathForToClassForClassName(i.getReferenceType(cp).toString())
-        );
+        ));
         CallEdge callEdge = new CallEdge(CallType.INVOKE_SPECIAL, orderNumber, methodNode, referenceOn);
-        callGraph.addEdge(callEdge);
+        edges.add(callEdge);
         orderNumber++;
 
         LOGGER.debug("Created edge {} ", callEdge);
@@ -159,14 +155,14 @@ public class MethodVisitor extends EmptyVisitor {
 
     @Override
     public void visitINVOKESTATIC(INVOKESTATIC i) {
-        JavaMethod referenceOn = new JavaMethod(
+        JavaMethod referenceOn = unitInterner.intern(new JavaMethod(
                 i.getReferenceType(cp).toString(),
                 i.getMethodName(cp),
                 getArgumentStringForArgumentTypes(i.getArgumentTypes(cp)),
                 getPathForToClassForClassName(i.getReferenceType(cp).toString())
-        );
+        ));
         CallEdge callEdge = new CallEdge(CallType.INVOKE_STATIC, orderNumber, methodNode, referenceOn);
-        callGraph.addEdge(callEdge);
+        edges.add(callEdge);
         orderNumber++;
 
         LOGGER.debug("Created edge {} ", callEdge);
@@ -174,14 +170,14 @@ public class MethodVisitor extends EmptyVisitor {
 
     @Override
     public void visitINVOKEDYNAMIC(INVOKEDYNAMIC i) {
-        JavaMethod referenceOn = new JavaMethod(
+        JavaMethod referenceOn = unitInterner.intern(new JavaMethod(
                 i.getType(cp).toString(),
                 i.getMethodName(cp),
                 getArgumentStringForArgumentTypes(i.getArgumentTypes(cp)),
                 getPathForToClassForClassName(i.getReferenceType(cp).toString())
-        );
+        ));
         CallEdge callEdge = new CallEdge(CallType.INVOKE_DYNAMIC, orderNumber, methodNode, referenceOn);
-        callGraph.addEdge(callEdge);
+        edges.add(callEdge);
         orderNumber++;
 
         LOGGER.debug("Created edge {} ", callEdge);
@@ -0,0 +1,75 @@
+/*
+ * Copyright (C) 2017 University of Goettingen, Germany
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.ugoe.cs.comfort.collection.loader.callgraph;
+
+import de.ugoe.cs.comfort.FileNameUtils;
+import java.io.FileNotFoundException;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+/**
+ * Cache for the source file paths of classes, which is used during one call graph extraction. Each class is only
+ * resolved once via {@link FileNameUtils#getPathForJavaClassFQN(String)}. Classes without a source file in the project
+ * (e.g., classes of the JDK or of libraries) are cached as well.
+ *
+ * @author Fabian Trautsch
+ */
+public class SourcePathCache {
+    private static final Logger LOGGER = LogManager.getLogger(SourcePathCache.class.getName());
+
+    private final FileNameUtils fileNameUtils;
+    private final Map<String, Optional<Path>> paths = new ConcurrentHashMap<>();
+    private final AtomicLong lookups = new AtomicLong(0);
+    private final AtomicLong misses = new AtomicLong(0);
+
+    public SourcePathCache(FileNameUtils fileNameUtils) {
+        this.fileNameUtils = fileNameUtils;
+    }
+
+    /**
+     * Returns the path of the source file of the given class.
+     * @param className fully qualified name of the class
+     * @return path of the source file or null, if it was not found
+     */
+    public Path getPath(String className) {
+        lookups.incrementAndGet();
+        return paths.computeIfAbsent(className, this::resolvePath).orElse(null);
+    }
+
+    private Optional<Path> resolvePath(String className) {
+        misses.incrementAndGet();
+        try {
+            return Optional.of(fileNameUtils.getPathForJavaClassFQN(className));
+        } catch (FileNotFoundException e) {
+            LOGGER.warn("Could not find path for class {}", className);
+            return Optional.empty();
+        }
+    }
+
+    public long getHits() {
+        return lookups.get() - misses.get();
+    }
+
+    public long getMisses() {
+        return misses.get();
+    }
+}
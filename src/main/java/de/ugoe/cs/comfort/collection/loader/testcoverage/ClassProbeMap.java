@@ -0,0 +1,395 @@
+/*
+ * Copyright (C) 2017 University of Goettingen, Germany
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.ugoe.cs.comfort.collection.loader.testcoverage;
+
+import com.google.common.base.MoreObjects;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import org.jacoco.core.internal.data.CRC64;
+import org.jacoco.core.internal.flow.ClassProbesAdapter;
+import org.jacoco.core.internal.flow.ClassProbesVisitor;
+import org.jacoco.core.internal.flow.IFrame;
+import org.jacoco.core.internal.flow.LabelInfo;
+import org.jacoco.core.internal.flow.MethodProbesVisitor;
+import org.objectweb.asm.ClassReader;
+import org.objectweb.asm.Handle;
+import org.objectweb.asm.Label;
+import org.objectweb.asm.Opcodes;
+
+/**
+ * Maps every probe of one class to the method it belongs to and to the lines that are covered if this probe was hit.
+ *
+ * JaCoCo marks an instruction as covered if a hit probe can be reached from it, therefore the coverage of a set of
+ * probes is the union of the coverage of each single probe. We build the control flow of each method in one pass over
+ * the class (in the same way as the JaCoCo analyzer does) and record for every probe the instructions and lines that
+ * it covers. Afterwards, the covered methods and lines of every session can be computed directly from its probe array,
+ * without analyzing the class again.
+ *
+ * The probes are assigned with the internal flow API of JaCoCo ({@code org.jacoco.core.internal.flow}), as only this
+ * API gives the same probe ids as the JaCoCo agent. This API is not stable between JaCoCo versions, therefore
+ * org.jacoco.core is pinned to version 0.7.9 in the build.gradle and this class needs to be checked when JaCoCo is
+ * updated.
+ *
+ * @author Fabian Trautsch
+ */
+public class ClassProbeMap {
+    private final long classId;
+    private final String name;
+    private final String packageName;
+    private final List<String> methodNames = new ArrayList<>();
+    private final List<String> methodDescs = new ArrayList<>();
+    private final Map<Integer, Integer> probeMethods = new HashMap<>();
+    private final Map<Integer, int[]> probeLines = new HashMap<>();
+    private int[] probeToMethod = new int[0];
+    private int[][] probeToLines = new int[0][];
+
+    private ClassProbeMap(long classId, String name, String packageName) {
+        this.classId = classId;
+        this.name = name;
+        this.packageName = packageName;
+    }
+
+    /**
+     * Creates the probe map for the given class file content.
+     * @param classBytes content of the class file
+     * @return probe map of the class
+     */
+    public static ClassProbeMap create(byte[] classBytes) {
+        ClassReader reader = new ClassReader(classBytes);
+        String name = reader.getClassName();
+        int pos = name.lastIndexOf('/');
+        String packageName = pos == -1 ? "" : name.substring(0, pos);
+
+        ClassProbeMap classProbeMap = new ClassProbeMap(CRC64.checksum(classBytes), name, packageName);
+        reader.accept(new ClassProbesAdapter(new ClassProbesVisitor() {
+            @Override
+            public MethodProbesVisitor visitMethod(int access, String methodName, String desc, String signature,
+                                                   String[] exceptions) {
+                // Synthetic methods are filtered by the JaCoCo analyzer, except for lambdas
+                if((access & Opcodes.ACC_SYNTHETIC) != 0 && !methodName.startsWith("lambda$")) {
+                    return null;
+                }
+                return classProbeMap.new ProbeFlowVisitor(methodName, desc);
+            }
+
+            @Override
+            public void visitTotalProbeCount(int count) {
+                classProbeMap.setProbeCount(count);
+            }
+        }, false), 0);
+        return classProbeMap;
+    }
+
+    private void setProbeCount(int probeCount) {
+        probeToMethod = new int[probeCount];
+        probeToLines = new int[probeCount][];
+        for(int probeId = 0; probeId < probeCount; probeId++) {
+            probeToMethod[probeId] = probeMethods.getOrDefault(probeId, -1);
+            probeToLines[probeId] = probeLines.getOrDefault(probeId, new int[0]);
+        }
+        probeMethods.clear();
+        probeLines.clear();
+    }
+
+    private void addMethod(String methodName, String desc, Map<Integer, Instruction> probes) {
+        if(probes.isEmpty()) {
+            return;
+        }
+        int index = methodNames.size();
+        methodNames.add(methodName);
+        methodDescs.add(desc);
+
+        for(Map.Entry<Integer, Instruction> probe: probes.entrySet()) {
+            // A hit probe covers its instruction and all of its predecessors, until a covered one is reached again
+            BitSet lines = new BitSet();
+            Map<Instruction, Boolean> covered = new IdentityHashMap<>();
+            Instruction insn = probe.getValue();
+            while(insn != null && covered.put(insn, true) == null) {
+                if(insn.line != -1) {
+                    lines.set(insn.line);
+                }
+                insn = insn.predecessor;
+            }
+            probeMethods.put(probe.getKey(), index);
+            probeLines.put(probe.getKey(), lines.stream().toArray());
+        }
+    }
+
+    /**
+     * Calculates the covered methods and their covered lines for the probes of one session.
+     * @param probes probe array of the execution data of this class
+     * @return map from the index of each covered method to its covered lines
+     */
+    public Map<Integer, BitSet> getCoveredLinesPerMethod(boolean[] probes) {
+        Map<Integer, BitSet> coveredMethods = new HashMap<>();
+        int probeCount = Math.min(probes.length, probeToMethod.length);
+        for(int probeId = 0; probeId < probeCount; probeId++) {
+            if(probes[probeId] && probeToMethod[probeId] != -1) {
+                BitSet lines = coveredMethods.computeIfAbsent(probeToMethod[probeId], k -> new BitSet());
+                for(int line: probeToLines[probeId]) {
+                    lines.set(line);
+                }
+            }
+        }
+        return coveredMethods;
+    }
+
+    public long getClassId() {
+        return classId;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public String getPackageName() {
+        return packageName;
+    }
+
+    public int getProbeCount() {
+        return probeToMethod.length;
+    }
+
+    public String getMethodName(int methodIndex) {
+        return methodNames.get(methodIndex);
+    }
+
+    public String getMethodDesc(int methodIndex) {
+        return methodDescs.get(methodIndex);
+    }
+
+    @Override
+    public String toString() {
+        return MoreObjects.toStringHelper(this)
+                .add("classId", classId)
+                .add("name", name)
+                .add("probeCount", getProbeCount())
+                .add("methods", methodNames)
+                .toString();
+    }
+
+    /**
+     * Instruction of the control flow of a method with the instruction through which it is reached.
+     */
+    private static class Instruction {
+        private final int line;
+        private Instruction predecessor;
+
+        Instruction(int line) {
+            this.line = line;
+        }
+    }
+
+    /**
+     * Builds the control flow of one method like the JaCoCo {@code MethodAnalyzer} and records the instruction of each
+     * probe.
+     */
+    private class ProbeFlowVisitor extends MethodProbesVisitor {
+        private final String methodName;
+        private final String desc;
+        private final List<Label> currentLabels = new ArrayList<>(2);
+        private final Map<Label, Instruction> labelInstructions = new IdentityHashMap<>();
+        private final List<Label> jumpTargets = new ArrayList<>();
+        private final List<Instruction> jumpSources = new ArrayList<>();
+        private final Map<Integer, Instruction> probes = new HashMap<>();
+        private int currentLine = -1;
+        private Instruction lastInsn;
+
+        ProbeFlowVisitor(String methodName, String desc) {
+            this.methodName = methodName;
+            this.desc = desc;
+        }
+
+        @Override
+        public void visitLabel(Label label) {
+            currentLabels.add(label);
+            if(!LabelInfo.isSuccessor(label)) {
+                lastInsn = null;
+            }
+        }
+
+        @Override
+        public void visitLineNumber(int line, Label start) {
+            currentLine = line;
+        }
+
+        private void visitInsn() {
+            Instruction insn = new Instruction(currentLine);
+            if(lastInsn != null) {
+                insn.predecessor = lastInsn;
+            }
+            for(Label label: currentLabels) {
+                labelInstructions.put(label, insn);
+            }
+            currentLabels.clear();
+            lastInsn = insn;
+        }
+
+        private void addJump(Label target) {
+            jumpSources.add(lastInsn);
+            jumpTargets.add(target);
+        }
+
+        private void addProbe(int probeId) {
+            probes.put(probeId, lastInsn);
+        }
+
+        @Override
+        public void visitInsn(int opcode) {
+            visitInsn();
+        }
+
+        @Override
+        public void visitIntInsn(int opcode, int operand) {
+            visitInsn();
+        }
+
+        @Override
+        public void visitVarInsn(int opcode, int var) {
+            visitInsn();
+        }
+
+        @Override
+        public void visitTypeInsn(int opcode, String type) {
+            visitInsn();
+        }
+
+        @Override
+        public void visitFieldInsn(int opcode, String owner, String fieldName, String fieldDesc) {
+            visitInsn();
+        }
+
+        @Override
+        public void visitMethodInsn(int opcode, String owner, String calledName, String calledDesc, boolean itf) {
+            visitInsn();
+        }
+
+        @Override
+        public void visitInvokeDynamicInsn(String calledName, String calledDesc, Handle bsm, Object... bsmArgs) {
+            visitInsn();
+        }
+
+        @Override
+        public void visitJumpInsn(int opcode, Label label) {
+            visitInsn();
+            addJump(label);
+        }
+
+        @Override
+        public void visitLdcInsn(Object cst) {
+            visitInsn();
+        }
+
+        @Override
+        public void visitIincInsn(int var, int increment) {
+            visitInsn();
+        }
+
+        @Override
+        public void visitTableSwitchInsn(int min, int max, Label dflt, Label... labels) {
+            visitSwitchInsn(dflt, labels);
+        }
+
+        @Override
+        public void visitLookupSwitchInsn(Label dflt, int[] keys, Label[] labels) {
+            visitSwitchInsn(dflt, labels);
+        }
+
+        private void visitSwitchInsn(Label dflt, Label[] labels) {
+            visitInsn();
+            LabelInfo.resetDone(labels);
+            addJump(dflt);
+            LabelInfo.setDone(dflt);
+            for(Label label: labels) {
+                if(!LabelInfo.isDone(label)) {
+                    addJump(label);
+                    LabelInfo.setDone(label);
+                }
+            }
+        }
+
+        @Override
+        public void visitMultiANewArrayInsn(String typeDesc, int dims) {
+            visitInsn();
+        }
+
+        @Override
+        public void visitProbe(int probeId) {
+            addProbe(probeId);
+            lastInsn = null;
+        }
+
+        @Override
+        public void visitJumpInsnWithProbe(int opcode, Label label, int probeId, IFrame frame) {
+            visitInsn();
+            addProbe(probeId);
+        }
+
+        @Override
+        public void visitInsnWithProbe(int opcode, int probeId) {
+            visitInsn();
+            addProbe(probeId);
+        }
+
+        @Override
+        public void visitTableSwitchInsnWithProbes(int min, int max, Label dflt, Label[] labels, IFrame frame) {
+            visitSwitchInsnWithProbes(dflt, labels);
+        }
+
+        @Override
+        public void visitLookupSwitchInsnWithProbes(Label dflt, int[] keys, Label[] labels, IFrame frame) {
+            visitSwitchInsnWithProbes(dflt, labels);
+        }
+
+        private void visitSwitchInsnWithProbes(Label dflt, Label[] labels) {
+            visitInsn();
+            LabelInfo.resetDone(dflt);
+            LabelInfo.resetDone(labels);
+            visitSwitchTarget(dflt);
+            for(Label label: labels) {
+                visitSwitchTarget(label);
+            }
+        }
+
+        private void visitSwitchTarget(Label label) {
+            int probeId = LabelInfo.getProbeId(label);
+            if(!LabelInfo.isDone(label)) {
+                if(probeId == LabelInfo.NO_PROBE) {
+                    addJump(label);
+                } else {
+                    addProbe(probeId);
+                }
+                LabelInfo.setDone(label);
+            }
+        }
+
+        @Override
+        public void visitEnd() {
+            for(int i = 0; i < jumpTargets.size(); i++) {
+                Instruction target = labelInstructions.get(jumpTargets.get(i));
+                if(target != null) {
+                    target.predecessor = jumpSources.get(i);
+                }
+            }
+            addMethod(methodName, desc, probes);
+        }
+    }
+}
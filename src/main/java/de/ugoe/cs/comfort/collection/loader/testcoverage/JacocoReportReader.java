@@ -17,17 +17,23 @@
 package de.ugoe.cs.comfort.collection.loader.testcoverage;
 
 import java.io.*;
+import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
 import javax.annotation.Nullable;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import org.jacoco.core.analysis.Analyzer;
 import org.jacoco.core.analysis.CoverageBuilder;
+import org.jacoco.core.data.ExecutionData;
 import org.jacoco.core.data.ExecutionDataReader;
 import org.jacoco.core.data.ExecutionDataStore;
 import org.jacoco.core.data.IExecutionDataVisitor;
 import org.jacoco.core.data.ISessionInfoVisitor;
+import org.jacoco.core.internal.data.CRC64;
 
 /**
  * Based on: https://github.com/SonarSource/sonar-java/blob/master/java-jacoco/src/main/java/org/sonar/plugins/jacoco/JacocoReportReader.java
@@ -40,6 +46,8 @@ public class JacocoReportReader {
 
     private static final Logger LOGGER = LogManager.getLogger(JacocoReportReader.class.getName());
 
+    private final AtomicLong skippedAnalyses = new AtomicLong(0);
+
     public JacocoReportReader(@Nullable File jacocoExecutionData) {
         this.jacocoExecutionData = jacocoExecutionData;
     }
@@ -83,6 +91,60 @@ public class JacocoReportReader {
         return coverageBuilder;
     }
 
+    /**
+     * Analyzes only the class files for which the execution data contains at least one hit probe.
+     * @param executionDataStore execution data of one session
+     * @param classIndex index from class id to class file, see {@link #indexClassFiles(Collection)}
+     * @return coverage builder with the coverage of all hit classes
+     */
+    public CoverageBuilder analyzeFiles(ExecutionDataStore executionDataStore, Map<Long, Path> classIndex) {
+        CoverageBuilder coverageBuilder = new CoverageBuilder();
+        Analyzer analyzer = new Analyzer(executionDataStore, coverageBuilder);
+        int analyzedClasses = 0;
+        for (ExecutionData executionData : executionDataStore.getContents()) {
+            Path classFilePath = classIndex.get(executionData.getId());
+            if (classFilePath != null && hasHitProbes(executionData.getProbes())) {
+                analyzeClassFile(analyzer, classFilePath.toFile());
+                analyzedClasses++;
+            }
+        }
+
+        skippedAnalyses.addAndGet(classIndex.size() - analyzedClasses);
+        return coverageBuilder;
+    }
+
+    /**
+     * Creates an index from the JaCoCo class id to the class file, so that the class files that need to be analyzed
+     * for a session can be found without looking at all class files.
+     * Caller must guarantee that {@code classFiles} are actually class file.
+     * @param classFiles class files of the project
+     * @return index from class id to class file
+     */
+    public static Map<Long, Path> indexClassFiles(Collection<Path> classFiles) {
+        Map<Long, Path> classIndex = new HashMap<>();
+        for (Path classFilePath : classFiles) {
+            try {
+                classIndex.putIfAbsent(CRC64.checksum(Files.readAllBytes(classFilePath)), classFilePath);
+            } catch (IOException e) {
+                LOGGER.warn("Exception during reading of file " + classFilePath.toAbsolutePath(), e);
+            }
+        }
+        return classIndex;
+    }
+
+    public long getSkippedAnalyses() {
+        return skippedAnalyses.get();
+    }
+
+    private static boolean hasHitProbes(boolean[] probes) {
+        for (boolean probe : probes) {
+            if (probe) {
+                return true;
+            }
+        }
+        return false;
+    }
+
     private static void analyzeClassFile(Analyzer analyzer, File classFile) {
         try (InputStream inputStream = new FileInputStream(classFile)) {
             analyzer.analyzeClass(inputStream, classFile.getPath());
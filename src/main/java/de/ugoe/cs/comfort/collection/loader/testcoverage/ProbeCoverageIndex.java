@@ -0,0 +1,128 @@
+/*
+ * Copyright (C) 2017 University of Goettingen, Germany
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.ugoe.cs.comfort.collection.loader.testcoverage;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.jacoco.core.internal.data.CRC64;
+
+/**
+ * Index of the probe maps of all class files of a project, keyed by the JaCoCo class id. The class files are only
+ * indexed by their class id up front. The probe map of a class is created the first time a session hits one of its
+ * probes and is then used to compute the coverage of every session from its probe arrays. Hence, classes that are
+ * never hit by any test are never analyzed.
+ *
+ * @author Fabian Trautsch
+ */
+public class ProbeCoverageIndex {
+    private static final Logger LOGGER = LogManager.getLogger(ProbeCoverageIndex.class.getName());
+
+    private final Map<Long, Path> classFiles = new ConcurrentHashMap<>();
+    private final Map<Long, ClassProbeMap> classes = new ConcurrentHashMap<>();
+
+    private ProbeCoverageIndex() {
+    }
+
+    /**
+     * Indexes each of the given class files by its class id.
+     * Caller must guarantee that {@code classFiles} are actually class file.
+     * @param classFiles class files of the project
+     * @param nThreads number of threads that are used for reading the class files
+     * @return index of all class files
+     */
+    public static ProbeCoverageIndex build(Collection<Path> classFiles, int nThreads) {
+        ProbeCoverageIndex index = new ProbeCoverageIndex();
+
+        final ExecutorService executor = Executors.newFixedThreadPool(nThreads);
+        CountDownLatch latch = new CountDownLatch(classFiles.size());
+        for(Path classFile: classFiles) {
+            executor.submit(() -> {
+                try {
+                    index.classFiles.putIfAbsent(CRC64.checksum(Files.readAllBytes(classFile)), classFile);
+                } catch (IOException | RuntimeException e) {
+                    LOGGER.warn("Exception during reading of file " + classFile.toAbsolutePath(), e);
+                } finally {
+                    latch.countDown();
+                }
+            });
+        }
+
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            LOGGER.catching(e);
+        } finally {
+            executor.shutdown();
+        }
+
+        LOGGER.info("Built probe index for {} classes.", index.classFiles.size());
+        return index;
+    }
+
+    /**
+     * Returns the probe map of the class with the given id. It is created on the first call for this class.
+     * @param classId JaCoCo class id
+     * @return probe map of the class or null, if the class is not part of the project or could not be analyzed
+     */
+    public ClassProbeMap get(long classId) {
+        ClassProbeMap classProbeMap = classes.get(classId);
+        if(classProbeMap != null) {
+            return classProbeMap;
+        }
+
+        Path classFile = classFiles.get(classId);
+        if(classFile == null) {
+            return null;
+        }
+
+        // The map is created outside of the concurrent map, so that other classes are not blocked by the analysis
+        try {
+            classProbeMap = ClassProbeMap.create(Files.readAllBytes(classFile));
+        } catch (IOException | RuntimeException e) {
+            LOGGER.warn("Exception during analysis of file " + classFile.toAbsolutePath(), e);
+            classFiles.remove(classId);
+            return null;
+        }
+        ClassProbeMap existingClassProbeMap = classes.putIfAbsent(classId, classProbeMap);
+        return existingClassProbeMap != null ? existingClassProbeMap : classProbeMap;
+    }
+
+    /**
+     * Returns the number of indexed class files.
+     * @return number of class files
+     */
+    public int size() {
+        return classFiles.size();
+    }
+
+    /**
+     * Returns the number of classes, whose probe map was created, as one of their probes was hit.
+     * @return number of analyzed classes
+     */
+    public int getAnalyzedClasses() {
+        return classes.size();
+    }
+}
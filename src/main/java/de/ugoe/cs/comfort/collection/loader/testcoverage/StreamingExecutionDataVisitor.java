@@ -0,0 +1,102 @@
+/*
+ * Copyright (C) 2017 University of Goettingen, Germany
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.ugoe.cs.comfort.collection.loader.testcoverage;
+
+import java.util.AbstractMap;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import org.jacoco.core.data.ExecutionData;
+import org.jacoco.core.data.ExecutionDataStore;
+import org.jacoco.core.data.IExecutionDataVisitor;
+import org.jacoco.core.data.ISessionInfoVisitor;
+import org.jacoco.core.data.SessionInfo;
+
+/**
+ * Visitor that hands over each session to a (bounded) queue as soon as it was completely read, instead of holding the
+ * execution data of all sessions in memory. A session is complete, if the info of the next session or the end of the
+ * execution data file is read. Consecutive session infos with the same id are merged into one session, while sessions
+ * with the same id that are not consecutive (e.g., the unnamed session between two tests or a rerun test) are handed
+ * over separately. Their probes are merged by the {@link de.ugoe.cs.comfort.collection.loader.TestCoverageLoader}
+ * before they are mapped to the covered units.
+ *
+ * @author Fabian Trautsch
+ */
+public class StreamingExecutionDataVisitor implements ISessionInfoVisitor, IExecutionDataVisitor {
+    /**
+     * Marker that is put into the queue to signal the consumers that there are no more sessions.
+     */
+    public static final Map.Entry<String, ExecutionDataStore> END_OF_SESSIONS =
+            new AbstractMap.SimpleImmutableEntry<>("", new ExecutionDataStore());
+
+    private final BlockingQueue<Map.Entry<String, ExecutionDataStore>> queue;
+    private String sessionId;
+    private ExecutionDataStore executionDataStore;
+    private int numberOfSessions = 0;
+
+    public StreamingExecutionDataVisitor(BlockingQueue<Map.Entry<String, ExecutionDataStore>> queue) {
+        this.queue = queue;
+    }
+
+    @Override
+    public void visitSessionInfo(SessionInfo info) {
+        if(executionDataStore != null && info.getId().equals(sessionId)) {
+            return;
+        }
+
+        publishSession();
+        sessionId = info.getId();
+        executionDataStore = new ExecutionDataStore();
+    }
+
+    @Override
+    public void visitClassExecution(ExecutionData data) {
+        if(executionDataStore == null) {
+            // Execution data without session info belongs to an unnamed session
+            sessionId = "";
+            executionDataStore = new ExecutionDataStore();
+        }
+        executionDataStore.put(data);
+    }
+
+    /**
+     * Hands over the last session to the queue. Must be called after the execution data file was read.
+     */
+    public void finish() {
+        publishSession();
+    }
+
+    public int getNumberOfSessions() {
+        return numberOfSessions;
+    }
+
+    private void publishSession() {
+        if(executionDataStore == null) {
+            return;
+        }
+
+        try {
+            queue.put(new AbstractMap.SimpleImmutableEntry<>(sessionId, executionDataStore));
+            numberOfSessions++;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while handing over session " + sessionId, e);
+        } finally {
+            sessionId = null;
+            executionDataStore = null;
+        }
+    }
+}
@@ -43,7 +43,7 @@ public class BaseMetricCollector extends BaseModel {
         super(configuration);
 
         if(generalConf.getProjectDir() != null) {
-            this.fileNameUtils = new FileNameUtils(generalConf);
+            this.fileNameUtils = FileNameUtils.getInstance(generalConf);
         }
 
         this.filer = filer;
@@ -0,0 +1,113 @@
+/*
+ * Copyright (C) 2017 University of Goettingen, Germany
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package de.ugoe.cs.comfort.collection.metriccollector;
+
+import de.ugoe.cs.comfort.data.graphs.CallGraph;
+import de.ugoe.cs.comfort.data.graphs.TestNodeIndex;
+import de.ugoe.cs.comfort.data.models.IUnit;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.List;
+
+/**
+ * Calculates the maximum call depth of a node, i.e., the largest distance from the node to any production node that
+ * it can reach. As each call has the same weight, the distances are computed with a breadth first search on an
+ * adjacency-indexed copy of the call graph, which is created once and shared by all threads. Nodes are identified by
+ * their id in the {@link TestNodeIndex} of the graph, so that its production nodes can be used directly.
+ *
+ * @author Fabian Trautsch
+ */
+class CallGraphDepthCalculator {
+    private final TestNodeIndex testNodeIndex;
+    private final int numberOfNodes;
+    private final int[] successorOffsets;
+    private final int[] successors;
+    private final BitSet productionNodes;
+
+    // Each thread reuses its own arrays for the search, so that they do not need to be allocated for every node
+    private final ThreadLocal<int[]> distances;
+    private final ThreadLocal<int[]> queues;
+
+    CallGraphDepthCalculator(CallGraph callGraph) {
+        testNodeIndex = callGraph.getTestNodeIndex();
+        numberOfNodes = testNodeIndex.getNumberOfIds();
+        productionNodes = testNodeIndex.getProductionNodeIds();
+
+        // Ids of removed nodes do not have any successors
+        successorOffsets = new int[numberOfNodes + 1];
+        List<Integer> successorList = new ArrayList<>();
+        for(int id = 0; id < numberOfNodes; id++) {
+            IUnit node = testNodeIndex.getNode(id);
+            if(node != null) {
+                for(IUnit successor: callGraph.successors(node)) {
+                    successorList.add(testNodeIndex.getNodeId(successor));
+                }
+            }
+            successorOffsets[id + 1] = successorList.size();
+        }
+        successors = successorList.stream().mapToInt(Integer::intValue).toArray();
+
+        distances = ThreadLocal.withInitial(() -> {
+            int[] distance = new int[numberOfNodes];
+            Arrays.fill(distance, -1);
+            return distance;
+        });
+        queues = ThreadLocal.withInitial(() -> new int[numberOfNodes]);
+    }
+
+    /**
+     * Returns the largest distance from the given node to a production node that can be reached from it.
+     * @param node node of the call graph
+     * @return maximum depth or 0, if no production node can be reached
+     */
+    int getMaximumDepth(IUnit node) {
+        int source = testNodeIndex.getNodeId(node);
+        if(source == -1 || source >= numberOfNodes) {
+            return 0;
+        }
+
+        int[] distance = distances.get();
+        int[] queue = queues.get();
+        int head = 0;
+        int tail = 0;
+        int maximumDepth = 0;
+
+        distance[source] = 0;
+        queue[tail++] = source;
+        while(head < tail) {
+            int current = queue[head++];
+            for(int i = successorOffsets[current]; i < successorOffsets[current + 1]; i++) {
+                int successor = successors[i];
+                if(distance[successor] == -1) {
+                    distance[successor] = distance[current] + 1;
+                    queue[tail++] = successor;
+                    if(productionNodes.get(successor)) {
+                        maximumDepth = Math.max(maximumDepth, distance[successor]);
+                    }
+                }
+            }
+        }
+
+        // Only reset the visited nodes, so that the arrays can be reused
+        for(int i = 0; i < tail; i++) {
+            distance[queue[i]] = -1;
+        }
+        return maximumDepth;
+    }
+}
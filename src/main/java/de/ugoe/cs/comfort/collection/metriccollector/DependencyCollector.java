@@ -22,12 +22,14 @@ import de.ugoe.cs.comfort.annotations.SupportsMethod;
 import de.ugoe.cs.comfort.annotations.SupportsPython;
 import de.ugoe.cs.comfort.configuration.GeneralConfiguration;
 import de.ugoe.cs.comfort.data.CoverageData;
+import de.ugoe.cs.comfort.data.UnitDictionary;
 import de.ugoe.cs.comfort.data.graphs.CallGraph;
 import de.ugoe.cs.comfort.data.graphs.DependencyGraph;
 import de.ugoe.cs.comfort.data.models.IUnit;
 import de.ugoe.cs.comfort.filer.BaseFiler;
 import de.ugoe.cs.comfort.filer.models.Result;
 import java.io.IOException;
+import java.util.BitSet;
 import java.util.HashSet;
 import java.util.Map;
 import java.util.Set;
@@ -62,7 +64,16 @@ public class DependencyCollector extends BaseMetricCollector {
     @SupportsPython
     @SupportsMethod
     public void getNumberOfDependentUnitsForCoverageData(CoverageData data) throws IOException {
-        filer.storeResults(generateResults(data.getCoverageData(), "cov_dep"));
+        UnitDictionary unitDictionary = data.getUnitDictionary();
+        Set<Result> results = new HashSet<>();
+        for(Map.Entry<IUnit, BitSet> entry: data.getCoveredUnitIds().entrySet()) {
+            BitSet units = (BitSet) entry.getValue().clone();
+            unitDictionary.removeTestUnitsBasedOnFQNOfUnit(units);
+            logger.debug("Dependency of {} is: {}", entry.getKey(), entry.getValue().cardinality());
+            results.add(new Result(entry.getKey().getFQN(), entry.getKey().getFilePath(),
+                    "cov_dep", String.valueOf(unitDictionary.getClassIds(units).cardinality())));
+        }
+        filer.storeResults(results);
     }
 
     private Set<Result> generateResults(Map<IUnit, Set<IUnit>> callerCalleePairs, String metricName) {
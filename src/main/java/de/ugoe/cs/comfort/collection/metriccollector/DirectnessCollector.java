@@ -16,7 +16,6 @@
 
 package de.ugoe.cs.comfort.collection.metriccollector;
 
-import de.ugoe.cs.comfort.Utils;
 import de.ugoe.cs.comfort.annotations.SupportsClass;
 import de.ugoe.cs.comfort.annotations.SupportsJava;
 import de.ugoe.cs.comfort.annotations.SupportsMethod;
@@ -53,7 +52,7 @@ public class DirectnessCollector extends BaseMetricCollector {
         for(IUnit node: callGraph.getTestNodes()) {
             Set<String> adjacentUnits = new HashSet<>();
             callGraph.adjacentNodes(node).forEach(x -> {
-                if(!Utils.isTestBasedOnFQN(x.getFQN())) {
+                if(!callGraph.isTestNode(x)) {
                     adjacentUnits.add(x.getFQNOfUnit());
                 }
             });
@@ -76,7 +75,7 @@ public class DirectnessCollector extends BaseMetricCollector {
         for(IUnit node: depGraph.getTestNodes()) {
             Set<String> adjacentUnits = new HashSet<>();
             depGraph.adjacentNodes(node).forEach(x -> {
-                if(!Utils.isTestBasedOnFQN(x.getFQN())) {
+                if(!depGraph.isTestNode(x)) {
                     adjacentUnits.add(x.getFQNOfUnit());
                 }
             });
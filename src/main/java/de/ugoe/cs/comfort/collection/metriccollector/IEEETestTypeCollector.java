@@ -22,6 +22,7 @@ import de.ugoe.cs.comfort.annotations.SupportsMethod;
 import de.ugoe.cs.comfort.annotations.SupportsPython;
 import de.ugoe.cs.comfort.configuration.GeneralConfiguration;
 import de.ugoe.cs.comfort.data.CoverageData;
+import de.ugoe.cs.comfort.data.UnitDictionary;
 import de.ugoe.cs.comfort.data.graphs.CallGraph;
 import de.ugoe.cs.comfort.data.graphs.DependencyGraph;
 import de.ugoe.cs.comfort.data.graphs.IGraph;
@@ -29,6 +30,7 @@ import de.ugoe.cs.comfort.data.models.IUnit;
 import de.ugoe.cs.comfort.filer.BaseFiler;
 import de.ugoe.cs.comfort.filer.models.Result;
 import java.io.IOException;
+import java.util.BitSet;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Map;
@@ -73,7 +75,7 @@ public class IEEETestTypeCollector extends BaseMetricCollector {
     @SupportsClass
     public void createResultsJavaPythonCoverageClass(CoverageData dataSet) throws IOException {
         Map<IUnit, Integer> unitAndAmountOfPackagesTested =
-                getUniqueTestedPackages(dataSet.getCoverageDataClassLevel());
+                getUniqueTestedPackages(dataSet.getUnitDictionary(), dataSet.getCoveredUnitIdsClassLevel());
 
         // Merge results from different methods on class level
         filer.storeResults(TestTypeDetectionUtils.generateResults(generalConf, unitAndAmountOfPackagesTested,
@@ -85,7 +87,8 @@ public class IEEETestTypeCollector extends BaseMetricCollector {
     @SupportsPython
     @SupportsMethod
     public void createResultsJavaPythonCoverageMethod(CoverageData dataSet) throws IOException {
-        Map<IUnit, Integer> unitAndAmountOfPackagesTested = getUniqueTestedPackages(dataSet.getCoverageData());
+        Map<IUnit, Integer> unitAndAmountOfPackagesTested =
+                getUniqueTestedPackages(dataSet.getUnitDictionary(), dataSet.getCoveredUnitIds());
 
         // Merge results from different methods on class level
         filer.storeResults(TestTypeDetectionUtils.generateResults(generalConf, unitAndAmountOfPackagesTested,
@@ -105,6 +108,18 @@ public class IEEETestTypeCollector extends BaseMetricCollector {
     }
 
 
+    private Map<IUnit, Integer> getUniqueTestedPackages(UnitDictionary unitDictionary,
+                                                        Map<IUnit, BitSet> coveredUnitIds) {
+        Map<IUnit, Integer> testAndAmountOfPackagesTested = new HashMap<>();
+
+        for (Map.Entry<IUnit, BitSet> entry : coveredUnitIds.entrySet()) {
+            testAndAmountOfPackagesTested.put(entry.getKey(),
+                    unitDictionary.getPackageIds(entry.getValue()).cardinality());
+        }
+
+        return testAndAmountOfPackagesTested;
+    }
+
     private Map<IUnit, Integer> getUniqueTestedPackages(Map<IUnit, Set<IUnit>> callerCalleePairs) {
         Map<IUnit, Integer> testAndAmountOfPackagesTested = new HashMap<>();
 
@@ -22,6 +22,7 @@ import de.ugoe.cs.comfort.annotations.SupportsMethod;
 import de.ugoe.cs.comfort.annotations.SupportsPython;
 import de.ugoe.cs.comfort.configuration.GeneralConfiguration;
 import de.ugoe.cs.comfort.data.CoverageData;
+import de.ugoe.cs.comfort.data.UnitDictionary;
 import de.ugoe.cs.comfort.data.graphs.CallGraph;
 import de.ugoe.cs.comfort.data.graphs.DependencyGraph;
 import de.ugoe.cs.comfort.data.graphs.IGraph;
@@ -29,8 +30,8 @@ import de.ugoe.cs.comfort.data.models.IUnit;
 import de.ugoe.cs.comfort.filer.BaseFiler;
 import de.ugoe.cs.comfort.filer.models.Result;
 import java.io.IOException;
+import java.util.BitSet;
 import java.util.HashMap;
-import java.util.HashSet;
 import java.util.Map;
 import java.util.Set;
 
@@ -69,7 +70,8 @@ public class ISTQBTestTypeCollector extends BaseMetricCollector {
     @SupportsJava
     @SupportsClass
     public void createResultsJavaPythonClassCoverage(CoverageData dataSet) throws IOException {
-        Map<IUnit, Integer> unitAndAmountOfPackagesTested = getUniqueTestedClasses(dataSet.getCoverageDataClassLevel());
+        Map<IUnit, Integer> unitAndAmountOfPackagesTested = getUniqueTestedClasses(dataSet.getUnitDictionary(),
+                dataSet.getCoveredUnitIdsClassLevel());
 
         // Merge results from different methods on class level
         filer.storeResults(TestTypeDetectionUtils.generateResults(generalConf, unitAndAmountOfPackagesTested,
@@ -80,20 +82,21 @@ public class ISTQBTestTypeCollector extends BaseMetricCollector {
     @SupportsJava
     @SupportsMethod
     public void createResultsJavaPythonMethodCoverage(CoverageData dataSet) throws IOException {
-        Map<IUnit, Integer> unitAndAmountOfPackagesTested = getUniqueTestedClasses(dataSet.getCoverageData());
+        Map<IUnit, Integer> unitAndAmountOfPackagesTested = getUniqueTestedClasses(dataSet.getUnitDictionary(),
+                dataSet.getCoveredUnitIds());
 
         // Merge results from different methods on class level
         filer.storeResults(TestTypeDetectionUtils.generateResults(generalConf, unitAndAmountOfPackagesTested,
                 generalConf.getMethodLevel(), "cov_istqb_met"));
     }
 
-    private Map<IUnit, Integer> getUniqueTestedClasses(Map<IUnit, Set<IUnit>> callerCalleePairs) {
+    private Map<IUnit, Integer> getUniqueTestedClasses(UnitDictionary unitDictionary,
+                                                       Map<IUnit, BitSet> coveredUnitIds) {
         Map<IUnit, Integer> testAndAmountOfClassesTested = new HashMap<>();
 
-        for (Map.Entry<IUnit, Set<IUnit>> entry : callerCalleePairs.entrySet()) {
-            Set<String> classes = new HashSet<>();
-            entry.getValue().forEach(iUnit -> classes.add(iUnit.getFQNOfUnit()));
-            testAndAmountOfClassesTested.put(entry.getKey(), classes.size());
+        for (Map.Entry<IUnit, BitSet> entry : coveredUnitIds.entrySet()) {
+            testAndAmountOfClassesTested.put(entry.getKey(),
+                    unitDictionary.getClassIds(entry.getValue()).cardinality());
         }
 
         return testAndAmountOfClassesTested;
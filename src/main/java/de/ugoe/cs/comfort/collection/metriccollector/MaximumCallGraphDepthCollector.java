@@ -32,7 +32,6 @@ import java.io.FileNotFoundException;
 import java.io.IOException;
 import java.util.HashMap;
 import java.util.HashSet;
-import java.util.LinkedList;
 import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.Callable;
@@ -82,12 +81,14 @@ public class MaximumCallGraphDepthCollector extends BaseMetricCollector {
         final ExecutorService executorService = Executors.newFixedThreadPool(generalConf.getNThreads());
         CompletionService<Map<String, Integer>> pool = new ExecutorCompletionService<>(executorService);
 
-
-        for(IUnit node: callGraph.getTestNodes()) {
-            pool.submit(new LongestPathCalculator(node, callGraph));
+        // The graph is indexed once and then shared by all threads
+        CallGraphDepthCalculator depthCalculator = new CallGraphDepthCalculator(callGraph);
+        Set<IUnit> testNodes = callGraph.getTestNodes();
+        for(IUnit node: testNodes) {
+            pool.submit(new LongestPathCalculator(node, depthCalculator));
         }
 
-        for(IUnit node: callGraph.getTestNodes()) {
+        for(int i = 0; i < testNodes.size(); i++) {
             try {
                 Map<String, Integer> result = pool.take().get();
                 longestPathForTest.putAll(result);
@@ -118,26 +119,17 @@ public class MaximumCallGraphDepthCollector extends BaseMetricCollector {
 
     private class LongestPathCalculator implements Callable<Map<String, Integer>> {
         private IUnit node;
-        private DijkstraAlgorithm dijkstraAlgorithm;
-        private CallGraph callGraph;
+        private CallGraphDepthCalculator depthCalculator;
 
-        public LongestPathCalculator(IUnit node, CallGraph callGraph) {
+        public LongestPathCalculator(IUnit node, CallGraphDepthCalculator depthCalculator) {
             this.node = node;
-            this.dijkstraAlgorithm = new DijkstraAlgorithm(callGraph);
-            this.callGraph = callGraph;
+            this.depthCalculator = depthCalculator;
         }
 
         @Override
         public Map<String, Integer> call() throws Exception {
             // Get depth
-            dijkstraAlgorithm.execute(node);
-            int maximumPath = 0;
-            for(IUnit productionNode: callGraph.getProductionNodes()) {
-                LinkedList<IUnit> shortestPathToNode = dijkstraAlgorithm.getPath(productionNode);
-                if(shortestPathToNode != null) {
-                    maximumPath = max(maximumPath, shortestPathToNode.size()-1);
-                }
-            }
+            int maximumPath = depthCalculator.getMaximumDepth(node);
             logger.debug("Node {} has the maximum path of {}", node.getFQN(), maximumPath);
             Map<String, Integer> callResult = new HashMap<>(1);
             callResult.put(node.getFQN(), maximumPath);
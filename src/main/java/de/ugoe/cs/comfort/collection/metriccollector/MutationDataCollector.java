@@ -22,21 +22,30 @@ import com.google.common.util.concurrent.ListenableFuture;
 import com.google.common.util.concurrent.ListenableFutureTask;
 import com.google.common.util.concurrent.ListeningExecutorService;
 import com.google.common.util.concurrent.MoreExecutors;
-import de.ugoe.cs.comfort.Utils;
+import de.ugoe.cs.comfort.ProjectFileManifest;
 import de.ugoe.cs.comfort.annotations.SupportsJava;
 import de.ugoe.cs.comfort.annotations.SupportsMethod;
+import de.ugoe.cs.comfort.collection.metriccollector.mutation.MutationChangeClassifier;
 import de.ugoe.cs.comfort.collection.metriccollector.mutation.MutationDataCollectorThread;
+import de.ugoe.cs.comfort.collection.metriccollector.mutation.MutationExecutionResult;
 import de.ugoe.cs.comfort.collection.metriccollector.mutation.MutationLocation;
+import de.ugoe.cs.comfort.collection.metriccollector.mutation.MutationMatrix;
+import de.ugoe.cs.comfort.collection.metriccollector.mutation.MutationResultCache;
+import de.ugoe.cs.comfort.collection.metriccollector.mutation.MutationScope;
+import de.ugoe.cs.comfort.collection.metriccollector.mutation.WorkspacePool;
+import de.ugoe.cs.comfort.collection.metriccollector.mutation.executors.PITMatrixExecutor;
 import de.ugoe.cs.comfort.configuration.GeneralConfiguration;
 import de.ugoe.cs.comfort.data.CoverageData;
 import de.ugoe.cs.comfort.data.models.IUnit;
 import de.ugoe.cs.comfort.filer.BaseFiler;
 import de.ugoe.cs.comfort.filer.SmartSHARKFiler;
+import de.ugoe.cs.comfort.filer.models.Mutation;
 import de.ugoe.cs.comfort.filer.models.Result;
 import java.io.IOException;
 import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
@@ -44,12 +53,17 @@ import java.util.concurrent.Callable;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicReference;
 import javax.annotation.ParametersAreNonnullByDefault;
 
 /**
  * @author Fabian Trautsch
  */
 public class MutationDataCollector extends BaseMetricCollector {
+    private MutationResultCache mutationResultCache;
+    private final Map<IUnit, String> cacheKeys = new ConcurrentHashMap<>();
+    private final AtomicReference<Set<Mutation>> projectMutations = new AtomicReference<>();
+
     public MutationDataCollector(GeneralConfiguration configuration, BaseFiler filer) {
         super(configuration, filer);
     }
@@ -57,9 +71,6 @@ public class MutationDataCollector extends BaseMetricCollector {
     @SupportsMethod
     @SupportsJava
     public void getMutationDataMetrics(CoverageData data) throws IOException {
-        final ListeningExecutorService executor =
-                MoreExecutors.listeningDecorator(Executors.newFixedThreadPool(generalConf.getNThreads()));
-
         Set<String> alreadyAnalyzedTests = new HashSet<>();
         Map<MutationLocation, String> generatedMutationsAndItsClassification = new ConcurrentHashMap<>();
         // We can only get this if we are using the smartsharkfiler
@@ -73,51 +84,230 @@ public class MutationDataCollector extends BaseMetricCollector {
         // this here, as we need to store the build file in the corresponding directory. If we then delete it
         // afterwards (or one thread deletes it while another thread is getting all files in the directory) we
         // will throw an exception
-        Set<Path> javaFiles = Utils.getAllFilesFromProjectForRegex(generalConf.getProjectDir(), ".*\\.java");
+        Set<Path> javaFiles = ProjectFileManifest.getInstance(generalConf.getProjectDir()).getJavaFiles();
+
+        // The source files that are read for the change classification may have changed since the last run
+        MutationChangeClassifier.clearSourceFiles();
 
-        // Create a list of futures, we add them here so that we can wait for completion
-        List<ListenableFuture<Void>> futures = new ArrayList<>();
         System.out.println(data.getCoverageData().entrySet());
-        for (Map.Entry<IUnit, Set<IUnit>> entry : data.getCoverageData().entrySet()) {
-            // We skip already analyzed tests
-            if(alreadyAnalyzedTests.contains(entry.getKey().getFQN()) && !generalConf.isForceRerun()) {
-                logger.debug("Test {} already has mutation data...", entry.getKey().getFQN());
+
+        // We skip already analyzed tests
+        List<IUnit> tests = new ArrayList<>();
+        for (IUnit test : data.getCoverageData().keySet()) {
+            if(alreadyAnalyzedTests.contains(test.getFQN()) && !generalConf.isForceRerun()) {
+                logger.debug("Test {} already has mutation data...", test.getFQN());
             } else {
-                // We create a listenable future here so that we can reuse the thread to store its results
-                ListenableFuture<Result> result = executor.submit(
-                        new MutationDataCollectorThread(entry.getKey(), generalConf, fileNameUtils,
-                                generatedMutationsAndItsClassification, javaFiles));
-
-                //Blank runnable to evaluate write completion -> little hack as we can not wait for the completion
-                // of the callbacks but only on the completion of the main task of the thread. Therefore, we
-                // create a callback here that is called every time a thread finishes his storing process
-                Callable<Void> callback = () -> null;
-                final ListenableFutureTask<Void> callbackFuture = ListenableFutureTask.create(callback);
-                futures.add(callbackFuture);
-
-                // Add callback for the thread so that it stores its results
-                Futures.addCallback(result, new FutureCallback<Result>() {
-                    @Override
-                    @ParametersAreNonnullByDefault
-                    public void onSuccess(Result result) {
-                        try {
-                            filer.storeResult(result);
-                            logger.info("Stored result for test {}", entry.getKey().getFQN());
-                        } catch (IOException e) {
-                            logger.catching(e);
-                        } finally {
-                            callbackFuture.run();
-                        }
-                    }
+                tests.add(test);
+            }
+        }
+
+        // Tests whose code did not change since a previous run are taken from the cache. The mutations of the whole
+        // project are needed to complete their results, therefore they are taken from the tests that are executed
+        Map<IUnit, String> cachedTests = new LinkedHashMap<>();
+        if(generalConf.getMutationCacheDir() != null) {
+            mutationResultCache = new MutationResultCache(generalConf.getMutationCacheDir(),
+                    generalConf.getProjectDir(),
+                    ProjectFileManifest.getInstance(generalConf.getProjectDir()).getClassFiles());
+            tests = getUncachedTests(tests, data.getCoverageData(), cachedTests);
+            if(tests.isEmpty() && !cachedTests.isEmpty()) {
+                IUnit test = cachedTests.keySet().iterator().next();
+                cachedTests.remove(test);
+                tests.add(test);
+            }
+        }
+
+        collect(tests, data.getCoverageData(), generatedMutationsAndItsClassification, javaFiles);
+        if(!cachedTests.isEmpty()) {
+            storeCachedResults(cachedTests, data.getCoverageData(), generatedMutationsAndItsClassification,
+                    javaFiles);
+        }
+
+        if(mutationResultCache != null) {
+            mutationResultCache.logStatistics();
+        }
+    }
+
+    private void collect(List<IUnit> tests, Map<IUnit, Set<IUnit>> coverageData,
+                         Map<MutationLocation, String> generatedMutationsAndItsClassification,
+                         Set<Path> javaFiles) throws IOException {
+        if(generalConf.isFullMutationMatrix()) {
+            collectWithMutationMatrix(tests, generatedMutationsAndItsClassification, javaFiles);
+        } else {
+            collectPerTest(tests, coverageData, generatedMutationsAndItsClassification, javaFiles);
+        }
+    }
+
+    /**
+     * Calculates the cache keys of the given tests and adds the tests that have a cached result to cachedTests.
+     * @return tests that have no cached result
+     */
+    private List<IUnit> getUncachedTests(List<IUnit> tests, Map<IUnit, Set<IUnit>> coverageData,
+                                         Map<IUnit, String> cachedTests) {
+        List<IUnit> uncachedTests = new ArrayList<>();
+        for (IUnit test : tests) {
+            String key = mutationResultCache.getKey(test, coverageData.get(test));
+            if(key == null) {
+                uncachedTests.add(test);
+                continue;
+            }
+            cacheKeys.put(test, key);
+
+            if(!generalConf.isForceRerun() && mutationResultCache.contains(key)) {
+                cachedTests.put(test, key);
+            } else {
+                uncachedTests.add(test);
+            }
+        }
+        return uncachedTests;
+    }
+
+    /**
+     * Stores the cached results of the given tests, which are completed with the mutations of the executed tests. If
+     * no test could be executed or a cached result could not be read, the tests are executed instead.
+     */
+    private void storeCachedResults(Map<IUnit, String> cachedTests, Map<IUnit, Set<IUnit>> coverageData,
+                                    Map<MutationLocation, String> generatedMutationsAndItsClassification,
+                                    Set<Path> javaFiles) throws IOException {
+        Set<Mutation> allMutations = projectMutations.get();
+        if(allMutations == null) {
+            logger.warn("Executing {} tests with cached results, as the mutations of the project are unknown.",
+                    cachedTests.size());
+            collect(new ArrayList<>(cachedTests.keySet()), coverageData, generatedMutationsAndItsClassification,
+                    javaFiles);
+            return;
+        }
+
+        List<IUnit> failedTests = new ArrayList<>();
+        for (Map.Entry<IUnit, String> cachedTest : cachedTests.entrySet()) {
+            IUnit test = cachedTest.getKey();
+            Result result = mutationResultCache.get(cachedTest.getValue(), test.getFQN(),
+                    fileNameUtils.getPathForIdentifier(test.getFQN(), generalConf.getMethodLevel()), allMutations);
+            if(result == null) {
+                failedTests.add(test);
+                continue;
+            }
+
+            try {
+                filer.storeResult(result);
+                logger.info("Stored cached result for test {}", test.getFQN());
+            } catch (IOException e) {
+                logger.catching(e);
+            }
+        }
+
+        if(!failedTests.isEmpty()) {
+            collect(failedTests, coverageData, generatedMutationsAndItsClassification, javaFiles);
+        }
+    }
+
+    /**
+     * Stores the result of the test with the filer and adds it to the cache, if a cache is used. The mutations of
+     * the first result are kept, as each result contains all mutations of the project.
+     */
+    private void storeResult(IUnit test, Result result) throws IOException {
+        filer.storeResult(result);
+        logger.info("Stored result for test {}", test.getFQN());
+        projectMutations.compareAndSet(null, result.getMutationResults());
+
+        String key = cacheKeys.get(test);
+        if(key != null) {
+            mutationResultCache.put(key, result);
+        }
+    }
+
+    /**
+     * Runs PIT once for the whole project and splits the resulting mutation matrix into the results of each test.
+     */
+    private void collectWithMutationMatrix(List<IUnit> tests,
+                                           Map<MutationLocation, String> generatedMutationsAndItsClassification,
+                                           Set<Path> javaFiles) throws IOException {
+        if(tests.isEmpty()) {
+            return;
+        }
+
+        PITMatrixExecutor mutationExecutor = new PITMatrixExecutor(javaFiles);
+        try {
+            logger.info("Getting mutation matrix for {} tests...", tests.size());
+            mutationExecutor.execute(generalConf.getProjectDir());
+            MutationMatrix mutationMatrix = mutationExecutor.getMutationMatrix(generalConf.getProjectDir(),
+                    generatedMutationsAndItsClassification);
+
+            for (IUnit test : tests) {
+                Result result = new Result(test.getFQN(),
+                        fileNameUtils.getPathForIdentifier(test.getFQN(), generalConf.getMethodLevel()));
+                MutationExecutionResult mutationExecutionResult =
+                        mutationMatrix.getExecutionResultForTest(test.getFQN());
+                result.addMutationResults(mutationMatrix.getMutationsForTest(test.getFQN()));
+                result.addMetric("mut_genMut", String.valueOf(mutationExecutionResult.getGeneratedMutations()));
+                result.addMetric("mut_killMut", String.valueOf(mutationExecutionResult.getKilledMutations()));
+                result.addMetric("mut_scoreMut", String.valueOf(mutationExecutionResult.getMutationScore()));
+
+                storeResult(test, result);
+            }
+        } finally {
+            mutationExecutor.cleanup();
+        }
+    }
+
+    /**
+     * Runs PIT separately for each test. If more than one thread is used, each thread runs PIT in its own copy of
+     * the project, as the runs would otherwise share their build files. If the mutations are scoped to the coverage,
+     * only the mutations of the classes that are covered by a test are generated for this test.
+     */
+    private void collectPerTest(List<IUnit> tests, Map<IUnit, Set<IUnit>> coverageData,
+                                Map<MutationLocation, String> generatedMutationsAndItsClassification,
+                                Set<Path> javaFiles) throws IOException {
+        int nThreads = Math.min(generalConf.getNThreads(), tests.size());
+        final WorkspacePool workspacePool = nThreads > 1
+                ? new WorkspacePool(generalConf.getProjectDir(), nThreads)
+                : null;
 
-                    @Override
-                    @ParametersAreNonnullByDefault
-                    public void onFailure(Throwable t) {
-                        logger.catching(t);
+        List<IUnit> remainingTests = new ArrayList<>(tests);
+        MutationScope mutationScope = null;
+        if(generalConf.isScopeMutationsToCoverage()) {
+            mutationScope = createMutationScope(remainingTests, coverageData, generatedMutationsAndItsClassification,
+                    javaFiles, workspacePool);
+        }
+
+        final ListeningExecutorService executor =
+                MoreExecutors.listeningDecorator(Executors.newFixedThreadPool(generalConf.getNThreads()));
+
+        // Create a list of futures, we add them here so that we can wait for completion
+        List<ListenableFuture<Void>> futures = new ArrayList<>();
+        for (IUnit test : remainingTests) {
+            // We create a listenable future here so that we can reuse the thread to store its results
+            ListenableFuture<Result> result = executor.submit(
+                    new MutationDataCollectorThread(test, generalConf, fileNameUtils,
+                            generatedMutationsAndItsClassification, javaFiles, workspacePool, mutationScope));
+
+            //Blank runnable to evaluate write completion -> little hack as we can not wait for the completion
+            // of the callbacks but only on the completion of the main task of the thread. Therefore, we
+            // create a callback here that is called every time a thread finishes his storing process
+            Callable<Void> callback = () -> null;
+            final ListenableFutureTask<Void> callbackFuture = ListenableFutureTask.create(callback);
+            futures.add(callbackFuture);
+
+            // Add callback for the thread so that it stores its results
+            Futures.addCallback(result, new FutureCallback<Result>() {
+                @Override
+                @ParametersAreNonnullByDefault
+                public void onSuccess(Result result) {
+                    try {
+                        storeResult(test, result);
+                    } catch (IOException e) {
+                        logger.catching(e);
+                    } finally {
                         callbackFuture.run();
                     }
-                }, MoreExecutors.directExecutor());
-            }
+                }
+
+                @Override
+                @ParametersAreNonnullByDefault
+                public void onFailure(Throwable t) {
+                    logger.catching(t);
+                    callbackFuture.run();
+                }
+            }, MoreExecutors.directExecutor());
         }
 
         // Wait for the completion of all threads
@@ -129,6 +319,38 @@ public class MutationDataCollector extends BaseMetricCollector {
             logger.catching(e);
         }
         executor.shutdown();
+        if(workspacePool != null) {
+            workspacePool.close();
+        }
+        if(mutationScope != null) {
+            mutationScope.logStatistics();
+        }
         logger.info("Done...");
     }
+
+    /**
+     * Executes the first test of the list that can be executed for all mutations and removes the executed tests from
+     * the list. Its mutations are the mutations of the whole project, which are needed for the scoped executions.
+     * @return scope or null, if no test could be executed
+     */
+    private MutationScope createMutationScope(List<IUnit> tests, Map<IUnit, Set<IUnit>> coverageData,
+                                              Map<MutationLocation, String> generatedMutationsAndItsClassification,
+                                              Set<Path> javaFiles, WorkspacePool workspacePool) {
+        while (!tests.isEmpty()) {
+            IUnit test = tests.remove(0);
+            long startTime = System.nanoTime();
+            Result result = new MutationDataCollectorThread(test, generalConf, fileNameUtils,
+                    generatedMutationsAndItsClassification, javaFiles, workspacePool, null).call();
+            if(result != null) {
+                try {
+                    storeResult(test, result);
+                } catch (IOException e) {
+                    logger.catching(e);
+                }
+                return new MutationScope(coverageData, result.getMutationResults(),
+                        (System.nanoTime() - startTime) / 1000000);
+            }
+        }
+        return null;
+    }
 }
@@ -22,12 +22,14 @@ import de.ugoe.cs.comfort.annotations.SupportsMethod;
 import de.ugoe.cs.comfort.annotations.SupportsPython;
 import de.ugoe.cs.comfort.configuration.GeneralConfiguration;
 import de.ugoe.cs.comfort.data.CoverageData;
+import de.ugoe.cs.comfort.data.UnitDictionary;
 import de.ugoe.cs.comfort.data.graphs.CallGraph;
 import de.ugoe.cs.comfort.data.graphs.DependencyGraph;
 import de.ugoe.cs.comfort.data.models.IUnit;
 import de.ugoe.cs.comfort.filer.BaseFiler;
 import de.ugoe.cs.comfort.filer.models.Result;
 import java.io.IOException;
+import java.util.BitSet;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Map;
@@ -46,15 +48,8 @@ public class TestCoverageCollector extends BaseMetricCollector{
     @SupportsJava
     @SupportsPython
     public void createResultsJavaPythonMethodLevel(CoverageData coverageData) throws IOException {
-        Map<IUnit, Set<String>> testAndCoveredMethods = new HashMap<>();
-
-        for (Map.Entry<IUnit, Set<IUnit>> entry : coverageData.getCoverageData().entrySet()) {
-            Set<String> coveredMethods = testAndCoveredMethods.getOrDefault(entry.getKey(), new HashSet<>());
-            entry.getValue().forEach(testedMethod -> coveredMethods.add(testedMethod.getFQNOfUnit()));
-            testAndCoveredMethods.put(entry.getKey(), coveredMethods);
-        }
-
-        filer.storeResults(createResultsForMap(testAndCoveredMethods, true, "cov_tcov_met"));
+        filer.storeResults(createResultsForCoverage(coverageData.getUnitDictionary(),
+                coverageData.getCoveredUnitIds(), "cov_tcov_met"));
     }
 
 
@@ -62,15 +57,8 @@ public class TestCoverageCollector extends BaseMetricCollector{
     @SupportsJava
     @SupportsPython
     public void createResultsJavaPythonClassLevel(CoverageData coverageData) throws IOException {
-        Map<IUnit, Set<String>> testAndCoveredMethods = new HashMap<>();
-
-        for (Map.Entry<IUnit, Set<IUnit>> entry : coverageData.getCoverageDataClassLevel().entrySet()) {
-            Set<String> coveredMethods = testAndCoveredMethods.getOrDefault(entry.getKey(), new HashSet<>());
-            entry.getValue().forEach(testedMethod -> coveredMethods.add(testedMethod.getFQNOfUnit()));
-            testAndCoveredMethods.put(entry.getKey(), coveredMethods);
-        }
-
-        filer.storeResults(createResultsForMap(testAndCoveredMethods, false, "cov_tcov"));
+        filer.storeResults(createResultsForCoverage(coverageData.getUnitDictionary(),
+                coverageData.getCoveredUnitIdsClassLevel(), "cov_tcov"));
     }
 
     @SupportsJava
@@ -118,6 +106,28 @@ public class TestCoverageCollector extends BaseMetricCollector{
         filer.storeResults(createResultsForMap(testAndCoveredMethods, false, "dep_tcov"));
     }
 
+    private Set<Result> createResultsForCoverage(UnitDictionary unitDictionary, Map<IUnit, BitSet> coveredUnitIds,
+                                                 String metricName) {
+        // Project the covered units of each test to their classes and calculate the classes covered by all tests
+        Map<IUnit, BitSet> testAndCoveredClasses = new HashMap<>();
+        BitSet allCoveredClasses = new BitSet();
+        for(Map.Entry<IUnit, BitSet> entry: coveredUnitIds.entrySet()) {
+            BitSet coveredClasses = unitDictionary.getClassIds(entry.getValue());
+            allCoveredClasses.or(coveredClasses);
+            testAndCoveredClasses.put(entry.getKey(), coveredClasses);
+        }
+        int overallCoveredClasses = allCoveredClasses.cardinality();
+
+        // Afterwards we calculate the percentage of covered classes for all tests
+        Set<Result> results = new HashSet<>();
+        for (Map.Entry<IUnit, BitSet> entry : testAndCoveredClasses.entrySet()) {
+            int percent = (100 * entry.getValue().cardinality() / overallCoveredClasses);
+            results.add(new Result(entry.getKey().getFQN(), entry.getKey().getFilePath(), metricName,
+                    String.valueOf(percent)));
+        }
+        return results;
+    }
+
     private Set<Result> createResultsForMap(Map<IUnit, Set<String>> testAndCoveredMethods,
                                             boolean methodLevel, String metricName) {
         // First we need to go through everything and get the number of all covered methods by all tests
@@ -18,6 +18,7 @@ package de.ugoe.cs.comfort.collection.metriccollector;
 
 import de.ugoe.cs.comfort.configuration.GeneralConfiguration;
 import de.ugoe.cs.comfort.data.graphs.IGraph;
+import de.ugoe.cs.comfort.data.graphs.ReachabilityIndex;
 import de.ugoe.cs.comfort.data.models.IUnit;
 import de.ugoe.cs.comfort.filer.models.Result;
 import java.util.HashMap;
@@ -37,32 +38,28 @@ class TestTypeDetectionUtils {
     static Map<IUnit, Set<IUnit>> getCallPairsOnClassLevel(IGraph graph) {
         LOGGER.info("Getting caller/callee pairs on class level...");
 
-        Map<IUnit, Set<IUnit>> classesWithItsCallees = new HashMap<>();
+        // Only check tests
+        Set<IUnit> testNodes = new HashSet<>();
         for(IUnit classNode: graph.nodes()) {
-            String fqnOfClass = classNode.getFQNOfUnit();
-
-            // Only check tests
             if(classNode.isTestBasedOnFQNofUnit()) {
-                LOGGER.debug("Looking at test {}", classNode);
-
-                // Only visit every node once
-                Set<IUnit> visitedNodes = new HashSet<>();
+                testNodes.add(classNode);
+            }
+        }
 
-                // Traverse Graph from this node and store all visited nodes in the set
-                traverseGraphFromNode(graph, classNode, visitedNodes);
+        // Compute the reachable nodes of all tests at once
+        ReachabilityIndex reachabilityIndex = ReachabilityIndex.create(graph, testNodes);
+        LOGGER.debug("Graph has {} strongly connected components", reachabilityIndex.getNumberOfComponents());
 
-                // Remove the test node (as it do not have a dependency on itself)
-                visitedNodes.remove(classNode);
+        Map<IUnit, Set<IUnit>> classesWithItsCallees = new HashMap<>();
+        for(IUnit classNode: testNodes) {
+            LOGGER.debug("Looking at test {}", classNode);
+            Set<IUnit> visitedNodes = reachabilityIndex.getReachableNodes(classNode);
 
-                // Get all callees from the class that we are looking at and add the calls from the method of this
-                // class to the set of callees
-                Set<IUnit> callees = classesWithItsCallees.containsKey(classNode)
-                        ? classesWithItsCallees.get(classNode) : new HashSet<>();
-                callees.addAll(visitedNodes);
-                classesWithItsCallees.put(classNode, callees);
+            // Remove the test node (as it do not have a dependency on itself)
+            visitedNodes.remove(classNode);
+            classesWithItsCallees.put(classNode, visitedNodes);
 
-                LOGGER.debug("It has the following nodes as dependencies: {}", visitedNodes);
-            }
+            LOGGER.debug("It has the following nodes as dependencies: {}", visitedNodes);
         }
         return classesWithItsCallees;
     }
@@ -135,17 +132,4 @@ class TestTypeDetectionUtils {
     }
     */
 
-    private static void traverseGraphFromNode(IGraph graph, IUnit node, Set<IUnit> visitedNodes) {
-        visitedNodes.add(node);
-
-        if(graph.successors(node).size() == 0) {
-            return;
-        }
-
-        for(IUnit successorNode: graph.successors(node)) {
-            if(!visitedNodes.contains(successorNode)) {
-                traverseGraphFromNode(graph, successorNode, visitedNodes);
-            }
-        }
-    }
 }
@@ -16,6 +16,8 @@
 
 package de.ugoe.cs.comfort.collection.metriccollector.mutation;
 
+import com.google.common.jimfs.Configuration;
+import com.google.common.jimfs.Jimfs;
 import de.ugoe.cs.BugFixClassifier;
 import de.ugoe.cs.comfort.collection.metriccollector.mutation.operators.BaseOperator;
 import de.ugoe.cs.comfort.collection.metriccollector.mutation.operators.ConditionalsBoundaryOperator;
@@ -26,27 +28,59 @@ import de.ugoe.cs.comfort.collection.metriccollector.mutation.operators.NegateCo
 import de.ugoe.cs.comfort.collection.metriccollector.mutation.operators.RemoveIncrementsOperator;
 import de.ugoe.cs.comfort.exception.MutationOperatorNotFittingException;
 import de.ugoe.cs.comfort.exception.MutationResultException;
-import java.io.File;
 import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.FileSystem;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.Comparator;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
-import org.apache.commons.io.FileUtils;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
 /**
+ * Classifies mutations by applying the mutation operator to the source code of the mutated class and classifying the
+ * resulting change. The original source code of each file is read only once and the mutation is applied in memory, so
+ * that the classification can be done in parallel. As the classifier reads both versions from a path, the mutated
+ * source code is written to an in-memory file system, where the line endings of the original file are kept.
+ *
  * @author Fabian Trautsch
  */
 public class MutationChangeClassifier {
     private static Logger logger = LogManager.getLogger("MutationChangeClassifier");
     private static Pattern dataChangePattern = Pattern.compile("\\w+\\s\\w+\\s*=\\s*.+");
+    private static final Map<Path, SourceFile> SOURCE_FILES = new ConcurrentHashMap<>();
+    private static final FileSystem CHANGED_FILES = Jimfs.newFileSystem(Configuration.unix());
+
+    /**
+     * Removes all cached source files, e.g., if the source code of the project has changed.
+     */
+    public static void clearSourceFiles() {
+        SOURCE_FILES.clear();
+    }
+
+    private static SourceFile getSourceFile(Path file) throws IOException {
+        try {
+            return SOURCE_FILES.computeIfAbsent(file, path -> {
+                try {
+                    return new SourceFile(new String(Files.readAllBytes(path), StandardCharsets.UTF_8));
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
 
     public static String getChangeClassification(Path file, String mutationOperator, int lineNumber)
             throws MutationResultException {
@@ -122,27 +156,29 @@ public class MutationChangeClassifier {
                 return null;
             }
 
-            // Copy files
-            Path changedFile = File.createTempFile("comfort-", "-suffix").toPath();
-            FileUtils.copyFile(file.toFile(), changedFile.toFile());
-
-            // Change file based on used mutationoperator
+            // Change the source code based on used mutationoperator
+            SourceFile sourceFile = getSourceFile(file);
             Map<String, Integer> results = new HashMap<>();
+            Path changedFile = null;
             try {
-                op.initialize(changedFile, lineNumber);
+                op.initialize(sourceFile.getLines(), lineNumber);
                 op.changeFile();
 
-                // Call bugfixclassifier to get results
+                // Write the changed source code and call bugfixclassifier to get results
+                changedFile = writeChangedFile(file,
+                        sourceFile.replaceLine(lineNumber, op.getLines().get(lineNumber - 1)));
                 results = BugFixClassifier.getBugClassifications(file, changedFile);
             } catch (MutationOperatorNotFittingException e) {
                 logger.debug("Got error: {}. Falling back to backup method...", e.getMessage());
             } finally {
-                Files.delete(changedFile);
+                if(changedFile != null) {
+                    Files.delete(changedFile);
+                }
             }
 
             //Backup method if classificaton was not successful
             if(results.size() == 0) {
-                return getClassificationBasedOnChangedLineInFile(file, lineNumber);
+                return getClassificationBasedOnChangedLine(sourceFile.getLines(), lineNumber);
             }
             return Collections.max(results.entrySet(), Comparator.comparingInt(Map.Entry::getValue)).getKey();
         } catch (IOException e) {
@@ -151,10 +187,21 @@ public class MutationChangeClassifier {
 
     }
 
-    private static String getClassificationBasedOnChangedLineInFile(Path file, int lineNumber) throws IOException {
-        // Read in File
-        List<String> lines = Files.readAllLines(file);
+    /**
+     * Writes the changed source code of a file to the in-memory file system. The returned file must be deleted by
+     * the caller.
+     * @param file original file
+     * @param content changed source code
+     * @return in-memory file with the changed source code
+     * @throws IOException if the file could not be written
+     */
+    static Path writeChangedFile(Path file, String content) throws IOException {
+        Path changedFile = CHANGED_FILES.getPath("/" + UUID.randomUUID() + "-" + file.getFileName());
+        Files.write(changedFile, content.getBytes(StandardCharsets.UTF_8));
+        return changedFile;
+    }
 
+    private static String getClassificationBasedOnChangedLine(List<String> lines, int lineNumber) {
         // Set normalized line number (because Arrays start at 0 and not 1)
         int normalizedLineNumber = lineNumber-1;
 
@@ -176,4 +223,58 @@ public class MutationChangeClassifier {
         }
 
     }
+
+    /**
+     * Lines and content of an original source file. The content is kept as it is, so that a changed line can be
+     * replaced without changing the line endings of the file.
+     */
+    static class SourceFile {
+        private final String content;
+        private final List<String> lines = new ArrayList<>();
+        private final List<Integer> lineStarts = new ArrayList<>();
+        private final List<Integer> lineEnds = new ArrayList<>();
+
+        SourceFile(String content) {
+            this.content = content;
+
+            // Split the lines like BufferedReader.readLine, i.e., at \n, \r, or \r\n
+            int start = 0;
+            int pos = 0;
+            while(pos < content.length()) {
+                char character = content.charAt(pos);
+                if(character == '\n' || character == '\r') {
+                    addLine(start, pos);
+                    pos += character == '\r' && pos + 1 < content.length() && content.charAt(pos + 1) == '\n'
+                            ? 2 : 1;
+                    start = pos;
+                } else {
+                    pos++;
+                }
+            }
+            if(start < content.length()) {
+                addLine(start, content.length());
+            }
+        }
+
+        private void addLine(int start, int end) {
+            lines.add(content.substring(start, end));
+            lineStarts.add(start);
+            lineEnds.add(end);
+        }
+
+        List<String> getLines() {
+            return Collections.unmodifiableList(lines);
+        }
+
+        /**
+         * Replaces one line of the source file, while all other characters (including line endings) are kept.
+         * @param lineNumber line that should be replaced (starting at 1)
+         * @param newLine new content of the line without line ending
+         * @return changed content of the source file
+         */
+        String replaceLine(int lineNumber, String newLine) {
+            return content.substring(0, lineStarts.get(lineNumber - 1)) + newLine
+                    + content.substring(lineEnds.get(lineNumber - 1));
+        }
+    }
 }
@@ -18,13 +18,13 @@ package de.ugoe.cs.comfort.collection.metriccollector.mutation;
 
 import de.ugoe.cs.comfort.FileNameUtils;
 import de.ugoe.cs.comfort.collection.metriccollector.mutation.executors.IMutationExecutor;
-import de.ugoe.cs.comfort.collection.metriccollector.mutation.executors.PITExecutor;
 import de.ugoe.cs.comfort.configuration.GeneralConfiguration;
 import de.ugoe.cs.comfort.data.models.IUnit;
 import de.ugoe.cs.comfort.filer.models.Mutation;
 import de.ugoe.cs.comfort.filer.models.Result;
 import java.io.IOException;
 import java.nio.file.Path;
+import java.util.HashSet;
 import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.Callable;
@@ -44,16 +44,42 @@ public class MutationDataCollectorThread implements Callable<Result> {
 
     private Map<MutationLocation, String> generatedMutationsAndItsClassification;
     private Set<Path> javaFiles;
+    private WorkspacePool workspacePool;
+    private MutationScope mutationScope;
 
     public MutationDataCollectorThread(IUnit unit, GeneralConfiguration generalConfiguration,
                                        FileNameUtils fileNameUtils,
                                        Map<MutationLocation, String> generatedMutationsAndItsClassification,
                                        Set<Path> javaFiles) {
+        this(unit, generalConfiguration, fileNameUtils, generatedMutationsAndItsClassification, javaFiles, null,
+                null);
+    }
+
+    /**
+     * Creates a thread that executes the mutation testing in a workspace of the given pool. If no pool is given, the
+     * mutation testing is executed directly in the project directory. If a scope is given, only the mutations of the
+     * classes that are covered by the test are generated.
+     */
+    public MutationDataCollectorThread(IUnit unit, GeneralConfiguration generalConfiguration,
+                                       FileNameUtils fileNameUtils,
+                                       Map<MutationLocation, String> generatedMutationsAndItsClassification,
+                                       Set<Path> javaFiles, WorkspacePool workspacePool,
+                                       MutationScope mutationScope) {
         this.unit = unit;
         this.generalConf = generalConfiguration;
         this.fileNameUtils = fileNameUtils;
         this.generatedMutationsAndItsClassification = generatedMutationsAndItsClassification;
         this.javaFiles = javaFiles;
+        this.workspacePool = workspacePool;
+        this.mutationScope = mutationScope;
+    }
+
+    private IMutationExecutor createMutationExecutor() throws ReflectiveOperationException {
+        return (IMutationExecutor) Class
+                .forName("de.ugoe.cs.comfort.collection.metriccollector.mutation.executors."
+                        + generalConf.getMutationExecutor())
+                .getConstructor(Set.class)
+                .newInstance(javaFiles);
     }
 
     @Override
@@ -64,23 +90,50 @@ public class MutationDataCollectorThread implements Callable<Result> {
         logger.info("{} - Getting mutation data for {}.{}", threadName, className, methodName);
 
         // Choose correct mutation executor
-        IMutationExecutor mutationExecutor = new PITExecutor(javaFiles);
+        IMutationExecutor mutationExecutor;
+        try {
+            mutationExecutor = createMutationExecutor();
+        } catch (ReflectiveOperationException e) {
+            logger.catching(e);
+            return null;
+        }
 
+        Path workspace = null;
         try {
             Result result = new Result(unit.getFQN(),
                     fileNameUtils.getPathForIdentifier(unit.getFQN(), generalConf.getMethodLevel()));
 
 
-            // Execute mutation executor -> do mutation testing for className.methodName
-            MutationExecutionResult mutationExecutionResult = mutationExecutor.execute(
-                    generalConf.getProjectDir(),
-                    className,
-                    methodName
-            );
-
-            // If execution was successful, we will read the results
-            Set<Mutation> mutationResults = mutationExecutor.getDetailedResults(
-                    generalConf.getProjectDir(), generatedMutationsAndItsClassification);
+            Set<String> targetClasses = null;
+            if(mutationScope != null) {
+                targetClasses = mutationScope.getTargetClasses(unit);
+                mutationExecutor.setTargetClasses(targetClasses);
+            }
+            long startTime = System.nanoTime();
+
+            // If the test does not cover any mutations, there is nothing to execute
+            MutationExecutionResult mutationExecutionResult = null;
+            Set<Mutation> mutationResults = new HashSet<>();
+            if(targetClasses == null || !targetClasses.isEmpty()) {
+                // Execute mutation executor -> do mutation testing for className.methodName
+                workspace = workspacePool == null ? generalConf.getProjectDir() : workspacePool.lease();
+                mutationExecutionResult = mutationExecutor.execute(
+                        workspace,
+                        className,
+                        methodName
+                );
+
+                // If execution was successful, we will read the results
+                mutationResults = mutationExecutor.getDetailedResults(
+                        generalConf.getProjectDir(), generatedMutationsAndItsClassification);
+            }
+
+            // Add the mutations outside of the scope
+            if(mutationScope != null) {
+                mutationResults = mutationScope.completeMutationResults(targetClasses, mutationResults);
+                mutationExecutionResult = mutationScope.completeExecutionResult(mutationExecutionResult,
+                        (System.nanoTime() - startTime) / 1000000);
+            }
 
             // And add these results to this specific test
             result.addMutationResults(mutationResults);
@@ -97,6 +150,9 @@ public class MutationDataCollectorThread implements Callable<Result> {
             return null;
         } finally {
             mutationExecutor.cleanup();
+            if(workspacePool != null && workspace != null) {
+                workspacePool.release(workspace);
+            }
         }
     }
 
@@ -0,0 +1,156 @@
+/*
+ * Copyright (C) 2017 University of Goettingen, Germany
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package de.ugoe.cs.comfort.collection.metriccollector.mutation;
+
+import com.google.common.base.MoreObjects;
+import de.ugoe.cs.comfort.filer.models.Mutation;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Kill matrix of one mutation testing run, i.e., all generated mutations together with the tests that killed them and
+ * the tests that covered them without killing them. The matrix can be split into the results of each single test,
+ * which are the same results that a mutation testing run with only this test would produce.
+ *
+ * @author Fabian Trautsch
+ */
+public class MutationMatrix {
+    private final List<MatrixEntry> entries = new ArrayList<>();
+    private final Set<String> tests = new HashSet<>();
+
+    /**
+     * Adds a mutation to the matrix.
+     * @param mutation mutation together with its overall result
+     * @param killingTests fully qualified names of the tests that killed the mutation
+     * @param succeedingTests fully qualified names of the tests that covered the mutation, but did not kill it
+     */
+    public void addMutation(Mutation mutation, Set<String> killingTests, Set<String> succeedingTests) {
+        entries.add(new MatrixEntry(mutation, killingTests, succeedingTests));
+        tests.addAll(killingTests);
+        tests.addAll(succeedingTests);
+    }
+
+    /**
+     * Returns all mutations together with their overall result.
+     * @return mutations of the run
+     */
+    public Set<Mutation> getMutations() {
+        Set<Mutation> mutations = new HashSet<>();
+        for(MatrixEntry entry: entries) {
+            mutations.add(entry.mutation);
+        }
+        return mutations;
+    }
+
+    /**
+     * Returns all tests that covered at least one of the mutations.
+     * @return fully qualified names of the tests
+     */
+    public Set<String> getTests() {
+        return tests;
+    }
+
+    public int getNumberOfMutations() {
+        return entries.size();
+    }
+
+    /**
+     * Returns all mutations with the result that they have for the given test. A mutation that was killed by the test
+     * gets the overall result of the mutation (e.g., KILLED or TIMED_OUT), a mutation that was covered by the test
+     * is SURVIVED and all other mutations are NO_COVERAGE.
+     * @param test fully qualified name of the test
+     * @return mutations with the results of the test
+     */
+    public Set<Mutation> getMutationsForTest(String test) {
+        Set<Mutation> mutations = new HashSet<>();
+        for(MatrixEntry entry: entries) {
+            Mutation mutation = entry.mutation;
+            mutations.add(new Mutation(mutation.getLocation(), mutation.getMType(), mutation.getLineNumber(),
+                    entry.getResultForTest(test), mutation.getClassification()));
+        }
+        return mutations;
+    }
+
+    /**
+     * Returns the number of generated and killed mutations as well as the mutation score for the given test. The
+     * score is calculated in the same way as PIT does.
+     * @param test fully qualified name of the test
+     * @return execution result of the test
+     */
+    public MutationExecutionResult getExecutionResultForTest(String test) {
+        int killedMutations = 0;
+        for(MatrixEntry entry: entries) {
+            if(entry.killingTests.contains(test)) {
+                killedMutations++;
+            }
+        }
+
+        MutationExecutionResult executionResult = new MutationExecutionResult();
+        executionResult.setNumTests(1);
+        executionResult.setGeneratedMutations(entries.size());
+        executionResult.setKilledMutations(killedMutations);
+        if(!entries.isEmpty()) {
+            executionResult.setMutationScore(Math.round((100f / entries.size()) * killedMutations));
+        }
+        return executionResult;
+    }
+
+    /**
+     * Converts the name of a test as it is reported by PIT (e.g., "org.foo.FooTest.testBar(org.foo.FooTest)") into
+     * the fully qualified name of the test (e.g., "org.foo.FooTest.testBar").
+     * @param pitTestName name of the test reported by PIT
+     * @return fully qualified name of the test
+     */
+    public static String getTestName(String pitTestName) {
+        String testName = pitTestName.trim();
+        int pos = testName.indexOf('(');
+        return pos == -1 ? testName : testName.substring(0, pos);
+    }
+
+    @Override
+    public String toString() {
+        return MoreObjects.toStringHelper(this)
+                .add("mutations", entries.size())
+                .add("tests", tests.size())
+                .toString();
+    }
+
+    private static class MatrixEntry {
+        private final Mutation mutation;
+        private final Set<String> killingTests;
+        private final Set<String> succeedingTests;
+
+        MatrixEntry(Mutation mutation, Set<String> killingTests, Set<String> succeedingTests) {
+            this.mutation = mutation;
+            this.killingTests = killingTests;
+            this.succeedingTests = succeedingTests;
+        }
+
+        String getResultForTest(String test) {
+            if(killingTests.contains(test)) {
+                return mutation.getResult();
+            }
+            if(succeedingTests.contains(test)) {
+                return "SURVIVED";
+            }
+            return "NO_COVERAGE";
+        }
+    }
+}
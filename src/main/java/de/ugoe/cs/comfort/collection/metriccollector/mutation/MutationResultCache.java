@@ -0,0 +1,288 @@
+/*
+ * Copyright (C) 2017 University of Goettingen, Germany
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package de.ugoe.cs.comfort.collection.metriccollector.mutation;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.google.common.hash.Hasher;
+import com.google.common.hash.Hashing;
+import de.ugoe.cs.comfort.data.models.IUnit;
+import de.ugoe.cs.comfort.filer.models.Mutation;
+import de.ugoe.cs.comfort.filer.models.Result;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.objectweb.asm.ClassReader;
+
+/**
+ * On-disk cache of the mutation results of tests. The results are stored under a key that is calculated from the
+ * test, the bytecode of the test class and of the classes that are covered by the test, and the pom template that
+ * configures PIT and its mutators. Hence, a result is reused if neither the test nor the code that it covers have
+ * changed, independent of the commit or filer that is used.
+ *
+ * Only the parts of a result that depend on the covered classes are cached, i.e., the results of the mutations in
+ * these classes and the number of killed mutations. The mutations of all other classes can not be covered by the
+ * test. They are added as NO_COVERAGE from the mutations of the current run when a result is read, together with
+ * the number of generated mutations and the mutation score (in the same way as the {@link MutationScope} does).
+ *
+ * @author Fabian Trautsch
+ */
+public class MutationResultCache {
+    private final Logger logger = LogManager.getLogger(this.getClass().getName());
+    private final ObjectMapper mapper = new ObjectMapper();
+
+    private final Path cacheDir;
+    private final String templateHash;
+    private final Map<String, String> classHashes;
+    private final Map<String, Set<String>> classesOfKeys = new ConcurrentHashMap<>();
+
+    private final AtomicInteger hits = new AtomicInteger();
+    private final AtomicInteger misses = new AtomicInteger();
+
+    /**
+     * Creates the cache and hashes each class file of the project once. Inner classes are hashed together with their
+     * outer class, as the coverage data only contains the outer classes.
+     * @param cacheDir directory in which the results are stored
+     * @param projectRoot root directory of the project, which contains the pom template
+     * @param classFiles class files of the project
+     * @throws IOException if a class file or the template could not be read
+     */
+    public MutationResultCache(Path cacheDir, Path projectRoot, Collection<Path> classFiles) throws IOException {
+        this.cacheDir = cacheDir;
+        Files.createDirectories(cacheDir);
+
+        Path template = projectRoot.resolve("pom_template.xml");
+        templateHash = Files.exists(template)
+                ? Hashing.sha256().hashBytes(Files.readAllBytes(template)).toString()
+                : "";
+
+        // Sort the hashes of all class files that belong to a class, so that the order of the files does not matter
+        Map<String, Set<String>> fileHashesPerClass = new HashMap<>();
+        for(Path classFile : classFiles) {
+            byte[] content = Files.readAllBytes(classFile);
+            try {
+                String className = getOuterClassName(new ClassReader(content).getClassName().replace('/', '.'));
+                fileHashesPerClass.computeIfAbsent(className, k -> new TreeSet<>())
+                        .add(Hashing.sha256().hashBytes(content).toString());
+            } catch (RuntimeException e) {
+                logger.warn("Could not read class file {}: {}", classFile, e.getMessage());
+            }
+        }
+
+        classHashes = new HashMap<>();
+        for(Map.Entry<String, Set<String>> entry : fileHashesPerClass.entrySet()) {
+            classHashes.put(entry.getKey(),
+                    Hashing.sha256().hashString(String.join(",", entry.getValue()), StandardCharsets.UTF_8)
+                            .toString());
+        }
+
+        logger.info("Hashed {} classes for the mutation result cache in {}", classHashes.size(), cacheDir);
+    }
+
+    private static String getOuterClassName(String className) {
+        int pos = className.indexOf('$');
+        return pos == -1 ? className : className.substring(0, pos);
+    }
+
+    /**
+     * Calculates the cache key of a test. The key only depends on the test, the template, and the test class and
+     * covered classes, so that changes of other classes do not invalidate the cached result.
+     * @param test test for which the key should be calculated
+     * @param coveredUnits units that are covered by the test
+     * @return key of the test or null, if the bytecode of the test class is unknown
+     */
+    public String getKey(IUnit test, Collection<IUnit> coveredUnits) {
+        String testClass = getOuterClassName(test.getFQNOfUnit());
+        if(!classHashes.containsKey(testClass)) {
+            return null;
+        }
+
+        // Classes whose bytecode is not part of the project (e.g., library classes) can not change the key
+        Map<String, String> hashesOfClasses = new TreeMap<>();
+        hashesOfClasses.put(testClass, classHashes.get(testClass));
+        for(IUnit coveredUnit : coveredUnits) {
+            String className = getOuterClassName(coveredUnit.getFQNOfUnit());
+            hashesOfClasses.put(className, classHashes.getOrDefault(className, ""));
+        }
+
+        Hasher hasher = Hashing.sha256().newHasher()
+                .putString(test.getFQN(), StandardCharsets.UTF_8)
+                .putString(templateHash, StandardCharsets.UTF_8);
+        for(Map.Entry<String, String> entry : hashesOfClasses.entrySet()) {
+            hasher.putString(entry.getKey(), StandardCharsets.UTF_8)
+                    .putString(entry.getValue(), StandardCharsets.UTF_8);
+        }
+        String key = hasher.hash().toString();
+        classesOfKeys.put(key, hashesOfClasses.keySet());
+        return key;
+    }
+
+    private Path getCacheFile(String key) {
+        return cacheDir.resolve(key.substring(0, 2)).resolve(key + ".json");
+    }
+
+    /**
+     * Checks whether a result is cached for the given key.
+     * @param key key of the test
+     * @return true, if there is a result for this key
+     */
+    public boolean contains(String key) {
+        if(Files.exists(getCacheFile(key))) {
+            return true;
+        }
+        misses.incrementAndGet();
+        return false;
+    }
+
+    /**
+     * Reads the cached result for the given key and completes it with the mutations of the current run.
+     * @param key key of the test
+     * @param id id of the result that is created
+     * @param pathToFile path to the file of the test
+     * @param allMutations mutations of the whole project in the current run
+     * @return cached result or null, if there is no result for this key
+     */
+    public Result get(String key, String id, Path pathToFile, Set<Mutation> allMutations) {
+        Path cacheFile = getCacheFile(key);
+        if(!Files.exists(cacheFile)) {
+            misses.incrementAndGet();
+            return null;
+        }
+
+        try {
+            CacheEntry entry = mapper.readValue(cacheFile.toFile(), CacheEntry.class);
+            Set<Mutation> mutationResults = new HashSet<>(entry.getMutations());
+            for(Mutation mutation : allMutations) {
+                if(!entry.getClasses().contains(getOuterClassName(MutationScope.getMutatedClass(mutation)))) {
+                    mutationResults.add(new Mutation(mutation.getLocation(), mutation.getMType(),
+                            mutation.getLineNumber(), "NO_COVERAGE", mutation.getClassification()));
+                }
+            }
+
+            // The mutation score is calculated in the same way as PIT does
+            int killedMutations = Integer.parseInt(entry.getMetrics().getOrDefault("mut_killMut", "0"));
+            int mutationScore = allMutations.isEmpty()
+                    ? 0
+                    : Math.round((100f / allMutations.size()) * killedMutations);
+
+            Result result = new Result(id, pathToFile);
+            entry.getMetrics().forEach(result::addMetric);
+            result.addMetric("mut_genMut", String.valueOf(allMutations.size()));
+            result.addMetric("mut_scoreMut", String.valueOf(mutationScore));
+            result.addMutationResults(mutationResults);
+            hits.incrementAndGet();
+            return result;
+        } catch (IOException | RuntimeException e) {
+            logger.warn("Could not read cached mutation result {}: {}", cacheFile, e.getMessage());
+            misses.incrementAndGet();
+            return null;
+        }
+    }
+
+    /**
+     * Stores the metrics and the mutations of the test class and covered classes of the result under the given key.
+     * The key must have been calculated by this cache. The file is written to a temporary file first, so that
+     * concurrent readers never see a partially written result.
+     * @param key key of the test
+     * @param result result of the mutation testing of the test
+     */
+    public void put(String key, Result result) {
+        Set<String> classes = classesOfKeys.get(key);
+        if(classes == null) {
+            logger.warn("Could not cache mutation result {}, as its key is unknown", result.getId());
+            return;
+        }
+
+        Path cacheFile = getCacheFile(key);
+        try {
+            Files.createDirectories(cacheFile.getParent());
+            Path tmpFile = Files.createTempFile(cacheFile.getParent(), key, ".tmp");
+            CacheEntry entry = new CacheEntry();
+            entry.setClasses(new TreeSet<>(classes));
+            entry.getMetrics().putAll(result.getMetrics());
+            entry.getMetrics().remove("mut_genMut");
+            entry.getMetrics().remove("mut_scoreMut");
+            for(Mutation mutation : result.getMutationResults()) {
+                if(classes.contains(getOuterClassName(MutationScope.getMutatedClass(mutation)))) {
+                    entry.getMutations().add(mutation);
+                }
+            }
+            mapper.writeValue(tmpFile.toFile(), entry);
+            Files.move(tmpFile, cacheFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            logger.warn("Could not cache mutation result {}: {}", cacheFile, e.getMessage());
+        }
+    }
+
+    public void logStatistics() {
+        logger.info("Mutation result cache: {} hits, {} misses", hits.get(), misses.get());
+    }
+
+    /**
+     * Content of a cache file.
+     */
+    static class CacheEntry {
+        @JsonProperty("classes")
+        private Set<String> classes = new TreeSet<>();
+
+        @JsonProperty("metrics")
+        private Map<String, String> metrics = new HashMap<>();
+
+        @JsonProperty("mutations")
+        private List<Mutation> mutations = new ArrayList<>();
+
+        public Set<String> getClasses() {
+            return classes;
+        }
+
+        public void setClasses(Set<String> classes) {
+            this.classes = classes;
+        }
+
+        public Map<String, String> getMetrics() {
+            return metrics;
+        }
+
+        public void setMetrics(Map<String, String> metrics) {
+            this.metrics = metrics;
+        }
+
+        public List<Mutation> getMutations() {
+            return mutations;
+        }
+
+        public void setMutations(List<Mutation> mutations) {
+            this.mutations = mutations;
+        }
+    }
+}
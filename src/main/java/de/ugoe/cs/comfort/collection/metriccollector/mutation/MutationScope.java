@@ -0,0 +1,152 @@
+/*
+ * Copyright (C) 2017 University of Goettingen, Germany
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package de.ugoe.cs.comfort.collection.metriccollector.mutation;
+
+import de.ugoe.cs.comfort.data.models.IUnit;
+import de.ugoe.cs.comfort.filer.models.Mutation;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+/**
+ * Restricts the mutation testing of a test to the classes that are covered by the test. PIT only generates the
+ * mutations of these classes, all other mutations can not be killed by the test and are reported as NO_COVERAGE
+ * without being executed.
+ *
+ * The mutations of the whole project are taken from one unscoped execution, so that the results of the scoped
+ * executions are the same as before.
+ *
+ * @author Fabian Trautsch
+ */
+public class MutationScope {
+    private static final Logger LOGGER = LogManager.getLogger(MutationScope.class.getName());
+
+    private final Map<IUnit, Set<IUnit>> coverageData;
+    private final Set<Mutation> allMutations;
+    private final Set<String> mutatedClasses = new HashSet<>();
+    private final long unscopedExecutionTime;
+
+    private final AtomicInteger scopedExecutions = new AtomicInteger(0);
+    private final AtomicLong scopedGeneratedMutations = new AtomicLong(0);
+    private final AtomicLong scopedExecutionTime = new AtomicLong(0);
+
+    /**
+     * Creates the scope.
+     * @param coverageData production units that are covered by each test
+     * @param allMutations mutations of an unscoped execution
+     * @param unscopedExecutionTime runtime of the unscoped execution in milliseconds
+     */
+    public MutationScope(Map<IUnit, Set<IUnit>> coverageData, Set<Mutation> allMutations,
+                         long unscopedExecutionTime) {
+        this.coverageData = coverageData;
+        this.allMutations = allMutations;
+        this.unscopedExecutionTime = unscopedExecutionTime;
+        for(Mutation mutation: allMutations) {
+            mutatedClasses.add(getMutatedClass(mutation));
+        }
+    }
+
+    /**
+     * Returns the fully qualified names of the classes that are covered by the test and that contain mutations. If
+     * there are no such classes, the test does not need to be executed.
+     * @param test test
+     * @return covered classes with mutations
+     */
+    public Set<String> getTargetClasses(IUnit test) {
+        Set<String> targetClasses = new HashSet<>();
+        for(IUnit coveredUnit: coverageData.getOrDefault(test, new HashSet<>())) {
+            if(mutatedClasses.contains(coveredUnit.getFQNOfUnit())) {
+                targetClasses.add(coveredUnit.getFQNOfUnit());
+            }
+        }
+        return targetClasses;
+    }
+
+    /**
+     * Adds all mutations outside of the target classes as NO_COVERAGE to the results of a scoped execution.
+     * @param targetClasses classes to which the execution was restricted
+     * @param mutationResults results of the scoped execution
+     * @return results of all mutations
+     */
+    public Set<Mutation> completeMutationResults(Set<String> targetClasses, Set<Mutation> mutationResults) {
+        Set<Mutation> allMutationResults = new HashSet<>(mutationResults);
+        for(Mutation mutation: allMutations) {
+            if(!targetClasses.contains(getMutatedClass(mutation))) {
+                allMutationResults.add(new Mutation(mutation.getLocation(), mutation.getMType(),
+                        mutation.getLineNumber(), "NO_COVERAGE", mutation.getClassification()));
+            }
+        }
+        return allMutationResults;
+    }
+
+    /**
+     * Calculates the execution result of all mutations from the result of a scoped execution. The mutation score is
+     * calculated in the same way as PIT does.
+     * @param scopedResult result of the scoped execution or null, if nothing was executed
+     * @param executionTime runtime of the scoped execution in milliseconds
+     * @return result for all mutations
+     */
+    public MutationExecutionResult completeExecutionResult(MutationExecutionResult scopedResult,
+                                                           long executionTime) {
+        MutationExecutionResult executionResult = new MutationExecutionResult();
+        if(scopedResult != null) {
+            executionResult.setNumTests(scopedResult.getNumTests());
+            executionResult.setNumMutationUnits(scopedResult.getNumMutationUnits());
+            executionResult.setExecutionTime(scopedResult.getExecutionTime());
+            executionResult.setKilledMutations(scopedResult.getKilledMutations());
+            scopedGeneratedMutations.addAndGet(scopedResult.getGeneratedMutations());
+        }
+        executionResult.setGeneratedMutations(allMutations.size());
+        if(!allMutations.isEmpty()) {
+            executionResult.setMutationScore(
+                    Math.round((100f / allMutations.size()) * executionResult.getKilledMutations()));
+        }
+
+        scopedExecutions.incrementAndGet();
+        scopedExecutionTime.addAndGet(executionTime);
+        return executionResult;
+    }
+
+    static String getMutatedClass(Mutation mutation) {
+        String location = mutation.getLocation();
+        int pos = location.lastIndexOf('.');
+        return pos == -1 ? location : location.substring(0, pos);
+    }
+
+    public int getNumberOfMutations() {
+        return allMutations.size();
+    }
+
+    /**
+     * Logs the number of generated mutations and the runtime per test before and after the scoping.
+     */
+    public void logStatistics() {
+        int executions = scopedExecutions.get();
+        if(executions == 0) {
+            return;
+        }
+        LOGGER.info("Mutations generated per test: {} before and {} after scoping to the covered classes.",
+                allMutations.size(), scopedGeneratedMutations.get() / executions);
+        LOGGER.info("Runtime per test: {} ms before and {} ms after scoping to the covered classes.",
+                unscopedExecutionTime, scopedExecutionTime.get() / executions);
+    }
+}
@@ -0,0 +1,277 @@
+/*
+ * Copyright (C) 2017 University of Goettingen, Germany
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package de.ugoe.cs.comfort.collection.metriccollector.mutation;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.LinkOption;
+import java.nio.file.Path;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import org.apache.commons.io.FileUtils;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+/**
+ * Pool of isolated copies of a project, so that several mutation testing runs can be executed in parallel without
+ * sharing temporary build files, the target directories or databases that are created by the tests.
+ *
+ * The workspaces are created next to the project, so that they are on the same file system. Only immutable inputs of
+ * the build, i.e., the source files in src directories and the pom files, are hard linked into the workspaces. All
+ * other files (e.g., resources, databases, configuration files, and the target directories) are copied, as a build
+ * step or test that changes them in place would otherwise change the project and all other workspaces. Files are
+ * copied instead of linked, if hard links are not supported. The .git folder is not part of the workspaces.
+ *
+ * A worker leases a workspace for one run and releases it afterwards. The workspace is then reset to the state of the
+ * project, i.e., created files are deleted and changed or deleted files of the project are restored.
+ *
+ * @author Fabian Trautsch
+ */
+public class WorkspacePool implements Closeable {
+    private static final Logger LOGGER = LogManager.getLogger(WorkspacePool.class.getName());
+    private static final List<String> SOURCE_FILE_EXTENSIONS = Arrays.asList(".java", ".py", ".groovy", ".kt",
+            ".scala");
+
+    private final Path projectRoot;
+    private final Path poolRoot;
+    private final Set<Path> directories = new HashSet<>();
+    private final Set<Path> linkedFiles = new HashSet<>();
+    private final Set<Path> copiedFiles = new HashSet<>();
+    private final List<Path> allWorkspaces = new ArrayList<>();
+    private final BlockingQueue<Path> workspaces = new LinkedBlockingQueue<>();
+    private volatile boolean hardLinksSupported = true;
+
+    /**
+     * Creates the given number of workspaces for the project.
+     * @param projectRoot root of the project
+     * @param size number of workspaces
+     * @throws IOException if the workspaces could not be created
+     */
+    public WorkspacePool(Path projectRoot, int size) throws IOException {
+        this.projectRoot = projectRoot.toAbsolutePath().normalize();
+        Path parent = this.projectRoot.getParent();
+        if(parent == null) {
+            throw new IOException("Could not create workspaces for project " + projectRoot);
+        }
+
+        scanProject();
+        poolRoot = Files.createTempDirectory(parent, "comfort-workspaces-");
+        try {
+            for(int i = 0; i < size; i++) {
+                Path workspace = poolRoot.resolve("workspace-" + i);
+                createWorkspace(workspace);
+                allWorkspaces.add(workspace);
+                workspaces.add(workspace);
+            }
+        } catch (IOException e) {
+            close();
+            throw e;
+        }
+        LOGGER.info("Created {} workspaces with {} linked and {} copied files in {}.", size, linkedFiles.size(),
+                copiedFiles.size(), poolRoot);
+    }
+
+    private void scanProject() throws IOException {
+        Files.walkFileTree(projectRoot, new SimpleFileVisitor<Path>() {
+            @Override
+            public FileVisitResult preVisitDirectory(Path dir, BasicFileAttributes attrs) {
+                Path relativePath = projectRoot.relativize(dir);
+                if(relativePath.toString().equals(".git")) {
+                    return FileVisitResult.SKIP_SUBTREE;
+                }
+                directories.add(relativePath);
+                return FileVisitResult.CONTINUE;
+            }
+
+            @Override
+            public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) {
+                Path relativePath = projectRoot.relativize(file);
+                if(attrs.isRegularFile() && isImmutableInput(relativePath)) {
+                    linkedFiles.add(relativePath);
+                } else {
+                    copiedFiles.add(relativePath);
+                }
+                return FileVisitResult.CONTINUE;
+            }
+        });
+    }
+
+    /**
+     * Checks if the file is only read by the build, i.e., if it is a source file in a src directory or a pom file
+     * outside of the build output.
+     */
+    static boolean isImmutableInput(Path relativePath) {
+        boolean inSourceDirectory = false;
+        for(Path part: relativePath) {
+            if(part.toString().equals("target")) {
+                return false;
+            }
+            if(part.toString().equals("src")) {
+                inSourceDirectory = true;
+            }
+        }
+
+        String fileName = relativePath.getFileName().toString();
+        if(fileName.equals("pom.xml") || fileName.equals("pom_template.xml")) {
+            return true;
+        }
+        return inSourceDirectory && SOURCE_FILE_EXTENSIONS.stream().anyMatch(fileName::endsWith);
+    }
+
+    private void createWorkspace(Path workspace) throws IOException {
+        for(Path directory: directories) {
+            Files.createDirectories(workspace.resolve(directory.toString()));
+        }
+        for(Path file: linkedFiles) {
+            restoreFile(workspace, file);
+        }
+        for(Path file: copiedFiles) {
+            restoreFile(workspace, file);
+        }
+    }
+
+    private void restoreFile(Path workspace, Path relativePath) throws IOException {
+        Path original = projectRoot.resolve(relativePath);
+        Path target = workspace.resolve(relativePath.toString());
+        if(hardLinksSupported && linkedFiles.contains(relativePath)) {
+            try {
+                Files.deleteIfExists(target);
+                Files.createLink(target, original);
+                return;
+            } catch (UnsupportedOperationException | IOException e) {
+                LOGGER.warn("Could not create hard link for {}, files are copied instead: {}", original,
+                        e.getMessage());
+                hardLinksSupported = false;
+            }
+        }
+        Files.copy(original, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.COPY_ATTRIBUTES,
+                LinkOption.NOFOLLOW_LINKS);
+    }
+
+    /**
+     * Leases a workspace and waits until one is available.
+     * @return root of the workspace
+     * @throws IOException if the thread was interrupted while waiting
+     */
+    public Path lease() throws IOException {
+        try {
+            return workspaces.take();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while waiting for a workspace", e);
+        }
+    }
+
+    /**
+     * Resets the workspace and gives it back to the pool.
+     * @param workspace root of the workspace
+     */
+    public void release(Path workspace) {
+        try {
+            reset(workspace);
+        } catch (IOException e) {
+            LOGGER.warn("Could not reset workspace {}, creating it again: {}", workspace, e.getMessage());
+            try {
+                FileUtils.deleteDirectory(workspace.toFile());
+                createWorkspace(workspace);
+            } catch (IOException e1) {
+                LOGGER.catching(e1);
+            }
+        }
+        workspaces.add(workspace);
+    }
+
+    void reset(Path workspace) throws IOException {
+        // Delete everything that is not part of the project and restore changed copies
+        Files.walkFileTree(workspace, new SimpleFileVisitor<Path>() {
+            @Override
+            public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) throws IOException {
+                Path relativePath = workspace.relativize(file);
+                if(!copiedFiles.contains(relativePath) && !linkedFiles.contains(relativePath)) {
+                    Files.delete(file);
+                } else if(isChanged(projectRoot.resolve(relativePath), attrs)) {
+                    restoreFile(workspace, relativePath);
+                }
+                return FileVisitResult.CONTINUE;
+            }
+
+            @Override
+            public FileVisitResult postVisitDirectory(Path dir, IOException exc) throws IOException {
+                if(exc != null) {
+                    throw exc;
+                }
+                if(!directories.contains(workspace.relativize(dir))) {
+                    Files.delete(dir);
+                }
+                return FileVisitResult.CONTINUE;
+            }
+        });
+
+        // Restore deleted directories and files
+        for(Path directory: directories) {
+            Files.createDirectories(workspace.resolve(directory.toString()));
+        }
+        for(Path file: linkedFiles) {
+            if(!Files.exists(workspace.resolve(file.toString()), LinkOption.NOFOLLOW_LINKS)) {
+                restoreFile(workspace, file);
+            }
+        }
+        for(Path file: copiedFiles) {
+            if(!Files.exists(workspace.resolve(file.toString()), LinkOption.NOFOLLOW_LINKS)) {
+                restoreFile(workspace, file);
+            }
+        }
+    }
+
+    private static boolean isChanged(Path original, BasicFileAttributes copyAttributes) throws IOException {
+        BasicFileAttributes originalAttributes = Files.readAttributes(original, BasicFileAttributes.class,
+                LinkOption.NOFOLLOW_LINKS);
+        // Hard links to the original file are never changed, as they share the content
+        if(copyAttributes.fileKey() != null && copyAttributes.fileKey().equals(originalAttributes.fileKey())) {
+            return false;
+        }
+        return originalAttributes.size() != copyAttributes.size()
+                || !originalAttributes.lastModifiedTime().equals(copyAttributes.lastModifiedTime());
+    }
+
+    public int size() {
+        return allWorkspaces.size();
+    }
+
+    /**
+     * Deletes all workspaces.
+     */
+    @Override
+    public void close() {
+        try {
+            FileUtils.deleteDirectory(poolRoot.toFile());
+        } catch (IOException e) {
+            LOGGER.catching(e);
+        }
+    }
+}
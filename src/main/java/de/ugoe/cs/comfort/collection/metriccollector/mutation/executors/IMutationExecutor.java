@@ -31,6 +31,12 @@ public interface IMutationExecutor {
 
     MutationExecutionResult execute(Path projectRoot, String className, String methodName) throws IOException;
 
+    /**
+     * Restricts the mutations of the next executions to the given classes.
+     * @param targetClasses fully qualified names of the classes that are mutated or null for all classes
+     */
+    void setTargetClasses(Set<String> targetClasses);
+
     Set<Mutation> getDetailedResults(Path projectRoot,
                                      Map<MutationLocation, String> generatedMutationsAndItsClassification)
             throws IOException;
@@ -27,15 +27,19 @@ import java.io.File;
 import java.io.FileInputStream;
 import java.io.IOException;
 import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 import org.apache.commons.io.FileUtils;
@@ -59,6 +63,7 @@ public class PITExecutor implements IMutationExecutor {
 
     private Path pitReportFolder;
     private Path newPomFile;
+    private Set<String> targetClasses = null;
 
 
     public PITExecutor(Set<Path> javaFiles) {
@@ -66,23 +71,14 @@ public class PITExecutor implements IMutationExecutor {
     }
 
     private void createNewPom(Path projectRoot, String className, String methodName) throws IOException {
-        Path template;
-        Path parent = projectRoot.getParent();
-        if(parent != null) {
-            template = Paths.get(projectRoot.toString(), "pom_template.xml");
-            pitReportFolder = Files.createTempDirectory(parent, "comfort-");
-        } else {
-            throw new IOException("Could not create pit reports folder");
-        }
-
+        Path template = Paths.get(projectRoot.toString(), "pom_template.xml");
+        createPitReportFolder(projectRoot);
 
         // Read template
         String content = new String(Files.readAllBytes(template), StandardCharsets.UTF_8);
 
         // Substitute placeholder with the correct test name that should be tested
-        Map<String, String> valuesMap = new HashMap<>();
-        valuesMap.put("pitclass", className);
-        valuesMap.put("pitmethod", methodName);
+        Map<String, String> valuesMap = getTemplateValues(className, methodName);
         valuesMap.put("pitreport", pitReportFolder.toString());
 
         StrSubstitutor sub = new StrSubstitutor(valuesMap);
@@ -92,8 +88,73 @@ public class PITExecutor implements IMutationExecutor {
         Files.write(newPomFile, resolvedString.getBytes("UTF-8"));
     }
 
+    /**
+     * Returns the values for the placeholders of the pom template. Besides the test class and method, the template
+     * can use ${pitformat} and ${pitmatrix} for the output format and the fullMutationMatrix option of PIT. If the
+     * mutations are restricted to target classes, the template can use ${pittargetclasses} for the params of the
+     * targetClasses option. A default for unrestricted executions can be given, e.g.,
+     * ${pittargetclasses:-&lt;param&gt;org.foo.*&lt;/param&gt;}.
+     * @param className name of the test class
+     * @param methodName name of the test method
+     * @return values of the placeholders
+     */
+    protected Map<String, String> getTemplateValues(String className, String methodName) {
+        Map<String, String> valuesMap = new HashMap<>();
+        valuesMap.put("pitclass", className);
+        valuesMap.put("pitmethod", methodName);
+        valuesMap.put("pitformat", "CSV");
+        valuesMap.put("pitmatrix", "false");
+        if(targetClasses != null) {
+            StringBuilder params = new StringBuilder();
+            for(String targetClass: targetClasses) {
+                params.append("<param>").append(targetClass).append("</param>");
+            }
+            valuesMap.put("pittargetclasses", params.toString());
+        }
+        return valuesMap;
+    }
+
+    @Override
+    public void setTargetClasses(Set<String> targetClasses) {
+        this.targetClasses = targetClasses;
+    }
+
+    protected Set<String> getTargetClasses() {
+        return targetClasses;
+    }
+
+    /**
+     * Creates the folder for the PIT reports next to the project.
+     * @param projectRoot root of the project
+     * @throws IOException if the folder could not be created
+     */
+    protected void createPitReportFolder(Path projectRoot) throws IOException {
+        Path parent = projectRoot.getParent();
+        if(parent != null) {
+            pitReportFolder = Files.createTempDirectory(parent, "comfort-");
+        } else {
+            throw new IOException("Could not create pit reports folder");
+        }
+    }
+
+    /**
+     * Removes files of former test executions from the project.
+     * @param projectRoot root of the project
+     * @throws IOException if the files could not be deleted
+     */
+    protected void prepareProject(Path projectRoot) throws IOException {
+        // monkeypatching for mybatis-3
+        if (Files.exists(Paths.get(projectRoot.toString(), "ibderby"))) {
+            FileUtils.forceDelete(Paths.get(projectRoot.toString(), "ibderby").toFile()); //delete directory
+        }
+    }
+
+    protected Path getPitReportFolder() {
+        return pitReportFolder;
+    }
+
     public void cleanup() {
-        if (Files.exists(pitReportFolder)) {
+        if (pitReportFolder != null && Files.exists(pitReportFolder)) {
             try {
                 FileUtils.deleteDirectory(pitReportFolder.toFile());
             } catch (IOException e) {
@@ -102,7 +163,9 @@ public class PITExecutor implements IMutationExecutor {
         }
 
         try {
-            Files.deleteIfExists(newPomFile);
+            if (newPomFile != null) {
+                Files.deleteIfExists(newPomFile);
+            }
         } catch (IOException e) {
             LOGGER.catching(e);
         }
@@ -119,10 +182,7 @@ public class PITExecutor implements IMutationExecutor {
 
             LOGGER.info("Executing Pitest...");
 
-            // monkeypatching for mybatis-3
-            if (Files.exists(Paths.get(projectRoot.toString(), "ibderby"))) {
-                FileUtils.forceDelete(Paths.get(projectRoot.toString(), "ibderby").toFile()); //delete directory
-            }
+            prepareProject(projectRoot);
 
             // Create request -> pitest execute
             InvocationRequest request = new DefaultInvocationRequest();
@@ -163,7 +223,7 @@ public class PITExecutor implements IMutationExecutor {
                                             Map<MutationLocation, String> generatedMutationsAndItsClassification)
             throws IOException {
         String line;
-        Set<Mutation> mutationResults = new HashSet<>();
+        List<Mutation> mutations = new ArrayList<>();
 
         // Read out pitest results
         BufferedReader br = new BufferedReader(new InputStreamReader(new FileInputStream(
@@ -177,29 +237,77 @@ public class PITExecutor implements IMutationExecutor {
             int lineNumber =  Integer.parseInt(cols[4]);
             String result = cols[5];
 
-            // Try to get a change clasification for the mutation
-            // But we catch the exceptions here, as this kind of data is not crucial
-            MutationLocation mutationLocation = new MutationLocation(location, mutationOperator, lineNumber);
-            String changeClassification = generatedMutationsAndItsClassification.getOrDefault(mutationLocation, null);
-            try {
-                if(changeClassification == null) {
-                    changeClassification = MutationChangeClassifier.getChangeClassification(
-                            Utils.getPathForFullyQualifiedClassNameInSetOfPaths(javaFiles, cols[1], projectRoot),
-                            mutationOperator,
-                            lineNumber
-                    );
-                    generatedMutationsAndItsClassification.put(mutationLocation, changeClassification);
-                }
-                LOGGER.debug("Got the following change classification {}", changeClassification);
-            } catch (MutationResultException e) {
-                changeClassification = "OTHER";
-                LOGGER.catching(e);
+            mutations.add(new Mutation(location, mutationOperator, lineNumber, result, null));
+        }
+        br.close();
+
+        classifyMutations(projectRoot, mutations, generatedMutationsAndItsClassification);
+        return new HashSet<>(mutations);
+    }
+
+    /**
+     * Sets the change classification of the given mutations. Classifications that are not already known are
+     * calculated in parallel, as the classifications of different mutations are independent of each other.
+     * @param projectRoot root of the project
+     * @param mutations mutations that should be classified
+     * @param generatedMutationsAndItsClassification already known classifications, which are updated
+     * @throws IOException if the source file of a mutated class can not be read
+     */
+    protected void classifyMutations(Path projectRoot, List<Mutation> mutations,
+                                     Map<MutationLocation, String> generatedMutationsAndItsClassification)
+            throws IOException {
+        Map<MutationLocation, Mutation> unknownMutations = new HashMap<>();
+        for(Mutation mutation : mutations) {
+            MutationLocation mutationLocation = getMutationLocation(mutation);
+            if(!generatedMutationsAndItsClassification.containsKey(mutationLocation)) {
+                unknownMutations.putIfAbsent(mutationLocation, mutation);
             }
+        }
 
-            mutationResults.add(new Mutation(location, mutationOperator, lineNumber, result, changeClassification));
+        Map<MutationLocation, String> newClassifications = new ConcurrentHashMap<>();
+        try {
+            unknownMutations.entrySet().parallelStream().forEach(entry -> {
+                try {
+                    String changeClassification = getChangeClassification(projectRoot, entry.getValue());
+                    if(changeClassification != null) {
+                        newClassifications.put(entry.getKey(), changeClassification);
+                    }
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
         }
-        br.close();
-        return mutationResults;
+        generatedMutationsAndItsClassification.putAll(newClassifications);
+
+        for(Mutation mutation : mutations) {
+            mutation.setClassification(generatedMutationsAndItsClassification.get(getMutationLocation(mutation)));
+        }
+    }
+
+    private static MutationLocation getMutationLocation(Mutation mutation) {
+        return new MutationLocation(mutation.getMType(), mutation.getLocation(), mutation.getLineNumber());
+    }
+
+    private String getChangeClassification(Path projectRoot, Mutation mutation) throws IOException {
+        // Try to get a change clasification for the mutation
+        // But we catch the exceptions here, as this kind of data is not crucial
+        String location = mutation.getLocation();
+        String mutatedClass = location.substring(0, location.lastIndexOf('.'));
+        String changeClassification;
+        try {
+            changeClassification = MutationChangeClassifier.getChangeClassification(
+                    Utils.getPathForFullyQualifiedClassNameInSetOfPaths(javaFiles, mutatedClass, projectRoot),
+                    mutation.getMType(),
+                    mutation.getLineNumber()
+            );
+            LOGGER.debug("Got the following change classification {}", changeClassification);
+        } catch (MutationResultException e) {
+            changeClassification = "OTHER";
+            LOGGER.catching(e);
+        }
+        return changeClassification;
     }
 
     private static class PITExecutionOutputParser implements InvocationOutputHandler {
@@ -0,0 +1,57 @@
+/*
+ * Copyright (C) 2017 University of Goettingen, Germany
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package de.ugoe.cs.comfort.collection.metriccollector.mutation.executors;
+
+import de.ugoe.cs.comfort.collection.metriccollector.mutation.MutationExecutionResult;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Set;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+/**
+ * Executes PIT inside of this JVM instead of starting a maven build for each test (see {@link PITRuntime}). The
+ * results are read in the same way as for the {@link PITExecutor}.
+ *
+ * @author Fabian Trautsch
+ */
+public class PITInProcessExecutor extends PITExecutor {
+    private final static Logger LOGGER = LogManager.getLogger(PITInProcessExecutor.class.getName());
+
+    public PITInProcessExecutor(Set<Path> javaFiles) {
+        super(javaFiles);
+    }
+
+    @Override
+    public MutationExecutionResult execute(Path projectRoot, String className, String methodName) throws IOException {
+        PITRuntime runtime = PITRuntime.getInstance(projectRoot);
+        createPitReportFolder(projectRoot);
+        prepareProject(projectRoot);
+
+        LOGGER.info("Executing Pitest in process...");
+        MutationExecutionResult mutationExecutionResult = runtime.run(projectRoot, className, methodName,
+                getTargetClasses(), getPitReportFolder());
+
+        if (mutationExecutionResult.getGeneratedMutations() < 1) {
+            throw new IOException("No mutations generated!");
+        }
+
+        LOGGER.debug("Mutation Execution result: {}", mutationExecutionResult);
+        return mutationExecutionResult;
+    }
+}
@@ -0,0 +1,206 @@
+/*
+ * Copyright (C) 2017 University of Goettingen, Germany
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package de.ugoe.cs.comfort.collection.metriccollector.mutation.executors;
+
+import de.ugoe.cs.comfort.collection.metriccollector.mutation.MutationExecutionResult;
+import de.ugoe.cs.comfort.collection.metriccollector.mutation.MutationLocation;
+import de.ugoe.cs.comfort.collection.metriccollector.mutation.MutationMatrix;
+import de.ugoe.cs.comfort.filer.models.Mutation;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+/**
+ * Executes PIT once for all tests of a project and reads the full mutation matrix, i.e., which tests killed and which
+ * tests covered each mutation. This way, the results of all tests are calculated with one maven execution instead of
+ * one execution per test.
+ *
+ * The pom template must use the placeholders ${pitformat} and ${pitmatrix} for the outputFormats and
+ * fullMutationMatrix options of PIT (at least version 1.4.3), so that a XML report with the full matrix is written.
+ *
+ * @author Fabian Trautsch
+ */
+public class PITMatrixExecutor extends PITExecutor {
+    private final static Logger LOGGER = LogManager.getLogger(PITMatrixExecutor.class.getName());
+    private static final String TEST_DELIMITER = "\\|";
+
+    public PITMatrixExecutor(Set<Path> javaFiles) {
+        super(javaFiles);
+    }
+
+    /**
+     * Executes PIT for all tests of the project.
+     * @param projectRoot root of the project
+     * @return execution result of the whole run
+     * @throws IOException if the execution was not successful
+     */
+    public MutationExecutionResult execute(Path projectRoot) throws IOException {
+        return execute(projectRoot, "*", "");
+    }
+
+    @Override
+    protected Map<String, String> getTemplateValues(String className, String methodName) {
+        Map<String, String> valuesMap = super.getTemplateValues(className, methodName);
+        valuesMap.put("pitformat", "XML");
+        valuesMap.put("pitmatrix", "true");
+        return valuesMap;
+    }
+
+    @Override
+    public Set<Mutation> getDetailedResults(Path projectRoot,
+                                            Map<MutationLocation, String> generatedMutationsAndItsClassification)
+            throws IOException {
+        return getMutationMatrix(projectRoot, generatedMutationsAndItsClassification).getMutations();
+    }
+
+    /**
+     * Reads the mutation matrix of the last execution.
+     * @param projectRoot root of the project
+     * @param generatedMutationsAndItsClassification already known classifications, which are updated
+     * @return mutation matrix
+     * @throws IOException if the report could not be read or does not contain the full mutation matrix
+     */
+    public MutationMatrix getMutationMatrix(Path projectRoot,
+                                            Map<MutationLocation, String> generatedMutationsAndItsClassification)
+            throws IOException {
+        return readMutationMatrix(Paths.get(getPitReportFolder().toString(), "mutations.xml"), projectRoot,
+                generatedMutationsAndItsClassification);
+    }
+
+    MutationMatrix readMutationMatrix(Path report, Path projectRoot,
+                                      Map<MutationLocation, String> generatedMutationsAndItsClassification)
+            throws IOException {
+        List<MatrixEntry> entries = new ArrayList<>();
+        XMLInputFactory factory = XMLInputFactory.newInstance();
+        factory.setProperty(XMLInputFactory.SUPPORT_DTD, false);
+
+        try (InputStream inputStream = Files.newInputStream(report)) {
+            XMLStreamReader reader = factory.createXMLStreamReader(inputStream);
+            try {
+                while (reader.hasNext()) {
+                    if (reader.next() == XMLStreamConstants.START_ELEMENT && reader.getLocalName().equals("mutation")) {
+                        entries.add(readMutation(reader));
+                    }
+                }
+            } finally {
+                reader.close();
+            }
+        } catch (XMLStreamException e) {
+            throw new IOException("Could not parse PIT report " + report, e);
+        }
+
+        // Classify all mutations at once, so that they can be classified in parallel
+        List<Mutation> mutations = new ArrayList<>();
+        for (MatrixEntry entry : entries) {
+            mutations.add(entry.mutation);
+        }
+        classifyMutations(projectRoot, mutations, generatedMutationsAndItsClassification);
+
+        MutationMatrix mutationMatrix = new MutationMatrix();
+        for (MatrixEntry entry : entries) {
+            mutationMatrix.addMutation(entry.mutation, entry.killingTests, entry.succeedingTests);
+        }
+
+        LOGGER.debug("Read mutation matrix {}", mutationMatrix);
+        return mutationMatrix;
+    }
+
+    private MatrixEntry readMutation(XMLStreamReader reader) throws XMLStreamException, IOException {
+        String result = reader.getAttributeValue(null, "status");
+        String mutatedClass = null;
+        String mutatedMethod = null;
+        String mutationOperator = null;
+        int lineNumber = 0;
+        Set<String> killingTests = null;
+        Set<String> succeedingTests = null;
+
+        // Read all child elements of the mutation
+        while (reader.nextTag() == XMLStreamConstants.START_ELEMENT) {
+            String name = reader.getLocalName();
+            String text = reader.getElementText().trim();
+            switch (name) {
+                case "mutatedClass":
+                    mutatedClass = text;
+                    break;
+                case "mutatedMethod":
+                    mutatedMethod = text;
+                    break;
+                case "mutator":
+                    mutationOperator = text;
+                    break;
+                case "lineNumber":
+                    lineNumber = Integer.parseInt(text);
+                    break;
+                case "killingTests":
+                    killingTests = parseTests(text);
+                    break;
+                case "succeedingTests":
+                    succeedingTests = parseTests(text);
+                    break;
+                default:
+            }
+        }
+
+        if (killingTests == null || succeedingTests == null) {
+            throw new IOException("PIT report does not contain the full mutation matrix. Is fullMutationMatrix set to "
+                    + "${pitmatrix} in the pom template?");
+        }
+
+        String location = mutatedClass + "." + mutatedMethod;
+        return new MatrixEntry(new Mutation(location, mutationOperator, lineNumber, result, null), killingTests,
+                succeedingTests);
+    }
+
+    private static Set<String> parseTests(String tests) {
+        Set<String> testNames = new HashSet<>();
+        for (String test : tests.split(TEST_DELIMITER)) {
+            if (!test.trim().isEmpty()) {
+                testNames.add(MutationMatrix.getTestName(test));
+            }
+        }
+        return testNames;
+    }
+
+    /**
+     * Mutation of the report together with the tests that kill it and the tests that do not kill it.
+     */
+    private static class MatrixEntry {
+        private final Mutation mutation;
+        private final Set<String> killingTests;
+        private final Set<String> succeedingTests;
+
+        MatrixEntry(Mutation mutation, Set<String> killingTests, Set<String> succeedingTests) {
+            this.mutation = mutation;
+            this.killingTests = killingTests;
+            this.succeedingTests = succeedingTests;
+        }
+    }
+}
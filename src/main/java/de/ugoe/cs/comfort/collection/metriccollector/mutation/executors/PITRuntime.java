@@ -0,0 +1,516 @@
+/*
+ * Copyright (C) 2017 University of Goettingen, Germany
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package de.ugoe.cs.comfort.collection.metriccollector.mutation.executors;
+
+import com.google.common.hash.Hashing;
+import de.ugoe.cs.comfort.collection.metriccollector.mutation.MutationExecutionResult;
+import java.io.File;
+import java.io.IOException;
+import java.io.StringReader;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Properties;
+import java.util.stream.Collectors;
+import javax.xml.parsers.DocumentBuilderFactory;
+import javax.xml.parsers.ParserConfigurationException;
+import org.apache.commons.io.FileUtils;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.apache.logging.log4j.core.lookup.StrSubstitutor;
+import org.apache.maven.shared.invoker.DefaultInvocationRequest;
+import org.apache.maven.shared.invoker.DefaultInvoker;
+import org.apache.maven.shared.invoker.InvocationRequest;
+import org.apache.maven.shared.invoker.InvocationResult;
+import org.apache.maven.shared.invoker.Invoker;
+import org.apache.maven.shared.invoker.MavenInvocationException;
+import org.w3c.dom.Document;
+import org.w3c.dom.Element;
+import org.w3c.dom.Node;
+import org.w3c.dom.NodeList;
+import org.xml.sax.InputSource;
+import org.xml.sax.SAXException;
+
+/**
+ * Runs PIT inside of this JVM. The classpath of the project and PIT itself are resolved with maven only once per
+ * project. PIT is then loaded into its own class loader, which is reused for all executions, and called via its
+ * entry point. The results are taken from the statistics that are returned by PIT.
+ *
+ * PIT is configured with the pitest-maven configuration of the pom template (version, targetClasses,
+ * excludedClasses, mutators and threads). PIT must be at least version 1.4.0. The source and output directories are
+ * taken from the effective pom of the template, so that projects with a non-default layout are supported.
+ *
+ * @author Fabian Trautsch
+ */
+class PITRuntime {
+    private static final Logger LOGGER = LogManager.getLogger(PITRuntime.class.getName());
+    private static final Map<String, PITRuntime> INSTANCES = new HashMap<>();
+
+    private final PluginConfiguration configuration;
+    private final ProjectLayout layout;
+    private final List<Path> pitClasspath;
+    private final List<Path> dependencyClasspath;
+    private final ClassLoader classLoader;
+
+    PITRuntime(PluginConfiguration configuration, ProjectLayout layout, List<Path> pitClasspath,
+               List<Path> dependencyClasspath) throws IOException {
+        this.configuration = configuration;
+        this.layout = layout;
+        this.pitClasspath = pitClasspath;
+        this.dependencyClasspath = dependencyClasspath;
+
+        URL[] urls = new URL[pitClasspath.size()];
+        for(int i = 0; i < urls.length; i++) {
+            urls[i] = pitClasspath.get(i).toUri().toURL();
+        }
+        // PIT should not see the classes of comfort
+        classLoader = new URLClassLoader(urls, ClassLoader.getSystemClassLoader().getParent());
+    }
+
+    /**
+     * Returns the runtime for the given project, which is created on the first call. The runtime is shared by all
+     * projects with the same pom template, e.g., by the workspace copies of a project, so that the classpath is only
+     * resolved and PIT is only loaded once.
+     * @param projectRoot root of the project
+     * @return runtime for the project
+     * @throws IOException if the classpath could not be resolved
+     */
+    static synchronized PITRuntime getInstance(Path projectRoot) throws IOException {
+        Path root = projectRoot.toAbsolutePath().normalize();
+        String key = Hashing.sha256().hashBytes(Files.readAllBytes(root.resolve("pom_template.xml"))).toString();
+        PITRuntime runtime = INSTANCES.get(key);
+        if(runtime == null) {
+            runtime = create(root);
+            INSTANCES.put(key, runtime);
+        }
+        return runtime;
+    }
+
+    private static PITRuntime create(Path projectRoot) throws IOException {
+        Path template = projectRoot.resolve("pom_template.xml");
+        PluginConfiguration configuration = PluginConfiguration.read(template);
+        LOGGER.info("Resolving classpath of project {} and PIT {}...", projectRoot, configuration.getVersion());
+
+        Path workDir = Files.createTempDirectory("comfort-pit-");
+        try {
+            // Entries inside of the project (e.g., modules or system dependencies) are resolved for each execution
+            List<Path> dependencyClasspath = new ArrayList<>();
+            for(Path element : buildClasspath(template, workDir.resolve("project.classpath"))) {
+                Path normalizedElement = element.toAbsolutePath().normalize();
+                dependencyClasspath.add(normalizedElement.startsWith(projectRoot)
+                        ? projectRoot.relativize(normalizedElement)
+                        : normalizedElement);
+            }
+            ProjectLayout layout = ProjectLayout.read(
+                    buildEffectivePom(template, workDir.resolve("effective-pom.xml")), projectRoot);
+
+            // PIT is resolved via a pom that only depends on its command line interface
+            Path pitPom = workDir.resolve("pit.xml");
+            Files.write(pitPom, createPitPom(configuration.getVersion()).getBytes(StandardCharsets.UTF_8));
+            List<Path> pitClasspath = buildClasspath(pitPom, workDir.resolve("pit.classpath"));
+
+            return new PITRuntime(configuration, layout, pitClasspath, dependencyClasspath);
+        } finally {
+            try {
+                FileUtils.deleteDirectory(workDir.toFile());
+            } catch (IOException e) {
+                LOGGER.catching(e);
+            }
+        }
+    }
+
+    private static String createPitPom(String version) {
+        return "<project xmlns=\"http://maven.apache.org/POM/4.0.0\">"
+                + "<modelVersion>4.0.0</modelVersion>"
+                + "<groupId>de.ugoe.cs.comfort</groupId>"
+                + "<artifactId>pit-runtime</artifactId>"
+                + "<version>1.0</version>"
+                + "<packaging>pom</packaging>"
+                + "<dependencies><dependency>"
+                + "<groupId>org.pitest</groupId>"
+                + "<artifactId>pitest-command-line</artifactId>"
+                + "<version>" + version + "</version>"
+                + "</dependency></dependencies>"
+                + "</project>";
+    }
+
+    private static void invokeMaven(Path pomFile, String goal, Properties properties) throws IOException {
+        InvocationRequest request = new DefaultInvocationRequest();
+        request.setPomFile(pomFile.toFile());
+        request.setGoals(Collections.singletonList(goal));
+        request.setBatchMode(true);
+        request.setProperties(properties);
+
+        Invoker invoker = new DefaultInvoker();
+        invoker.setOutputHandler(LOGGER::debug);
+        invoker.setErrorHandler(LOGGER::debug);
+        try {
+            InvocationResult result = invoker.execute(request);
+            if(result.getExitCode() != 0) {
+                throw new IOException("Could not execute " + goal + " for " + pomFile);
+            }
+        } catch (MavenInvocationException e) {
+            throw new IOException("Maven execution not successful!", e);
+        }
+    }
+
+    private static Path buildEffectivePom(Path pomFile, Path outputFile) throws IOException {
+        Properties properties = new Properties();
+        properties.setProperty("output", outputFile.toString());
+        invokeMaven(pomFile, "help:effective-pom", properties);
+        return outputFile;
+    }
+
+    private static List<Path> buildClasspath(Path pomFile, Path outputFile) throws IOException {
+        Properties properties = new Properties();
+        properties.setProperty("mdep.outputFile", outputFile.toString());
+        invokeMaven(pomFile, "dependency:build-classpath", properties);
+
+        List<Path> classpath = new ArrayList<>();
+        String content = new String(Files.readAllBytes(outputFile), StandardCharsets.UTF_8).trim();
+        for(String element: content.split(File.pathSeparator)) {
+            if(!element.isEmpty()) {
+                classpath.add(new File(element).toPath());
+            }
+        }
+        return classpath;
+    }
+
+    /**
+     * Creates the command line arguments for PIT.
+     * @param projectRoot root of the project
+     * @param className test class that is executed
+     * @param methodName test method that is executed or an empty string for all methods
+     * @param targetClasses classes that are mutated or null for the target classes of the template
+     * @param reportFolder folder in which PIT writes its reports
+     * @return arguments for PIT
+     */
+    List<String> getArguments(Path projectRoot, String className, String methodName, Collection<String> targetClasses,
+                              Path reportFolder) {
+        List<Path> classpath = new ArrayList<>(pitClasspath);
+        for(Path element : dependencyClasspath) {
+            classpath.add(projectRoot.resolve(element));
+        }
+        classpath.add(projectRoot.resolve(layout.getOutputDirectory()));
+        classpath.add(projectRoot.resolve(layout.getTestOutputDirectory()));
+
+        List<String> arguments = new ArrayList<>();
+        addArgument(arguments, "reportDir", reportFolder.toString());
+        addArgument(arguments, "targetClasses", String.join(",",
+                targetClasses == null ? configuration.getTargetClasses() : targetClasses));
+        addArgument(arguments, "excludedClasses", String.join(",", configuration.getExcludedClasses()));
+        addArgument(arguments, "targetTests", className);
+        addArgument(arguments, "includedTestMethods", methodName);
+        addArgument(arguments, "sourceDirs", projectRoot.resolve(layout.getSourceDirectory()) + ","
+                + projectRoot.resolve(layout.getTestSourceDirectory()));
+        addArgument(arguments, "classPath", classpath.stream().map(Path::toString).collect(Collectors.joining(",")));
+        addArgument(arguments, "mutators", String.join(",", configuration.getMutators()));
+        addArgument(arguments, "threads", String.valueOf(configuration.getThreads()));
+        addArgument(arguments, "outputFormats", "CSV");
+        arguments.add("--timestampedReports=false");
+        return arguments;
+    }
+
+    private static void addArgument(List<String> arguments, String name, String value) {
+        if(!value.isEmpty()) {
+            arguments.add("--" + name);
+            arguments.add(value);
+        }
+    }
+
+    /**
+     * Executes PIT for the given test.
+     * @param projectRoot root of the project, which is also the working directory of the tests
+     * @param className test class that is executed
+     * @param methodName test method that is executed or an empty string for all methods
+     * @param targetClasses classes that are mutated or null for the target classes of the template
+     * @param reportFolder folder in which PIT writes its reports
+     * @return execution result
+     * @throws IOException if PIT could not be executed
+     */
+    MutationExecutionResult run(Path projectRoot, String className, String methodName,
+                                Collection<String> targetClasses, Path reportFolder) throws IOException {
+        String[] arguments = getArguments(projectRoot, className, methodName, targetClasses, reportFolder)
+                .toArray(new String[0]);
+        long startTime = System.nanoTime();
+
+        Thread currentThread = Thread.currentThread();
+        ClassLoader contextClassLoader = currentThread.getContextClassLoader();
+        currentThread.setContextClassLoader(classLoader);
+        try {
+            // Same as the main method of PIT, but we get the statistics back
+            Class<?> pluginServicesClass = loadClass("org.pitest.mutationtest.config.PluginServices");
+            Object plugins = pluginServicesClass.getMethod("makeForContextLoader").invoke(null);
+            Object pluginFilter = loadClass("org.pitest.mutationtest.commandline.PluginFilter")
+                    .getConstructor(pluginServicesClass).newInstance(plugins);
+            Object parser = newInstance(loadClass("org.pitest.mutationtest.commandline.OptionsParser"),
+                    pluginFilter);
+
+            Object parseResult = invoke(parser, "parse", (Object) arguments);
+            if(!(Boolean) invoke(parseResult, "isOk")) {
+                throw new IOException("Invalid options for PIT: " + unwrap(invoke(parseResult, "getErrorMessage")));
+            }
+            Object reportOptions = invoke(parseResult, "getOptions");
+
+            Object entryPoint = loadClass("org.pitest.mutationtest.tooling.EntryPoint")
+                    .getDeclaredConstructor().newInstance();
+            Object analysisResult = invoke(entryPoint, "execute", projectRoot.toFile(), reportOptions, plugins,
+                    new HashMap<String, String>());
+            Object error = unwrap(invoke(analysisResult, "getError"));
+            if(error != null) {
+                throw new IOException("PIT execution not successful!", (Throwable) error);
+            }
+
+            Object statistics = unwrap(invoke(analysisResult, "getStatistics"));
+            Object mutationStatistics = invoke(statistics, "getMutationStatistics");
+            MutationExecutionResult mutationExecutionResult = new MutationExecutionResult();
+            mutationExecutionResult.setGeneratedMutations(
+                    ((Number) invoke(mutationStatistics, "getTotalMutations")).intValue());
+            mutationExecutionResult.setKilledMutations(
+                    ((Number) invoke(mutationStatistics, "getTotalDetectedMutations")).intValue());
+            mutationExecutionResult.setMutationScore(
+                    ((Number) invoke(mutationStatistics, "getPercentageDetected")).intValue());
+            mutationExecutionResult.setExecutionTime((int) ((System.nanoTime() - startTime) / 1000000000L));
+            return mutationExecutionResult;
+        } catch (InvocationTargetException e) {
+            throw new IOException("PIT execution not successful!", e.getCause());
+        } catch (ReflectiveOperationException e) {
+            throw new IOException("Could not call PIT " + configuration.getVersion(), e);
+        } finally {
+            currentThread.setContextClassLoader(contextClassLoader);
+        }
+    }
+
+    private Class<?> loadClass(String name) throws ClassNotFoundException {
+        return Class.forName(name, true, classLoader);
+    }
+
+    private static Object newInstance(Class<?> clazz, Object argument) throws ReflectiveOperationException {
+        for(Constructor<?> constructor: clazz.getConstructors()) {
+            if(constructor.getParameterCount() == 1 && constructor.getParameterTypes()[0].isInstance(argument)) {
+                return constructor.newInstance(argument);
+            }
+        }
+        throw new NoSuchMethodException("No fitting constructor in " + clazz.getName());
+    }
+
+    private static Object invoke(Object object, String name, Object... arguments)
+            throws ReflectiveOperationException {
+        for(Method method: object.getClass().getMethods()) {
+            if(method.getName().equals(name) && method.getParameterCount() == arguments.length) {
+                return method.invoke(object, arguments);
+            }
+        }
+        throw new NoSuchMethodException(object.getClass().getName() + "." + name);
+    }
+
+    private static Object unwrap(Object optional) {
+        if(optional instanceof Optional) {
+            return ((Optional<?>) optional).orElse(null);
+        }
+        return optional;
+    }
+
+    private static Document parse(String content) throws IOException, SAXException, ParserConfigurationException {
+        DocumentBuilderFactory factory = DocumentBuilderFactory.newInstance();
+        factory.setFeature("http://apache.org/xml/features/disallow-doctype-decl", true);
+        return factory.newDocumentBuilder().parse(new InputSource(new StringReader(content)));
+    }
+
+    private static Element getChild(Element element, String name) {
+        for(Node child = element.getFirstChild(); child != null; child = child.getNextSibling()) {
+            if(child instanceof Element && child.getNodeName().equals(name)) {
+                return (Element) child;
+            }
+        }
+        return null;
+    }
+
+    private static String getChildText(Element element, String name) {
+        Element child = getChild(element, name);
+        return child == null ? null : child.getTextContent().trim();
+    }
+
+    /**
+     * Source and output directories of the project, relative to the project root if they are inside of it. Hence, the
+     * layout can be used for every copy of the project.
+     */
+    static class ProjectLayout {
+        private Path sourceDirectory = Paths.get("src/main/java");
+        private Path testSourceDirectory = Paths.get("src/test/java");
+        private Path outputDirectory = Paths.get("target/classes");
+        private Path testOutputDirectory = Paths.get("target/test-classes");
+
+        /**
+         * Reads the layout from the build section of an effective pom. Missing directories keep the maven defaults.
+         * @param effectivePom effective pom of the project
+         * @param projectRoot root of the project
+         * @return layout of the project
+         * @throws IOException if the effective pom could not be read
+         */
+        static ProjectLayout read(Path effectivePom, Path projectRoot) throws IOException {
+            ProjectLayout layout = new ProjectLayout();
+            try {
+                String content = new String(Files.readAllBytes(effectivePom), StandardCharsets.UTF_8);
+                // The effective pom of a multi module project contains all projects, of which the first is used
+                Element project = parse(content).getDocumentElement();
+                if(project.getNodeName().equals("projects")) {
+                    project = getChild(project, "project");
+                }
+                Element build = project == null ? null : getChild(project, "build");
+                if(build != null) {
+                    layout.sourceDirectory = getDirectory(build, "sourceDirectory", projectRoot,
+                            layout.sourceDirectory);
+                    layout.testSourceDirectory = getDirectory(build, "testSourceDirectory", projectRoot,
+                            layout.testSourceDirectory);
+                    layout.outputDirectory = getDirectory(build, "outputDirectory", projectRoot,
+                            layout.outputDirectory);
+                    layout.testOutputDirectory = getDirectory(build, "testOutputDirectory", projectRoot,
+                            layout.testOutputDirectory);
+                }
+            } catch (ParserConfigurationException | SAXException e) {
+                throw new IOException("Could not read project layout from " + effectivePom, e);
+            }
+            return layout;
+        }
+
+        private static Path getDirectory(Element build, String name, Path projectRoot, Path defaultDirectory) {
+            String value = getChildText(build, name);
+            if(value == null || value.isEmpty()) {
+                return defaultDirectory;
+            }
+            Path directory = Paths.get(value);
+            Path root = projectRoot.toAbsolutePath().normalize();
+            if(directory.isAbsolute() && directory.normalize().startsWith(root)) {
+                return root.relativize(directory.normalize());
+            }
+            return directory;
+        }
+
+        Path getSourceDirectory() {
+            return sourceDirectory;
+        }
+
+        Path getTestSourceDirectory() {
+            return testSourceDirectory;
+        }
+
+        Path getOutputDirectory() {
+            return outputDirectory;
+        }
+
+        Path getTestOutputDirectory() {
+            return testOutputDirectory;
+        }
+    }
+
+    /**
+     * Configuration of the pitest-maven plugin in the pom template.
+     */
+    static class PluginConfiguration {
+        private static final String DEFAULT_VERSION = "1.4.3";
+
+        private String version = DEFAULT_VERSION;
+        private List<String> targetClasses = new ArrayList<>();
+        private List<String> excludedClasses = new ArrayList<>();
+        private List<String> mutators = new ArrayList<>();
+        private int threads = 1;
+
+        static PluginConfiguration read(Path template) throws IOException {
+            PluginConfiguration configuration = new PluginConfiguration();
+            try {
+                // Resolve the defaults of the placeholders, e.g., of ${pittargetclasses}
+                String content = new String(Files.readAllBytes(template), StandardCharsets.UTF_8);
+                content = new StrSubstitutor(new HashMap<String, String>()).replace(content);
+
+                Document document = parse(content);
+
+                NodeList plugins = document.getElementsByTagName("plugin");
+                for(int i = 0; i < plugins.getLength(); i++) {
+                    Element plugin = (Element) plugins.item(i);
+                    if("pitest-maven".equals(getChildText(plugin, "artifactId"))) {
+                        String version = getChildText(plugin, "version");
+                        if(version != null) {
+                            configuration.version = version;
+                        }
+
+                        Element pluginConfiguration = getChild(plugin, "configuration");
+                        if(pluginConfiguration != null) {
+                            configuration.targetClasses = getChildValues(pluginConfiguration, "targetClasses");
+                            configuration.excludedClasses = getChildValues(pluginConfiguration, "excludedClasses");
+                            configuration.mutators = getChildValues(pluginConfiguration, "mutators");
+                            String threads = getChildText(pluginConfiguration, "threads");
+                            if(threads != null) {
+                                configuration.threads = Integer.parseInt(threads);
+                            }
+                        }
+                    }
+                }
+            } catch (ParserConfigurationException | SAXException | NumberFormatException e) {
+                throw new IOException("Could not read PIT configuration from " + template, e);
+            }
+            return configuration;
+        }
+
+        private static List<String> getChildValues(Element element, String name) {
+            List<String> values = new ArrayList<>();
+            Element child = getChild(element, name);
+            if(child != null) {
+                for(Node value = child.getFirstChild(); value != null; value = value.getNextSibling()) {
+                    if(value instanceof Element) {
+                        values.add(value.getTextContent().trim());
+                    }
+                }
+            }
+            return values;
+        }
+
+        String getVersion() {
+            return version;
+        }
+
+        List<String> getTargetClasses() {
+            return targetClasses;
+        }
+
+        List<String> getExcludedClasses() {
+            return excludedClasses;
+        }
+
+        List<String> getMutators() {
+            return mutators;
+        }
+
+        int getThreads() {
+            return threads;
+        }
+    }
+}
@@ -21,6 +21,7 @@ import java.io.IOException;
 import java.nio.charset.Charset;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
@@ -42,11 +43,26 @@ public abstract class BaseOperator {
 
     }
 
+    /**
+     * Initializes the operator with the content of the given file. The changed line is written back to the file.
+     * @param file file that should be changed
+     * @param lineNumber line that should be changed
+     * @throws IOException if the file could not be read
+     */
     public void initialize(Path file, int lineNumber) throws IOException {
+        initialize(Files.readAllLines(file), lineNumber);
         this.file = file;
+    }
 
-        // Read in File
-        lines = Files.readAllLines(file);
+    /**
+     * Initializes the operator with the given lines. The lines are copied, so that the changed lines can be
+     * retrieved via {@link #getLines()} without modifying the given lines.
+     * @param lines lines of the source code that should be changed
+     * @param lineNumber line that should be changed
+     */
+    public void initialize(List<String> lines, int lineNumber) {
+        this.file = null;
+        this.lines = new ArrayList<>(lines);
 
         // Set normalized line number (because Arrays start at 0 and not 1)
         normalizedLineNumber = lineNumber-1;
@@ -60,8 +76,14 @@ public abstract class BaseOperator {
         logger.debug("New Line: "+newLine);
         lines.set(normalizedLineNumber, newLine);
 
-        logger.debug("Writing to: "+file);
-        Files.write(file, lines, Charset.forName("UTF-8"));
+        if(file != null) {
+            logger.debug("Writing to: "+file);
+            Files.write(file, lines, Charset.forName("UTF-8"));
+        }
+    }
+
+    public List<String> getLines() {
+        return lines;
     }
 
     String getChangedNewLineForPattern(String character, String replacement) {
@@ -73,6 +73,49 @@ public class GeneralConfiguration {
         this.forceRerun = forceRerun;
     }
 
+    @JsonProperty("fullMutationMatrix")
+    private boolean fullMutationMatrix = false;
+
+    public boolean isFullMutationMatrix() {
+        return fullMutationMatrix;
+    }
+
+    public void setFullMutationMatrix(boolean fullMutationMatrix) {
+        this.fullMutationMatrix = fullMutationMatrix;
+    }
+
+    @JsonProperty("scopeMutationsToCoverage")
+    private boolean scopeMutationsToCoverage = false;
+
+    public boolean isScopeMutationsToCoverage() {
+        return scopeMutationsToCoverage;
+    }
+
+    public void setScopeMutationsToCoverage(boolean scopeMutationsToCoverage) {
+        this.scopeMutationsToCoverage = scopeMutationsToCoverage;
+    }
+
+    @JsonProperty("mutationExecutor")
+    private String mutationExecutor = "PITExecutor";
+
+    public String getMutationExecutor() {
+        return mutationExecutor;
+    }
+
+    public void setMutationExecutor(String mutationExecutor) {
+        this.mutationExecutor = mutationExecutor;
+    }
+
+    private Path mutationCacheDir;
+
+    public Path getMutationCacheDir() {
+        return mutationCacheDir;
+    }
+
+    public void setMutationCacheDir(String mutationCacheDir) {
+        this.mutationCacheDir = Paths.get(mutationCacheDir);
+    }
+
     public void setMethodLevel(boolean methodLevel) {
         this.methodLevel = methodLevel;
     }
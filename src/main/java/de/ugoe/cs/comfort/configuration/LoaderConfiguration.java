@@ -29,6 +29,7 @@ public class LoaderConfiguration extends BaseConfiguration {
     private Database database = new Database();
     private String coverageLocation = null;
     private String callGraphLocation = null;
+    private boolean useProbeIndex = true;
 
     public LoaderConfiguration(@JsonProperty("name") String name) {
         super(name);
@@ -51,6 +52,14 @@ public class LoaderConfiguration extends BaseConfiguration {
         this.coverageLocation = coverageLocation;
     }
 
+    public boolean isUseProbeIndex() {
+        return useProbeIndex;
+    }
+
+    public void setUseProbeIndex(boolean useProbeIndex) {
+        this.useProbeIndex = useProbeIndex;
+    }
+
     public String getVcsSystemUrl() {
         return vcsSystemUrl;
     }
@@ -75,6 +84,7 @@ public class LoaderConfiguration extends BaseConfiguration {
                 .add("vcsSystemUrl", vcsSystemUrl)
                 .add("coverageLocation", coverageLocation)
                 .add("callGraphLocation", callGraphLocation)
+                .add("useProbeIndex", useProbeIndex)
                 .toString();
     }
 }
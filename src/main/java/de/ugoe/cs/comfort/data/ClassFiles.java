@@ -36,7 +36,7 @@ public class ClassFiles extends DataSet {
         this.projectDir = configuration.getProjectDir();
         this.testFiles = testFiles;
         this.codeFiles = codeFiles;
-        this.fileNameUtils = new FileNameUtils(configuration);
+        this.fileNameUtils = FileNameUtils.getInstance(configuration);
     }
 
     public Path getProjectDir() {
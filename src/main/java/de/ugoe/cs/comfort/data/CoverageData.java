@@ -17,89 +17,179 @@
 package de.ugoe.cs.comfort.data;
 
 import com.google.common.base.MoreObjects;
-import de.ugoe.cs.comfort.Utils;
 import de.ugoe.cs.comfort.data.models.IUnit;
-import java.lang.reflect.InvocationTargetException;
-import java.nio.file.Path;
+import java.util.BitSet;
+import java.util.Collections;
 import java.util.HashMap;
-import java.util.HashSet;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
 
 /**
+ * Coverage of each test. Tests can be added concurrently from several threads, e.g., by the threads of a loader.
+ *
+ * The covered units are interned in a {@link UnitDictionary} and the coverage of each test is stored as a bitmap of
+ * unit ids. The maps that are returned by the getCoverageData* methods are read-only and computed on first access.
+ * They are cached until the next test is added. Collectors that only need unions or cardinalities should use the
+ * bitmaps that are returned by {@link #getCoveredUnitIds()} and {@link #getCoveredUnitIdsClassLevel()} instead.
+ *
  * @author Fabian Trautsch
  */
 public class CoverageData extends DataSet {
-    private Map<IUnit, Set<IUnit>> covfefeMethodLevel = new HashMap<>();
-    private Map<IUnit, Set<IUnit>> covfefeClassLevel = new HashMap<>();
+    private final UnitDictionary unitDictionary = new UnitDictionary();
+    private final Map<IUnit, BitSet> covfefeMethodLevel = new ConcurrentHashMap<>();
+    private final Map<IUnit, BitSet> covfefeClassLevel = new ConcurrentHashMap<>();
+
+    // Incremented on each add, so that cached views that were computed before can be detected
+    private final AtomicLong modCount = new AtomicLong(0);
+    private final CachedView<Map<IUnit, BitSet>> coveredUnitIds =
+            new CachedView<>(() -> filterOutCoveredTests(covfefeMethodLevel));
+    private final CachedView<Map<IUnit, BitSet>> coveredUnitIdsClassLevel =
+            new CachedView<>(() -> filterOutCoveredTests(covfefeClassLevel));
+    private final CachedView<Map<IUnit, Set<IUnit>>> coverageData =
+            new CachedView<>(() -> toUnits(getCoveredUnitIds()));
+    private final CachedView<Map<IUnit, Set<IUnit>>> coverageDataClassLevel =
+            new CachedView<>(() -> toUnits(getCoveredUnitIdsClassLevel()));
+    private final CachedView<Map<IUnit, Set<IUnit>>> coverageDataForAll =
+            new CachedView<>(() -> toUnits(covfefeMethodLevel));
+    private final CachedView<Map<IUnit, Set<IUnit>>> coverageDataForAllClassLevel =
+            new CachedView<>(() -> toUnits(covfefeClassLevel));
 
     public CoverageData() {
     }
 
+    /**
+     * Adds the tested units of a test. This method is thread-safe. If {@code testedMethods} is null, the test is
+     * stored with an empty set of tested units. If the test was already added, the tested units are merged with the
+     * already known ones.
+     * @param testMethod test
+     * @param testedMethods units that are tested by the test
+     */
     public void add(IUnit testMethod, Set<IUnit> testedMethods) {
-        covfefeMethodLevel.put(testMethod, testedMethods);
-
-        // As we also need the coverage on class level, we need to cast it here
-        try {
-            IUnit classLevelUnit = (IUnit) testMethod.getClass().getSuperclass()
-                    .getConstructor(String.class, Path.class).newInstance(
-                            testMethod.getFQNOfUnit(), testMethod.getFilePath()
-                    );
-            Set<IUnit> coveredClasses = covfefeClassLevel.getOrDefault(classLevelUnit, new HashSet<>());
-
-            if(testedMethods != null) {
-                coveredClasses.addAll(testedMethods);
+        BitSet testedUnits = new BitSet();
+        if(testedMethods != null) {
+            for(IUnit testedMethod: testedMethods) {
+                testedUnits.set(unitDictionary.intern(testedMethod));
             }
-            covfefeClassLevel.put(classLevelUnit, coveredClasses);
-        } catch (InstantiationException | IllegalAccessException | NoSuchMethodException
-            | InvocationTargetException e) {
-            e.printStackTrace();
         }
+        // Merge atomically, as other test methods of the same class might be added at the same time
+        covfefeMethodLevel.compute(testMethod, (unit, coveredUnits) -> merge(coveredUnits, testedUnits));
+        covfefeClassLevel.compute(testMethod.toClassLevelUnit(), (unit, coveredClasses) -> merge(coveredClasses,
+                testedUnits));
+        modCount.incrementAndGet();
+    }
+
+    private static BitSet merge(BitSet coveredUnits, BitSet testedUnits) {
+        if(coveredUnits == null) {
+            return (BitSet) testedUnits.clone();
+        }
+        coveredUnits.or(testedUnits);
+        return coveredUnits;
     }
 
     @Override
     public String toString() {
         return MoreObjects.toStringHelper(this)
-                .add("coverage", covfefeMethodLevel)
+                .add("coverage", getCoverageDataForAll())
                 .toString();
     }
 
+    public UnitDictionary getUnitDictionary() {
+        return unitDictionary;
+    }
+
     public Map<IUnit, Set<IUnit>> getCoverageData() {
         // Return coverage data without test methods and classes
-        return filterOutCoveredTests(covfefeMethodLevel);
+        return coverageData.get();
     }
 
     public Map<IUnit, Set<IUnit>> getCoverageDataClassLevel() {
-        return filterOutCoveredTests(covfefeClassLevel);
+        return coverageDataClassLevel.get();
     }
 
     public Map<IUnit, Set<IUnit>> getCoverageDataForAll() {
-        return covfefeMethodLevel;
+        return coverageDataForAll.get();
     }
 
     public Map<IUnit, Set<IUnit>> getCoverageDataForAllClassLevel() {
-        return covfefeClassLevel;
+        return coverageDataForAllClassLevel.get();
+    }
+
+    /**
+     * Returns the ids (see {@link #getUnitDictionary()}) of the units that are covered by each test, where covered
+     * tests are filtered out. The bitmaps must not be changed.
+     * @return map from test to ids of the covered units
+     */
+    public Map<IUnit, BitSet> getCoveredUnitIds() {
+        return coveredUnitIds.get();
     }
 
-    private Map<IUnit, Set<IUnit>> filterOutCoveredTests(Map<IUnit, Set<IUnit>> data) {
+    /**
+     * Returns the ids (see {@link #getUnitDictionary()}) of the units that are covered by each test class, where
+     * covered tests are filtered out. The bitmaps must not be changed.
+     * @return map from test class to ids of the covered units
+     */
+    public Map<IUnit, BitSet> getCoveredUnitIdsClassLevel() {
+        return coveredUnitIdsClassLevel.get();
+    }
+
+    private Map<IUnit, BitSet> filterOutCoveredTests(Map<IUnit, BitSet> data) {
         // Here we filter out covered tests, as we only want to have return production code coverage and not test data
         // coverage
-        Map<IUnit, Set<IUnit>> coverageWithoutTests = new HashMap<>();
-        for(Map.Entry<IUnit, Set<IUnit>> entry: data.entrySet()) {
-            Set<IUnit> coveredMethodsWithoutTests = new HashSet<>();
-            if(entry.getValue() != null) {
-                for (IUnit coveredMethod : entry.getValue()) {
-                    if (!coveredMethod.getFilePath().toString().contains("test")
-                            && !coveredMethod.getFQNOfUnit().equals(entry.getKey().getFQNOfUnit())
-                            && !Utils.isTestBasedOnFQN(coveredMethod.getFQNOfUnit())) {
-                        coveredMethodsWithoutTests.add(coveredMethod);
+        Map<IUnit, BitSet> coverageWithoutTests = new HashMap<>();
+        for(Map.Entry<IUnit, BitSet> entry: data.entrySet()) {
+            BitSet coveredUnitsWithoutTests = (BitSet) entry.getValue().clone();
+            unitDictionary.removeTestUnits(coveredUnitsWithoutTests);
+            unitDictionary.removeUnitsOfClass(coveredUnitsWithoutTests, entry.getKey().getFQNOfUnit());
+            coverageWithoutTests.put(entry.getKey(), coveredUnitsWithoutTests);
+        }
+        return Collections.unmodifiableMap(coverageWithoutTests);
+    }
+
+    private Map<IUnit, Set<IUnit>> toUnits(Map<IUnit, BitSet> data) {
+        Map<IUnit, Set<IUnit>> result = new HashMap<>();
+        for(Map.Entry<IUnit, BitSet> entry: data.entrySet()) {
+            result.put(entry.getKey(), unitDictionary.getUnits(entry.getValue()));
+        }
+        return Collections.unmodifiableMap(result);
+    }
+
+    /**
+     * View that is computed on first access and recomputed on the next access after a test was added.
+     */
+    private final class CachedView<T> {
+        private final Supplier<T> supplier;
+        private volatile Snapshot<T> snapshot;
+
+        CachedView(Supplier<T> supplier) {
+            this.supplier = supplier;
+        }
+
+        T get() {
+            Snapshot<T> currentSnapshot = snapshot;
+            if(currentSnapshot == null || currentSnapshot.modCount != modCount.get()) {
+                synchronized (this) {
+                    currentSnapshot = snapshot;
+                    long currentModCount = modCount.get();
+                    if(currentSnapshot == null || currentSnapshot.modCount != currentModCount) {
+                        currentSnapshot = new Snapshot<>(supplier.get(), currentModCount);
+                        snapshot = currentSnapshot;
                     }
                 }
-                coverageWithoutTests.put(entry.getKey(), coveredMethodsWithoutTests);
-            } else {
-                coverageWithoutTests.put(entry.getKey(), null);
             }
+            return currentSnapshot.value;
+        }
+    }
+
+    private static final class Snapshot<T> {
+        private final T value;
+        private final long modCount;
+
+        Snapshot(T value, long modCount) {
+            this.value = value;
+            this.modCount = modCount;
         }
-        return coverageWithoutTests;
     }
 }
@@ -20,4 +20,11 @@ package de.ugoe.cs.comfort.data;
  * @author Fabian Trautsch
  */
 public class DataSet {
+
+    /**
+     * Resolves the lazy views of this data set, so that it can be read efficiently afterwards. Data sets without lazy
+     * views do not need to do anything.
+     */
+    public void materialize() {
+    }
 }
@@ -0,0 +1,202 @@
+/*
+ * Copyright (C) 2017 University of Goettingen, Germany
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.ugoe.cs.comfort.data;
+
+import de.ugoe.cs.comfort.Utils;
+import de.ugoe.cs.comfort.data.models.IUnit;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Dictionary that assigns each unit an int id, so that sets of units can be stored as bitmaps. Units are interned
+ * together with their number of covered lines, as this number can differ between two tests that cover the same unit.
+ * Furthermore, the class (i.e., {@link IUnit#getFQNOfUnit()}) and the package of each unit get an int id, so that the
+ * number of distinct classes or packages of a set of units can be calculated on the bitmap.
+ *
+ * Interning is thread-safe.
+ *
+ * @author Fabian Trautsch
+ */
+public class UnitDictionary {
+    private final Map<UnitKey, Integer> ids = new ConcurrentHashMap<>();
+
+    // All fields below are guarded by this
+    private final List<IUnit> units = new ArrayList<>();
+    private final Map<String, Integer> classIds = new HashMap<>();
+    private final Map<String, Integer> packageIds = new HashMap<>();
+    private int[] classOfUnit = new int[16];
+    private int[] packageOfUnit = new int[16];
+    private final BitSet testUnits = new BitSet();
+    private final BitSet testUnitsBasedOnFQNOfUnit = new BitSet();
+
+    /**
+     * Returns the id of the given unit, where the unit is added to the dictionary if it is not yet present.
+     * @param unit unit
+     * @return id of the unit
+     */
+    public int intern(IUnit unit) {
+        UnitKey key = new UnitKey(unit);
+        Integer id = ids.get(key);
+        if(id != null) {
+            return id;
+        }
+
+        synchronized (this) {
+            id = ids.get(key);
+            if(id != null) {
+                return id;
+            }
+
+            id = units.size();
+            units.add(unit);
+            if(id == classOfUnit.length) {
+                classOfUnit = Arrays.copyOf(classOfUnit, id * 2);
+                packageOfUnit = Arrays.copyOf(packageOfUnit, id * 2);
+            }
+            classOfUnit[id] = classIds.computeIfAbsent(unit.getFQNOfUnit(), k -> classIds.size());
+            packageOfUnit[id] = packageIds.computeIfAbsent(unit.getPackage(), k -> packageIds.size());
+
+            // Same checks that are used to filter out covered tests
+            if((unit.getFilePath() != null && unit.getFilePath().toString().contains("test"))
+                    || Utils.isTestBasedOnFQN(unit.getFQNOfUnit())) {
+                testUnits.set(id);
+            }
+            if(unit.isTestBasedOnFQNofUnit()) {
+                testUnitsBasedOnFQNOfUnit.set(id);
+            }
+            ids.put(key, id);
+            return id;
+        }
+    }
+
+    public synchronized IUnit getUnit(int id) {
+        return units.get(id);
+    }
+
+    public synchronized int size() {
+        return units.size();
+    }
+
+    /**
+     * Returns the units for the given ids. If two ids belong to the same unit (with a different number of covered
+     * lines), the unit with the lower id is contained in the result.
+     * @param unitIds ids of units
+     * @return set of units
+     */
+    public synchronized Set<IUnit> getUnits(BitSet unitIds) {
+        Set<IUnit> result = new HashSet<>();
+        for(int id = unitIds.nextSetBit(0); id >= 0; id = unitIds.nextSetBit(id + 1)) {
+            result.add(units.get(id));
+        }
+        return result;
+    }
+
+    /**
+     * Projects the given unit ids to the ids of their classes.
+     * @param unitIds ids of units
+     * @return ids of the classes of the units
+     */
+    public synchronized BitSet getClassIds(BitSet unitIds) {
+        return project(unitIds, classOfUnit);
+    }
+
+    /**
+     * Projects the given unit ids to the ids of their packages.
+     * @param unitIds ids of units
+     * @return ids of the packages of the units
+     */
+    public synchronized BitSet getPackageIds(BitSet unitIds) {
+        return project(unitIds, packageOfUnit);
+    }
+
+    /**
+     * Removes the ids of all units that are tests based on their file path or name (see
+     * {@link Utils#isTestBasedOnFQN(String)}) from the given ids.
+     * @param unitIds ids of units, which are changed
+     */
+    public synchronized void removeTestUnits(BitSet unitIds) {
+        unitIds.andNot(testUnits);
+    }
+
+    /**
+     * Removes the ids of all units that are tests based on {@link IUnit#isTestBasedOnFQNofUnit()} from the given ids.
+     * @param unitIds ids of units, which are changed
+     */
+    public synchronized void removeTestUnitsBasedOnFQNOfUnit(BitSet unitIds) {
+        unitIds.andNot(testUnitsBasedOnFQNOfUnit);
+    }
+
+    /**
+     * Removes the ids of all units of the given class from the given ids.
+     * @param unitIds ids of units, which are changed
+     * @param fqnOfUnit fully qualified name of the class
+     */
+    public synchronized void removeUnitsOfClass(BitSet unitIds, String fqnOfUnit) {
+        Integer classId = classIds.get(fqnOfUnit);
+        if(classId == null) {
+            return;
+        }
+
+        for(int id = unitIds.nextSetBit(0); id >= 0; id = unitIds.nextSetBit(id + 1)) {
+            if(classOfUnit[id] == classId) {
+                unitIds.clear(id);
+            }
+        }
+    }
+
+    private static BitSet project(BitSet unitIds, int[] mapping) {
+        BitSet result = new BitSet();
+        for(int id = unitIds.nextSetBit(0); id >= 0; id = unitIds.nextSetBit(id + 1)) {
+            result.set(mapping[id]);
+        }
+        return result;
+    }
+
+    private static final class UnitKey {
+        private final IUnit unit;
+        private final Integer coveredLines;
+        private final int hash;
+
+        UnitKey(IUnit unit) {
+            this.unit = unit;
+            this.coveredLines = unit.getCoveredLines();
+            this.hash = 31 * unit.hashCode() + Objects.hashCode(coveredLines);
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if(!(obj instanceof UnitKey)) {
+                return false;
+            }
+            UnitKey other = (UnitKey) obj;
+            return unit.equals(other.unit) && Objects.equals(coveredLines, other.coveredLines);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
+}
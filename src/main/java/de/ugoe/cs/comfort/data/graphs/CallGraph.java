@@ -21,11 +21,17 @@ import com.google.common.graph.*;
 import de.ugoe.cs.comfort.Utils;
 import de.ugoe.cs.comfort.data.DataSet;
 import de.ugoe.cs.comfort.data.models.IUnit;
+import de.ugoe.cs.comfort.data.models.UnitInterner;
 import java.io.IOException;
-import java.lang.reflect.InvocationTargetException;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Predicate;
 import javax.annotation.Nullable;
 import javax.annotation.ParametersAreNonnullByDefault;
 import org.apache.commons.lang3.builder.HashCodeBuilder;
@@ -36,10 +42,111 @@ import org.apache.commons.lang3.builder.HashCodeBuilder;
  */
 public class CallGraph extends DataSet implements MutableNetwork<IUnit, CallEdge>, IGraph {
 
-    private final MutableNetwork<IUnit, CallEdge> graph;
+    private MutableNetwork<IUnit, CallEdge> graph;
+    private FrozenCallGraph frozenGraph = null;
+    private FilteredCallGraphView filteredView = null;
+    private boolean graphShared = false;
+    private volatile DependencyGraph classLevelGraph = null;
+    private volatile TestNodeIndex testNodeIndex = null;
+
+    private static final int EDGES_PER_PARTITION = 10000;
 
     public CallGraph() {
-        graph = NetworkBuilder.directed().allowsSelfLoops(true).allowsParallelEdges(true).build();
+        graph = createMutableNetwork();
+    }
+
+    private CallGraph(FilteredCallGraphView filteredView) {
+        this.filteredView = filteredView;
+    }
+
+    private static MutableNetwork<IUnit, CallEdge> createMutableNetwork() {
+        return NetworkBuilder.directed().allowsSelfLoops(true).allowsParallelEdges(true).build();
+    }
+
+    private static MutableNetwork<IUnit, CallEdge> createMutableCopy(Network<IUnit, CallEdge> network) {
+        MutableNetwork<IUnit, CallEdge> copy = createMutableNetwork();
+        network.nodes().forEach(copy::addNode);
+        for(CallEdge edge: network.edges()) {
+            EndpointPair<IUnit> endpoints = network.incidentNodes(edge);
+            copy.addEdge(endpoints.source(), endpoints.target(), edge);
+        }
+        return copy;
+    }
+
+    /**
+     * Converts the graph into a compact, read-only representation (see {@link FrozenCallGraph}), which needs much
+     * less memory than the mutable network. Afterwards, the graph can still be read via all methods of the
+     * {@link Network} and {@link IGraph} interfaces, but each modification throws an
+     * {@link UnsupportedOperationException}. Use {@link #getCopyOfGraph()} to get a mutable copy.
+     * @return this graph
+     */
+    public CallGraph freeze() {
+        if(frozenGraph == null) {
+            frozenGraph = new FrozenCallGraph(network());
+            graph = null;
+            filteredView = null;
+        }
+        return this;
+    }
+
+    /**
+     * Returns a lazy view of this graph, which only contains the edges that fulfill the edge predicate and whose caller
+     * and callee fulfill the node predicate. Nodes that are not connected by any of these edges are not part of the
+     * view. Hence, the result is the same as removing all other nodes and edges from a copy of this graph and calling
+     * {@link #cleanGraphOfNodesThatAreSingle()} afterwards, but no graph is copied.
+     *
+     * Filtering a view combines the predicates, so that a chain of filters results in one view of the original graph.
+     * The view is materialized once, if it is modified or if {@link #materialize()} is called.
+     * @param nodePredicate predicate that must be fulfilled by the caller and callee of each edge
+     * @param edgePredicate predicate that must be fulfilled by each edge
+     * @return filtered view of this graph
+     */
+    public CallGraph filter(Predicate<IUnit> nodePredicate, Predicate<CallEdge> edgePredicate) {
+        if(graph != null) {
+            // The view reads our network, therefore it is copied before we modify it the next time
+            graphShared = true;
+        }
+        return new CallGraph(FilteredCallGraphView.create(network(), nodePredicate, edgePredicate));
+    }
+
+    /**
+     * Materializes a filtered view. Views of a frozen graph are frozen again, all other views become mutable graphs.
+     */
+    @Override
+    public void materialize() {
+        if(filteredView != null) {
+            if(filteredView.getBase() instanceof FrozenCallGraph) {
+                freeze();
+            } else {
+                mutableNetwork();
+            }
+        }
+    }
+
+    public boolean isFrozen() {
+        return frozenGraph != null;
+    }
+
+    private Network<IUnit, CallEdge> network() {
+        if(frozenGraph != null) {
+            return frozenGraph;
+        }
+        return filteredView != null ? filteredView : graph;
+    }
+
+    private MutableNetwork<IUnit, CallEdge> mutableNetwork() {
+        if(frozenGraph != null) {
+            throw new UnsupportedOperationException("Call graph is frozen and can not be modified.");
+        }
+        classLevelGraph = null;
+        if(filteredView != null) {
+            graph = createMutableCopy(filteredView);
+            filteredView = null;
+        } else if(graphShared) {
+            graph = createMutableCopy(graph);
+            graphShared = false;
+        }
+        return graph;
     }
 
     public CallGraph getCopyOfGraph() {
@@ -48,189 +155,216 @@ public class CallGraph extends DataSet implements MutableNetwork<IUnit, CallEdge
         return clonedGraph;
     }
 
-    public Set<IUnit> getTestNodes() {
-        Set<IUnit> testNodes = new HashSet<>();
-        for(IUnit node: this.nodes()) {
-            if(Utils.isTestBasedOnFQN(node.getFQN())) {
-                testNodes.add(node);
-            }
+    /**
+     * Returns the index of the test and production nodes of this graph. Tests are identified by their fully qualified
+     * name (including the method), while production nodes are identified by the fully qualified name of their unit.
+     * The index is created on the first call and then kept up to date.
+     * @return test node index of this graph
+     */
+    @Override
+    public TestNodeIndex getTestNodeIndex() {
+        TestNodeIndex index = testNodeIndex;
+        if(index == null) {
+            index = new TestNodeIndex(node -> Utils.isTestBasedOnFQN(node.getFQN()),
+                    node -> !Utils.isTestBasedOnFQN(node.getFQNOfUnit()));
+            nodes().forEach(index::addNode);
+            testNodeIndex = index;
         }
-        return testNodes;
+        return index;
     }
 
+    @Override
+    public Set<IUnit> getTestNodes() {
+        return getTestNodeIndex().getTestNodes();
+    }
+
+    @Override
     public Set<IUnit> getProductionNodes() {
-        Set<IUnit> productionNodes = new HashSet<>();
-        for(IUnit node: this.nodes()) {
-            if(!Utils.isTestBasedOnFQN(node.getFQNOfUnit())) {
-                productionNodes.add(node);
-            }
+        return getTestNodeIndex().getProductionNodes();
+    }
+
+    public boolean isTestNode(IUnit node) {
+        return getTestNodeIndex().isTestNode(node);
+    }
+
+    private void addToTestNodeIndex(IUnit node) {
+        if(testNodeIndex != null) {
+            testNodeIndex.addNode(node);
         }
-        return productionNodes;
     }
 
     @Override
     @ParametersAreNonnullByDefault
     public boolean addNode(IUnit node) {
-        return graph.addNode(node);
+        boolean added = mutableNetwork().addNode(node);
+        addToTestNodeIndex(node);
+        return added;
     }
 
     @Override
     @ParametersAreNonnullByDefault
     public boolean addEdge(IUnit nodeU, IUnit nodeV, CallEdge edge) {
-        return graph.addEdge(nodeU, nodeV, edge);
+        boolean added = mutableNetwork().addEdge(nodeU, nodeV, edge);
+        addToTestNodeIndex(nodeU);
+        addToTestNodeIndex(nodeV);
+        return added;
     }
 
     public boolean addEdge(CallEdge edge) {
-        return graph.addEdge(edge.getCaller(), edge.getCallee(), edge);
+        return addEdge(edge.getCaller(), edge.getCallee(), edge);
     }
 
     @Override
     @ParametersAreNonnullByDefault
     public boolean removeNode(IUnit node) {
-        return graph.removeNode(node);
+        boolean removed = mutableNetwork().removeNode(node);
+        if(testNodeIndex != null) {
+            testNodeIndex.removeNode(node);
+        }
+        return removed;
     }
 
     @Override
     @ParametersAreNonnullByDefault
     public boolean removeEdge(CallEdge edge) {
-        return graph.removeEdge(edge);
+        return mutableNetwork().removeEdge(edge);
     }
 
     @Override
     public Set<IUnit> nodes() {
-        return graph.nodes();
+        return network().nodes();
     }
 
     @Override
     public Set<CallEdge> edges() {
-        return graph.edges();
+        return network().edges();
     }
 
     @Override
     public Graph<IUnit> asGraph() {
-        return graph.asGraph();
+        return network().asGraph();
     }
 
     @Override
     public boolean isDirected() {
-        return graph.isDirected();
+        return network().isDirected();
     }
 
     @Override
     public boolean allowsParallelEdges() {
-        return graph.allowsParallelEdges();
+        return network().allowsParallelEdges();
     }
 
     @Override
     public boolean allowsSelfLoops() {
-        return graph.allowsSelfLoops();
+        return network().allowsSelfLoops();
     }
 
     @Override
     public ElementOrder<IUnit> nodeOrder() {
-        return graph.nodeOrder();
+        return network().nodeOrder();
     }
 
     @Override
     public ElementOrder<CallEdge> edgeOrder() {
-        return graph.edgeOrder();
+        return network().edgeOrder();
     }
 
     @Override
     @ParametersAreNonnullByDefault
     public Set<IUnit> adjacentNodes(IUnit node) {
-        return graph.adjacentNodes(node);
+        return network().adjacentNodes(node);
     }
 
     @Override
     @ParametersAreNonnullByDefault
     public Set<IUnit> predecessors(IUnit node) {
-        return graph.predecessors(node);
+        return network().predecessors(node);
     }
 
     @Override
     @ParametersAreNonnullByDefault
     public Set<IUnit> successors(IUnit node) {
-        return graph.successors(node);
+        return network().successors(node);
     }
 
     @Override
     @ParametersAreNonnullByDefault
     public Set<CallEdge> incidentEdges(IUnit node) {
-        return graph.incidentEdges(node);
+        return network().incidentEdges(node);
     }
 
     @Override
     @ParametersAreNonnullByDefault
     public Set<CallEdge> inEdges(IUnit node) {
-        return graph.inEdges(node);
+        return network().inEdges(node);
     }
 
     @Override
     @ParametersAreNonnullByDefault
     public Set<CallEdge> outEdges(IUnit node) {
-        return graph.outEdges(node);
+        return network().outEdges(node);
     }
 
     @Override
     @ParametersAreNonnullByDefault
     public int degree(IUnit node) {
-        return graph.degree(node);
+        return network().degree(node);
     }
 
     @Override
     @ParametersAreNonnullByDefault
     public int inDegree(IUnit node) {
-        return graph.inDegree(node);
+        return network().inDegree(node);
     }
 
     @Override
     @ParametersAreNonnullByDefault
     public int outDegree(IUnit node) {
-        return graph.outDegree(node);
+        return network().outDegree(node);
     }
 
     @Override
     @ParametersAreNonnullByDefault
     public EndpointPair<IUnit> incidentNodes(CallEdge edge) {
-        return graph.incidentNodes(edge);
+        return network().incidentNodes(edge);
     }
 
     @Override
     @ParametersAreNonnullByDefault
     public Set<CallEdge> adjacentEdges(CallEdge edge) {
-        return graph.adjacentEdges(edge);
+        return network().adjacentEdges(edge);
     }
 
     @Override
     @ParametersAreNonnullByDefault
     public Set<CallEdge> edgesConnecting(IUnit nodeU, IUnit nodeV) {
-        return graph.edgesConnecting(nodeU, nodeV);
+        return network().edgesConnecting(nodeU, nodeV);
     }
 
     @Override
     @ParametersAreNonnullByDefault
     public Optional<CallEdge> edgeConnecting(IUnit nodeU, IUnit nodeV) {
-        return graph.edgeConnecting(nodeU, nodeV);
+        return network().edgeConnecting(nodeU, nodeV);
     }
 
     @Nullable
     @Override
     @ParametersAreNonnullByDefault
     public CallEdge edgeConnectingOrNull(IUnit nodeU, IUnit nodeV) {
-        return graph.edgeConnectingOrNull(nodeU, nodeV);
+        return network().edgeConnectingOrNull(nodeU, nodeV);
     }
 
     @Override
     @ParametersAreNonnullByDefault
     public boolean hasEdgeConnecting(IUnit nodeU, IUnit nodeV) {
-        return graph.hasEdgeConnecting(nodeU, nodeV);
+        return network().hasEdgeConnecting(nodeU, nodeV);
     }
 
     @Override
     public int hashCode() {
         return new HashCodeBuilder(17, 31)
-                .append(graph)
+                .append(network())
                 .toHashCode();
     }
 
@@ -263,7 +397,7 @@ public class CallGraph extends DataSet implements MutableNetwork<IUnit, CallEdge
     public void printGraphToFileInDotFormat(Path outputPath) throws IOException{
         List<String> lines = new ArrayList<>();
         lines.add("digraph callgraph {");
-        for(CallEdge edge: graph.edges()) {
+        for(CallEdge edge: network().edges()) {
             lines.add("\"" + edge.getCaller() + "\" -> \"" + edge.getCallee() + "\" [ label = \""
                     + edge.getOrderNumber() +"\" ];");
         }
@@ -272,30 +406,94 @@ public class CallGraph extends DataSet implements MutableNetwork<IUnit, CallEdge
     }
 
 
+    /**
+     * Returns the class level representation of this graph, in which each unit is replaced by its class level unit
+     * (see {@link IUnit#toClassLevelUnit()}). The class level graph is computed once and kept until this graph is
+     * modified. Each call returns a copy of it, which is only really copied if it is modified.
+     * @return class level graph
+     */
     public DependencyGraph getDependencyGraphRepresentation() {
-        DependencyGraph dependencyGraph = new DependencyGraph();
-
-        this.edges().forEach(
-                callEdge -> {
+        DependencyGraph dependencyGraph = classLevelGraph;
+        if(dependencyGraph == null) {
+            synchronized (this) {
+                if(classLevelGraph == null) {
+                    classLevelGraph = createClassLevelGraph();
+                }
+                dependencyGraph = classLevelGraph;
+            }
+        }
+        return dependencyGraph.createSharedCopy();
+    }
+
+    private DependencyGraph createClassLevelGraph() {
+        // Each partition of the edges is projected by one thread, which stores the found class level edges in its own
+        // set. Units are projected only once and share the same class level unit.
+        List<CallEdge> edgeList = new ArrayList<>(edges());
+        int nPartitions = Math.min(Runtime.getRuntime().availableProcessors(),
+                (edgeList.size() + EDGES_PER_PARTITION - 1) / EDGES_PER_PARTITION);
+        Map<IUnit, IUnit> classLevelUnits = new ConcurrentHashMap<>();
+        UnitInterner unitInterner = new UnitInterner();
+        List<Set<EndpointPair<IUnit>>> edgesPerPartition = new ArrayList<>();
+
+        if(nPartitions <= 1) {
+            edgesPerPartition.add(projectEdges(edgeList, classLevelUnits, unitInterner));
+        } else {
+            edgesPerPartition.addAll(Collections.nCopies(nPartitions, null));
+            AtomicReference<RuntimeException> projectionException = new AtomicReference<>();
+            final ExecutorService executor = Executors.newFixedThreadPool(nPartitions);
+            CountDownLatch latch = new CountDownLatch(nPartitions);
+            for(int i = 0; i < nPartitions; i++) {
+                final int partition = i;
+                executor.submit(() -> {
                     try {
-                        IUnit sourceNode = (IUnit) callEdge.getCaller().getClass().getSuperclass()
-                                .getConstructor(String.class, Path.class).newInstance(
-                                        callEdge.getCaller().getFQNOfUnit(), callEdge.getCaller().getFilePath());
-                        IUnit targetNode = (IUnit) callEdge.getCallee().getClass().getSuperclass()
-                                .getConstructor(String.class, Path.class).newInstance(
-                                        callEdge.getCallee().getFQNOfUnit(), callEdge.getCallee().getFilePath());
-                        dependencyGraph.putEdge(sourceNode, targetNode);
-                    } catch (InstantiationException | IllegalAccessException | NoSuchMethodException
-                        | InvocationTargetException e) {
-                        e.printStackTrace();
-                        System.exit(1);
+                        int from = edgeList.size() * partition / nPartitions;
+                        int to = edgeList.size() * (partition + 1) / nPartitions;
+                        edgesPerPartition.set(partition, projectEdges(edgeList.subList(from, to), classLevelUnits,
+                                unitInterner));
+                    } catch (RuntimeException e) {
+                        projectionException.compareAndSet(null, e);
+                    } finally {
+                        latch.countDown();
                     }
-                }
-        );
+                });
+            }
 
+            try {
+                latch.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Interrupted while computing the class level graph.", e);
+            } finally {
+                executor.shutdown();
+            }
+
+            if(projectionException.get() != null) {
+                throw projectionException.get();
+            }
+        }
+
+        // Merge the edges in the order of the partitions, so that the graph is the same as if it was built by one
+        // thread
+        DependencyGraph dependencyGraph = new DependencyGraph();
+        for(Set<EndpointPair<IUnit>> classLevelEdges: edgesPerPartition) {
+            classLevelEdges.forEach(edge -> dependencyGraph.putEdge(edge.source(), edge.target()));
+        }
         return dependencyGraph;
     }
 
+    private static Set<EndpointPair<IUnit>> projectEdges(List<CallEdge> callEdges, Map<IUnit, IUnit> classLevelUnits,
+                                                          UnitInterner unitInterner) {
+        Set<EndpointPair<IUnit>> classLevelEdges = new LinkedHashSet<>();
+        for(CallEdge callEdge: callEdges) {
+            IUnit source = classLevelUnits.computeIfAbsent(callEdge.getCaller(),
+                    unit -> unitInterner.intern(unit.toClassLevelUnit()));
+            IUnit target = classLevelUnits.computeIfAbsent(callEdge.getCallee(),
+                    unit -> unitInterner.intern(unit.toClassLevelUnit()));
+            classLevelEdges.add(EndpointPair.ordered(source, target));
+        }
+        return classLevelEdges;
+    }
+
     @Override
     public String toString() {
         return MoreObjects.toStringHelper(this)
@@ -19,6 +19,7 @@ package de.ugoe.cs.comfort.data.graphs;
 import com.google.common.base.MoreObjects;
 import com.google.common.graph.ElementOrder;
 import com.google.common.graph.EndpointPair;
+import com.google.common.graph.Graph;
 import com.google.common.graph.GraphBuilder;
 import com.google.common.graph.MutableGraph;
 import de.ugoe.cs.comfort.Utils;
@@ -28,9 +29,13 @@ import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
+import java.util.function.Function;
+import java.util.function.Predicate;
 import javax.annotation.ParametersAreNonnullByDefault;
 import org.apache.commons.lang3.builder.HashCodeBuilder;
 
@@ -41,10 +46,108 @@ import org.apache.commons.lang3.builder.HashCodeBuilder;
  * @author Fabian Trautsch
  */
 public class DependencyGraph extends DataSet implements MutableGraph<IUnit>, IGraph {
-    private final MutableGraph<IUnit> graph;
+    private MutableGraph<IUnit> graph;
+    private FilteredDependencyGraphView filteredView = null;
+    private boolean graphShared = false;
+    private volatile TestNodeIndex testNodeIndex = null;
 
     public DependencyGraph() {
-        graph = GraphBuilder.directed().allowsSelfLoops(true).build();
+        graph = createMutableGraph();
+    }
+
+    private DependencyGraph(FilteredDependencyGraphView filteredView) {
+        this.filteredView = filteredView;
+    }
+
+    private static MutableGraph<IUnit> createMutableGraph() {
+        return GraphBuilder.directed().allowsSelfLoops(true).build();
+    }
+
+    private static MutableGraph<IUnit> createMutableCopy(Graph<IUnit> original) {
+        MutableGraph<IUnit> copy = createMutableGraph();
+        original.nodes().forEach(copy::addNode);
+        original.edges().forEach(edge -> copy.putEdge(edge.source(), edge.target()));
+        return copy;
+    }
+
+    private Graph<IUnit> graph() {
+        return filteredView != null ? filteredView : graph;
+    }
+
+    private MutableGraph<IUnit> mutableGraph() {
+        if(filteredView != null) {
+            graph = createMutableCopy(filteredView);
+            filteredView = null;
+        } else if(graphShared) {
+            graph = createMutableCopy(graph);
+            graphShared = false;
+        }
+        return graph;
+    }
+
+    /**
+     * Returns a lazy view of this graph, which only contains the edges that fulfill the edge predicate and whose source
+     * and target fulfill the node predicate. Nodes that are not connected by any of these edges are not part of the
+     * view (see {@link CallGraph#filter(Predicate, Predicate)}).
+     * @param nodePredicate predicate that must be fulfilled by the source and target of each edge
+     * @param edgePredicate predicate that must be fulfilled by each edge
+     * @return filtered view of this graph
+     */
+    public DependencyGraph filter(Predicate<IUnit> nodePredicate, Predicate<EndpointPair<IUnit>> edgePredicate) {
+        if(graph != null) {
+            // The view reads our graph, therefore it is copied before we modify it the next time
+            graphShared = true;
+        }
+        return new DependencyGraph(FilteredDependencyGraphView.create(graph(), nodePredicate, edgePredicate));
+    }
+
+    /**
+     * Contracts the nodes of this graph into a new graph. The given function maps every node to the node that
+     * represents it in the contracted graph, which can be the node itself, a node that represents several nodes (e.g.,
+     * the main class of an inner class), or a node that is not part of this graph. The function is called once per
+     * node. Every edge is then rewritten to connect the representatives of its source and target. Edges of nodes
+     * without representative (i.e., the function returns null) are not part of the contracted graph. Nodes without any
+     * edges are not part of the contracted graph either.
+     * @param representativeFunction function that returns the representative of a node or null
+     * @return contracted graph
+     */
+    public DependencyGraph contractNodes(Function<? super IUnit, ? extends IUnit> representativeFunction) {
+        Map<IUnit, IUnit> representatives = new HashMap<>();
+        for(IUnit node: nodes()) {
+            representatives.put(node, representativeFunction.apply(node));
+        }
+
+        DependencyGraph contractedGraph = new DependencyGraph();
+        for(EndpointPair<IUnit> edge: edges()) {
+            IUnit source = representatives.get(edge.source());
+            IUnit target = representatives.get(edge.target());
+            if(source != null && target != null) {
+                contractedGraph.putEdge(source, target);
+            }
+        }
+        return contractedGraph;
+    }
+
+    /**
+     * Creates a copy of this graph that shares the underlying graph with this graph until one of both graphs is
+     * modified. The graph is then copied by the modified graph.
+     * @return copy of this graph
+     */
+    DependencyGraph createSharedCopy() {
+        DependencyGraph copy = new DependencyGraph(filteredView);
+        if(graph != null) {
+            graphShared = true;
+            copy.graph = graph;
+            copy.graphShared = true;
+        }
+        return copy;
+    }
+
+    @Override
+    public void materialize() {
+        if(filteredView != null) {
+            mutableGraph();
+        }
     }
 
     public DependencyGraph getCopyOfGraph() {
@@ -58,98 +161,107 @@ public class DependencyGraph extends DataSet implements MutableGraph<IUnit>, IGr
     @Override
     @ParametersAreNonnullByDefault
     public boolean addNode(IUnit node) {
-        return graph.addNode(node);
+        boolean added = mutableGraph().addNode(node);
+        addToTestNodeIndex(node);
+        return added;
     }
 
     @Override
     @ParametersAreNonnullByDefault
     public boolean putEdge(IUnit nodeU, IUnit nodeV) {
-        return graph.putEdge(nodeU, nodeV);
+        boolean added = mutableGraph().putEdge(nodeU, nodeV);
+        addToTestNodeIndex(nodeU);
+        addToTestNodeIndex(nodeV);
+        return added;
     }
 
     @Override
     @ParametersAreNonnullByDefault
     public boolean removeNode(IUnit node) {
-        return graph.removeNode(node);
+        boolean removed = mutableGraph().removeNode(node);
+        if(testNodeIndex != null) {
+            testNodeIndex.removeNode(node);
+        }
+        return removed;
     }
 
     @Override
     @ParametersAreNonnullByDefault
     public boolean removeEdge(IUnit nodeU, IUnit nodeV) {
-        return graph.removeEdge(nodeU, nodeV);
+        return mutableGraph().removeEdge(nodeU, nodeV);
     }
 
     @Override
     public Set<IUnit> nodes() {
-        return graph.nodes();
+        return graph().nodes();
     }
 
     @Override
     public Set<EndpointPair<IUnit>> edges() {
-        return graph.edges();
+        return graph().edges();
     }
 
     @Override
     public boolean isDirected() {
-        return graph.isDirected();
+        return graph().isDirected();
     }
 
     @Override
     public boolean allowsSelfLoops() {
-        return graph.allowsSelfLoops();
+        return graph().allowsSelfLoops();
     }
 
     @Override
     public ElementOrder<IUnit> nodeOrder() {
-        return graph.nodeOrder();
+        return graph().nodeOrder();
     }
 
     @Override
     @ParametersAreNonnullByDefault
     public Set<IUnit> adjacentNodes(IUnit node) {
-        return graph.adjacentNodes(node);
+        return graph().adjacentNodes(node);
     }
 
     @Override
     @ParametersAreNonnullByDefault
     public Set<IUnit> predecessors(IUnit node) {
-        return graph.predecessors(node);
+        return graph().predecessors(node);
     }
 
     @Override
     @ParametersAreNonnullByDefault
     public Set<IUnit> successors(IUnit node) {
-        return graph.successors(node);
+        return graph().successors(node);
     }
 
     @Override
     @ParametersAreNonnullByDefault
     public int degree(IUnit node) {
-        return graph.degree(node);
+        return graph().degree(node);
     }
 
     @Override
     @ParametersAreNonnullByDefault
     public int inDegree(IUnit node) {
-        return graph.inDegree(node);
+        return graph().inDegree(node);
     }
 
     @Override
     @ParametersAreNonnullByDefault
     public int outDegree(IUnit node) {
-        return graph.outDegree(node);
+        return graph().outDegree(node);
     }
 
     @Override
     @ParametersAreNonnullByDefault
     public boolean hasEdgeConnecting(IUnit nodeU, IUnit nodeV) {
-        return graph.hasEdgeConnecting(nodeU, nodeV);
+        return graph().hasEdgeConnecting(nodeU, nodeV);
     }
 
     @Override
     public int hashCode() {
         return new HashCodeBuilder(17, 31)
-                .append(graph)
+                .append(graph())
                 .toHashCode();
     }
 
@@ -169,14 +281,41 @@ public class DependencyGraph extends DataSet implements MutableGraph<IUnit>, IGr
                 && edges().equals(other.edges());
     }
 
+    /**
+     * Returns the index of the test and production nodes of this graph, which are identified by the fully qualified
+     * name of their unit. The index is created on the first call and then kept up to date.
+     * @return test node index of this graph
+     */
+    @Override
+    public TestNodeIndex getTestNodeIndex() {
+        TestNodeIndex index = testNodeIndex;
+        if(index == null) {
+            index = new TestNodeIndex(node -> Utils.isTestBasedOnFQN(node.getFQNOfUnit()),
+                    node -> !Utils.isTestBasedOnFQN(node.getFQNOfUnit()));
+            nodes().forEach(index::addNode);
+            testNodeIndex = index;
+        }
+        return index;
+    }
+
+    @Override
     public Set<IUnit> getTestNodes() {
-        Set<IUnit> testNodes = new HashSet<>();
-        for(IUnit node: this.nodes()) {
-            if(Utils.isTestBasedOnFQN(node.getFQNOfUnit())) {
-                testNodes.add(node);
-            }
+        return getTestNodeIndex().getTestNodes();
+    }
+
+    @Override
+    public Set<IUnit> getProductionNodes() {
+        return getTestNodeIndex().getProductionNodes();
+    }
+
+    public boolean isTestNode(IUnit node) {
+        return getTestNodeIndex().isTestNode(node);
+    }
+
+    private void addToTestNodeIndex(IUnit node) {
+        if(testNodeIndex != null) {
+            testNodeIndex.addNode(node);
         }
-        return testNodes;
     }
 
     public void cleanGraphOfNodesThatAreSingle() {
@@ -195,7 +334,7 @@ public class DependencyGraph extends DataSet implements MutableGraph<IUnit>, IGr
     public void printToFileInDotFormat(Path outputPath) throws IOException {
         List<String> lines = new ArrayList<>();
         lines.add("digraph graph {");
-        for(EndpointPair<IUnit> edge: graph.edges()) {
+        for(EndpointPair<IUnit> edge: graph().edges()) {
             lines.add("\"" + edge.source() + "\" -> \"" + edge.target() + "\";");
         }
         lines.add("}");
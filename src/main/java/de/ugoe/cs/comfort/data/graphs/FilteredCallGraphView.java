@@ -0,0 +1,237 @@
+/*
+ * Copyright (C) 2017 University of Goettingen, Germany
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package de.ugoe.cs.comfort.data.graphs;
+
+import com.google.common.collect.Iterators;
+import com.google.common.graph.AbstractNetwork;
+import com.google.common.graph.ElementOrder;
+import com.google.common.graph.EndpointPair;
+import com.google.common.graph.Network;
+import de.ugoe.cs.comfort.data.models.IUnit;
+import java.util.AbstractSet;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.Set;
+import java.util.function.Predicate;
+import javax.annotation.ParametersAreNonnullByDefault;
+
+/**
+ * Lazy, read-only view of a call graph that only contains the edges that fulfill the edge predicate and whose caller
+ * and callee fulfill the node predicate. Nodes are only part of the view if they are connected by at least one of
+ * these edges. Hence, the view contains the same nodes and edges as a copy of the graph, from which all nodes and edges
+ * that do not fulfill the predicates and afterwards all single nodes were removed.
+ *
+ * Views of views are not stacked: the predicates are combined and evaluated on the underlying graph, which must not be
+ * modified while the view is in use. Predicates must only look at the node or edge itself.
+ *
+ * @author Fabian Trautsch
+ */
+class FilteredCallGraphView extends AbstractNetwork<IUnit, CallEdge> {
+    private final Network<IUnit, CallEdge> base;
+    private final Predicate<IUnit> nodePredicate;
+    private final Predicate<CallEdge> edgePredicate;
+
+    private final Set<IUnit> nodeView = new NodeView();
+    private final Set<CallEdge> edgeView;
+
+    private FilteredCallGraphView(Network<IUnit, CallEdge> base, Predicate<IUnit> nodePredicate,
+                                  Predicate<CallEdge> edgePredicate) {
+        this.base = base;
+        this.nodePredicate = nodePredicate;
+        this.edgePredicate = edgePredicate;
+        this.edgeView = new EdgeView(base.edges());
+    }
+
+    static FilteredCallGraphView create(Network<IUnit, CallEdge> network, Predicate<IUnit> nodePredicate,
+                                        Predicate<CallEdge> edgePredicate) {
+        if(network instanceof FilteredCallGraphView) {
+            FilteredCallGraphView view = (FilteredCallGraphView) network;
+            return new FilteredCallGraphView(view.base, view.nodePredicate.and(nodePredicate),
+                    view.edgePredicate.and(edgePredicate));
+        }
+        return new FilteredCallGraphView(network, nodePredicate, edgePredicate);
+    }
+
+    Network<IUnit, CallEdge> getBase() {
+        return base;
+    }
+
+    private boolean isRetainedEdge(CallEdge edge) {
+        return edgePredicate.test(edge) && nodePredicate.test(edge.getCaller())
+                && nodePredicate.test(edge.getCallee());
+    }
+
+    private boolean isRetainedNode(IUnit node) {
+        if(!nodePredicate.test(node)) {
+            return false;
+        }
+        for(CallEdge edge: base.incidentEdges(node)) {
+            if(isRetainedEdge(edge)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void checkNode(IUnit node) {
+        if(!nodeView.contains(node)) {
+            throw new IllegalArgumentException("Node " + node + " is not an element of this graph.");
+        }
+    }
+
+    @Override
+    public Set<IUnit> nodes() {
+        return nodeView;
+    }
+
+    @Override
+    public Set<CallEdge> edges() {
+        return edgeView;
+    }
+
+    @Override
+    public boolean isDirected() {
+        return base.isDirected();
+    }
+
+    @Override
+    public boolean allowsParallelEdges() {
+        return base.allowsParallelEdges();
+    }
+
+    @Override
+    public boolean allowsSelfLoops() {
+        return base.allowsSelfLoops();
+    }
+
+    @Override
+    public ElementOrder<IUnit> nodeOrder() {
+        return base.nodeOrder();
+    }
+
+    @Override
+    public ElementOrder<CallEdge> edgeOrder() {
+        return base.edgeOrder();
+    }
+
+    @Override
+    @ParametersAreNonnullByDefault
+    public Set<IUnit> adjacentNodes(IUnit node) {
+        Set<IUnit> adjacentNodes = new LinkedHashSet<>(predecessors(node));
+        adjacentNodes.addAll(successors(node));
+        return adjacentNodes;
+    }
+
+    @Override
+    @ParametersAreNonnullByDefault
+    public Set<IUnit> predecessors(IUnit node) {
+        Set<IUnit> predecessors = new LinkedHashSet<>();
+        for(CallEdge edge: inEdges(node)) {
+            predecessors.add(edge.getCaller());
+        }
+        return predecessors;
+    }
+
+    @Override
+    @ParametersAreNonnullByDefault
+    public Set<IUnit> successors(IUnit node) {
+        Set<IUnit> successors = new LinkedHashSet<>();
+        for(CallEdge edge: outEdges(node)) {
+            successors.add(edge.getCallee());
+        }
+        return successors;
+    }
+
+    @Override
+    @ParametersAreNonnullByDefault
+    public Set<CallEdge> incidentEdges(IUnit node) {
+        checkNode(node);
+        return new EdgeView(base.incidentEdges(node));
+    }
+
+    @Override
+    @ParametersAreNonnullByDefault
+    public Set<CallEdge> inEdges(IUnit node) {
+        checkNode(node);
+        return new EdgeView(base.inEdges(node));
+    }
+
+    @Override
+    @ParametersAreNonnullByDefault
+    public Set<CallEdge> outEdges(IUnit node) {
+        checkNode(node);
+        return new EdgeView(base.outEdges(node));
+    }
+
+    @Override
+    @ParametersAreNonnullByDefault
+    public EndpointPair<IUnit> incidentNodes(CallEdge edge) {
+        if(!edgeView.contains(edge)) {
+            throw new IllegalArgumentException("Edge " + edge + " is not an element of this graph.");
+        }
+        return base.incidentNodes(edge);
+    }
+
+    /**
+     * Read-only view of the retained nodes of the underlying graph.
+     */
+    private final class NodeView extends AbstractSet<IUnit> {
+        @Override
+        public Iterator<IUnit> iterator() {
+            return Iterators.filter(base.nodes().iterator(), FilteredCallGraphView.this::isRetainedNode);
+        }
+
+        @Override
+        public int size() {
+            return Iterators.size(iterator());
+        }
+
+        @Override
+        @SuppressWarnings("SuspiciousMethodCalls")
+        public boolean contains(Object object) {
+            return base.nodes().contains(object) && isRetainedNode((IUnit) object);
+        }
+    }
+
+    /**
+     * Read-only view of the retained edges of a set of edges of the underlying graph.
+     */
+    private final class EdgeView extends AbstractSet<CallEdge> {
+        private final Set<CallEdge> edges;
+
+        EdgeView(Set<CallEdge> edges) {
+            this.edges = edges;
+        }
+
+        @Override
+        public Iterator<CallEdge> iterator() {
+            return Iterators.filter(edges.iterator(), FilteredCallGraphView.this::isRetainedEdge);
+        }
+
+        @Override
+        public int size() {
+            return Iterators.size(iterator());
+        }
+
+        @Override
+        @SuppressWarnings("SuspiciousMethodCalls")
+        public boolean contains(Object object) {
+            return edges.contains(object) && isRetainedEdge((CallEdge) object);
+        }
+    }
+}
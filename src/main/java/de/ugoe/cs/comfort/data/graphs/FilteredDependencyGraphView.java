@@ -0,0 +1,204 @@
+/*
+ * Copyright (C) 2017 University of Goettingen, Germany
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package de.ugoe.cs.comfort.data.graphs;
+
+import com.google.common.collect.Iterators;
+import com.google.common.graph.AbstractGraph;
+import com.google.common.graph.ElementOrder;
+import com.google.common.graph.EndpointPair;
+import com.google.common.graph.Graph;
+import de.ugoe.cs.comfort.data.models.IUnit;
+import java.util.AbstractSet;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.Set;
+import java.util.function.Predicate;
+import javax.annotation.ParametersAreNonnullByDefault;
+
+/**
+ * Lazy, read-only view of a dependency graph that only contains the edges that fulfill the edge predicate and whose
+ * source and target fulfill the node predicate. Nodes are only part of the view if they are connected by at least one
+ * of these edges (see {@link FilteredCallGraphView}, which does the same for call graphs).
+ *
+ * @author Fabian Trautsch
+ */
+class FilteredDependencyGraphView extends AbstractGraph<IUnit> {
+    private final Graph<IUnit> base;
+    private final Predicate<IUnit> nodePredicate;
+    private final Predicate<EndpointPair<IUnit>> edgePredicate;
+
+    private final Set<IUnit> nodeView = new NodeView();
+    private final Set<EndpointPair<IUnit>> edgeView = new EdgeView();
+
+    private FilteredDependencyGraphView(Graph<IUnit> base, Predicate<IUnit> nodePredicate,
+                                        Predicate<EndpointPair<IUnit>> edgePredicate) {
+        this.base = base;
+        this.nodePredicate = nodePredicate;
+        this.edgePredicate = edgePredicate;
+    }
+
+    static FilteredDependencyGraphView create(Graph<IUnit> graph, Predicate<IUnit> nodePredicate,
+                                              Predicate<EndpointPair<IUnit>> edgePredicate) {
+        if(graph instanceof FilteredDependencyGraphView) {
+            FilteredDependencyGraphView view = (FilteredDependencyGraphView) graph;
+            return new FilteredDependencyGraphView(view.base, view.nodePredicate.and(nodePredicate),
+                    view.edgePredicate.and(edgePredicate));
+        }
+        return new FilteredDependencyGraphView(graph, nodePredicate, edgePredicate);
+    }
+
+    private boolean isRetainedEdge(IUnit source, IUnit target) {
+        return nodePredicate.test(source) && nodePredicate.test(target)
+                && edgePredicate.test(EndpointPair.ordered(source, target));
+    }
+
+    private boolean isRetainedNode(IUnit node) {
+        if(!nodePredicate.test(node)) {
+            return false;
+        }
+        for(IUnit successor: base.successors(node)) {
+            if(isRetainedEdge(node, successor)) {
+                return true;
+            }
+        }
+        for(IUnit predecessor: base.predecessors(node)) {
+            if(isRetainedEdge(predecessor, node)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void checkNode(IUnit node) {
+        if(!nodeView.contains(node)) {
+            throw new IllegalArgumentException("Node " + node + " is not an element of this graph.");
+        }
+    }
+
+    @Override
+    public Set<IUnit> nodes() {
+        return nodeView;
+    }
+
+    @Override
+    public Set<EndpointPair<IUnit>> edges() {
+        return edgeView;
+    }
+
+    @Override
+    public boolean isDirected() {
+        return base.isDirected();
+    }
+
+    @Override
+    public boolean allowsSelfLoops() {
+        return base.allowsSelfLoops();
+    }
+
+    @Override
+    public ElementOrder<IUnit> nodeOrder() {
+        return base.nodeOrder();
+    }
+
+    @Override
+    @ParametersAreNonnullByDefault
+    public Set<IUnit> adjacentNodes(IUnit node) {
+        Set<IUnit> adjacentNodes = new LinkedHashSet<>(predecessors(node));
+        adjacentNodes.addAll(successors(node));
+        return adjacentNodes;
+    }
+
+    @Override
+    @ParametersAreNonnullByDefault
+    public Set<IUnit> predecessors(IUnit node) {
+        checkNode(node);
+        Set<IUnit> predecessors = new LinkedHashSet<>();
+        for(IUnit predecessor: base.predecessors(node)) {
+            if(isRetainedEdge(predecessor, node)) {
+                predecessors.add(predecessor);
+            }
+        }
+        return predecessors;
+    }
+
+    @Override
+    @ParametersAreNonnullByDefault
+    public Set<IUnit> successors(IUnit node) {
+        checkNode(node);
+        Set<IUnit> successors = new LinkedHashSet<>();
+        for(IUnit successor: base.successors(node)) {
+            if(isRetainedEdge(node, successor)) {
+                successors.add(successor);
+            }
+        }
+        return successors;
+    }
+
+    @Override
+    @ParametersAreNonnullByDefault
+    public boolean hasEdgeConnecting(IUnit nodeU, IUnit nodeV) {
+        return base.hasEdgeConnecting(nodeU, nodeV) && isRetainedEdge(nodeU, nodeV);
+    }
+
+    /**
+     * Read-only view of the retained nodes of the underlying graph.
+     */
+    private final class NodeView extends AbstractSet<IUnit> {
+        @Override
+        public Iterator<IUnit> iterator() {
+            return Iterators.filter(base.nodes().iterator(), FilteredDependencyGraphView.this::isRetainedNode);
+        }
+
+        @Override
+        public int size() {
+            return Iterators.size(iterator());
+        }
+
+        @Override
+        @SuppressWarnings("SuspiciousMethodCalls")
+        public boolean contains(Object object) {
+            return base.nodes().contains(object) && isRetainedNode((IUnit) object);
+        }
+    }
+
+    /**
+     * Read-only view of the retained edges of the underlying graph.
+     */
+    private final class EdgeView extends AbstractSet<EndpointPair<IUnit>> {
+        @Override
+        public Iterator<EndpointPair<IUnit>> iterator() {
+            return Iterators.filter(base.edges().iterator(),
+                    edge -> isRetainedEdge(edge.source(), edge.target()));
+        }
+
+        @Override
+        public int size() {
+            return Iterators.size(iterator());
+        }
+
+        @Override
+        public boolean contains(Object object) {
+            if(!(object instanceof EndpointPair)) {
+                return false;
+            }
+            EndpointPair<?> edge = (EndpointPair<?>) object;
+            return edge.isOrdered() && base.edges().contains(edge)
+                    && isRetainedEdge((IUnit) edge.source(), (IUnit) edge.target());
+        }
+    }
+}
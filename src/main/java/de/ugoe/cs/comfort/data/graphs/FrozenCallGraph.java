@@ -0,0 +1,321 @@
+/*
+ * Copyright (C) 2017 University of Goettingen, Germany
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package de.ugoe.cs.comfort.data.graphs;
+
+import com.google.common.graph.AbstractNetwork;
+import com.google.common.graph.ElementOrder;
+import com.google.common.graph.EndpointPair;
+import com.google.common.graph.Network;
+import de.ugoe.cs.comfort.data.models.IUnit;
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import javax.annotation.ParametersAreNonnullByDefault;
+
+/**
+ * Read-only, compact representation of a call graph. Each node gets an int id and the edges are stored in primitive
+ * arrays in the order in which they were added: caller, callee, call type, and order number. The outgoing and incoming
+ * edges of each node are stored as compressed sparse rows, i.e., the ids of the edges of node v are stored in
+ * {@code outEdges[outOffsets[v]]} to {@code outEdges[outOffsets[v+1]-1]}.
+ *
+ * {@link CallEdge} objects are only created when they are requested via the {@link Network} views.
+ *
+ * @author Fabian Trautsch
+ */
+class FrozenCallGraph extends AbstractNetwork<IUnit, CallEdge> {
+    private static final CallType[] CALL_TYPES = CallType.values();
+    private static final int NO_ORDER_NUMBER = Integer.MIN_VALUE;
+
+    private final IUnit[] nodes;
+    private final Map<IUnit, Integer> nodeIds;
+
+    private final int[] callers;
+    private final int[] callees;
+    private final byte[] callTypes;
+    private final int[] orderNumbers;
+
+    private final int[] outOffsets;
+    private final int[] outEdges;
+    private final int[] inOffsets;
+    private final int[] inEdges;
+
+    private final Set<IUnit> nodeView = new NodeView();
+    private final Set<CallEdge> edgeView;
+
+    FrozenCallGraph(Network<IUnit, CallEdge> network) {
+        nodes = network.nodes().toArray(new IUnit[0]);
+        nodeIds = new HashMap<>((int) (nodes.length / 0.75f) + 1);
+        for(int id = 0; id < nodes.length; id++) {
+            nodeIds.put(nodes[id], id);
+        }
+
+        int numberOfEdges = network.edges().size();
+        callers = new int[numberOfEdges];
+        callees = new int[numberOfEdges];
+        callTypes = new byte[numberOfEdges];
+        orderNumbers = new int[numberOfEdges];
+        outOffsets = new int[nodes.length + 1];
+        inOffsets = new int[nodes.length + 1];
+        int edgeId = 0;
+        for(CallEdge edge: network.edges()) {
+            EndpointPair<IUnit> endpoints = network.incidentNodes(edge);
+            callers[edgeId] = nodeIds.get(endpoints.source());
+            callees[edgeId] = nodeIds.get(endpoints.target());
+            callTypes[edgeId] = edge.getCallType() == null ? -1 : (byte) edge.getCallType().ordinal();
+            orderNumbers[edgeId] = edge.getOrderNumber() == null ? NO_ORDER_NUMBER : edge.getOrderNumber();
+            outOffsets[callers[edgeId] + 1]++;
+            inOffsets[callees[edgeId] + 1]++;
+            edgeId++;
+        }
+
+        for(int v = 0; v < nodes.length; v++) {
+            outOffsets[v + 1] += outOffsets[v];
+            inOffsets[v + 1] += inOffsets[v];
+        }
+        outEdges = new int[numberOfEdges];
+        inEdges = new int[numberOfEdges];
+        int[] nextOut = Arrays.copyOf(outOffsets, nodes.length);
+        int[] nextIn = Arrays.copyOf(inOffsets, nodes.length);
+        for(int e = 0; e < numberOfEdges; e++) {
+            outEdges[nextOut[callers[e]]++] = e;
+            inEdges[nextIn[callees[e]]++] = e;
+        }
+
+        edgeView = new EdgeView(null, 0, numberOfEdges);
+    }
+
+    private CallEdge createEdge(int edgeId) {
+        return new CallEdge(callTypes[edgeId] == -1 ? null : CALL_TYPES[callTypes[edgeId]],
+                orderNumbers[edgeId] == NO_ORDER_NUMBER ? null : orderNumbers[edgeId],
+                nodes[callers[edgeId]], nodes[callees[edgeId]]);
+    }
+
+    private int getNodeId(IUnit node) {
+        Integer id = nodeIds.get(node);
+        if(id == null) {
+            throw new IllegalArgumentException("Node " + node + " is not an element of this graph.");
+        }
+        return id;
+    }
+
+    /**
+     * Returns the id of the given edge or -1, if it is not part of the graph.
+     */
+    private int findEdge(Object object) {
+        if(!(object instanceof CallEdge)) {
+            return -1;
+        }
+        CallEdge edge = (CallEdge) object;
+        Integer caller = nodeIds.get(edge.getCaller());
+        Integer callee = nodeIds.get(edge.getCallee());
+        if(caller == null || callee == null) {
+            return -1;
+        }
+        for(int i = outOffsets[caller]; i < outOffsets[caller + 1]; i++) {
+            if(callees[outEdges[i]] == callee && createEdge(outEdges[i]).equals(edge)) {
+                return outEdges[i];
+            }
+        }
+        return -1;
+    }
+
+    @Override
+    public Set<IUnit> nodes() {
+        return nodeView;
+    }
+
+    @Override
+    public Set<CallEdge> edges() {
+        return edgeView;
+    }
+
+    @Override
+    public boolean isDirected() {
+        return true;
+    }
+
+    @Override
+    public boolean allowsParallelEdges() {
+        return true;
+    }
+
+    @Override
+    public boolean allowsSelfLoops() {
+        return true;
+    }
+
+    @Override
+    public ElementOrder<IUnit> nodeOrder() {
+        return ElementOrder.insertion();
+    }
+
+    @Override
+    public ElementOrder<CallEdge> edgeOrder() {
+        return ElementOrder.insertion();
+    }
+
+    @Override
+    @ParametersAreNonnullByDefault
+    public Set<IUnit> adjacentNodes(IUnit node) {
+        Set<IUnit> adjacentNodes = new LinkedHashSet<>(predecessors(node));
+        adjacentNodes.addAll(successors(node));
+        return adjacentNodes;
+    }
+
+    @Override
+    @ParametersAreNonnullByDefault
+    public Set<IUnit> predecessors(IUnit node) {
+        int id = getNodeId(node);
+        Set<IUnit> predecessors = new LinkedHashSet<>();
+        for(int i = inOffsets[id]; i < inOffsets[id + 1]; i++) {
+            predecessors.add(nodes[callers[inEdges[i]]]);
+        }
+        return predecessors;
+    }
+
+    @Override
+    @ParametersAreNonnullByDefault
+    public Set<IUnit> successors(IUnit node) {
+        int id = getNodeId(node);
+        Set<IUnit> successors = new LinkedHashSet<>();
+        for(int i = outOffsets[id]; i < outOffsets[id + 1]; i++) {
+            successors.add(nodes[callees[outEdges[i]]]);
+        }
+        return successors;
+    }
+
+    @Override
+    @ParametersAreNonnullByDefault
+    public Set<CallEdge> incidentEdges(IUnit node) {
+        Set<CallEdge> incidentEdges = new LinkedHashSet<>(inEdges(node));
+        incidentEdges.addAll(outEdges(node));
+        return incidentEdges;
+    }
+
+    @Override
+    @ParametersAreNonnullByDefault
+    public Set<CallEdge> inEdges(IUnit node) {
+        int id = getNodeId(node);
+        return new EdgeView(inEdges, inOffsets[id], inOffsets[id + 1]);
+    }
+
+    @Override
+    @ParametersAreNonnullByDefault
+    public Set<CallEdge> outEdges(IUnit node) {
+        int id = getNodeId(node);
+        return new EdgeView(outEdges, outOffsets[id], outOffsets[id + 1]);
+    }
+
+    @Override
+    @ParametersAreNonnullByDefault
+    public EndpointPair<IUnit> incidentNodes(CallEdge edge) {
+        int edgeId = findEdge(edge);
+        if(edgeId == -1) {
+            throw new IllegalArgumentException("Edge " + edge + " is not an element of this graph.");
+        }
+        return EndpointPair.ordered(nodes[callers[edgeId]], nodes[callees[edgeId]]);
+    }
+
+    int getNumberOfEdges() {
+        return callers.length;
+    }
+
+    /**
+     * Read-only view of all nodes.
+     */
+    private final class NodeView extends AbstractSet<IUnit> {
+        @Override
+        public Iterator<IUnit> iterator() {
+            return Arrays.asList(nodes).iterator();
+        }
+
+        @Override
+        public int size() {
+            return nodes.length;
+        }
+
+        @Override
+        public boolean contains(Object object) {
+            return nodeIds.containsKey(object);
+        }
+    }
+
+    /**
+     * Read-only view of a range of edge ids. If no id array is given, the range contains the ids itself.
+     */
+    private final class EdgeView extends AbstractSet<CallEdge> {
+        private final int[] edgeIds;
+        private final int from;
+        private final int to;
+
+        EdgeView(int[] edgeIds, int from, int to) {
+            this.edgeIds = edgeIds;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        public Iterator<CallEdge> iterator() {
+            return new Iterator<CallEdge>() {
+                private int position = from;
+
+                @Override
+                public boolean hasNext() {
+                    return position < to;
+                }
+
+                @Override
+                public CallEdge next() {
+                    if(!hasNext()) {
+                        throw new NoSuchElementException();
+                    }
+                    int edgeId = edgeIds == null ? position : edgeIds[position];
+                    position++;
+                    return createEdge(edgeId);
+                }
+            };
+        }
+
+        @Override
+        public int size() {
+            return to - from;
+        }
+
+        @Override
+        public boolean contains(Object object) {
+            int edgeId = findEdge(object);
+            if(edgeId == -1) {
+                return false;
+            }
+            if(edgeIds == null) {
+                return true;
+            }
+            for(int i = from; i < to; i++) {
+                if(edgeIds[i] == edgeId) {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+}
@@ -29,4 +29,8 @@ public interface IGraph {
     Set<IUnit> successors(IUnit node);
 
     Set<IUnit> getTestNodes();
+
+    Set<IUnit> getProductionNodes();
+
+    TestNodeIndex getTestNodeIndex();
 }
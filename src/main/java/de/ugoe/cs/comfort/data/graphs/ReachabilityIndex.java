@@ -0,0 +1,259 @@
+/*
+ * Copyright (C) 2017 University of Goettingen, Germany
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package de.ugoe.cs.comfort.data.graphs;
+
+import de.ugoe.cs.comfort.data.models.IUnit;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Answers which nodes of a graph can be reached from a node. The strongly connected components of the graph are
+ * condensed via an iterative version of Tarjan's algorithm, so that deep graphs do not overflow the stack. Afterwards,
+ * the reachable nodes of each component are computed once, bottom-up on the condensed graph, as bitset.
+ *
+ * Nodes get their ids in the order in which their components are completed by Tarjan's algorithm. Therefore, all
+ * nodes that can be reached from a component have smaller ids than the nodes of the component itself, which keeps
+ * the bitsets small.
+ *
+ * Instances are immutable and can be shared across threads.
+ *
+ * @author Fabian Trautsch
+ */
+public class ReachabilityIndex {
+    private final IUnit[] nodes;
+    private final Map<IUnit, Integer> nodeIds;
+    private final int[] componentOfNode;
+    private final BitSet[] reachableNodesOfComponent;
+
+    private ReachabilityIndex(IUnit[] nodes, Map<IUnit, Integer> nodeIds, int[] componentOfNode,
+                              BitSet[] reachableNodesOfComponent) {
+        this.nodes = nodes;
+        this.nodeIds = nodeIds;
+        this.componentOfNode = componentOfNode;
+        this.reachableNodesOfComponent = reachableNodesOfComponent;
+    }
+
+    /**
+     * Creates the index for all nodes of the given graph.
+     * @param graph graph that should be indexed
+     * @return reachability index of the graph
+     */
+    public static ReachabilityIndex create(IGraph graph) {
+        return create(graph, graph.nodes());
+    }
+
+    /**
+     * Creates the index for the given source nodes. Only the reachable nodes of components that can be reached from
+     * the sources are computed.
+     * @param graph graph that should be indexed
+     * @param sources nodes for which the reachable nodes are requested afterwards
+     * @return reachability index of the graph
+     */
+    public static ReachabilityIndex create(IGraph graph, Collection<IUnit> sources) {
+        // Assign preliminary ids and build the adjacency lists
+        List<IUnit> unitsInGraphOrder = new ArrayList<>(graph.nodes());
+        Map<IUnit, Integer> preliminaryIds = new HashMap<>();
+        for(IUnit node: unitsInGraphOrder) {
+            preliminaryIds.put(node, preliminaryIds.size());
+        }
+        int[][] successors = new int[unitsInGraphOrder.size()][];
+        for(int v = 0; v < successors.length; v++) {
+            successors[v] = graph.successors(unitsInGraphOrder.get(v)).stream().mapToInt(preliminaryIds::get)
+                    .toArray();
+        }
+
+        int[] preliminaryComponents = new int[successors.length];
+        int numberOfComponents = findStronglyConnectedComponents(successors, preliminaryComponents);
+
+        // Renumber the nodes, so that the nodes of each component are contiguous and components are ordered as they
+        // were completed
+        int[] componentStart = new int[numberOfComponents + 1];
+        for(int component: preliminaryComponents) {
+            componentStart[component + 1]++;
+        }
+        for(int c = 0; c < numberOfComponents; c++) {
+            componentStart[c + 1] += componentStart[c];
+        }
+        int[] nextFreeId = Arrays.copyOf(componentStart, numberOfComponents);
+        int[] oldIdOfNewId = new int[successors.length];
+        IUnit[] nodes = new IUnit[successors.length];
+        int[] componentOfNode = new int[successors.length];
+        Map<IUnit, Integer> nodeIds = new HashMap<>();
+        for(int v = 0; v < successors.length; v++) {
+            int id = nextFreeId[preliminaryComponents[v]]++;
+            oldIdOfNewId[id] = v;
+            nodes[id] = unitsInGraphOrder.get(v);
+            componentOfNode[id] = preliminaryComponents[v];
+            nodeIds.put(nodes[id], id);
+        }
+
+        // Successor components of each component
+        int[][] componentSuccessors = new int[numberOfComponents][];
+        int[] lastSeenBy = new int[numberOfComponents];
+        Arrays.fill(lastSeenBy, -1);
+        for(int c = 0; c < numberOfComponents; c++) {
+            List<Integer> successorComponents = new ArrayList<>();
+            for(int id = componentStart[c]; id < componentStart[c + 1]; id++) {
+                for(int w: successors[oldIdOfNewId[id]]) {
+                    int d = preliminaryComponents[w];
+                    if(d != c && lastSeenBy[d] != c) {
+                        lastSeenBy[d] = c;
+                        successorComponents.add(d);
+                    }
+                }
+            }
+            componentSuccessors[c] = successorComponents.stream().mapToInt(Integer::intValue).toArray();
+        }
+
+        // Mark all components that are reachable from one of the sources
+        boolean[] needed = new boolean[numberOfComponents];
+        int[] stack = new int[numberOfComponents];
+        int stackSize = 0;
+        for(IUnit source: sources) {
+            Integer id = nodeIds.get(source);
+            if(id != null && !needed[componentOfNode[id]]) {
+                needed[componentOfNode[id]] = true;
+                stack[stackSize++] = componentOfNode[id];
+            }
+        }
+        while(stackSize > 0) {
+            int c = stack[--stackSize];
+            for(int d: componentSuccessors[c]) {
+                if(!needed[d]) {
+                    needed[d] = true;
+                    stack[stackSize++] = d;
+                }
+            }
+        }
+
+        // Successor components are always completed before, therefore we can compute the reachable nodes in order
+        BitSet[] reachableNodesOfComponent = new BitSet[numberOfComponents];
+        for(int c = 0; c < numberOfComponents; c++) {
+            if(needed[c]) {
+                BitSet reachableNodes = new BitSet(componentStart[c + 1]);
+                reachableNodes.set(componentStart[c], componentStart[c + 1]);
+                for(int d: componentSuccessors[c]) {
+                    reachableNodes.or(reachableNodesOfComponent[d]);
+                }
+                reachableNodesOfComponent[c] = reachableNodes;
+            }
+        }
+
+        return new ReachabilityIndex(nodes, nodeIds, componentOfNode, reachableNodesOfComponent);
+    }
+
+    /**
+     * Iterative version of Tarjan's algorithm.
+     * @param successors successors of each node
+     * @param componentOfNode array, which is filled with the component of each node
+     * @return number of components
+     */
+    private static int findStronglyConnectedComponents(int[][] successors, int[] componentOfNode) {
+        int numberOfNodes = successors.length;
+        int[] index = new int[numberOfNodes];
+        int[] lowLink = new int[numberOfNodes];
+        boolean[] onStack = new boolean[numberOfNodes];
+        int[] tarjanStack = new int[numberOfNodes];
+        int[] callStack = new int[numberOfNodes];
+        int[] nextSuccessor = new int[numberOfNodes];
+        Arrays.fill(index, -1);
+
+        int nextIndex = 0;
+        int numberOfComponents = 0;
+        int tarjanStackSize = 0;
+        for(int start = 0; start < numberOfNodes; start++) {
+            if(index[start] != -1) {
+                continue;
+            }
+
+            int callStackSize = 0;
+            index[start] = nextIndex++;
+            lowLink[start] = index[start];
+            tarjanStack[tarjanStackSize++] = start;
+            onStack[start] = true;
+            callStack[callStackSize++] = start;
+
+            while(callStackSize > 0) {
+                int v = callStack[callStackSize - 1];
+                if(nextSuccessor[v] < successors[v].length) {
+                    int w = successors[v][nextSuccessor[v]++];
+                    if(index[w] == -1) {
+                        index[w] = nextIndex++;
+                        lowLink[w] = index[w];
+                        tarjanStack[tarjanStackSize++] = w;
+                        onStack[w] = true;
+                        callStack[callStackSize++] = w;
+                    } else if(onStack[w]) {
+                        lowLink[v] = Math.min(lowLink[v], index[w]);
+                    }
+                } else {
+                    callStackSize--;
+                    if(lowLink[v] == index[v]) {
+                        int w;
+                        do {
+                            w = tarjanStack[--tarjanStackSize];
+                            onStack[w] = false;
+                            componentOfNode[w] = numberOfComponents;
+                        } while(w != v);
+                        numberOfComponents++;
+                    }
+                    if(callStackSize > 0) {
+                        int parent = callStack[callStackSize - 1];
+                        lowLink[parent] = Math.min(lowLink[parent], lowLink[v]);
+                    }
+                }
+            }
+        }
+        return numberOfComponents;
+    }
+
+    /**
+     * Returns all nodes that can be reached from the given node, including the node itself.
+     * @param node node of the graph
+     * @return new set of the reachable nodes
+     * @throws IllegalArgumentException if the node is not part of the graph or was not requested as source
+     */
+    public Set<IUnit> getReachableNodes(IUnit node) {
+        Integer id = nodeIds.get(node);
+        if(id == null || reachableNodesOfComponent[componentOfNode[id]] == null) {
+            throw new IllegalArgumentException("Reachable nodes of " + node + " were not computed.");
+        }
+
+        BitSet reachableNodes = reachableNodesOfComponent[componentOfNode[id]];
+        Set<IUnit> result = new HashSet<>((int) (reachableNodes.cardinality() / 0.75f) + 1);
+        for(int i = reachableNodes.nextSetBit(0); i >= 0; i = reachableNodes.nextSetBit(i + 1)) {
+            result.add(nodes[i]);
+        }
+        return result;
+    }
+
+    /**
+     * Returns the number of strongly connected components of the graph.
+     * @return number of components
+     */
+    public int getNumberOfComponents() {
+        return reachableNodesOfComponent.length;
+    }
+}
@@ -0,0 +1,188 @@
+/*
+ * Copyright (C) 2017 University of Goettingen, Germany
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package de.ugoe.cs.comfort.data.graphs;
+
+import de.ugoe.cs.comfort.data.models.IUnit;
+import java.util.AbstractSet;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.function.Predicate;
+
+/**
+ * Classifies the nodes of a graph into test and production nodes. The graph keeps the index up to date, whenever nodes
+ * are added or removed, so that the classification of each node is only computed once.
+ *
+ * Each node gets an int id in the order in which it was added. Ids of removed nodes are not reused. The test and
+ * production nodes are stored as bitsets of these ids, which are also available for algorithms that work on node ids.
+ *
+ * @author Fabian Trautsch
+ */
+public class TestNodeIndex {
+    private final Predicate<IUnit> testNodePredicate;
+    private final Predicate<IUnit> productionNodePredicate;
+
+    private final Map<IUnit, Integer> nodeIds = new HashMap<>();
+    private final List<IUnit> nodes = new ArrayList<>();
+    private final BitSet testNodeIds = new BitSet();
+    private final BitSet productionNodeIds = new BitSet();
+
+    private final Set<IUnit> testNodes = new NodeSet(testNodeIds);
+    private final Set<IUnit> productionNodes = new NodeSet(productionNodeIds);
+
+    TestNodeIndex(Predicate<IUnit> testNodePredicate, Predicate<IUnit> productionNodePredicate) {
+        this.testNodePredicate = testNodePredicate;
+        this.productionNodePredicate = productionNodePredicate;
+    }
+
+    void addNode(IUnit node) {
+        if(nodeIds.containsKey(node)) {
+            return;
+        }
+
+        int id = nodes.size();
+        nodes.add(node);
+        nodeIds.put(node, id);
+        if(testNodePredicate.test(node)) {
+            testNodeIds.set(id);
+        }
+        if(productionNodePredicate.test(node)) {
+            productionNodeIds.set(id);
+        }
+    }
+
+    void removeNode(IUnit node) {
+        Integer id = nodeIds.remove(node);
+        if(id != null) {
+            nodes.set(id, null);
+            testNodeIds.clear(id);
+            productionNodeIds.clear(id);
+        }
+    }
+
+    /**
+     * Returns a read-only view of all test nodes, which reflects later changes of the graph.
+     * @return test nodes
+     */
+    public Set<IUnit> getTestNodes() {
+        return testNodes;
+    }
+
+    /**
+     * Returns a read-only view of all production nodes, which reflects later changes of the graph.
+     * @return production nodes
+     */
+    public Set<IUnit> getProductionNodes() {
+        return productionNodes;
+    }
+
+    public boolean isTestNode(IUnit node) {
+        Integer id = nodeIds.get(node);
+        return id != null && testNodeIds.get(id);
+    }
+
+    public boolean isProductionNode(IUnit node) {
+        Integer id = nodeIds.get(node);
+        return id != null && productionNodeIds.get(id);
+    }
+
+    /**
+     * Returns the id of the given node.
+     * @param node node of the graph
+     * @return id of the node or -1, if it is not part of the graph
+     */
+    public int getNodeId(IUnit node) {
+        Integer id = nodeIds.get(node);
+        return id == null ? -1 : id;
+    }
+
+    /**
+     * Returns the node with the given id.
+     * @param id id of the node
+     * @return node or null, if the node was removed
+     */
+    public IUnit getNode(int id) {
+        return nodes.get(id);
+    }
+
+    /**
+     * Returns the number of ids that were given to nodes so far, i.e., all ids are smaller than this number.
+     * @return number of ids
+     */
+    public int getNumberOfIds() {
+        return nodes.size();
+    }
+
+    public BitSet getTestNodeIds() {
+        return (BitSet) testNodeIds.clone();
+    }
+
+    public BitSet getProductionNodeIds() {
+        return (BitSet) productionNodeIds.clone();
+    }
+
+    /**
+     * Read-only view of the nodes whose ids are set in the given bitset.
+     */
+    private final class NodeSet extends AbstractSet<IUnit> {
+        private final BitSet ids;
+
+        NodeSet(BitSet ids) {
+            this.ids = ids;
+        }
+
+        @Override
+        public Iterator<IUnit> iterator() {
+            return new Iterator<IUnit>() {
+                private int nextId = ids.nextSetBit(0);
+
+                @Override
+                public boolean hasNext() {
+                    return nextId != -1;
+                }
+
+                @Override
+                public IUnit next() {
+                    if(!hasNext()) {
+                        throw new NoSuchElementException();
+                    }
+                    IUnit node = nodes.get(nextId);
+                    nextId = ids.nextSetBit(nextId + 1);
+                    return node;
+                }
+            };
+        }
+
+        @Override
+        public int size() {
+            return ids.cardinality();
+        }
+
+        @Override
+        @SuppressWarnings("SuspiciousMethodCalls")
+        public boolean contains(Object object) {
+            Integer id = nodeIds.get(object);
+            return id != null && ids.get(id);
+        }
+    }
+}
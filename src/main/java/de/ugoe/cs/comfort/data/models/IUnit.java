@@ -33,7 +33,12 @@ public interface IUnit extends Serializable {
 
     String getPackage();
 
-    void setCoveredLines(Integer coveredLines);
-
     Integer getCoveredLines();
+
+    /**
+     * Returns the class level unit (i.e., the class or module) of this unit. Units that are already on class level
+     * return themselves.
+     * @return class level unit of this unit
+     */
+    IUnit toClassLevelUnit();
 }
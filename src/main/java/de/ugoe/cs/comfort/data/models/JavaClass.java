@@ -26,24 +26,32 @@ import org.apache.commons.lang3.builder.EqualsBuilder;
 import org.apache.commons.lang3.builder.HashCodeBuilder;
 
 /**
+ * Java class. Instances are not modified after their creation, therefore the fully qualified name and the hash code
+ * are computed only once and then cached.
+ *
  * @author Fabian Trautsch
  */
 public class JavaClass implements Comparable<JavaClass>, Comparator<JavaClass>, IUnit {
     protected String jPackage;
     protected String jClass;
     protected Path fileName;
-    protected Integer coveredLines = null;
+    protected final Integer coveredLines;
+    private transient String fqn;
+    private transient int hash;
 
     public JavaClass(String jPackage, String jClass, Path fileName) {
-        this.jPackage = jPackage;
-        this.jClass = jClass;
-        this.fileName = fileName;
+        this(jPackage, jClass, fileName, null);
     }
 
     public JavaClass(String fullyQualifiedName, Path fileName) {
-        this.jPackage = Utils.getPackageName(fullyQualifiedName);
-        this.jClass = Utils.getClassName(fullyQualifiedName);
+        this(Utils.getPackageName(fullyQualifiedName), Utils.getClassName(fullyQualifiedName), fileName, null);
+    }
+
+    protected JavaClass(String jPackage, String jClass, Path fileName, Integer coveredLines) {
+        this.jPackage = jPackage;
+        this.jClass = jClass;
         this.fileName = fileName;
+        this.coveredLines = coveredLines;
     }
 
     @Override
@@ -51,11 +59,6 @@ public class JavaClass implements Comparable<JavaClass>, Comparator<JavaClass>,
         return jPackage;
     }
 
-    @Override
-    public void setCoveredLines(Integer coveredLines) {
-        this.coveredLines = coveredLines;
-    }
-
     @Override
     public Integer getCoveredLines() {
         return coveredLines;
@@ -84,9 +87,21 @@ public class JavaClass implements Comparable<JavaClass>, Comparator<JavaClass>,
 
     @Override
     public String getFQN() {
+        if(fqn == null) {
+            fqn = computeFQN();
+        }
+        return fqn;
+    }
+
+    protected String computeFQN() {
         return getFQNOfUnit();
     }
 
+    @Override
+    public JavaClass toClassLevelUnit() {
+        return this;
+    }
+
     public Boolean isInnerClass() {
         return jClass.contains("$");
     }
@@ -125,6 +140,13 @@ public class JavaClass implements Comparable<JavaClass>, Comparator<JavaClass>,
 
     @Override
     public int hashCode() {
+        if(hash == 0) {
+            hash = computeHashCode();
+        }
+        return hash;
+    }
+
+    protected int computeHashCode() {
         return new HashCodeBuilder(17, 31)
                 .append(jPackage)
                 .append(jClass)
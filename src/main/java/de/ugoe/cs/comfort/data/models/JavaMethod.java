@@ -32,7 +32,12 @@ public class JavaMethod extends JavaClass implements IUnit {
     private List<String> parameter = new ArrayList<>();
 
     public JavaMethod(String jPackage, String jClass, String method, List<String> parameter, Path fileName) {
-        super(jPackage, jClass, fileName);
+        this(jPackage, jClass, method, parameter, fileName, null);
+    }
+
+    public JavaMethod(String jPackage, String jClass, String method, List<String> parameter, Path fileName,
+                      Integer coveredLines) {
+        super(jPackage, jClass, fileName, coveredLines);
         this.method = method;
         this.parameter = parameter;
     }
@@ -43,7 +48,13 @@ public class JavaMethod extends JavaClass implements IUnit {
     }
 
     public JavaMethod(String fullyQualifiedName, String methodName, List<String> parameter, Path fileName) {
-        super(Utils.getPackageName(fullyQualifiedName), Utils.getClassName(fullyQualifiedName), fileName);
+        this(fullyQualifiedName, methodName, parameter, fileName, null);
+    }
+
+    public JavaMethod(String fullyQualifiedName, String methodName, List<String> parameter, Path fileName,
+                      Integer coveredLines) {
+        super(Utils.getPackageName(fullyQualifiedName), Utils.getClassName(fullyQualifiedName), fileName,
+                coveredLines);
         this.method = methodName;
         this.parameter = parameter;
     }
@@ -53,7 +64,12 @@ public class JavaMethod extends JavaClass implements IUnit {
     }
 
     @Override
-    public String getFQN() {
+    public JavaClass toClassLevelUnit() {
+        return new JavaClass(getFQNOfUnit(), fileName);
+    }
+
+    @Override
+    protected String computeFQN() {
         return getFQNOfUnit()+"."+method;
     }
 
@@ -76,9 +92,9 @@ public class JavaMethod extends JavaClass implements IUnit {
     }
 
     @Override
-    public int hashCode() {
+    protected int computeHashCode() {
         return new HashCodeBuilder(17, 31)
-                .appendSuper(super.hashCode())
+                .appendSuper(super.computeHashCode())
                 .append(method)
                 .append(parameter)
                 .toHashCode();
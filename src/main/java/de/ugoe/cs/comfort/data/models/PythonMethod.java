@@ -55,9 +55,9 @@ public class PythonMethod extends PythonModule implements IUnit {
         checkFQN();
     }
 
-    // Constructor for converting JSON Python coverage object to this class
+    // Constructor for converting JSON Python coverage object to this class, including its covered lines
     public PythonMethod(PythonCoveragerloaderTestedMethod covPythonMethod, Path fileName) {
-        super(covPythonMethod.getModule(), fileName);
+        super(covPythonMethod.getModule(), fileName, covPythonMethod.getCoveredLines());
         this.nameSpace = covPythonMethod.getNameSpace();
         this.method = covPythonMethod.getMethod();
 
@@ -83,10 +83,6 @@ public class PythonMethod extends PythonModule implements IUnit {
         }
     }
 
-    public void setFileName(Path fileName) {
-        this.fileName = fileName;
-    }
-
     public Boolean isTestBasedOnFQNOfMethod() {
         return getFQN().toLowerCase().contains("test");
     }
@@ -96,7 +92,12 @@ public class PythonMethod extends PythonModule implements IUnit {
     }
 
     @Override
-    public String getFQN() {
+    public PythonModule toClassLevelUnit() {
+        return new PythonModule(getFQNOfUnit(), fileName);
+    }
+
+    @Override
+    protected String computeFQN() {
         if (nameSpace == null) {
             return getFQNOfUnit()+":"+method;
         }
@@ -123,9 +124,9 @@ public class PythonMethod extends PythonModule implements IUnit {
     }
 
     @Override
-    public int hashCode() {
+    protected int computeHashCode() {
         return new HashCodeBuilder(17, 31)
-                .appendSuper(super.hashCode())
+                .appendSuper(super.computeHashCode())
                 .append(nameSpace)
                 .append(method)
                 .append(parameter)
@@ -27,25 +27,36 @@ import org.apache.commons.lang3.builder.HashCodeBuilder;
 
 
 /**
+ * Python module. Instances are not modified after their creation, therefore the fully qualified name and the hash
+ * code are computed only once and then cached.
+ *
  * @author Fabian Trautsch
  */
 public class PythonModule implements Comparable<PythonModule>, Comparator<PythonModule>, IUnit {
     protected String pPackage;
     protected String pModule;
     protected Path fileName;
-    protected Integer coveredLines = null;
+    protected final Integer coveredLines;
+    private transient String fqn;
+    private transient int hash;
 
     public PythonModule(String pPackage, String pModule, Path fileName) {
         this.pPackage = pPackage;
         this.pModule = pModule;
         this.fileName = fileName;
+        this.coveredLines = null;
     }
 
     public PythonModule(String fqn, Path fileName) {
+        this(fqn, fileName, null);
+    }
+
+    protected PythonModule(String fqn, Path fileName, Integer coveredLines) {
         String[] fqnParts = fqn.split("\\.");
         this.pModule = fqnParts[fqnParts.length-1];
         this.pPackage = String.join(".", Arrays.copyOfRange(fqnParts, 0, fqnParts.length-1));
         this.fileName = fileName;
+        this.coveredLines = coveredLines;
     }
 
     @Override
@@ -53,11 +64,6 @@ public class PythonModule implements Comparable<PythonModule>, Comparator<Python
         return pPackage;
     }
 
-    @Override
-    public void setCoveredLines(Integer coveredLines) {
-        this.coveredLines = coveredLines;
-    }
-
     @Override
     public Integer getCoveredLines() {
         return coveredLines;
@@ -87,9 +93,21 @@ public class PythonModule implements Comparable<PythonModule>, Comparator<Python
 
     @Override
     public String getFQN() {
+        if(fqn == null) {
+            fqn = computeFQN();
+        }
+        return fqn;
+    }
+
+    protected String computeFQN() {
         return getFQNOfUnit();
     }
 
+    @Override
+    public PythonModule toClassLevelUnit() {
+        return this;
+    }
+
     @Override
     public int compareTo(@Nonnull PythonModule o) {
         return new CompareToBuilder()
@@ -124,6 +142,13 @@ public class PythonModule implements Comparable<PythonModule>, Comparator<Python
 
     @Override
     public int hashCode() {
+        if(hash == 0) {
+            hash = computeHashCode();
+        }
+        return hash;
+    }
+
+    protected int computeHashCode() {
         return new HashCodeBuilder(17, 31)
                 .append(pPackage)
                 .append(pModule)
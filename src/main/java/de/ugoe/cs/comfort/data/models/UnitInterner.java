@@ -0,0 +1,93 @@
+/*
+ * Copyright (C) 2017 University of Goettingen, Germany
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package de.ugoe.cs.comfort.data.models;
+
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Pool of canonical unit instances. Loaders create the same unit (e.g., a callee that is called from many places or a
+ * method that is covered by many tests) over and over again. If every created unit is interned, only one instance of
+ * each unit is kept and all other copies can be garbage collected right away.
+ *
+ * Units are pooled by their exact type, their identity (as defined by {@link Object#equals(Object)}) and their covered
+ * lines, as the covered lines differ between the tests that cover a unit. Therefore, units must be completely
+ * initialized before they are interned and must not be changed afterwards. The interner is thread safe.
+ *
+ * @author Fabian Trautsch
+ */
+public class UnitInterner {
+    private final Map<Key, IUnit> pool = new ConcurrentHashMap<>();
+
+    /**
+     * Returns the canonical instance for the given unit. If there is no canonical instance yet, the given unit
+     * becomes the canonical instance.
+     * @param unit unit that should be interned
+     * @param <T> type of the unit
+     * @return canonical instance that is equal to the given unit
+     */
+    @SuppressWarnings("unchecked")
+    public <T extends IUnit> T intern(T unit) {
+        if(unit == null) {
+            return null;
+        }
+
+        IUnit canonicalUnit = pool.putIfAbsent(new Key(unit), unit);
+        if(canonicalUnit == null) {
+            return unit;
+        }
+        // The key includes the exact type of the unit, therefore the cast is safe
+        return (T) canonicalUnit;
+    }
+
+    public int size() {
+        return pool.size();
+    }
+
+    public void clear() {
+        pool.clear();
+    }
+
+    private static final class Key {
+        private final IUnit unit;
+        private final Integer coveredLines;
+
+        private Key(IUnit unit) {
+            this.unit = unit;
+            this.coveredLines = unit.getCoveredLines();
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if(!(obj instanceof Key)) {
+                return false;
+            }
+
+            Key otherKey = (Key) obj;
+            return unit.getClass() == otherKey.unit.getClass()
+                    && Objects.equals(coveredLines, otherKey.coveredLines)
+                    && unit.equals(otherKey.unit);
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * unit.hashCode() + Objects.hashCode(coveredLines);
+        }
+    }
+}
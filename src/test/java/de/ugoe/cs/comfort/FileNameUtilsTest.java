@@ -0,0 +1,90 @@
+/*
+ * Copyright (C) 2017 University of Goettingen, Germany
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package de.ugoe.cs.comfort;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.fail;
+
+import de.ugoe.cs.comfort.configuration.GeneralConfiguration;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import org.apache.commons.io.FileUtils;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * @author Fabian Trautsch
+ */
+public class FileNameUtilsTest extends BaseTest {
+    private Path projectDir;
+    private GeneralConfiguration configuration;
+
+    @Before
+    public void createProject() throws IOException {
+        FileNameUtils.clearInstances();
+        ProjectFileManifest.clearInstances();
+        projectDir = Files.createTempDirectory("comfort-project");
+        Files.createDirectories(projectDir.resolve("src/main/java/org/foo"));
+        Files.write(projectDir.resolve("src/main/java/org/foo/Bar.java"), "class Bar {}".getBytes("UTF-8"));
+
+        configuration = new GeneralConfiguration();
+        configuration.setProjectDir(projectDir.toString());
+    }
+
+    @After
+    public void deleteProject() throws IOException {
+        FileNameUtils.clearInstances();
+        ProjectFileManifest.clearInstances();
+        FileUtils.deleteDirectory(projectDir.toFile());
+    }
+
+    @Test
+    public void getInstanceIsSharedTest() {
+        GeneralConfiguration otherConfiguration = new GeneralConfiguration();
+        otherConfiguration.setProjectDir(projectDir.toString());
+        assertSame(FileNameUtils.getInstance(configuration), FileNameUtils.getInstance(otherConfiguration));
+
+        otherConfiguration.setLanguage("python");
+        assertNotSame(FileNameUtils.getInstance(configuration), FileNameUtils.getInstance(otherConfiguration));
+    }
+
+    @Test
+    public void refreshTest() throws IOException {
+        FileNameUtils fileNameUtils = FileNameUtils.getInstance(configuration);
+        assertEquals(Paths.get("src/main/java/org/foo/Bar.java"), fileNameUtils.getPathForJavaClassFQN("org.foo.Bar"));
+
+        Files.write(projectDir.resolve("src/main/java/org/foo/Baz.java"), "class Baz {}".getBytes("UTF-8"));
+        try {
+            FileNameUtils.getInstance(configuration).getPathForJavaClassFQN("org.foo.Baz");
+            fail("New file must only be found after a refresh!");
+        } catch (FileNotFoundException e) {
+            // expected
+        }
+
+        FileNameUtils refreshed = FileNameUtils.refresh(configuration);
+        assertNotSame(fileNameUtils, refreshed);
+        assertSame(refreshed, FileNameUtils.getInstance(configuration));
+        assertEquals(Paths.get("src/main/java/org/foo/Baz.java"), refreshed.getPathForJavaClassFQN("org.foo.Baz"));
+    }
+}
@@ -0,0 +1,103 @@
+/*
+ * Copyright (C) 2017 University of Goettingen, Germany
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package de.ugoe.cs.comfort;
+
+import static org.junit.Assert.assertEquals;
+
+import java.io.FileNotFoundException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+import org.junit.Test;
+
+/**
+ * @author Fabian Trautsch
+ */
+public class JavaSourceIndexTest extends BaseTest {
+    private final Path basePath = Paths.get(getPathToResource("utilsdata"));
+
+    @Test
+    public void getPathForFullyQualifiedClassNameTest() throws FileNotFoundException {
+        Set<Path> javaFiles = new HashSet<>();
+        javaFiles.add(Paths.get("/root/src/main/java/org/foo/Bar.java"));
+        javaFiles.add(Paths.get("/root/src/main/java/org/bar/Bar.java"));
+        javaFiles.add(Paths.get("/root/src/main/java/org/foo/Bar1.java"));
+        javaFiles.add(Paths.get("/root/src/main/java/Bar.java"));
+        JavaSourceIndex index = new JavaSourceIndex(javaFiles, null);
+
+        assertEquals(Paths.get("/root/src/main/java/org/foo/Bar.java"),
+                index.getPathForFullyQualifiedClassName("org.foo.Bar"));
+        assertEquals(Paths.get("/root/src/main/java/org/foo/Bar.java"),
+                index.getPathForFullyQualifiedClassName("org.foo.Bar$Inner$1"));
+        assertEquals(Paths.get("/root/src/main/java/org/foo/Bar1.java"),
+                index.getPathForFullyQualifiedClassName("foo.Bar1"));
+    }
+
+    @Test
+    public void getPathForFullyQualifiedClassNameForSubClassesTest() throws FileNotFoundException {
+        Set<Path> javaFiles = new HashSet<>();
+        javaFiles.add(Paths.get("org/jfree/data/xy/DefaultWindDataset.java"));
+        javaFiles.add(Paths.get("org/jfree/data/yy/DefaultWindDataset.java"));
+        javaFiles.add(Paths.get("org/apache/commons/lang3/EnumUtilsTest.java"));
+        JavaSourceIndex index = new JavaSourceIndex(javaFiles, basePath);
+
+        assertEquals(Paths.get("org/jfree/data/xy/DefaultWindDataset.java"),
+                index.getPathForFullyQualifiedClassName("org.jfree.data.xy.WindDataItem"));
+        assertEquals(Paths.get("org/apache/commons/lang3/EnumUtilsTest.java"),
+                index.getPathForFullyQualifiedClassName("org.apache.commons.lang3.Traffic"));
+        assertEquals(Paths.get("org/apache/commons/lang3/EnumUtilsTest.java"),
+                index.getPathForFullyQualifiedClassName("org.apache.commons.lang3.Traffic$1"));
+    }
+
+    @Test(expected = FileNotFoundException.class)
+    public void getPathForFullyQualifiedClassNameNegativeTest() throws FileNotFoundException {
+        Set<Path> javaFiles = new HashSet<>();
+        javaFiles.add(Paths.get("org/apache/commons/lang3/EnumUtilsTest.java"));
+        JavaSourceIndex index = new JavaSourceIndex(javaFiles, basePath);
+        index.getPathForFullyQualifiedClassName("org.apache.commons.lang3.Traffics");
+    }
+
+    @Test(expected = FileNotFoundException.class)
+    public void getPathForFullyQualifiedClassNameOnlyMatchesWholeNamesTest() throws FileNotFoundException {
+        Set<Path> javaFiles = new HashSet<>();
+        javaFiles.add(Paths.get("/root/src/main/java/org/foo/FooBar.java"));
+        JavaSourceIndex index = new JavaSourceIndex(javaFiles, null);
+        index.getPathForFullyQualifiedClassName("Bar");
+    }
+
+    @Test
+    public void getTopLevelTypeNamesTest() {
+        String source = "package org.foo;\n"
+                + "// class InComment\n"
+                + "/* enum InBlockComment { A } */\n"
+                + "@RunWith(Suite.class)\n"
+                + "public class Foo {\n"
+                + "    private String s = \"class InString {\";\n"
+                + "    private char c = '{';\n"
+                + "    static class Inner { }\n"
+                + "    Class<?> clazz = Foo.class;\n"
+                + "}\n"
+                + "enum Bar { A, B; }\n"
+                + "@interface Baz { }\n"
+                + "interface Qux extends Comparable<Qux> { }\n";
+
+        assertEquals(Arrays.asList("Foo", "Bar", "Baz", "Qux"), JavaSourceIndex.getTopLevelTypeNames(source));
+    }
+}
@@ -0,0 +1,113 @@
+/*
+ * Copyright (C) 2017 University of Goettingen, Germany
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package de.ugoe.cs.comfort;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+import org.apache.commons.io.FileUtils;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * @author Fabian Trautsch
+ */
+public class ProjectFileManifestTest extends BaseTest {
+    private Path projectDir;
+
+    @Before
+    public void createProject() throws IOException {
+        ProjectFileManifest.clearInstances();
+        projectDir = Files.createTempDirectory("comfort-project");
+        createFile("src/main/java/org/foo/Bar.java");
+        createFile("src/test/java/org/foo/BarTest.java");
+        createFile("target/classes/org/foo/Bar.class");
+        createFile("target/pit-reports/org/foo/Bar.java");
+        createFile("target/surefire-reports/org/foo/BarTest.class");
+        createFile("scripts/run.py");
+        createFile("venv/lib/site.py");
+        createFile(".git/objects/Foo.java");
+        createFile("README.md");
+    }
+
+    @After
+    public void deleteProject() throws IOException {
+        ProjectFileManifest.clearInstances();
+        FileUtils.deleteDirectory(projectDir.toFile());
+    }
+
+    private void createFile(String file) throws IOException {
+        Path path = projectDir.resolve(file);
+        Files.createDirectories(path.getParent());
+        Files.createFile(path);
+    }
+
+    @Test
+    public void buildTest() throws IOException {
+        ProjectFileManifest manifest = ProjectFileManifest.build(projectDir);
+
+        assertEquals(new HashSet<>(Arrays.asList(projectDir.resolve("src/main/java/org/foo/Bar.java"),
+                projectDir.resolve("src/test/java/org/foo/BarTest.java"))), manifest.getJavaFiles());
+        assertEquals(Collections.singleton(projectDir.resolve("target/classes/org/foo/Bar.class")),
+                manifest.getClassFiles());
+        assertEquals(Collections.singleton(projectDir.resolve("scripts/run.py")), manifest.getPythonFiles());
+        assertEquals(manifest.getPythonFiles(), manifest.getSourceFiles("python"));
+        assertEquals(manifest.getJavaFiles(), manifest.getSourceFiles("java"));
+    }
+
+    @Test
+    public void getInstanceIsCachedUntilRefreshTest() throws IOException {
+        ProjectFileManifest manifest = ProjectFileManifest.getInstance(projectDir);
+        assertSame(manifest, ProjectFileManifest.getInstance(projectDir));
+
+        createFile("src/main/java/org/foo/Baz.java");
+        assertEquals(2, ProjectFileManifest.getInstance(projectDir).getJavaFiles().size());
+
+        ProjectFileManifest refreshed = ProjectFileManifest.refresh(projectDir);
+        assertNotSame(manifest, refreshed);
+        assertSame(refreshed, ProjectFileManifest.getInstance(projectDir));
+        assertEquals(3, refreshed.getJavaFiles().size());
+    }
+
+    @Test
+    public void getInstanceIsSharedBetweenSpellingsOfTheProjectDirTest() throws IOException {
+        ProjectFileManifest manifest = ProjectFileManifest.getInstance(projectDir);
+        assertSame(manifest, ProjectFileManifest.getInstance(projectDir.resolve("src/..")));
+        assertSame(manifest, ProjectFileManifest.getInstance(projectDir.resolve(".")));
+    }
+
+    @Test(expected = UnsupportedOperationException.class)
+    public void filesAreImmutableTest() throws IOException {
+        Set<Path> javaFiles = ProjectFileManifest.getInstance(projectDir).getJavaFiles();
+        javaFiles.clear();
+    }
+
+    @Test(expected = IOException.class)
+    public void getInstanceForMissingDirectoryTest() throws IOException {
+        ProjectFileManifest.getInstance(projectDir.resolve("missing"));
+    }
+}
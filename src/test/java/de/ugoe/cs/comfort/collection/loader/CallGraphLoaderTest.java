@@ -28,6 +28,7 @@ import org.junit.Test;
 
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.util.ArrayList;
 
 import static org.junit.Assert.*;
 
@@ -135,6 +136,25 @@ public class CallGraphLoaderTest extends BaseTest{
 
     }
 
+    @Test
+    public void loadJavaCallGraphMultiThreadTest() {
+        try {
+            CallGraph singleThreadCallGraph = new CallGraphLoader(javaConfiguration, loaderJavaConfiguration)
+                    .loadJavaCallGraph();
+            javaConfiguration.setNThreads(4);
+            CallGraph multiThreadCallGraph = new CallGraphLoader(javaConfiguration, loaderJavaConfiguration)
+                    .loadJavaCallGraph();
+
+            assertEquals("Networks are not equal!", singleThreadCallGraph, multiThreadCallGraph);
+            assertEquals("Order of nodes is not equal!", new ArrayList<>(singleThreadCallGraph.nodes()),
+                    new ArrayList<>(multiThreadCallGraph.nodes()));
+            assertEquals("Order of edges is not equal!", new ArrayList<>(singleThreadCallGraph.edges()),
+                    new ArrayList<>(multiThreadCallGraph.edges()));
+        } catch (LoaderException e) {
+            fail("Exception occured!: "+e.getMessage());
+        }
+    }
+
     @Test
     public void loadPythonCallGraphTest() {
         try {
@@ -21,6 +21,8 @@ import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.fail;
 
 import de.ugoe.cs.comfort.BaseTest;
+import de.ugoe.cs.comfort.collection.loader.testcoverage.JacocoReportReader;
+import de.ugoe.cs.comfort.collection.loader.testcoverage.StreamingExecutionDataVisitor;
 import de.ugoe.cs.comfort.configuration.GeneralConfiguration;
 import de.ugoe.cs.comfort.configuration.LoaderConfiguration;
 import de.ugoe.cs.comfort.data.CoverageData;
@@ -28,12 +30,21 @@ import de.ugoe.cs.comfort.data.models.IUnit;
 import de.ugoe.cs.comfort.data.models.JavaClass;
 import de.ugoe.cs.comfort.data.models.PythonMethod;
 import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import org.jacoco.core.data.ExecutionData;
+import org.jacoco.core.data.ExecutionDataStore;
+import org.jacoco.core.data.ExecutionDataWriter;
+import org.jacoco.core.data.SessionInfo;
 import org.junit.Before;
 import org.junit.Test;
 
@@ -168,6 +179,38 @@ public class TestCoverageLoaderTest extends BaseTest {
         testJavaCoverageLoader();
     }
 
+    @Test
+    public void testJavaCoverageLoaderWithoutProbeIndex() {
+        loaderJavaConfiguration.setUseProbeIndex(false);
+        testJavaCoverageLoader();
+    }
+
+    @Test
+    public void testJavaCoverageLoaderProbeIndexCoveredLines() {
+        try {
+            CoverageData probeIndexCovData = new TestCoverageLoader(javaConfiguration, loaderJavaConfiguration)
+                    .loadJavaCoverageData();
+            loaderJavaConfiguration.setUseProbeIndex(false);
+            CoverageData analyzerCovData = new TestCoverageLoader(javaConfiguration, loaderJavaConfiguration)
+                    .loadJavaCoverageData();
+
+            assertEquals("Not all tested methods are correct!", analyzerCovData.getCoverageDataForAll(),
+                    probeIndexCovData.getCoverageDataForAll());
+            for(Map.Entry<IUnit, Set<IUnit>> entry: analyzerCovData.getCoverageDataForAll().entrySet()) {
+                Map<IUnit, Integer> expectedLines = new HashMap<>();
+                for(IUnit testedUnit: entry.getValue()) {
+                    expectedLines.put(testedUnit, testedUnit.getCoveredLines());
+                }
+                for(IUnit testedUnit: probeIndexCovData.getCoverageDataForAll().get(entry.getKey())) {
+                    assertEquals("Covered lines are not correct for "+testedUnit.getFQN(),
+                            expectedLines.get(testedUnit), testedUnit.getCoveredLines());
+                }
+            }
+        } catch (IOException e) {
+            fail("Unexpected exception: "+e.getMessage());
+        }
+    }
+
     private void testJavaCoverageLoader() {
 
         // Expected data (CCallsSubClassMethodTest)
@@ -251,5 +294,80 @@ public class TestCoverageLoaderTest extends BaseTest {
             fail("Unexpected exception: "+e.getMessage());
         }
     }
-}
 
+    @Test
+    public void testJavaCoverageLoaderMergesRerunSessions() throws IOException {
+        TestCoverageLoader covLoader = new TestCoverageLoader(javaConfiguration, loaderJavaConfiguration);
+        Map<IUnit, Map<IUnit, Integer>> expected = getCoveredLines(covLoader.loadJavaCoverageData());
+
+        // Split the probes of one test into two sessions, which are interrupted by the sessions of the other tests
+        String rerunTest = "de.ugoe.cs.comfort.codecoverage.WithDifferentMethodsCallDifferentMethodsTest%%test1";
+        Path rerunExecutionData = Files.createTempFile("comfort-", "-rerun.exec");
+        try {
+            writeRerunExecutionData(rerunTest, rerunExecutionData);
+            loaderJavaConfiguration.setCoverageLocation(rerunExecutionData.toString());
+
+            covLoader = new TestCoverageLoader(javaConfiguration, loaderJavaConfiguration);
+            assertEquals("Covered lines are not correct!", expected,
+                    getCoveredLines(covLoader.loadJavaCoverageData()));
+        } finally {
+            Files.delete(rerunExecutionData);
+        }
+    }
+
+    private void writeRerunExecutionData(String rerunTest, Path target) throws IOException {
+        BlockingQueue<Map.Entry<String, ExecutionDataStore>> sessions = new LinkedBlockingQueue<>();
+        StreamingExecutionDataVisitor visitor = new StreamingExecutionDataVisitor(sessions);
+        new JacocoReportReader(loaderJavaConfiguration.getCoverageLocation().toFile())
+                .readJacocoReport(visitor, visitor);
+        visitor.finish();
+
+        try(OutputStream out = Files.newOutputStream(target)) {
+            ExecutionDataWriter writer = new ExecutionDataWriter(out);
+            ExecutionDataStore secondHalf = null;
+            for(Map.Entry<String, ExecutionDataStore> session: sessions) {
+                ExecutionDataStore data = session.getValue();
+                if(session.getKey().equals(rerunTest)) {
+                    secondHalf = new ExecutionDataStore();
+                    data = splitProbes(data, secondHalf);
+                }
+                writer.visitSessionInfo(new SessionInfo(session.getKey(), 0, 0));
+                data.accept(writer);
+            }
+            assertNotNull("Test is missing in the execution data!", secondHalf);
+            writer.visitSessionInfo(new SessionInfo(rerunTest, 0, 0));
+            secondHalf.accept(writer);
+        }
+    }
+
+    private ExecutionDataStore splitProbes(ExecutionDataStore data, ExecutionDataStore secondHalf) {
+        ExecutionDataStore firstHalf = new ExecutionDataStore();
+        for(ExecutionData executionData: data.getContents()) {
+            boolean[] probes = executionData.getProbes();
+            boolean[] firstProbes = new boolean[probes.length];
+            boolean[] secondProbes = new boolean[probes.length];
+            for(int i = 0; i < probes.length; i++) {
+                if(i < probes.length / 2) {
+                    firstProbes[i] = probes[i];
+                } else {
+                    secondProbes[i] = probes[i];
+                }
+            }
+            firstHalf.put(new ExecutionData(executionData.getId(), executionData.getName(), firstProbes));
+            secondHalf.put(new ExecutionData(executionData.getId(), executionData.getName(), secondProbes));
+        }
+        return firstHalf;
+    }
+
+    private Map<IUnit, Map<IUnit, Integer>> getCoveredLines(CoverageData covData) {
+        Map<IUnit, Map<IUnit, Integer>> coveredLines = new HashMap<>();
+        for(Map.Entry<IUnit, Set<IUnit>> entry: covData.getCoverageData().entrySet()) {
+            Map<IUnit, Integer> testedUnits = new HashMap<>();
+            for(IUnit testedUnit: entry.getValue()) {
+                testedUnits.put(testedUnit, testedUnit.getCoveredLines());
+            }
+            coveredLines.put(entry.getKey(), testedUnits);
+        }
+        return coveredLines;
+    }
+}
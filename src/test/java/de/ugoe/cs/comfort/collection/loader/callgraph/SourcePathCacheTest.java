@@ -0,0 +1,61 @@
+/*
+ * Copyright (C) 2017 University of Goettingen, Germany
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.ugoe.cs.comfort.collection.loader.callgraph;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+import de.ugoe.cs.comfort.BaseTest;
+import de.ugoe.cs.comfort.FileNameUtils;
+import de.ugoe.cs.comfort.configuration.GeneralConfiguration;
+import java.nio.file.Paths;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * @author Fabian Trautsch
+ */
+public class SourcePathCacheTest extends BaseTest {
+    private SourcePathCache sourcePathCache;
+
+    @Before
+    public void createCache() {
+        GeneralConfiguration configuration = new GeneralConfiguration();
+        configuration.setProjectDir(getPathToResource("loaderTestData/callgraph/javaproject"));
+        sourcePathCache = new SourcePathCache(new FileNameUtils(configuration));
+    }
+
+    @Test
+    public void getPathIsResolvedOnceTest() {
+        assertEquals("Path is not correct!", Paths.get("src/test/java/org/foo/models/AddressTest.java"),
+                sourcePathCache.getPath("org.foo.models.AddressTest"));
+        assertEquals("Path is not correct!", Paths.get("src/test/java/org/foo/models/AddressTest.java"),
+                sourcePathCache.getPath("org.foo.models.AddressTest"));
+
+        assertEquals("Number of misses is not correct!", 1, sourcePathCache.getMisses());
+        assertEquals("Number of hits is not correct!", 1, sourcePathCache.getHits());
+    }
+
+    @Test
+    public void getPathForClassWithoutSourceFileTest() {
+        assertNull("Path is not null!", sourcePathCache.getPath("java.lang.Object"));
+        assertNull("Path is not null!", sourcePathCache.getPath("java.lang.Object"));
+
+        assertEquals("Number of misses is not correct!", 1, sourcePathCache.getMisses());
+        assertEquals("Number of hits is not correct!", 1, sourcePathCache.getHits());
+    }
+}
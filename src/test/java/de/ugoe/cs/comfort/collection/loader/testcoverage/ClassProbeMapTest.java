@@ -0,0 +1,126 @@
+/*
+ * Copyright (C) 2017 University of Goettingen, Germany
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.ugoe.cs.comfort.collection.loader.testcoverage;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+
+import de.ugoe.cs.comfort.BaseTest;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import org.jacoco.core.analysis.Analyzer;
+import org.jacoco.core.analysis.CoverageBuilder;
+import org.jacoco.core.analysis.IClassCoverage;
+import org.jacoco.core.analysis.ICounter;
+import org.jacoco.core.analysis.IMethodCoverage;
+import org.jacoco.core.data.ExecutionData;
+import org.jacoco.core.data.ExecutionDataStore;
+import org.junit.Test;
+
+/**
+ * @author Fabian Trautsch
+ */
+public class ClassProbeMapTest extends BaseTest {
+    private final Path classesDir = Paths.get(getPathToResource(
+            "loaderTestData/testcoverage/codecoverage-maven/target/classes"));
+
+    @Test
+    public void singleProbesAreMappedLikeJacocoAnalyzerTest() throws IOException {
+        for(Path classFile: getClassFiles()) {
+            byte[] classBytes = Files.readAllBytes(classFile);
+            ClassProbeMap classProbeMap = ClassProbeMap.create(classBytes);
+
+            for(int probeId = 0; probeId < classProbeMap.getProbeCount(); probeId++) {
+                boolean[] probes = new boolean[classProbeMap.getProbeCount()];
+                probes[probeId] = true;
+                assertEquals("Coverage of probe " + probeId + " in " + classFile + " is not correct!",
+                        analyze(classBytes, classProbeMap, probes), getCoverage(classProbeMap, probes));
+            }
+        }
+    }
+
+    @Test
+    public void allProbesAreMappedLikeJacocoAnalyzerTest() throws IOException {
+        for(Path classFile: getClassFiles()) {
+            byte[] classBytes = Files.readAllBytes(classFile);
+            ClassProbeMap classProbeMap = ClassProbeMap.create(classBytes);
+            boolean[] probes = new boolean[classProbeMap.getProbeCount()];
+            Arrays.fill(probes, true);
+
+            Map<String, BitSet> coverage = getCoverage(classProbeMap, probes);
+            assertFalse("No methods of " + classFile + " are covered!", coverage.isEmpty());
+            assertEquals("Coverage of " + classFile + " is not correct!",
+                    analyze(classBytes, classProbeMap, probes), coverage);
+        }
+    }
+
+    private List<Path> getClassFiles() throws IOException {
+        try (Stream<Path> stream = Files.walk(classesDir)) {
+            List<Path> classFiles = stream.filter(path -> path.toString().endsWith(".class"))
+                    .collect(Collectors.toList());
+            assertFalse("No class files found!", classFiles.isEmpty());
+            return classFiles;
+        }
+    }
+
+    private Map<String, BitSet> getCoverage(ClassProbeMap classProbeMap, boolean[] probes) {
+        Map<String, BitSet> coverage = new HashMap<>();
+        for(Map.Entry<Integer, BitSet> method: classProbeMap.getCoveredLinesPerMethod(probes).entrySet()) {
+            coverage.put(classProbeMap.getMethodName(method.getKey()) + classProbeMap.getMethodDesc(method.getKey()),
+                    method.getValue());
+        }
+        return coverage;
+    }
+
+    private Map<String, BitSet> analyze(byte[] classBytes, ClassProbeMap classProbeMap, boolean[] probes)
+            throws IOException {
+        ExecutionDataStore executionDataStore = new ExecutionDataStore();
+        executionDataStore.put(new ExecutionData(classProbeMap.getClassId(), classProbeMap.getName(), probes));
+        CoverageBuilder coverageBuilder = new CoverageBuilder();
+        new Analyzer(executionDataStore, coverageBuilder).analyzeClass(classBytes, classProbeMap.getName());
+
+        Map<String, BitSet> coverage = new HashMap<>();
+        List<IMethodCoverage> methods = new ArrayList<>();
+        for(IClassCoverage classCoverage: coverageBuilder.getClasses()) {
+            methods.addAll(classCoverage.getMethods());
+        }
+        for(IMethodCoverage methodCoverage: methods) {
+            if(methodCoverage.getMethodCounter().getCoveredCount() == 0) {
+                continue;
+            }
+            BitSet lines = new BitSet();
+            for(int line = methodCoverage.getFirstLine(); line <= methodCoverage.getLastLine(); line++) {
+                int status = methodCoverage.getLine(line).getInstructionCounter().getStatus();
+                if(status == ICounter.FULLY_COVERED || status == ICounter.PARTLY_COVERED) {
+                    lines.set(line);
+                }
+            }
+            coverage.put(methodCoverage.getName() + methodCoverage.getDesc(), lines);
+        }
+        return coverage;
+    }
+}
@@ -0,0 +1,79 @@
+/*
+ * Copyright (C) 2017 University of Goettingen, Germany
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.ugoe.cs.comfort.collection.loader.testcoverage;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import de.ugoe.cs.comfort.BaseTest;
+import de.ugoe.cs.comfort.ProjectFileManifest;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import org.jacoco.core.analysis.CoverageBuilder;
+import org.jacoco.core.analysis.IClassCoverage;
+import org.jacoco.core.data.ExecutionDataStore;
+import org.junit.Test;
+
+/**
+ * @author Fabian Trautsch
+ */
+public class JacocoReportReaderTest extends BaseTest {
+    private final Path projectDir = Paths.get(getPathToResource("loaderTestData/testcoverage/codecoverage-maven"));
+
+    @Test
+    public void analyzeOnlyClassesWithHitProbesTest() throws IOException {
+        JacocoReportReader reader = new JacocoReportReader(projectDir.resolve("target/jacoco.exec").toFile());
+        BlockingQueue<Map.Entry<String, ExecutionDataStore>> sessions = new LinkedBlockingQueue<>();
+        StreamingExecutionDataVisitor visitor = new StreamingExecutionDataVisitor(sessions);
+        reader.readJacocoReport(visitor, visitor);
+        visitor.finish();
+
+        Set<Path> classFiles = ProjectFileManifest.build(projectDir).getClassFiles();
+        Map<Long, Path> classIndex = JacocoReportReader.indexClassFiles(classFiles);
+        assertEquals("Not all class files are indexed!", classFiles.size(), classIndex.size());
+
+        long expectedSkippedAnalyses = 0;
+        for(Map.Entry<String, ExecutionDataStore> session: sessions) {
+            ExecutionDataStore data = session.getValue();
+            CoverageBuilder allClasses = reader.analyzeFiles(data, classFiles);
+            CoverageBuilder hitClasses = reader.analyzeFiles(data, classIndex);
+
+            assertEquals("Covered classes are not correct!", getCoveredClasses(allClasses),
+                    getCoveredClasses(hitClasses));
+            expectedSkippedAnalyses += classIndex.size() - hitClasses.getClasses().size();
+        }
+
+        assertEquals("Skipped analyses are not correct!", expectedSkippedAnalyses, reader.getSkippedAnalyses());
+        assertTrue("No analysis was skipped!", reader.getSkippedAnalyses() > 0);
+    }
+
+    private Set<String> getCoveredClasses(CoverageBuilder coverageBuilder) {
+        Set<String> coveredClasses = new HashSet<>();
+        for(IClassCoverage classCoverage: coverageBuilder.getClasses()) {
+            if(classCoverage.getClassCounter().getCoveredCount() == 1) {
+                coveredClasses.add(classCoverage.getName());
+            }
+        }
+        return coveredClasses;
+    }
+}
@@ -0,0 +1,61 @@
+/*
+ * Copyright (C) 2017 University of Goettingen, Germany
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.ugoe.cs.comfort.collection.loader.testcoverage;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+import de.ugoe.cs.comfort.BaseTest;
+import de.ugoe.cs.comfort.ProjectFileManifest;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Set;
+import org.jacoco.core.internal.data.CRC64;
+import org.junit.Test;
+
+/**
+ * @author Fabian Trautsch
+ */
+public class ProbeCoverageIndexTest extends BaseTest {
+    private final Path projectDir = Paths.get(getPathToResource("loaderTestData/testcoverage/codecoverage-maven"));
+
+    @Test
+    public void classesAreAnalyzedOnFirstUseTest() throws IOException {
+        Set<Path> classFiles = ProjectFileManifest.build(projectDir).getClassFiles();
+        ProbeCoverageIndex index = ProbeCoverageIndex.build(classFiles, 2);
+        assertEquals("Not all class files are indexed!", classFiles.size(), index.size());
+        assertEquals("Classes are analyzed before they are used!", 0, index.getAnalyzedClasses());
+
+        Path classFile = classFiles.iterator().next();
+        long classId = CRC64.checksum(Files.readAllBytes(classFile));
+        ClassProbeMap classProbeMap = index.get(classId);
+        assertNotNull("Class is not found!", classProbeMap);
+        assertSame("Class is analyzed again!", classProbeMap, index.get(classId));
+        assertEquals("Not only the used class is analyzed!", 1, index.getAnalyzedClasses());
+    }
+
+    @Test
+    public void unknownClassTest() throws IOException {
+        ProbeCoverageIndex index = ProbeCoverageIndex.build(ProjectFileManifest.build(projectDir).getClassFiles(), 2);
+        assertNull("Unknown class is found!", index.get(42L));
+        assertEquals("Unknown class is analyzed!", 0, index.getAnalyzedClasses());
+    }
+}
@@ -0,0 +1,95 @@
+/*
+ * Copyright (C) 2017 University of Goettingen, Germany
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.ugoe.cs.comfort.collection.loader.testcoverage;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+
+import de.ugoe.cs.comfort.BaseTest;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Paths;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import org.jacoco.core.data.ExecutionData;
+import org.jacoco.core.data.ExecutionDataStore;
+import org.jacoco.core.data.SessionInfo;
+import org.jacoco.core.tools.ExecFileLoader;
+import org.junit.Test;
+
+/**
+ * @author Fabian Trautsch
+ */
+public class StreamingExecutionDataVisitorTest extends BaseTest {
+    private final File executionDataFile = Paths.get(getPathToResource(
+            "loaderTestData/testcoverage/codecoverage-maven/target/jacoco.exec")).toFile();
+
+    @Test
+    public void streamedSessionsAreEqualToJacocoSessionsTest() throws IOException, InterruptedException {
+        ExecFileLoader execFileLoader = new ExecFileLoader();
+        execFileLoader.load(executionDataFile);
+
+        // Consume the sessions concurrently with a queue that can only hold one session
+        BlockingQueue<Map.Entry<String, ExecutionDataStore>> queue = new ArrayBlockingQueue<>(1);
+        Set<String> streamedSessionIds = new HashSet<>();
+        ExecutionDataStore streamedExecutionData = new ExecutionDataStore();
+        Thread consumer = new Thread(() -> {
+            try {
+                Map.Entry<String, ExecutionDataStore> entry = queue.take();
+                while(entry != StreamingExecutionDataVisitor.END_OF_SESSIONS) {
+                    streamedSessionIds.add(entry.getKey());
+                    for(ExecutionData executionData: entry.getValue().getContents()) {
+                        streamedExecutionData.put(new ExecutionData(executionData.getId(),
+                                executionData.getName(), executionData.getProbes().clone()));
+                    }
+                    entry = queue.take();
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        consumer.start();
+
+        StreamingExecutionDataVisitor streamingVisitor = new StreamingExecutionDataVisitor(queue);
+        new JacocoReportReader(executionDataFile).readJacocoReport(streamingVisitor, streamingVisitor);
+        streamingVisitor.finish();
+        queue.put(StreamingExecutionDataVisitor.END_OF_SESSIONS);
+        consumer.join();
+
+        // The unnamed session is interrupted by each test session, therefore it is handed over more than once
+        assertEquals("Number of sessions is not correct!", 22, streamingVisitor.getNumberOfSessions());
+        Set<String> sessionIds = new HashSet<>();
+        for(SessionInfo sessionInfo: execFileLoader.getSessionInfoStore().getInfos()) {
+            sessionIds.add(sessionInfo.getId());
+        }
+        assertEquals("Sessions are not correct!", sessionIds, streamedSessionIds);
+
+        // Merged over all sessions, the streamed execution data must be equal to the execution data of JaCoCo
+        ExecutionDataStore executionDataStore = execFileLoader.getExecutionDataStore();
+        assertEquals("Classes are not correct!", executionDataStore.getContents().size(),
+                streamedExecutionData.getContents().size());
+        for(ExecutionData executionData: executionDataStore.getContents()) {
+            ExecutionData streamed = streamedExecutionData.get(executionData.getId());
+            assertNotNull("Class is missing!", streamed);
+            assertArrayEquals("Probes are not correct!", executionData.getProbes(), streamed.getProbes());
+        }
+    }
+}
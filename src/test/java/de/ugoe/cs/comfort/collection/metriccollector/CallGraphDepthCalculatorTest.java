@@ -0,0 +1,86 @@
+/*
+ * Copyright (C) 2017 University of Goettingen, Germany
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package de.ugoe.cs.comfort.collection.metriccollector;
+
+import static org.junit.Assert.assertEquals;
+
+import de.ugoe.cs.comfort.BaseTest;
+import de.ugoe.cs.comfort.data.graphs.CallEdge;
+import de.ugoe.cs.comfort.data.graphs.CallGraph;
+import de.ugoe.cs.comfort.data.graphs.CallType;
+import de.ugoe.cs.comfort.data.models.IUnit;
+import de.ugoe.cs.comfort.data.models.JavaMethod;
+import java.nio.file.Paths;
+import java.util.LinkedList;
+import java.util.Random;
+import org.junit.Test;
+
+/**
+ * @author Fabian Trautsch
+ */
+public class CallGraphDepthCalculatorTest extends BaseTest {
+
+    private static JavaMethod method(String className, String methodName) {
+        return new JavaMethod("org.foo", className, methodName,
+                Paths.get("src/main/java/org/foo/" + className + ".java"));
+    }
+
+    @Test
+    public void getMaximumDepthTest() {
+        CallGraph callGraph = new CallGraph();
+        callGraph.addEdge(new CallEdge(CallType.INVOKE_SPECIAL, 0, T1Test1, C1M1_p1));
+        callGraph.addEdge(new CallEdge(CallType.INVOKE_SPECIAL, 0, C1M1_p1, C2M1_p1));
+        callGraph.addEdge(new CallEdge(CallType.INVOKE_SPECIAL, 0, C2M1_p1, C3M1));
+        callGraph.addEdge(new CallEdge(CallType.INVOKE_SPECIAL, 1, C2M1_p1, C2Foo_p1));
+        callGraph.addEdge(new CallEdge(CallType.INVOKE_SPECIAL, 0, C3M1, C2Foo_p1));
+        callGraph.addEdge(new CallEdge(CallType.INVOKE_SPECIAL, 0, C3M1, C1M1_p1));
+
+        CallGraphDepthCalculator depthCalculator = new CallGraphDepthCalculator(callGraph);
+        assertEquals(3, depthCalculator.getMaximumDepth(T1Test1));
+        assertEquals(2, depthCalculator.getMaximumDepth(C1M1_p1));
+        assertEquals(0, depthCalculator.getMaximumDepth(C2Foo_p1));
+        assertEquals(0, depthCalculator.getMaximumDepth(T2Test1));
+    }
+
+    @Test
+    public void getMaximumDepthIsEqualToDijkstraTest() {
+        Random random = new Random(42);
+        CallGraph callGraph = new CallGraph();
+        for(int i = 0; i < 1500; i++) {
+            IUnit caller = random.nextInt(10) == 0 ? method("FooTest", "test" + random.nextInt(30))
+                    : method("Foo", "m" + random.nextInt(300));
+            callGraph.addEdge(new CallEdge(CallType.INVOKE_VIRTUAL, i, caller, method("Foo", "m" + random.nextInt(300))));
+        }
+        assertEquals(30, callGraph.getTestNodes().size());
+
+        CallGraphDepthCalculator depthCalculator = new CallGraphDepthCalculator(callGraph);
+        DijkstraAlgorithm dijkstraAlgorithm = new DijkstraAlgorithm(callGraph);
+        for(IUnit testNode: callGraph.getTestNodes()) {
+            dijkstraAlgorithm.execute(testNode);
+            int maximumPath = 0;
+            for(IUnit productionNode: callGraph.getProductionNodes()) {
+                LinkedList<IUnit> shortestPathToNode = dijkstraAlgorithm.getPath(productionNode);
+                if(shortestPathToNode != null) {
+                    maximumPath = Math.max(maximumPath, shortestPathToNode.size()-1);
+                }
+            }
+            assertEquals("Depth of " + testNode + " is not correct!", maximumPath,
+                    depthCalculator.getMaximumDepth(testNode));
+        }
+    }
+}
@@ -21,9 +21,11 @@ import static org.junit.Assert.assertEquals;
 import de.ugoe.cs.comfort.configuration.GeneralConfiguration;
 import de.ugoe.cs.comfort.data.CoverageData;
 import de.ugoe.cs.comfort.data.models.IUnit;
+import de.ugoe.cs.comfort.data.models.JavaMethod;
 import de.ugoe.cs.comfort.filer.models.Result;
 import java.io.IOException;
 import java.nio.file.Paths;
+import java.util.ArrayList;
 import java.util.HashSet;
 import java.util.Set;
 import org.junit.Test;
@@ -40,8 +42,8 @@ public class CoveredLinesCollectorTest extends BaseMetricCollectorTest {
         javaConfig.setMethodLevel(true);
 
         Set<IUnit> testedMethodsOfTest1 = new HashSet<>();
-        T2Test1.setCoveredLines(6);
-        testedMethodsOfTest1.add(T2Test1);
+        testedMethodsOfTest1.add(new JavaMethod("org.foo.t2.Test2", "test1", new ArrayList<>(),
+                Paths.get("src/main/java/org/foo/t2/Test2.java"), 6));
 
         CoverageData covData = new CoverageData();
         covData.add(T1Test1, testedMethodsOfTest1);
@@ -62,8 +64,8 @@ public class CoveredLinesCollectorTest extends BaseMetricCollectorTest {
         javaConfig.setMethodLevel(true);
 
         Set<IUnit> testedMethodsOfTest1 = new HashSet<>();
-        C1M1_p1.setCoveredLines(6);
-        testedMethodsOfTest1.add(C1M1_p1);
+        testedMethodsOfTest1.add(new JavaMethod("org.foo.bar.C1", "m1", new ArrayList<>(),
+                Paths.get("src/main/java/org/foo/bar/C1.java"), 6));
 
         CoverageData covData = new CoverageData();
         covData.add(C1M1_p1, testedMethodsOfTest1);
@@ -84,11 +86,11 @@ public class CoveredLinesCollectorTest extends BaseMetricCollectorTest {
         javaConfig.setMethodLevel(true);
 
         Set<IUnit> testedMethodsOfTest1 = new HashSet<>();
-        T2M1.setCoveredLines(6);
-        testedMethodsOfTest1.add(T2M1);
+        testedMethodsOfTest1.add(new JavaMethod("org.foo.t2.Test2", "m1", new ArrayList<>(),
+                Paths.get("src/main/java/org/foo/t2/Test2.java"), 6));
 
-        C1M1_p1.setCoveredLines(14);
-        testedMethodsOfTest1.add(C1M1_p1);
+        testedMethodsOfTest1.add(new JavaMethod("org.foo.bar.C1", "m1", new ArrayList<>(),
+                Paths.get("src/main/java/org/foo/bar/C1.java"), 14));
 
 
         CoverageData covData = new CoverageData();
@@ -111,12 +113,12 @@ public class CoveredLinesCollectorTest extends BaseMetricCollectorTest {
         javaConfig.setMethodLevel(true);
 
         Set<IUnit> testedMethodsOfTest1 = new HashSet<>();
-        T2Test1.setCoveredLines(6);
-        testedMethodsOfTest1.add(T2Test1);
+        testedMethodsOfTest1.add(new JavaMethod("org.foo.t2.Test2", "test1", new ArrayList<>(),
+                Paths.get("src/main/java/org/foo/t2/Test2.java"), 6));
 
         Set<IUnit> testedMethodsOfTest2 = new HashSet<>();
-        C1M1_p1.setCoveredLines(14);
-        testedMethodsOfTest2.add(C1M1_p1);
+        testedMethodsOfTest2.add(new JavaMethod("org.foo.bar.C1", "m1", new ArrayList<>(),
+                Paths.get("src/main/java/org/foo/bar/C1.java"), 14));
 
 
         CoverageData covData = new CoverageData();
@@ -145,12 +147,12 @@ public class CoveredLinesCollectorTest extends BaseMetricCollectorTest {
         javaConfig.setMethodLevel(false);
 
         Set<IUnit> testedMethodsOfTest1 = new HashSet<>();
-        T2Test1.setCoveredLines(6);
-        testedMethodsOfTest1.add(T2Test1);
+        testedMethodsOfTest1.add(new JavaMethod("org.foo.t2.Test2", "test1", new ArrayList<>(),
+                Paths.get("src/main/java/org/foo/t2/Test2.java"), 6));
 
         Set<IUnit> testedMethodsOfTest2 = new HashSet<>();
-        C1M1_p1.setCoveredLines(14);
-        testedMethodsOfTest2.add(C1M1_p1);
+        testedMethodsOfTest2.add(new JavaMethod("org.foo.bar.C1", "m1", new ArrayList<>(),
+                Paths.get("src/main/java/org/foo/bar/C1.java"), 14));
 
 
         CoverageData covData = new CoverageData();
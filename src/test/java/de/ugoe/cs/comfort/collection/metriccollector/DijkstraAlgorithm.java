@@ -25,6 +25,8 @@ import java.util.*;
 /**
  * Implementation of Dijkstra Algorithm. Based on:
  * http://www.vogella.com/tutorials/JavaAlgorithmsDijkstra/article.html
+ * It is only used as reference for the {@link CallGraphDepthCalculator}, which gives the same call depths for call
+ * graphs (where all edges have the same weight).
  * @author Fabian Trautsch
  */
 public class DijkstraAlgorithm {
@@ -22,7 +22,13 @@ import static org.junit.Assert.fail;
 
 import de.ugoe.cs.comfort.BaseTest;
 import de.ugoe.cs.comfort.exception.MutationResultException;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.util.Arrays;
 import org.junit.Test;
 
 /**
@@ -162,4 +168,40 @@ public class MutationChangeClassifierTest extends BaseTest {
             fail("Unexpected exception: "+e.getMessage());
         }
     }
+
+    @Test
+    public void sourceFileKeepsLineEndingsTest() {
+        MutationChangeClassifier.SourceFile sourceFile = new MutationChangeClassifier.SourceFile(
+                "class A {\r\n    int a = 1;\r\n\r\n    int b = 2;\n}\r\n");
+
+        assertEquals("Lines not correct!", Arrays.asList("class A {", "    int a = 1;", "", "    int b = 2;", "}"),
+                sourceFile.getLines());
+        assertEquals("Changed content not correct!", "class A {\r\n    int a = 0;\r\n\r\n    int b = 2;\n}\r\n",
+                sourceFile.replaceLine(2, "    int a = 0;"));
+        assertEquals("Changed content not correct!", "class A {\r\n    int a = 1;\r\n\r\n    int b = 2;\n};\r\n",
+                sourceFile.replaceLine(5, "};"));
+    }
+
+    @Test
+    public void sourceFileWithoutTrailingNewlineTest() {
+        MutationChangeClassifier.SourceFile sourceFile = new MutationChangeClassifier.SourceFile(
+                "class A {\n    int a = 1;\n}");
+
+        assertEquals("Lines not correct!", Arrays.asList("class A {", "    int a = 1;", "}"), sourceFile.getLines());
+        assertEquals("Changed content not correct!", "class A {\n    int a = 1;\n};",
+                sourceFile.replaceLine(3, "};"));
+    }
+
+    @Test
+    public void changedFileIsWrittenInMemoryTest() throws IOException {
+        String content = "class A {\r\n    int a = 0;\r\n}";
+        Path changedFile = MutationChangeClassifier.writeChangedFile(Paths.get("src/main/java/A.java"), content);
+        try {
+            assertNotEquals("Changed file is on the disk!", FileSystems.getDefault(), changedFile.getFileSystem());
+            assertEquals("Changed content not correct!", content,
+                    new String(Files.readAllBytes(changedFile), StandardCharsets.UTF_8));
+        } finally {
+            Files.delete(changedFile);
+        }
+    }
 }
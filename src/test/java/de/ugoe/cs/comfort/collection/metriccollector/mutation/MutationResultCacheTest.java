@@ -0,0 +1,193 @@
+/*
+ * Copyright (C) 2017 University of Goettingen, Germany
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package de.ugoe.cs.comfort.collection.metriccollector.mutation;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import de.ugoe.cs.comfort.BaseTest;
+import de.ugoe.cs.comfort.data.models.IUnit;
+import de.ugoe.cs.comfort.data.models.JavaMethod;
+import de.ugoe.cs.comfort.filer.models.Mutation;
+import de.ugoe.cs.comfort.filer.models.Result;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+import org.apache.commons.io.FileUtils;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.objectweb.asm.ClassWriter;
+import org.objectweb.asm.Opcodes;
+
+/**
+ * @author Fabian Trautsch
+ */
+public class MutationResultCacheTest extends BaseTest {
+    private Path projectDir;
+    private Path cacheDir;
+    private Path testClassFile;
+    private Path classFile;
+    private Path innerClassFile;
+
+    private final JavaMethod getNameTest = new JavaMethod("org.foo.Module1Test", "getNameTest",
+            new ArrayList<>(), null);
+    private final JavaMethod getName = new JavaMethod("org.foo.Module1", "getName", new ArrayList<>(), null);
+    private final JavaMethod stringInit = new JavaMethod("java.lang.String", "<init>", new ArrayList<>(), null);
+    private final Set<IUnit> coveredUnits = new HashSet<>(Arrays.asList(getName, stringInit));
+
+    @Before
+    public void createProject() throws IOException {
+        projectDir = Files.createTempDirectory("comfort-project");
+        cacheDir = Files.createTempDirectory("comfort-cache");
+        Files.write(projectDir.resolve("pom_template.xml"), "template".getBytes(StandardCharsets.UTF_8));
+        testClassFile = writeClassFile("target/test-classes", "org/foo/Module1Test", null);
+        classFile = writeClassFile("target/classes", "org/foo/Module1", null);
+        innerClassFile = writeClassFile("target/classes", "org/foo/Module1$Inner", null);
+    }
+
+    @After
+    public void deleteProject() throws IOException {
+        FileUtils.deleteDirectory(projectDir.toFile());
+        FileUtils.deleteDirectory(cacheDir.toFile());
+    }
+
+    private Path writeClassFile(String directory, String internalName, String fieldName) throws IOException {
+        ClassWriter writer = new ClassWriter(0);
+        writer.visit(Opcodes.V1_8, Opcodes.ACC_PUBLIC, internalName, null, "java/lang/Object", null);
+        if(fieldName != null) {
+            writer.visitField(Opcodes.ACC_PRIVATE, fieldName, "I", null, null).visitEnd();
+        }
+        writer.visitEnd();
+
+        Path file = projectDir.resolve(directory).resolve(internalName + ".class");
+        Files.createDirectories(file.getParent());
+        Files.write(file, writer.toByteArray());
+        return file;
+    }
+
+    private MutationResultCache createCache() throws IOException {
+        return new MutationResultCache(cacheDir, projectDir, Arrays.asList(testClassFile, classFile, innerClassFile));
+    }
+
+    @Test
+    public void storeAndReadResultTest() throws IOException {
+        MutationResultCache cache = createCache();
+        String key = cache.getKey(getNameTest, coveredUnits);
+        assertNotNull(key);
+        assertFalse(cache.contains(key));
+
+        Result result = new Result(getNameTest.getFQN(), Paths.get("src/test/java/org/foo/Module1Test.java"));
+        Set<Mutation> mutations = new HashSet<>();
+        mutations.add(new Mutation("org.foo.Module1.getName", "MathMutator", 30, "KILLED", "COMPUTATION"));
+        mutations.add(new Mutation("org.foo.Module1.getName", "MathMutator", 31, "SURVIVED", "COMPUTATION"));
+        result.addMutationResults(mutations);
+        result.addMetric("mut_genMut", "2");
+        result.addMetric("mut_killMut", "1");
+        result.addMetric("mut_scoreMut", "50");
+        cache.put(key, result);
+
+        // The result can be read by a later run on the same bytecode
+        MutationResultCache laterCache = createCache();
+        String laterKey = laterCache.getKey(getNameTest, coveredUnits);
+        assertEquals(key, laterKey);
+        assertTrue(laterCache.contains(laterKey));
+        assertEquals(result, laterCache.get(laterKey, getNameTest.getFQN(), Paths.get("src/test/java/org/foo/Module1Test.java"),
+                mutations));
+    }
+
+    @Test
+    public void keyChangesWithCoveredBytecodeTest() throws IOException {
+        String key = createCache().getKey(getNameTest, coveredUnits);
+
+        // Add a field to an inner class of the covered class
+        writeClassFile("target/classes", "org/foo/Module1$Inner", "addedField");
+        assertNotEquals(key, createCache().getKey(getNameTest, coveredUnits));
+    }
+
+    @Test
+    public void keyChangesWithTemplateTest() throws IOException {
+        String key = createCache().getKey(getNameTest, coveredUnits);
+        Files.write(projectDir.resolve("pom_template.xml"), "other template".getBytes(StandardCharsets.UTF_8));
+        assertNotEquals(key, createCache().getKey(getNameTest, coveredUnits));
+    }
+
+    @Test
+    public void keyIsIndependentOfUncoveredClassesTest() throws IOException {
+        String key = createCache().getKey(getNameTest, new HashSet<>());
+        writeClassFile("target/classes", "org/foo/Module1", "addedField");
+        assertEquals(key, createCache().getKey(getNameTest, new HashSet<>()));
+    }
+
+    @Test
+    public void cachedResultIsCompletedWithMutationsOfCurrentRunTest() throws IOException {
+        MutationResultCache cache = createCache();
+        String key = cache.getKey(getNameTest, coveredUnits);
+
+        Result result = new Result(getNameTest.getFQN(), null);
+        Set<Mutation> mutations = new HashSet<>();
+        mutations.add(new Mutation("org.foo.Module1.getName", "MathMutator", 30, "KILLED", "COMPUTATION"));
+        mutations.add(new Mutation("org.foo.Module2.<init>", "VoidMethodCallMutator", 3, "NO_COVERAGE",
+                "INTERFACE"));
+        result.addMutationResults(mutations);
+        result.addMetric("mut_genMut", "2");
+        result.addMetric("mut_killMut", "1");
+        result.addMetric("mut_scoreMut", "50");
+        cache.put(key, result);
+
+        // The uncovered class Module2 has changed and Module3 was added since the result was cached
+        Set<Mutation> allMutations = new HashSet<>();
+        allMutations.add(new Mutation("org.foo.Module1.getName", "MathMutator", 30, "SURVIVED", "COMPUTATION"));
+        allMutations.add(new Mutation("org.foo.Module2.<init>", "VoidMethodCallMutator", 4, "KILLED",
+                "INTERFACE"));
+        allMutations.add(new Mutation("org.foo.Module2.getId", "ReturnValsMutator", 7, "SURVIVED", "INTERFACE"));
+        allMutations.add(new Mutation("org.foo.Module3$Inner.get", "MathMutator", 5, "KILLED", "COMPUTATION"));
+
+        Result expected = new Result(getNameTest.getFQN(), null);
+        Set<Mutation> expectedMutations = new HashSet<>();
+        expectedMutations.add(new Mutation("org.foo.Module1.getName", "MathMutator", 30, "KILLED", "COMPUTATION"));
+        expectedMutations.add(new Mutation("org.foo.Module2.<init>", "VoidMethodCallMutator", 4, "NO_COVERAGE",
+                "INTERFACE"));
+        expectedMutations.add(new Mutation("org.foo.Module2.getId", "ReturnValsMutator", 7, "NO_COVERAGE",
+                "INTERFACE"));
+        expectedMutations.add(new Mutation("org.foo.Module3$Inner.get", "MathMutator", 5, "NO_COVERAGE",
+                "COMPUTATION"));
+        expected.addMutationResults(expectedMutations);
+        expected.addMetric("mut_genMut", "4");
+        expected.addMetric("mut_killMut", "1");
+        expected.addMetric("mut_scoreMut", "25");
+
+        assertEquals(expected, createCache().get(key, getNameTest.getFQN(), null, allMutations));
+    }
+
+    @Test
+    public void noKeyForUnknownTestClassTest() throws IOException {
+        JavaMethod unknownTest = new JavaMethod("org.foo.FooTest", "test", new ArrayList<>(), null);
+        assertNull(createCache().getKey(unknownTest, coveredUnits));
+    }
+}
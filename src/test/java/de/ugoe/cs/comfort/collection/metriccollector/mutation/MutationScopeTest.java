@@ -0,0 +1,113 @@
+/*
+ * Copyright (C) 2017 University of Goettingen, Germany
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package de.ugoe.cs.comfort.collection.metriccollector.mutation;
+
+import static org.junit.Assert.assertEquals;
+
+import de.ugoe.cs.comfort.BaseTest;
+import de.ugoe.cs.comfort.data.models.IUnit;
+import de.ugoe.cs.comfort.data.models.JavaMethod;
+import de.ugoe.cs.comfort.filer.models.Mutation;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * @author Fabian Trautsch
+ */
+public class MutationScopeTest extends BaseTest {
+    private static final String MATH_MUTATOR = "org.pitest.mutationtest.engine.gregor.mutators.MathMutator";
+
+    private final JavaMethod getNameTest = new JavaMethod("Module1Test", "getNameTest", new ArrayList<>(), null);
+    private final JavaMethod getNumberTest = new JavaMethod("Module1Test", "getNumberTest", new ArrayList<>(), null);
+    private final JavaMethod emptyTest = new JavaMethod("Module1Test", "emptyTest", new ArrayList<>(), null);
+    private final JavaMethod getName = new JavaMethod("Module1", "getName", new ArrayList<>(), null);
+    private final JavaMethod getNumber = new JavaMethod("Module2", "getNumber", new ArrayList<>(), null);
+    private final JavaMethod toString = new JavaMethod("Module3", "toString", new ArrayList<>(), null);
+
+    private MutationScope mutationScope;
+
+    @Before
+    public void createMutationScope() {
+        Map<IUnit, Set<IUnit>> coverageData = new HashMap<>();
+        coverageData.put(getNameTest, new HashSet<>(Collections.singletonList(getName)));
+        coverageData.put(getNumberTest, new HashSet<>(Arrays.asList(getName, getNumber, toString)));
+        coverageData.put(emptyTest, new HashSet<>(Collections.singletonList(toString)));
+
+        Set<Mutation> allMutations = new HashSet<>();
+        allMutations.add(new Mutation("Module1.getName", MATH_MUTATOR, 30, "KILLED", "COMPUTATION"));
+        allMutations.add(new Mutation("Module1.getName", MATH_MUTATOR, 31, "SURVIVED", "COMPUTATION"));
+        allMutations.add(new Mutation("Module2.getNumber", MATH_MUTATOR, 36, "KILLED", "COMPUTATION"));
+        allMutations.add(new Mutation("Module2.getNumber", MATH_MUTATOR, 37, "NO_COVERAGE", "COMPUTATION"));
+        mutationScope = new MutationScope(coverageData, allMutations, 1000);
+    }
+
+    @Test
+    public void getTargetClassesTest() {
+        assertEquals(Collections.singleton("Module1"), mutationScope.getTargetClasses(getNameTest));
+        assertEquals(new HashSet<>(Arrays.asList("Module1", "Module2")),
+                mutationScope.getTargetClasses(getNumberTest));
+
+        // Classes without mutations are not part of the scope
+        assertEquals(new HashSet<>(), mutationScope.getTargetClasses(emptyTest));
+    }
+
+    @Test
+    public void completeResultsTest() {
+        Set<Mutation> scopedResults = new HashSet<>();
+        scopedResults.add(new Mutation("Module1.getName", MATH_MUTATOR, 30, "KILLED", "COMPUTATION"));
+        scopedResults.add(new Mutation("Module1.getName", MATH_MUTATOR, 31, "KILLED", "COMPUTATION"));
+
+        Set<Mutation> expectedResults = new HashSet<>(scopedResults);
+        expectedResults.add(new Mutation("Module2.getNumber", MATH_MUTATOR, 36, "NO_COVERAGE", "COMPUTATION"));
+        expectedResults.add(new Mutation("Module2.getNumber", MATH_MUTATOR, 37, "NO_COVERAGE", "COMPUTATION"));
+        assertEquals(expectedResults, mutationScope.completeMutationResults(
+                mutationScope.getTargetClasses(getNameTest), scopedResults));
+
+        MutationExecutionResult scopedExecutionResult = new MutationExecutionResult();
+        scopedExecutionResult.setGeneratedMutations(2);
+        scopedExecutionResult.setKilledMutations(2);
+        scopedExecutionResult.setMutationScore(100);
+        MutationExecutionResult executionResult = mutationScope.completeExecutionResult(scopedExecutionResult, 100);
+        assertEquals(4, executionResult.getGeneratedMutations());
+        assertEquals(2, executionResult.getKilledMutations());
+        assertEquals(50, executionResult.getMutationScore());
+    }
+
+    @Test
+    public void completeResultsWithoutExecutionTest() {
+        Set<Mutation> expectedResults = new HashSet<>();
+        expectedResults.add(new Mutation("Module1.getName", MATH_MUTATOR, 30, "NO_COVERAGE", "COMPUTATION"));
+        expectedResults.add(new Mutation("Module1.getName", MATH_MUTATOR, 31, "NO_COVERAGE", "COMPUTATION"));
+        expectedResults.add(new Mutation("Module2.getNumber", MATH_MUTATOR, 36, "NO_COVERAGE", "COMPUTATION"));
+        expectedResults.add(new Mutation("Module2.getNumber", MATH_MUTATOR, 37, "NO_COVERAGE", "COMPUTATION"));
+        assertEquals(expectedResults, mutationScope.completeMutationResults(
+                mutationScope.getTargetClasses(emptyTest), new HashSet<>()));
+
+        MutationExecutionResult executionResult = mutationScope.completeExecutionResult(null, 0);
+        assertEquals(4, executionResult.getGeneratedMutations());
+        assertEquals(0, executionResult.getKilledMutations());
+        assertEquals(0, executionResult.getMutationScore());
+    }
+}
@@ -0,0 +1,175 @@
+/*
+ * Copyright (C) 2017 University of Goettingen, Germany
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package de.ugoe.cs.comfort.collection.metriccollector.mutation;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertTrue;
+
+import de.ugoe.cs.comfort.BaseTest;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+import org.apache.commons.io.FileUtils;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * @author Fabian Trautsch
+ */
+public class WorkspacePoolTest extends BaseTest {
+    private Path projectDir;
+
+    @Before
+    public void createProject() throws IOException {
+        projectDir = Files.createTempDirectory("comfort-project");
+        createFile("pom_template.xml", "template");
+        createFile("src/main/java/org/foo/Bar.java", "class Bar {}");
+        createFile("src/test/java/org/foo/BarTest.java", "class BarTest {}");
+        createFile("target/classes/org/foo/Bar.class", "bar");
+        createFile("src/test/resources/db.properties", "url=db");
+        createFile("config/settings.xml", "settings");
+        createFile(".git/HEAD", "ref");
+    }
+
+    @After
+    public void deleteProject() throws IOException {
+        FileUtils.deleteDirectory(projectDir.toFile());
+    }
+
+    private void createFile(String file, String content) throws IOException {
+        Path path = projectDir.resolve(file);
+        Files.createDirectories(path.getParent());
+        Files.write(path, content.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static String read(Path path) throws IOException {
+        return new String(Files.readAllBytes(path), StandardCharsets.UTF_8);
+    }
+
+    @Test
+    public void createWorkspacesTest() throws IOException {
+        try (WorkspacePool pool = new WorkspacePool(projectDir, 2)) {
+            assertEquals(2, pool.size());
+            Set<Path> workspaces = new HashSet<>();
+            Path workspace1 = pool.lease();
+            Path workspace2 = pool.lease();
+            workspaces.add(workspace1);
+            workspaces.add(workspace2);
+            assertEquals(2, workspaces.size());
+
+            for (Path workspace : workspaces) {
+                assertNotEquals(projectDir, workspace);
+                assertEquals("template", read(workspace.resolve("pom_template.xml")));
+                assertEquals("class Bar {}", read(workspace.resolve("src/main/java/org/foo/Bar.java")));
+                assertEquals("class BarTest {}", read(workspace.resolve("src/test/java/org/foo/BarTest.java")));
+                assertEquals("bar", read(workspace.resolve("target/classes/org/foo/Bar.class")));
+                assertFalse(Files.exists(workspace.resolve(".git")));
+            }
+
+            // Build output is separated between the workspaces and the project
+            Files.write(workspace1.resolve("target/classes/org/foo/Bar.class"),
+                    "changed".getBytes(StandardCharsets.UTF_8));
+            assertEquals("bar", read(workspace2.resolve("target/classes/org/foo/Bar.class")));
+            assertEquals("bar", read(projectDir.resolve("target/classes/org/foo/Bar.class")));
+        }
+    }
+
+    @Test
+    public void releaseResetsWorkspaceTest() throws IOException {
+        try (WorkspacePool pool = new WorkspacePool(projectDir, 1)) {
+            Path workspace = pool.lease();
+            Files.write(workspace.resolve("comfort-123.xml"), "pom".getBytes(StandardCharsets.UTF_8));
+            Files.createDirectories(workspace.resolve("ibderby/log"));
+            Files.createFile(workspace.resolve("ibderby/log/log.ctrl"));
+            Files.write(workspace.resolve("target/classes/org/foo/Bar.class"),
+                    "changed".getBytes(StandardCharsets.UTF_8));
+            Files.delete(workspace.resolve("src/test/java/org/foo/BarTest.java"));
+            pool.release(workspace);
+
+            Path resetWorkspace = pool.lease();
+            assertEquals(workspace, resetWorkspace);
+            assertFalse(Files.exists(resetWorkspace.resolve("comfort-123.xml")));
+            assertFalse(Files.exists(resetWorkspace.resolve("ibderby")));
+            assertEquals("bar", read(resetWorkspace.resolve("target/classes/org/foo/Bar.class")));
+            assertEquals("class BarTest {}", read(resetWorkspace.resolve("src/test/java/org/foo/BarTest.java")));
+            assertTrue(Files.exists(projectDir.resolve("src/test/java/org/foo/BarTest.java")));
+        }
+    }
+
+    @Test
+    public void resourcesAreNotSharedTest() throws IOException {
+        try (WorkspacePool pool = new WorkspacePool(projectDir, 2)) {
+            Path workspace1 = pool.lease();
+            Path workspace2 = pool.lease();
+
+            // Resources and configuration files are changed in place, e.g., by tests that write to a database
+            try (OutputStream out = Files.newOutputStream(workspace1.resolve("src/test/resources/db.properties"),
+                    StandardOpenOption.TRUNCATE_EXISTING)) {
+                out.write("url=changed".getBytes(StandardCharsets.UTF_8));
+            }
+            try (OutputStream out = Files.newOutputStream(workspace1.resolve("config/settings.xml"),
+                    StandardOpenOption.APPEND)) {
+                out.write(" changed".getBytes(StandardCharsets.UTF_8));
+            }
+            assertEquals("url=db", read(projectDir.resolve("src/test/resources/db.properties")));
+            assertEquals("url=db", read(workspace2.resolve("src/test/resources/db.properties")));
+            assertEquals("settings", read(projectDir.resolve("config/settings.xml")));
+            assertEquals("settings", read(workspace2.resolve("config/settings.xml")));
+
+            // And the changes are repaired on release
+            pool.release(workspace1);
+            pool.release(workspace2);
+            Path resetWorkspace = pool.lease();
+            Path otherWorkspace = pool.lease();
+            for (Path workspace : Arrays.asList(resetWorkspace, otherWorkspace)) {
+                assertEquals("url=db", read(workspace.resolve("src/test/resources/db.properties")));
+                assertEquals("settings", read(workspace.resolve("config/settings.xml")));
+            }
+        }
+    }
+
+    @Test
+    public void isImmutableInputTest() {
+        assertTrue(WorkspacePool.isImmutableInput(Paths.get("src/main/java/org/foo/Bar.java")));
+        assertTrue(WorkspacePool.isImmutableInput(Paths.get("module/src/test/java/org/foo/BarTest.java")));
+        assertTrue(WorkspacePool.isImmutableInput(Paths.get("pom.xml")));
+        assertTrue(WorkspacePool.isImmutableInput(Paths.get("pom_template.xml")));
+        assertFalse(WorkspacePool.isImmutableInput(Paths.get("src/test/resources/db.properties")));
+        assertFalse(WorkspacePool.isImmutableInput(Paths.get("config/settings.xml")));
+        assertFalse(WorkspacePool.isImmutableInput(Paths.get("Bar.java")));
+        assertFalse(WorkspacePool.isImmutableInput(Paths.get("target/generated-sources/src/Bar.java")));
+    }
+
+    @Test
+    public void closeDeletesWorkspacesTest() throws IOException {
+        WorkspacePool pool = new WorkspacePool(projectDir, 1);
+        Path workspace = pool.lease();
+        pool.close();
+        assertFalse(Files.exists(workspace));
+    }
+}
@@ -0,0 +1,133 @@
+/*
+ * Copyright (C) 2017 University of Goettingen, Germany
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package de.ugoe.cs.comfort.collection.metriccollector.mutation.executors;
+
+import static org.junit.Assert.assertEquals;
+
+import de.ugoe.cs.comfort.BaseTest;
+import de.ugoe.cs.comfort.collection.metriccollector.mutation.MutationExecutionResult;
+import de.ugoe.cs.comfort.collection.metriccollector.mutation.MutationLocation;
+import de.ugoe.cs.comfort.collection.metriccollector.mutation.MutationMatrix;
+import de.ugoe.cs.comfort.filer.models.Mutation;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * @author Fabian Trautsch
+ */
+public class PITMatrixExecutorTest extends BaseTest {
+    private static final String MATH_MUTATOR = "org.pitest.mutationtest.engine.gregor.mutators.MathMutator";
+    private static final String RETURN_VALS_MUTATOR = "org.pitest.mutationtest.engine.gregor.mutators.ReturnValsMutator";
+
+    private final Path projectRoot = Paths.get(getPathToResource("metricCollectorTestData/mutationdatacollector"));
+    private final Map<MutationLocation, String> classifications = new HashMap<>();
+    private final PITMatrixExecutor executor = new PITMatrixExecutor(new HashSet<>());
+
+    @Before
+    public void setUpClassifications() {
+        classifications.put(new MutationLocation(MATH_MUTATOR, "Module1.getName", 30), "COMPUTATION");
+        classifications.put(new MutationLocation(RETURN_VALS_MUTATOR, "Module1.getName", 31), "LOGIC/CONTROL");
+        classifications.put(new MutationLocation(MATH_MUTATOR, "Module1.getNumber", 36), "COMPUTATION");
+        classifications.put(new MutationLocation(MATH_MUTATOR, "Module1.getNumber", 37), "LOGIC/CONTROL");
+        classifications.put(new MutationLocation(RETURN_VALS_MUTATOR, "Module1.getNumber", 37), "LOGIC/CONTROL");
+    }
+
+    @Test
+    public void readMutationMatrixTest() throws IOException {
+        MutationMatrix matrix = executor.readMutationMatrix(
+                Paths.get(getPathToResource("metricCollectorTestData/mutationmatrix/mutations.xml")),
+                projectRoot, classifications);
+
+        assertEquals(5, matrix.getNumberOfMutations());
+        Set<String> expectedTests = new HashSet<>();
+        expectedTests.add("Module1Test.getNameTest");
+        expectedTests.add("Module1Test.getNumberTest");
+        expectedTests.add("Module2Test.getNameTest");
+        expectedTests.add("Module2Test.getNumberTest");
+        assertEquals(expectedTests, matrix.getTests());
+
+        // Same results as running PIT for each test separately
+        Set<Mutation> expectedNameTestMutations = new HashSet<>();
+        expectedNameTestMutations.add(new Mutation("Module1.getName", MATH_MUTATOR, 30, "KILLED", "COMPUTATION"));
+        expectedNameTestMutations.add(new Mutation("Module1.getName", RETURN_VALS_MUTATOR, 31, "KILLED", "LOGIC/CONTROL"));
+        expectedNameTestMutations.add(new Mutation("Module1.getNumber", MATH_MUTATOR, 36, "KILLED", "COMPUTATION"));
+        expectedNameTestMutations.add(new Mutation("Module1.getNumber", MATH_MUTATOR, 37, "KILLED", "LOGIC/CONTROL"));
+        expectedNameTestMutations.add(new Mutation("Module1.getNumber", RETURN_VALS_MUTATOR, 37, "KILLED", "LOGIC/CONTROL"));
+        assertEquals(expectedNameTestMutations, matrix.getMutationsForTest("Module1Test.getNameTest"));
+        assertEquals(expectedNameTestMutations, matrix.getMutations());
+
+        Set<Mutation> expectedNumberTestMutations = new HashSet<>();
+        expectedNumberTestMutations.add(new Mutation("Module1.getName", MATH_MUTATOR, 30, "NO_COVERAGE", "COMPUTATION"));
+        expectedNumberTestMutations.add(new Mutation("Module1.getName", RETURN_VALS_MUTATOR, 31, "NO_COVERAGE", "LOGIC/CONTROL"));
+        expectedNumberTestMutations.add(new Mutation("Module1.getNumber", MATH_MUTATOR, 36, "KILLED", "COMPUTATION"));
+        expectedNumberTestMutations.add(new Mutation("Module1.getNumber", MATH_MUTATOR, 37, "KILLED", "LOGIC/CONTROL"));
+        expectedNumberTestMutations.add(new Mutation("Module1.getNumber", RETURN_VALS_MUTATOR, 37, "KILLED", "LOGIC/CONTROL"));
+        assertEquals(expectedNumberTestMutations, matrix.getMutationsForTest("Module2Test.getNumberTest"));
+
+        MutationExecutionResult nameTestResult = matrix.getExecutionResultForTest("Module2Test.getNameTest");
+        assertEquals(5, nameTestResult.getGeneratedMutations());
+        assertEquals(5, nameTestResult.getKilledMutations());
+        assertEquals(100, nameTestResult.getMutationScore());
+
+        MutationExecutionResult numberTestResult = matrix.getExecutionResultForTest("Module1Test.getNumberTest");
+        assertEquals(5, numberTestResult.getGeneratedMutations());
+        assertEquals(3, numberTestResult.getKilledMutations());
+        assertEquals(60, numberTestResult.getMutationScore());
+    }
+
+    @Test(expected = IOException.class)
+    public void readReportWithoutMutationMatrixTest() throws IOException {
+        executor.readMutationMatrix(
+                Paths.get(getPathToResource("metricCollectorTestData/mutationmatrix/mutations_without_matrix.xml")),
+                projectRoot, classifications);
+    }
+
+    @Test
+    public void survivedAndTimedOutMutationsTest() {
+        Set<String> killingTests = new HashSet<>();
+        killingTests.add("FooTest.testA");
+        Set<String> succeedingTests = new HashSet<>();
+        succeedingTests.add("FooTest.testB");
+
+        MutationMatrix matrix = new MutationMatrix();
+        matrix.addMutation(new Mutation("Foo.bar", MATH_MUTATOR, 10, "TIMED_OUT", "COMPUTATION"),
+                killingTests, succeedingTests);
+        matrix.addMutation(new Mutation("Foo.bar", MATH_MUTATOR, 11, "SURVIVED", "COMPUTATION"),
+                new HashSet<>(), succeedingTests);
+
+        Set<Mutation> expectedMutations = new HashSet<>();
+        expectedMutations.add(new Mutation("Foo.bar", MATH_MUTATOR, 10, "TIMED_OUT", "COMPUTATION"));
+        expectedMutations.add(new Mutation("Foo.bar", MATH_MUTATOR, 11, "NO_COVERAGE", "COMPUTATION"));
+        assertEquals(expectedMutations, matrix.getMutationsForTest("FooTest.testA"));
+
+        expectedMutations.clear();
+        expectedMutations.add(new Mutation("Foo.bar", MATH_MUTATOR, 10, "SURVIVED", "COMPUTATION"));
+        expectedMutations.add(new Mutation("Foo.bar", MATH_MUTATOR, 11, "SURVIVED", "COMPUTATION"));
+        assertEquals(expectedMutations, matrix.getMutationsForTest("FooTest.testB"));
+        assertEquals(0, matrix.getExecutionResultForTest("FooTest.testB").getKilledMutations());
+        assertEquals(50, matrix.getExecutionResultForTest("FooTest.testA").getMutationScore());
+        assertEquals("FooTest.testA", MutationMatrix.getTestName("FooTest.testA(FooTest)"));
+    }
+}
@@ -0,0 +1,152 @@
+/*
+ * Copyright (C) 2017 University of Goettingen, Germany
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package de.ugoe.cs.comfort.collection.metriccollector.mutation.executors;
+
+import static org.junit.Assert.assertEquals;
+
+import de.ugoe.cs.comfort.BaseTest;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import org.junit.Test;
+
+/**
+ * @author Fabian Trautsch
+ */
+public class PITRuntimeTest extends BaseTest {
+    private final Path projectRoot = Paths.get(getPathToResource("metricCollectorTestData/mutationdatacollector"));
+
+    @Test
+    public void readPluginConfigurationTest() throws IOException {
+        PITRuntime.PluginConfiguration configuration =
+                PITRuntime.PluginConfiguration.read(projectRoot.resolve("pom_template.xml"));
+
+        assertEquals("1.4.3", configuration.getVersion());
+        assertEquals(Collections.singletonList("Module1*"), configuration.getTargetClasses());
+        assertEquals(new ArrayList<>(), configuration.getExcludedClasses());
+        assertEquals(new ArrayList<>(), configuration.getMutators());
+        assertEquals(1, configuration.getThreads());
+    }
+
+    @Test
+    public void getArgumentsTest() throws IOException {
+        PITRuntime runtime = new PITRuntime(
+                PITRuntime.PluginConfiguration.read(projectRoot.resolve("pom_template.xml")),
+                new PITRuntime.ProjectLayout(),
+                Collections.singletonList(Paths.get("/repo/pitest.jar")),
+                Collections.singletonList(Paths.get("/repo/junit.jar")));
+
+        List<String> expectedArguments = Arrays.asList(
+                "--reportDir", "/tmp/report",
+                "--targetClasses", "Module1*",
+                "--targetTests", "Module1Test",
+                "--includedTestMethods", "getNameTest",
+                "--sourceDirs", projectRoot.resolve("src/main/java") + "," + projectRoot.resolve("src/test/java"),
+                "--classPath", "/repo/pitest.jar,/repo/junit.jar," + projectRoot.resolve("target/classes") + ","
+                        + projectRoot.resolve("target/test-classes"),
+                "--threads", "1",
+                "--outputFormats", "CSV",
+                "--timestampedReports=false"
+        );
+        assertEquals(expectedArguments,
+                runtime.getArguments(projectRoot, "Module1Test", "getNameTest", null, Paths.get("/tmp/report")));
+
+        // Target classes of the template can be replaced
+        List<String> scopedArguments = runtime.getArguments(projectRoot, "Module1Test", "getNameTest",
+                Collections.singleton("Module1"), Paths.get("/tmp/report"));
+        assertEquals("Module1", scopedArguments.get(scopedArguments.indexOf("--targetClasses") + 1));
+
+        // All test methods are executed, if no method is given
+        List<String> arguments = runtime.getArguments(projectRoot, "Module1Test", "", null,
+                Paths.get("/tmp/report"));
+        assertEquals(expectedArguments.size() - 2, arguments.size());
+    }
+
+    @Test
+    public void readProjectLayoutTest() throws IOException {
+        Path effectivePom = Files.createTempFile("comfort-", "-effective-pom.xml");
+        try {
+            String content = "<projects><project><build>"
+                    + "<sourceDirectory>" + projectRoot.resolve("src") + "</sourceDirectory>"
+                    + "<testSourceDirectory>" + projectRoot.resolve("test") + "</testSourceDirectory>"
+                    + "<outputDirectory>" + projectRoot.resolve("build/classes") + "</outputDirectory>"
+                    + "<testOutputDirectory>/tmp/test-classes</testOutputDirectory>"
+                    + "</build></project><project><build>"
+                    + "<sourceDirectory>" + projectRoot.resolve("other") + "</sourceDirectory>"
+                    + "</build></project></projects>";
+            Files.write(effectivePom, content.getBytes(StandardCharsets.UTF_8));
+
+            // Directories inside of the project are relative, so that they can be used for copies of the project
+            PITRuntime.ProjectLayout layout = PITRuntime.ProjectLayout.read(effectivePom, projectRoot);
+            assertEquals(Paths.get("src"), layout.getSourceDirectory());
+            assertEquals(Paths.get("test"), layout.getTestSourceDirectory());
+            assertEquals(Paths.get("build/classes"), layout.getOutputDirectory());
+            assertEquals(Paths.get("/tmp/test-classes"), layout.getTestOutputDirectory());
+
+            PITRuntime runtime = new PITRuntime(
+                    PITRuntime.PluginConfiguration.read(projectRoot.resolve("pom_template.xml")), layout,
+                    new ArrayList<>(), new ArrayList<>());
+            Path workspace = Paths.get("/tmp/workspace");
+            List<String> arguments = runtime.getArguments(workspace, "Module1Test", "", null,
+                    Paths.get("/tmp/report"));
+            assertEquals(workspace.resolve("src") + "," + workspace.resolve("test"),
+                    arguments.get(arguments.indexOf("--sourceDirs") + 1));
+            assertEquals(workspace.resolve("build/classes") + ",/tmp/test-classes",
+                    arguments.get(arguments.indexOf("--classPath") + 1));
+        } finally {
+            Files.delete(effectivePom);
+        }
+    }
+
+    @Test
+    public void readProjectLayoutWithDefaultsTest() throws IOException {
+        Path effectivePom = Files.createTempFile("comfort-", "-effective-pom.xml");
+        try {
+            Files.write(effectivePom, "<project><build/></project>".getBytes(StandardCharsets.UTF_8));
+            PITRuntime.ProjectLayout layout = PITRuntime.ProjectLayout.read(effectivePom, projectRoot);
+            assertEquals(Paths.get("src/main/java"), layout.getSourceDirectory());
+            assertEquals(Paths.get("src/test/java"), layout.getTestSourceDirectory());
+            assertEquals(Paths.get("target/classes"), layout.getOutputDirectory());
+            assertEquals(Paths.get("target/test-classes"), layout.getTestOutputDirectory());
+        } finally {
+            Files.delete(effectivePom);
+        }
+    }
+
+    @Test
+    public void getArgumentsForWorkspaceTest() throws IOException {
+        // Dependencies inside of the project are stored relative to it
+        PITRuntime runtime = new PITRuntime(
+                PITRuntime.PluginConfiguration.read(projectRoot.resolve("pom_template.xml")),
+                new PITRuntime.ProjectLayout(),
+                Collections.singletonList(Paths.get("/repo/pitest.jar")),
+                Arrays.asList(Paths.get("lib/module.jar"), Paths.get("/repo/junit.jar")));
+
+        Path workspace = Paths.get("/tmp/workspace");
+        List<String> arguments = runtime.getArguments(workspace, "Module1Test", "", null, Paths.get("/tmp/report"));
+        assertEquals("/repo/pitest.jar," + workspace.resolve("lib/module.jar") + ",/repo/junit.jar,"
+                        + workspace.resolve("target/classes") + "," + workspace.resolve("target/test-classes"),
+                arguments.get(arguments.indexOf("--classPath") + 1));
+    }
+}
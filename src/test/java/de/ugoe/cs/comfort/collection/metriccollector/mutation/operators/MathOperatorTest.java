@@ -16,10 +16,14 @@
 
 package de.ugoe.cs.comfort.collection.metriccollector.mutation.operators;
 
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+
 import de.ugoe.cs.comfort.collection.metriccollector.mutation.MutationOperatorBaseTest;
 import de.ugoe.cs.comfort.exception.MutationOperatorNotFittingException;
 import java.io.File;
 import java.io.IOException;
+import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.util.ArrayList;
@@ -51,6 +55,19 @@ public class MathOperatorTest extends MutationOperatorBaseTest {
         assertNewLineOnLineNumber(clazz, "for(int j=0; j<number+1; j--) {", 3);
     }
 
+    @Test
+    public void plusInLoopInMemoryTest() throws IOException, MutationOperatorNotFittingException {
+        List<String> lines = Files.readAllLines(clazz);
+        MathOperator operator = new MathOperator();
+        operator.initialize(lines, 3);
+        operator.changeFile();
+        assertEquals("for(int j=0; j<number+1; j--) {", operator.getLines().get(2).trim());
+
+        // Neither the given lines nor the file are changed
+        assertEquals(lines, Files.readAllLines(clazz));
+        assertNotEquals(lines, operator.getLines());
+    }
+
     @Test
     public void assignmentTest() throws IOException, MutationOperatorNotFittingException {
         List<String> expectedValues = new ArrayList<String>() {{
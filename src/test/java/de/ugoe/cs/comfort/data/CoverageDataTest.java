@@ -0,0 +1,192 @@
+/*
+ * Copyright (C) 2017 University of Goettingen, Germany
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.ugoe.cs.comfort.data;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import de.ugoe.cs.comfort.data.models.IUnit;
+import de.ugoe.cs.comfort.data.models.JavaClass;
+import de.ugoe.cs.comfort.data.models.JavaMethod;
+import de.ugoe.cs.comfort.data.models.PythonMethod;
+import de.ugoe.cs.comfort.data.models.PythonModule;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import org.junit.Test;
+
+/**
+ * @author Fabian Trautsch
+ */
+public class CoverageDataTest {
+    private static final int THREADS = 8;
+    private static final int TESTS_PER_THREAD = 500;
+    private static final int TEST_CLASSES = 20;
+    private static final int UNITS = 1000;
+    private static final int UNITS_PER_TEST = 250;
+
+    @Test
+    public void addIsThreadSafeTest() throws InterruptedException {
+        List<IUnit> units = new ArrayList<>();
+        for(int i = 0; i < UNITS; i++) {
+            units.add(new JavaMethod("org.foo.Module" + (i % 50), "method" + i, new ArrayList<>(),
+                    Paths.get("src/main/java/org/foo/Module" + (i % 50) + ".java")));
+        }
+
+        // Each thread ingests its own tests, where the tests of a test class are spread over all threads
+        CoverageData coverageData = new CoverageData();
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch latch = new CountDownLatch(THREADS);
+        for(int t = 0; t < THREADS; t++) {
+            final int thread = t;
+            executor.submit(() -> {
+                try {
+                    for(int i = 0; i < TESTS_PER_THREAD; i++) {
+                        int test = thread * TESTS_PER_THREAD + i;
+                        coverageData.add(createTest(test), getTestedUnits(units, test));
+                    }
+                } finally {
+                    latch.countDown();
+                }
+            });
+        }
+        assertTrue("Ingestion did not finish!", latch.await(2, TimeUnit.MINUTES));
+        executor.shutdown();
+
+        // Method level: each test with exactly its tested units
+        assertEquals("Not all tests are stored!", THREADS * TESTS_PER_THREAD,
+                coverageData.getCoverageDataForAll().size());
+        for(int test = 0; test < THREADS * TESTS_PER_THREAD; test++) {
+            assertEquals("Tested units are not correct!", getTestedUnits(units, test),
+                    coverageData.getCoverageDataForAll().get(createTest(test)));
+        }
+
+        // Class level: each test class with the union of the tested units of its tests
+        assertEquals("Not all test classes are stored!", TEST_CLASSES,
+                coverageData.getCoverageDataForAllClassLevel().size());
+        for(int testClass = 0; testClass < TEST_CLASSES; testClass++) {
+            Set<IUnit> expectedUnits = new HashSet<>();
+            for(int test = testClass; test < THREADS * TESTS_PER_THREAD; test += TEST_CLASSES) {
+                expectedUnits.addAll(getTestedUnits(units, test));
+            }
+            IUnit testClassUnit = new JavaClass("org.foo.Module" + testClass + "Test",
+                    Paths.get("src/test/java/org/foo/Module" + testClass + "Test.java"));
+            assertEquals("Tested units of test class are not correct!", expectedUnits,
+                    coverageData.getCoverageDataForAllClassLevel().get(testClassUnit));
+        }
+    }
+
+    @Test
+    public void addWithoutTestedUnitsTest() {
+        CoverageData coverageData = new CoverageData();
+        IUnit test = createTest(0);
+        coverageData.add(test, null);
+
+        assertEquals("Tested units are not empty!", new HashSet<>(), coverageData.getCoverageDataForAll().get(test));
+        assertEquals("Tested units are not empty!", new HashSet<>(), coverageData.getCoverageData().get(test));
+    }
+
+    @Test
+    public void viewsAreCachedUntilAddTest() {
+        CoverageData coverageData = new CoverageData();
+        IUnit unit = new JavaMethod("org.foo.Module1", "sum", new ArrayList<>(),
+                Paths.get("src/main/java/org/foo/Module1.java"));
+        Set<IUnit> testedUnits = new HashSet<>();
+        testedUnits.add(unit);
+        coverageData.add(createTest(0), testedUnits);
+
+        Map<IUnit, Set<IUnit>> view = coverageData.getCoverageData();
+        Map<IUnit, Set<IUnit>> classLevelView = coverageData.getCoverageDataClassLevel();
+        assertSame("View is not cached!", view, coverageData.getCoverageData());
+        assertSame("View is not cached!", classLevelView, coverageData.getCoverageDataClassLevel());
+        assertEquals("Tested units are not correct!", testedUnits, view.get(createTest(0)));
+
+        coverageData.add(createTest(1), testedUnits);
+        assertNotSame("View is not invalidated!", view, coverageData.getCoverageData());
+        assertEquals("Not all tests are in the view!", 2, coverageData.getCoverageData().size());
+        assertEquals("Tested units are not correct!", testedUnits, coverageData.getCoverageData().get(createTest(1)));
+    }
+
+    @Test
+    public void addMergesNonConsecutiveSessionsOfTheSameTestTest() throws InterruptedException {
+        IUnit sum = new JavaMethod("org.foo.Module1", "sum", new ArrayList<>(),
+                Paths.get("src/main/java/org/foo/Module1.java"));
+        IUnit sub = new JavaMethod("org.foo.Module1", "sub", new ArrayList<>(),
+                Paths.get("src/main/java/org/foo/Module1.java"));
+        Set<IUnit> firstSession = new HashSet<>();
+        firstSession.add(sum);
+        Set<IUnit> secondSession = new HashSet<>();
+        secondSession.add(sub);
+
+        // The sessions of test 0 are separated by test 1 (e.g., after a rerun) and added by different threads
+        CoverageData coverageData = new CoverageData();
+        Thread firstConsumer = new Thread(() -> coverageData.add(createTest(0), firstSession));
+        firstConsumer.start();
+        firstConsumer.join();
+        coverageData.add(createTest(1), secondSession);
+        Thread secondConsumer = new Thread(() -> coverageData.add(createTest(0), secondSession));
+        secondConsumer.start();
+        secondConsumer.join();
+
+        Set<IUnit> expectedUnits = new HashSet<>();
+        expectedUnits.add(sum);
+        expectedUnits.add(sub);
+        assertEquals("Sessions are not merged!", expectedUnits, coverageData.getCoverageData().get(createTest(0)));
+        assertEquals("Method and class level are not consistent!", expectedUnits,
+                coverageData.getCoverageDataClassLevel().get(createTest(0).toClassLevelUnit()));
+        assertEquals("Other test is changed!", secondSession, coverageData.getCoverageData().get(createTest(1)));
+    }
+
+    @Test
+    public void toClassLevelUnitTest() {
+        IUnit javaMethod = new JavaMethod("org.foo.Module1Test", "testSum", new ArrayList<>(),
+                Paths.get("src/test/java/org/foo/Module1Test.java"));
+        assertEquals("Class level unit is not correct!", new JavaClass("org.foo.Module1Test",
+                Paths.get("src/test/java/org/foo/Module1Test.java")), javaMethod.toClassLevelUnit());
+
+        IUnit pythonMethod = new PythonMethod("tests", "test_module1", "Module1Test", "test_sum",
+                Paths.get("tests/test_module1.py"));
+        assertEquals("Class level unit is not correct!", new PythonModule("tests.test_module1",
+                Paths.get("tests/test_module1.py")), pythonMethod.toClassLevelUnit());
+
+        IUnit javaClass = new JavaClass("org.foo.Module1Test", Paths.get("src/test/java/org/foo/Module1Test.java"));
+        assertSame("Class level unit is not correct!", javaClass, javaClass.toClassLevelUnit());
+    }
+
+    private IUnit createTest(int test) {
+        int testClass = test % TEST_CLASSES;
+        return new JavaMethod("org.foo.Module" + testClass + "Test", "test" + test, new ArrayList<>(),
+                Paths.get("src/test/java/org/foo/Module" + testClass + "Test.java"));
+    }
+
+    private Set<IUnit> getTestedUnits(List<IUnit> units, int test) {
+        Set<IUnit> testedUnits = new HashSet<>();
+        for(int i = 0; i < UNITS_PER_TEST; i++) {
+            testedUnits.add(units.get((test * 7 + i) % UNITS));
+        }
+        return testedUnits;
+    }
+}
@@ -0,0 +1,120 @@
+/*
+ * Copyright (C) 2017 University of Goettingen, Germany
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.ugoe.cs.comfort.data;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+
+import de.ugoe.cs.comfort.data.models.IUnit;
+import de.ugoe.cs.comfort.data.models.JavaMethod;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.HashSet;
+import java.util.Set;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * @author Fabian Trautsch
+ */
+public class UnitDictionaryTest {
+    private UnitDictionary unitDictionary;
+    private int module1Sum;
+    private int module1Init;
+    private int module2Sum;
+    private int module1SumTest;
+
+    @Before
+    public void setUpDictionary() {
+        unitDictionary = new UnitDictionary();
+        module1Sum = unitDictionary.intern(createUnit("org.foo.Module1", "sum", "src/main/java/org/foo/Module1.java"));
+        module1Init = unitDictionary.intern(createUnit("org.foo.Module1", "<init>",
+                "src/main/java/org/foo/Module1.java"));
+        module2Sum = unitDictionary.intern(createUnit("org.bar.Module2", "sum", "src/main/java/org/bar/Module2.java"));
+        module1SumTest = unitDictionary.intern(createUnit("org.foo.Module1Test", "testSum",
+                "src/test/java/org/foo/Module1Test.java"));
+    }
+
+    @Test
+    public void internTest() {
+        assertEquals("Unit is not interned!", module1Sum,
+                unitDictionary.intern(createUnit("org.foo.Module1", "sum", "src/main/java/org/foo/Module1.java")));
+        assertEquals("Size is not correct!", 4, unitDictionary.size());
+        assertEquals("Unit is not correct!", createUnit("org.foo.Module1", "sum", "src/main/java/org/foo/Module1.java"),
+                unitDictionary.getUnit(module1Sum));
+    }
+
+    @Test
+    public void internWithDifferentCoveredLinesTest() {
+        IUnit unit = new JavaMethod("org.foo.Module1", "sum", new ArrayList<>(),
+                Paths.get("src/main/java/org/foo/Module1.java"), 3);
+        int id = unitDictionary.intern(unit);
+        assertNotEquals("Unit with different covered lines has the same id!", module1Sum, id);
+        assertEquals("Covered lines are not correct!", Integer.valueOf(3), unitDictionary.getUnit(id).getCoveredLines());
+
+        BitSet unitIds = new BitSet();
+        unitIds.set(module1Sum);
+        unitIds.set(id);
+        Set<IUnit> expectedUnits = new HashSet<>();
+        expectedUnits.add(unitDictionary.getUnit(module1Sum));
+        assertEquals("Units are not correct!", expectedUnits, unitDictionary.getUnits(unitIds));
+        assertEquals("Classes are not correct!", 1, unitDictionary.getClassIds(unitIds).cardinality());
+    }
+
+    @Test
+    public void getClassAndPackageIdsTest() {
+        BitSet unitIds = new BitSet();
+        unitIds.set(module1Sum);
+        unitIds.set(module1Init);
+        unitIds.set(module2Sum);
+        unitIds.set(module1SumTest);
+
+        assertEquals("Classes are not correct!", 3, unitDictionary.getClassIds(unitIds).cardinality());
+        assertEquals("Packages are not correct!", 2, unitDictionary.getPackageIds(unitIds).cardinality());
+    }
+
+    @Test
+    public void removeTestUnitsTest() {
+        BitSet unitIds = new BitSet();
+        unitIds.set(module1Sum);
+        unitIds.set(module1SumTest);
+        unitDictionary.removeTestUnits(unitIds);
+
+        BitSet expectedIds = new BitSet();
+        expectedIds.set(module1Sum);
+        assertEquals("Test units are not removed!", expectedIds, unitIds);
+    }
+
+    @Test
+    public void removeUnitsOfClassTest() {
+        BitSet unitIds = new BitSet();
+        unitIds.set(module1Sum);
+        unitIds.set(module1Init);
+        unitIds.set(module2Sum);
+        unitDictionary.removeUnitsOfClass(unitIds, "org.foo.Module1");
+        unitDictionary.removeUnitsOfClass(unitIds, "org.unknown.Module");
+
+        BitSet expectedIds = new BitSet();
+        expectedIds.set(module2Sum);
+        assertEquals("Units of class are not removed!", expectedIds, unitIds);
+    }
+
+    private IUnit createUnit(String fqnOfClass, String method, String path) {
+        return new JavaMethod(fqnOfClass, method, new ArrayList<>(), Paths.get(path));
+    }
+}
@@ -17,9 +17,17 @@
 package de.ugoe.cs.comfort.data.graphs;
 
 import de.ugoe.cs.comfort.BaseTest;
+import de.ugoe.cs.comfort.data.models.IUnit;
+import de.ugoe.cs.comfort.data.models.JavaClass;
+import de.ugoe.cs.comfort.data.models.JavaMethod;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.Random;
 import org.junit.Test;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
 
 /**
  * @author Fabian Trautsch
@@ -39,4 +47,159 @@ public class CallGraphTest extends BaseTest {
         expectedDependencyGraph.putEdge(address, object);
         assertEquals("Not the correct graph representation!", expectedDependencyGraph, callGraph.getDependencyGraphRepresentation());
     }
+
+    private CallGraph createCallGraph() {
+        CallGraph callGraph = new CallGraph();
+        callGraph.addEdge(new CallEdge(CallType.INVOKE_SPECIAL, 0, addressTestInit, addressGetStreet));
+        callGraph.addEdge(new CallEdge(CallType.INVOKE_VIRTUAL, 1, addressTestInit, addressGetStreet));
+        callGraph.addEdge(new CallEdge(CallType.INVOKE_SPECIAL, 0, addressGetStreet, personInit));
+        callGraph.addEdge(new CallEdge(CallType.INVOKE_SPECIAL, 0, personInit, personInit));
+        callGraph.addEdge(new CallEdge(CallType.INVOKE_SPECIAL, 0, addressInit, javaLangObjectInit));
+        callGraph.addNode(telephoneBookInit);
+        return callGraph;
+    }
+
+    @Test
+    public void freezeTest() {
+        CallGraph callGraph = createCallGraph();
+        CallGraph frozenGraph = createCallGraph().freeze();
+
+        assertTrue("Graph is not frozen!", frozenGraph.isFrozen());
+        assertEquals("Frozen graph is not equal!", callGraph, frozenGraph);
+        assertEquals("Hash code of frozen graph is not equal!", callGraph.hashCode(), frozenGraph.hashCode());
+        assertEquals("Order of nodes changed!", new ArrayList<>(callGraph.nodes()), new ArrayList<>(frozenGraph.nodes()));
+        assertEquals("Order of edges changed!", new ArrayList<>(callGraph.edges()), new ArrayList<>(frozenGraph.edges()));
+
+        for(IUnit node: callGraph.nodes()) {
+            assertEquals(callGraph.successors(node), frozenGraph.successors(node));
+            assertEquals(callGraph.predecessors(node), frozenGraph.predecessors(node));
+            assertEquals(callGraph.adjacentNodes(node), frozenGraph.adjacentNodes(node));
+            assertEquals(new HashSet<>(callGraph.outEdges(node)), frozenGraph.outEdges(node));
+            assertEquals(new HashSet<>(callGraph.inEdges(node)), frozenGraph.inEdges(node));
+            assertEquals(new HashSet<>(callGraph.incidentEdges(node)), frozenGraph.incidentEdges(node));
+            assertEquals(callGraph.degree(node), frozenGraph.degree(node));
+        }
+        for(CallEdge edge: callGraph.edges()) {
+            assertEquals(callGraph.incidentNodes(edge), frozenGraph.incidentNodes(edge));
+            assertTrue(frozenGraph.edges().contains(edge));
+        }
+        assertEquals(2, frozenGraph.edgesConnecting(addressTestInit, addressGetStreet).size());
+        assertFalse(frozenGraph.edges().contains(
+                new CallEdge(CallType.INVOKE_STATIC, 0, addressTestInit, addressGetStreet)));
+        assertEquals(callGraph.getTestNodes(), frozenGraph.getTestNodes());
+        assertEquals(callGraph.getDependencyGraphRepresentation(), frozenGraph.getDependencyGraphRepresentation());
+    }
+
+    @Test(expected = UnsupportedOperationException.class)
+    public void frozenGraphCanNotBeModifiedTest() {
+        CallGraph frozenGraph = createCallGraph().freeze();
+        frozenGraph.addEdge(new CallEdge(CallType.INVOKE_SPECIAL, 0, addressInit, personInit));
+    }
+
+    @Test
+    public void copyOfFrozenGraphCanBeModifiedTest() {
+        CallGraph copy = createCallGraph().freeze().getCopyOfGraph();
+        assertFalse("Copy is frozen!", copy.isFrozen());
+        assertTrue(copy.addEdge(new CallEdge(CallType.INVOKE_SPECIAL, 0, addressInit, personInit)));
+    }
+
+    @Test
+    public void filterChainTest() {
+        CallGraph callGraph = createCallGraph();
+        CallGraph filteredGraph = callGraph
+                .filter(node -> !node.equals(javaLangObjectInit), edge -> true)
+                .filter(node -> true, edge -> edge.getCallType() == CallType.INVOKE_SPECIAL);
+
+        CallGraph expectedCallGraph = new CallGraph();
+        expectedCallGraph.addEdge(new CallEdge(CallType.INVOKE_SPECIAL, 0, addressTestInit, addressGetStreet));
+        expectedCallGraph.addEdge(new CallEdge(CallType.INVOKE_SPECIAL, 0, addressGetStreet, personInit));
+        expectedCallGraph.addEdge(new CallEdge(CallType.INVOKE_SPECIAL, 0, personInit, personInit));
+        assertEquals("Graphs not equal!", expectedCallGraph, filteredGraph);
+
+        for(IUnit node: expectedCallGraph.nodes()) {
+            assertEquals(expectedCallGraph.successors(node), filteredGraph.successors(node));
+            assertEquals(expectedCallGraph.predecessors(node), filteredGraph.predecessors(node));
+            assertEquals(new HashSet<>(expectedCallGraph.incidentEdges(node)), filteredGraph.incidentEdges(node));
+            assertEquals(expectedCallGraph.degree(node), filteredGraph.degree(node));
+        }
+        assertFalse(filteredGraph.nodes().contains(addressInit));
+        assertFalse(filteredGraph.nodes().contains(telephoneBookInit));
+        assertFalse(filteredGraph.edges().contains(
+                new CallEdge(CallType.INVOKE_VIRTUAL, 1, addressTestInit, addressGetStreet)));
+        assertEquals("Original graph was changed!", createCallGraph(), callGraph);
+    }
+
+    @Test
+    public void materializeFilteredGraphTest() {
+        CallGraph filteredGraph = createCallGraph().filter(node -> !node.equals(personInit), edge -> true);
+        CallGraph filteredFrozenGraph = createCallGraph().freeze()
+                .filter(node -> !node.equals(personInit), edge -> true);
+        CallGraph expectedCallGraph = filteredGraph.getCopyOfGraph();
+
+        filteredGraph.materialize();
+        filteredFrozenGraph.materialize();
+        assertFalse("Materialized graph is frozen!", filteredGraph.isFrozen());
+        assertTrue("Materialized graph of a frozen graph is not frozen!", filteredFrozenGraph.isFrozen());
+        assertEquals(expectedCallGraph, filteredGraph);
+        assertEquals(expectedCallGraph, filteredFrozenGraph);
+    }
+
+    @Test
+    public void modifyFilteredGraphTest() {
+        CallGraph callGraph = createCallGraph();
+        CallGraph filteredGraph = callGraph.filter(node -> true, edge -> true);
+        CallGraph expectedFilteredGraph = filteredGraph.getCopyOfGraph();
+
+        // Modifying the original graph does not change the view
+        callGraph.addEdge(new CallEdge(CallType.INVOKE_SPECIAL, 0, addressInit, personInit));
+        assertEquals(expectedFilteredGraph, filteredGraph);
+
+        // Modifying the view does not change the original graph
+        CallGraph expectedCallGraph = callGraph.getCopyOfGraph();
+        expectedCallGraph.addNode(telephoneBookInit);
+        filteredGraph.removeNode(personInit);
+        assertFalse(filteredGraph.nodes().contains(personInit));
+        assertEquals(expectedCallGraph, callGraph);
+    }
+
+    @Test
+    public void dependencyGraphRepresentationIsCachedTest() {
+        CallGraph callGraph = createCallGraph();
+        DependencyGraph dependencyGraph = callGraph.getDependencyGraphRepresentation();
+
+        DependencyGraph expectedDependencyGraph = new DependencyGraph();
+        expectedDependencyGraph.putEdge(addressTest, address);
+        expectedDependencyGraph.putEdge(address, person);
+        expectedDependencyGraph.putEdge(person, person);
+        expectedDependencyGraph.putEdge(address, object);
+        assertEquals(expectedDependencyGraph, dependencyGraph);
+
+        // Modifying the returned graph does not change the cached graph
+        dependencyGraph.removeNode(person);
+        assertEquals(expectedDependencyGraph, callGraph.getDependencyGraphRepresentation());
+
+        // Modifying the call graph invalidates the cached graph
+        callGraph.addEdge(new CallEdge(CallType.INVOKE_SPECIAL, 0, telephoneBookInit, personInit));
+        expectedDependencyGraph.putEdge(telephonebook, person);
+        assertEquals(expectedDependencyGraph, callGraph.getDependencyGraphRepresentation());
+    }
+
+    @Test
+    public void dependencyGraphRepresentationOfLargeGraphTest() {
+        CallGraph callGraph = new CallGraph();
+        DependencyGraph expectedDependencyGraph = new DependencyGraph();
+        Random random = new Random(42);
+        for(int i = 0; i < 50000; i++) {
+            int caller = random.nextInt(2000);
+            int callee = random.nextInt(2000);
+            callGraph.addEdge(new CallEdge(CallType.INVOKE_VIRTUAL, i,
+                    new JavaMethod("org.foo", "Class" + caller / 10, "m" + caller, new ArrayList<>(), null),
+                    new JavaMethod("org.foo", "Class" + callee / 10, "m" + callee, new ArrayList<>(), null)));
+            expectedDependencyGraph.putEdge(new JavaClass("org.foo.Class" + caller / 10, null),
+                    new JavaClass("org.foo.Class" + callee / 10, null));
+        }
+
+        assertEquals(expectedDependencyGraph, callGraph.getDependencyGraphRepresentation());
+        assertEquals(expectedDependencyGraph, callGraph.freeze().getDependencyGraphRepresentation());
+    }
 }
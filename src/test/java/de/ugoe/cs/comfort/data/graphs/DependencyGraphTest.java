@@ -0,0 +1,107 @@
+/*
+ * Copyright (C) 2017 University of Goettingen, Germany
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package de.ugoe.cs.comfort.data.graphs;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import de.ugoe.cs.comfort.BaseTest;
+import de.ugoe.cs.comfort.data.models.IUnit;
+import org.junit.Test;
+
+/**
+ * @author Fabian Trautsch
+ */
+public class DependencyGraphTest extends BaseTest {
+
+    private DependencyGraph createDependencyGraph() {
+        DependencyGraph dependencyGraph = new DependencyGraph();
+        dependencyGraph.putEdge(addressTest, address);
+        dependencyGraph.putEdge(addressTest, jassert);
+        dependencyGraph.putEdge(address, person);
+        dependencyGraph.putEdge(person, person);
+        dependencyGraph.putEdge(person, object);
+        dependencyGraph.putEdge(main, object);
+        dependencyGraph.addNode(telephonebook);
+        return dependencyGraph;
+    }
+
+    @Test
+    public void filterChainTest() {
+        DependencyGraph dependencyGraph = createDependencyGraph();
+        DependencyGraph filteredGraph = dependencyGraph
+                .filter(node -> node.getFilePath() != null, edge -> true)
+                .filter(node -> true, edge -> !edge.source().equals(address));
+
+        DependencyGraph expectedDependencyGraph = new DependencyGraph();
+        expectedDependencyGraph.putEdge(addressTest, address);
+        expectedDependencyGraph.putEdge(person, person);
+        assertEquals("Graphs not equal!", expectedDependencyGraph, filteredGraph);
+
+        for(IUnit node: expectedDependencyGraph.nodes()) {
+            assertEquals(expectedDependencyGraph.successors(node), filteredGraph.successors(node));
+            assertEquals(expectedDependencyGraph.predecessors(node), filteredGraph.predecessors(node));
+            assertEquals(expectedDependencyGraph.degree(node), filteredGraph.degree(node));
+        }
+        assertTrue(filteredGraph.hasEdgeConnecting(person, person));
+        assertFalse(filteredGraph.hasEdgeConnecting(address, person));
+        assertFalse(filteredGraph.nodes().contains(main));
+        assertEquals("Original graph was changed!", createDependencyGraph(), dependencyGraph);
+    }
+
+    @Test
+    public void modifyFilteredGraphTest() {
+        DependencyGraph dependencyGraph = createDependencyGraph();
+        DependencyGraph filteredGraph = dependencyGraph.filter(node -> true, edge -> true);
+        DependencyGraph expectedFilteredGraph = filteredGraph.getCopyOfGraph();
+
+        // Modifying the original graph does not change the view
+        dependencyGraph.putEdge(main, person);
+        assertEquals(expectedFilteredGraph, filteredGraph);
+
+        // Modifying the view does not change the original graph
+        DependencyGraph expectedDependencyGraph = dependencyGraph.getCopyOfGraph();
+        expectedDependencyGraph.addNode(telephonebook);
+        filteredGraph.removeNode(person);
+        filteredGraph.materialize();
+        assertFalse(filteredGraph.nodes().contains(person));
+        assertEquals(expectedDependencyGraph, dependencyGraph);
+    }
+
+    @Test
+    public void contractNodesTest() {
+        DependencyGraph dependencyGraph = createDependencyGraph();
+
+        // Merge person into address and drop jassert
+        DependencyGraph contractedGraph = dependencyGraph.contractNodes(node -> {
+            if(node.equals(person)) {
+                return address;
+            }
+            return node.equals(jassert) ? null : node;
+        });
+
+        DependencyGraph expectedDependencyGraph = new DependencyGraph();
+        expectedDependencyGraph.putEdge(addressTest, address);
+        expectedDependencyGraph.putEdge(address, address);
+        expectedDependencyGraph.putEdge(address, object);
+        expectedDependencyGraph.putEdge(main, object);
+        assertEquals("Graphs not equal!", expectedDependencyGraph, contractedGraph);
+        assertEquals("Original graph was changed!", createDependencyGraph(), dependencyGraph);
+    }
+}
@@ -0,0 +1,115 @@
+/*
+ * Copyright (C) 2017 University of Goettingen, Germany
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package de.ugoe.cs.comfort.data.graphs;
+
+import static org.junit.Assert.assertEquals;
+
+import de.ugoe.cs.comfort.BaseTest;
+import de.ugoe.cs.comfort.data.models.IUnit;
+import de.ugoe.cs.comfort.data.models.JavaClass;
+import java.nio.file.Paths;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.Random;
+import java.util.Set;
+import org.junit.Test;
+
+/**
+ * @author Fabian Trautsch
+ */
+public class ReachabilityIndexTest extends BaseTest {
+
+    private static JavaClass node(int i) {
+        return new JavaClass("org.foo", "Class" + i, Paths.get("src/main/java/org/foo/Class" + i + ".java"));
+    }
+
+    @Test
+    public void getReachableNodesWithCycleTest() {
+        DependencyGraph graph = new DependencyGraph();
+        graph.putEdge(addressTest, address);
+        graph.putEdge(address, person);
+        graph.putEdge(person, address);
+        graph.putEdge(person, object);
+        graph.putEdge(personTest, person);
+
+        ReachabilityIndex index = ReachabilityIndex.create(graph);
+        assertEquals(new HashSet<>(Arrays.asList(addressTest, address, person, object)),
+                index.getReachableNodes(addressTest));
+        assertEquals(new HashSet<>(Arrays.asList(address, person, object)), index.getReachableNodes(person));
+        assertEquals(Collections.singleton(object), index.getReachableNodes(object));
+        assertEquals(4, index.getNumberOfComponents());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void getReachableNodesOfNodeThatWasNotRequestedTest() {
+        DependencyGraph graph = new DependencyGraph();
+        graph.putEdge(addressTest, address);
+        graph.putEdge(personTest, person);
+
+        ReachabilityIndex index = ReachabilityIndex.create(graph, Collections.singleton(addressTest));
+        assertEquals(new HashSet<>(Arrays.asList(addressTest, address)), index.getReachableNodes(addressTest));
+        index.getReachableNodes(personTest);
+    }
+
+    @Test
+    public void getReachableNodesOfDeepGraphTest() {
+        DependencyGraph graph = new DependencyGraph();
+        int depth = 100000;
+        for(int i = 0; i < depth; i++) {
+            graph.putEdge(node(i), node(i + 1));
+        }
+        graph.putEdge(node(depth), node(0));
+
+        ReachabilityIndex index = ReachabilityIndex.create(graph, Collections.singleton(node(0)));
+        assertEquals(depth + 1, index.getReachableNodes(node(0)).size());
+        assertEquals(1, index.getNumberOfComponents());
+    }
+
+    @Test
+    public void getReachableNodesOfRandomGraphTest() {
+        Random random = new Random(42);
+        DependencyGraph graph = new DependencyGraph();
+        for(int i = 0; i < 2000; i++) {
+            graph.putEdge(node(random.nextInt(500)), node(random.nextInt(500)));
+        }
+
+        ReachabilityIndex index = ReachabilityIndex.create(graph);
+        for(IUnit node: graph.nodes()) {
+            assertEquals("Reachable nodes of " + node + " are not correct!", traverse(graph, node),
+                    index.getReachableNodes(node));
+        }
+    }
+
+    private static Set<IUnit> traverse(IGraph graph, IUnit start) {
+        Set<IUnit> visitedNodes = new HashSet<>();
+        Deque<IUnit> nodesToVisit = new ArrayDeque<>();
+        visitedNodes.add(start);
+        nodesToVisit.add(start);
+        while(!nodesToVisit.isEmpty()) {
+            for(IUnit successor: graph.successors(nodesToVisit.poll())) {
+                if(visitedNodes.add(successor)) {
+                    nodesToVisit.add(successor);
+                }
+            }
+        }
+        return visitedNodes;
+    }
+}
@@ -0,0 +1,130 @@
+/*
+ * Copyright (C) 2017 University of Goettingen, Germany
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package de.ugoe.cs.comfort.data.graphs;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import de.ugoe.cs.comfort.BaseTest;
+import de.ugoe.cs.comfort.data.models.IUnit;
+import java.util.BitSet;
+import java.util.HashSet;
+import java.util.Set;
+import org.junit.Test;
+
+/**
+ * @author Fabian Trautsch
+ */
+public class TestNodeIndexTest extends BaseTest {
+
+    @Test
+    public void callGraphTestNodeIndexTest() {
+        CallGraph callGraph = new CallGraph();
+        callGraph.addEdge(new CallEdge(CallType.INVOKE_SPECIAL, 0, addressTestGetAddressTest, addressGetStreet));
+        callGraph.addEdge(new CallEdge(CallType.INVOKE_SPECIAL, 0, addressTestInit, addressInit));
+
+        Set<IUnit> testNodes = callGraph.getTestNodes();
+        Set<IUnit> productionNodes = callGraph.getProductionNodes();
+        assertEquals(asSet(addressTestGetAddressTest), testNodes);
+        assertEquals(asSet(addressGetStreet, addressInit), productionNodes);
+        assertFalse(callGraph.isTestNode(addressTestInit));
+
+        // The index is updated when the graph is changed
+        callGraph.addEdge(new CallEdge(CallType.INVOKE_SPECIAL, 0, addressTestGetAddressTest2, personInit));
+        callGraph.addNode(telephoneBookInit);
+        callGraph.removeNode(addressInit);
+        assertEquals(asSet(addressTestGetAddressTest, addressTestGetAddressTest2), testNodes);
+        assertEquals(asSet(addressGetStreet, personInit, telephoneBookInit), productionNodes);
+        assertTrue(callGraph.isTestNode(addressTestGetAddressTest2));
+        assertFalse(callGraph.isTestNode(addressInit));
+        assertEquals(callGraph.getTestNodeIndex(), callGraph.getTestNodeIndex());
+    }
+
+    @Test
+    public void dependencyGraphTestNodeIndexTest() {
+        DependencyGraph dependencyGraph = new DependencyGraph();
+        dependencyGraph.putEdge(addressTest, address);
+        dependencyGraph.putEdge(address, person);
+
+        Set<IUnit> testNodes = dependencyGraph.getTestNodes();
+        Set<IUnit> productionNodes = dependencyGraph.getProductionNodes();
+        assertEquals(asSet(addressTest), testNodes);
+        assertEquals(asSet(address, person), productionNodes);
+
+        dependencyGraph.removeNode(addressTest);
+        dependencyGraph.putEdge(personTest, person);
+        dependencyGraph.addNode(telephonebook);
+        assertEquals(asSet(personTest), testNodes);
+        assertEquals(asSet(address, person, telephonebook), productionNodes);
+        assertTrue(dependencyGraph.isTestNode(personTest));
+        assertFalse(dependencyGraph.isTestNode(addressTest));
+    }
+
+    @Test
+    public void nodeIdsTest() {
+        DependencyGraph dependencyGraph = new DependencyGraph();
+        dependencyGraph.putEdge(addressTest, address);
+        dependencyGraph.putEdge(address, person);
+        TestNodeIndex index = dependencyGraph.getTestNodeIndex();
+
+        dependencyGraph.removeNode(address);
+        dependencyGraph.putEdge(personTest, person);
+        assertEquals(4, index.getNumberOfIds());
+        assertEquals(-1, index.getNodeId(address));
+        assertEquals(-1, index.getNodeId(main));
+
+        BitSet testNodeIds = new BitSet();
+        testNodeIds.set(index.getNodeId(addressTest));
+        testNodeIds.set(index.getNodeId(personTest));
+        assertEquals(testNodeIds, index.getTestNodeIds());
+
+        BitSet productionNodeIds = index.getProductionNodeIds();
+        assertEquals(1, productionNodeIds.cardinality());
+        assertEquals(person, index.getNode(productionNodeIds.nextSetBit(0)));
+        for(int id = 0; id < index.getNumberOfIds(); id++) {
+            IUnit node = index.getNode(id);
+            if(node == null) {
+                assertFalse(testNodeIds.get(id) || productionNodeIds.get(id));
+            } else {
+                assertEquals(id, index.getNodeId(node));
+            }
+        }
+
+        // The returned bitsets are copies
+        productionNodeIds.clear();
+        assertTrue(index.isProductionNode(person));
+        assertNull(index.getNode(index.getNumberOfIds() - 3));
+    }
+
+    @Test(expected = UnsupportedOperationException.class)
+    public void testNodesAreUnmodifiableTest() {
+        DependencyGraph dependencyGraph = new DependencyGraph();
+        dependencyGraph.putEdge(addressTest, address);
+        dependencyGraph.getTestNodes().add(personTest);
+    }
+
+    private static Set<IUnit> asSet(IUnit... units) {
+        Set<IUnit> set = new HashSet<>();
+        for(IUnit unit: units) {
+            set.add(unit);
+        }
+        return set;
+    }
+}
@@ -0,0 +1,150 @@
+/*
+ * Copyright (C) 2017 University of Goettingen, Germany
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package de.ugoe.cs.comfort.data.models;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+import de.ugoe.cs.comfort.BaseTest;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import org.junit.Test;
+
+/**
+ * @author Fabian Trautsch
+ */
+public class UnitInternerTest extends BaseTest {
+
+    private static JavaMethod method(String name) {
+        return method(name, null);
+    }
+
+    private static JavaMethod method(String name, Integer coveredLines) {
+        return new JavaMethod("org.foo", "Person", name, Arrays.asList("int", "java.lang.String"),
+                Paths.get("src/main/java/org/foo/Person.java"), coveredLines);
+    }
+
+    @Test
+    public void internReturnsCanonicalInstanceTest() {
+        UnitInterner interner = new UnitInterner();
+        JavaMethod first = method("getName");
+        JavaMethod second = method("getName");
+
+        assertSame(first, interner.intern(first));
+        assertSame(first, interner.intern(second));
+        assertNotSame(first, interner.intern(method("setName")));
+        assertEquals(2, interner.size());
+    }
+
+    @Test
+    public void internDistinguishesTypesTest() {
+        UnitInterner interner = new UnitInterner();
+        JavaClass javaClass = new JavaClass("org.foo", "Person", Paths.get("src/main/java/org/foo/Person.java"));
+        JavaMethod javaMethod = new JavaMethod("org.foo", "Person", "getName",
+                Paths.get("src/main/java/org/foo/Person.java"));
+
+        assertSame(javaClass, interner.intern(javaClass));
+        assertSame(javaMethod, interner.intern(javaMethod));
+        assertSame(javaClass, interner.intern(new JavaClass("org.foo.Person",
+                Paths.get("src/main/java/org/foo/Person.java"))));
+        assertEquals(2, interner.size());
+    }
+
+    @Test
+    public void internDistinguishesCoveredLinesTest() {
+        UnitInterner interner = new UnitInterner();
+        JavaMethod coveredByFirstTest = method("getName", 3);
+        JavaMethod coveredBySecondTest = method("getName", 5);
+        JavaMethod alsoCoveredBySecondTest = method("getName", 5);
+
+        assertSame(coveredByFirstTest, interner.intern(coveredByFirstTest));
+        assertSame(coveredBySecondTest, interner.intern(coveredBySecondTest));
+        assertSame(coveredBySecondTest, interner.intern(alsoCoveredBySecondTest));
+        assertNotSame(coveredByFirstTest, interner.intern(method("getName")));
+        assertEquals(3, interner.size());
+    }
+
+    @Test
+    public void internPythonUnitsTest() {
+        UnitInterner interner = new UnitInterner();
+        PythonMethod pythonMethod = new PythonMethod("tests.data", "demo", "Demo", "bar",
+                Paths.get("tests/data/demo.py"));
+        PythonModule pythonModule = new PythonModule("tests.data", "demo", Paths.get("tests/data/demo.py"));
+
+        assertSame(pythonMethod, interner.intern(pythonMethod));
+        assertSame(pythonMethod, interner.intern(new PythonMethod("tests.data", "demo", "Demo", "bar",
+                Paths.get("tests/data/demo.py"))));
+        assertSame(pythonModule, interner.intern(pythonModule));
+        assertNull(interner.intern(null));
+        assertEquals(2, interner.size());
+    }
+
+    @Test
+    public void internFromSeveralThreadsTest() throws InterruptedException {
+        UnitInterner interner = new UnitInterner();
+        int nThreads = 4;
+        List<List<JavaMethod>> internedPerThread = new ArrayList<>();
+        for(int i = 0; i < nThreads; i++) {
+            internedPerThread.add(new ArrayList<>());
+        }
+
+        ExecutorService executor = Executors.newFixedThreadPool(nThreads);
+        CountDownLatch latch = new CountDownLatch(nThreads);
+        for(int i = 0; i < nThreads; i++) {
+            final List<JavaMethod> interned = internedPerThread.get(i);
+            executor.submit(() -> {
+                try {
+                    for(int j = 0; j < 1000; j++) {
+                        interned.add(interner.intern(method("method" + j)));
+                    }
+                } finally {
+                    latch.countDown();
+                }
+            });
+        }
+        latch.await();
+        executor.shutdown();
+
+        assertEquals(1000, interner.size());
+        for(int j = 0; j < 1000; j++) {
+            for(int i = 1; i < nThreads; i++) {
+                assertSame(internedPerThread.get(0).get(j), internedPerThread.get(i).get(j));
+            }
+        }
+    }
+
+    @Test
+    public void cachedHashCodeAndFQNTest() {
+        JavaMethod javaMethod = method("getName");
+        assertEquals("org.foo.Person.getName", javaMethod.getFQN());
+        assertSame(javaMethod.getFQN(), javaMethod.getFQN());
+        assertEquals(method("getName").hashCode(), javaMethod.hashCode());
+
+        PythonMethod pythonMethod = new PythonMethod("tests.data", "demo", "Demo", "bar",
+                Paths.get("tests/data/demo.py"));
+        assertEquals("tests.data.demo:Demo.bar", pythonMethod.getFQN());
+        assertSame(pythonMethod.getFQN(), pythonMethod.getFQN());
+    }
+}